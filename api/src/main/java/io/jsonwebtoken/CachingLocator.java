@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * A {@link Locator} that caches the results of another {@code Locator}.  Instances are created via
+ * {@link Locators#caching(Locator)}.
+ *
+ * @param <T> the type of object located
+ * @see CachingLocatorBuilder
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface CachingLocator<T> extends Locator<T> {
+
+    /**
+     * Returns the number of lookups that were answered from the cache, including lookups that waited for a
+     * concurrent load of the same cache key to complete.
+     *
+     * @return the number of lookups that were answered from the cache.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups that were not answered from the cache and therefore invoked the underlying
+     * {@code Locator}.
+     *
+     * @return the number of lookups that invoked the underlying {@code Locator}.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of entries currently in the cache, including expired entries that have not yet been
+     * evicted.
+     *
+     * @return the number of entries currently in the cache.
+     */
+    int size();
+
+    /**
+     * Removes all entries from the cache, for example after a known key rotation.
+     */
+    void invalidateAll();
+}
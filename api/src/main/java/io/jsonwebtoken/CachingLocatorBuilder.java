@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import io.jsonwebtoken.lang.Builder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A builder to construct a {@link CachingLocator} that caches the results of another, usually expensive,
+ * {@link Locator} - for example one that looks up keys in a database, key management service or vault.  Example
+ * usage:
+ * <blockquote><pre>
+ * CachingLocator&lt;Key&gt; locator = Locators.caching(vaultKeyLocator)
+ *         .keyedBy("kid", "alg")                  // optional
+ *         .setTimeToLive(10, TimeUnit.MINUTES)    // optional
+ *         .setMaximumSize(1000)                   // optional
+ *         .build();
+ *
+ * JwtParser parser = Jwts.parserBuilder().setKeyLocator(locator).build();</pre></blockquote>
+ *
+ * <p>Results are cached by a projection of the encountered {@link Header}: the type of JWT (unprotected, JWS or
+ * JWE) and the values of the {@link #keyedBy(Collection) selected header parameters}.  The underlying
+ * {@code Locator} must therefore return the same result for all headers with the same projection.</p>
+ *
+ * <p>Concurrent lookups for the same projection are coalesced so that the underlying {@code Locator} is invoked
+ * only once, and all callers receive its result (single-flight loading).  {@code null} results may be cached for a
+ * shorter {@link #setNegativeTimeToLive(long, TimeUnit) negative time to live} so that headers referencing unknown
+ * keys do not repeatedly invoke the underlying {@code Locator}.  Exceptions thrown by the underlying
+ * {@code Locator} are propagated to all waiting callers and are never cached.  A waiting caller that is
+ * interrupted stops waiting, keeps its interrupt status and receives an {@code IllegalStateException}.</p>
+ *
+ * @param <T> the type of object located
+ * @see Locators#caching(Locator)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface CachingLocatorBuilder<T> extends Builder<CachingLocator<T>> {
+
+    /**
+     * Sets the names of the header parameters whose values identify a cache entry, for example {@code kid},
+     * {@code alg}, {@code iss} (if replicated in the header), {@code jku} or {@code x5t#S256}.  Defaults to
+     * {@code kid} and {@code alg}.
+     *
+     * @param headerParamNames the names of the header parameters whose values identify a cache entry
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> keyedBy(String... headerParamNames);
+
+    /**
+     * Sets the names of the header parameters whose values identify a cache entry.  See
+     * {@link #keyedBy(String...)}.
+     *
+     * @param headerParamNames the names of the header parameters whose values identify a cache entry
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> keyedBy(Collection<String> headerParamNames);
+
+    /**
+     * Sets how long a located (non-{@code null}) result is cached.  Defaults to 5 minutes.
+     *
+     * @param duration the time to live duration, must be greater than zero
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> setTimeToLive(long duration, TimeUnit unit);
+
+    /**
+     * Sets how long a {@code null} result is cached.  Defaults to 10 seconds.  A duration of zero disables
+     * negative caching.
+     *
+     * @param duration the negative time to live duration, must be zero or greater
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> setNegativeTimeToLive(long duration, TimeUnit unit);
+
+    /**
+     * Sets the maximum number of cache entries.  Once exceeded, the least recently used entry is evicted.
+     * Defaults to 1000.
+     *
+     * @param maximumSize the maximum number of cache entries, must be greater than zero
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> setMaximumSize(int maximumSize);
+
+    /**
+     * Sets the clock used to determine cache entry expiration.  If not set, the system clock is used.
+     *
+     * @param clock the clock used to determine cache entry expiration
+     * @return the builder for method chaining.
+     */
+    CachingLocatorBuilder<T> setClock(Clock clock);
+}
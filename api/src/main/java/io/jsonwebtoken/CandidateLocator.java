@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import java.util.List;
+
+/**
+ * A {@link Locator} that may return more than one candidate for a given header, for example when JWTs are issued
+ * without a {@link JwsHeader#getKeyId() kid} and any one of several keys might have been used to produce them.
+ *
+ * <p>When a {@link JwtParser} is configured with a {@code CandidateLocator} as its
+ * {@link JwtParserBuilder#setKeyLocator(Locator) key locator}, it decodes and deserializes the JWT only once, and then
+ * tries each candidate in turn at the signature verification or decryption step.  The first candidate that
+ * succeeds is reported via {@link #onSuccess(Header, Object)} so the locator may adapt the order of future
+ * candidates.  If no candidate succeeds, the parser throws the exception encountered for the most relevant
+ * candidate.</p>
+ *
+ * @param <T> the type of object located
+ * @see Locators#adaptive(java.util.Collection)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface CandidateLocator<T> extends Locator<T> {
+
+    /**
+     * Returns the candidates that may be used to process a JWT with the specified header, in the order they should
+     * be tried, most likely first.  Implementations should never return {@code null}; an empty list indicates
+     * that no candidates are available.
+     *
+     * @param header the JWT header to inspect
+     * @return the ordered candidates that may be used to process a JWT with the specified header, most likely first.
+     */
+    List<? extends T> locateCandidates(Header<?> header);
+
+    /**
+     * Notifies this locator that the specified candidate, previously returned by
+     * {@link #locateCandidates(Header)}, successfully verified or decrypted a JWT with the specified header.
+     *
+     * @param header    the header of the successfully processed JWT
+     * @param candidate the candidate that was used to successfully process the JWT
+     */
+    void onSuccess(Header<?> header, T candidate);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A set of typed claim definitions that a {@link JwtParser} uses to read JWT claims directly into
+ * {@link SchemaClaims}, validating the type of each schema claim once during parsing.  A schema is created with a
+ * {@link ClaimsSchemaBuilder}, for example:
+ *
+ * <blockquote><pre>
+ * private static final ClaimsSchemaBuilder BUILDER = Jwts.claimsSchema();
+ * static final SchemaClaim&lt;Long&gt; TENANT = BUILDER.addLong("tenant");
+ * static final SchemaClaim&lt;Set&lt;String&gt;&gt; ROLES = BUILDER.addStringSet("roles");
+ * static final ClaimsSchema SCHEMA = BUILDER.build();
+ *
+ * JwtParser parser = Jwts.parserBuilder().claimsSchema(SCHEMA).verifyWith(key).build();
+ * SchemaClaims claims = SCHEMA.from(parser.parseClaimsJws(jws).getPayload());
+ * long tenant = claims.getLong(TENANT);</pre></blockquote>
+ *
+ * <p>Instances are immutable and thread-safe.</p>
+ *
+ * @see JwtParserBuilder#claimsSchema(ClaimsSchema)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface ClaimsSchema {
+
+    /**
+     * Returns the schema's claims, in the order they were added.
+     *
+     * @return the schema's claims, in the order they were added.
+     */
+    Collection<SchemaClaim<?>> getClaims();
+
+    /**
+     * Returns the specified claims as immutable {@link SchemaClaims} of this schema.  If {@code claims} already are
+     * {@code SchemaClaims} of this schema (as is the case for claims parsed by a {@code JwtParser} configured with
+     * this schema), they are returned as-is without copying.  Otherwise, a new {@code SchemaClaims} instance is
+     * populated with, and validates, all of the specified name/value pairs.
+     *
+     * @param claims the claims to return as {@code SchemaClaims} of this schema
+     * @return the specified claims as immutable {@link SchemaClaims} of this schema.
+     * @throws IllegalArgumentException if a schema claim value cannot be converted to the claim's type.
+     */
+    SchemaClaims from(Map<String, ?> claims) throws IllegalArgumentException;
+}
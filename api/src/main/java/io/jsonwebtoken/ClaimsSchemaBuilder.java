@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import io.jsonwebtoken.lang.Builder;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * A {@link Builder} that creates a {@link ClaimsSchema}.  Each {@code add*} method defines a typed claim and returns
+ * its {@link SchemaClaim}, which may be used to read the claim's value from {@link SchemaClaims} once the schema
+ * has been {@link #build() built}.
+ *
+ * <p>A schema claim value is validated when claims are created: a value of an unexpected JSON type (for example,
+ * a string for a {@link #addLong(String) long} claim) results in an {@link IllegalArgumentException}, or a
+ * {@link MalformedJwtException} when parsing a JWT.</p>
+ *
+ * <p>The registered claims ({@code iss}, {@code sub}, {@code aud}, {@code exp}, {@code nbf}, {@code iat} and
+ * {@code jti}) cannot be added to a schema, since their values are already converted once and available via the
+ * respective {@link Claims} getters.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface ClaimsSchemaBuilder extends Builder<ClaimsSchema> {
+
+    /**
+     * Adds a claim with a JSON string value.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<String> addString(String name) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Adds a claim with a JSON integer value that fits in a {@code long}, which may be read without boxing via
+     * {@link SchemaClaims#getLong(SchemaClaim)}.  JSON numbers with a fractional part are rejected.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<Long> addLong(String name) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Adds a claim with a JSON number value, which may be read without boxing via
+     * {@link SchemaClaims#getDouble(SchemaClaim)}.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<Double> addDouble(String name) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Adds a claim with a JSON boolean value, which may be read without boxing via
+     * {@link SchemaClaims#getBoolean(SchemaClaim)}.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<Boolean> addBoolean(String name) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Adds a claim with a <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-2">NumericDate</a> value
+     * (the number of seconds since the epoch), represented as a {@code java.util.Date}.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<Date> addDate(String name) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Adds a claim with a JSON array of strings value, represented as an immutable {@code Set}.
+     *
+     * @param name the claim name
+     * @return the new claim.
+     * @throws IllegalArgumentException if {@code name} is empty, registered, or already added.
+     * @throws IllegalStateException    if the schema has already been built.
+     */
+    SchemaClaim<Set<String>> addStringSet(String name) throws IllegalArgumentException, IllegalStateException;
+}
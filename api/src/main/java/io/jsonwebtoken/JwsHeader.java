@@ -66,4 +66,17 @@ public interface JwsHeader extends ProtectedHeader<JwsHeader> {
      * JWS <a href="https://tools.ietf.org/html/rfc7516#section-4.1.11">Critical Header</a> name: the string literal <b><code>crit</code></b>
      */
     String CRITICAL = "crit";
+
+    /**
+     * Returns {@code true} if the JWS payload is Base64Url-encoded as is standard for JWSs, or {@code false} if the
+     * header contains the <a href="https://www.rfc-editor.org/rfc/rfc7797.html#section-3">RFC 7797</a>
+     * {@code b64} (Base64url-Encode Payload) parameter with a value of {@code false}, indicating that the JWS
+     * signature is computed over the unencoded payload bytes.
+     *
+     * @return {@code false} if the header contains a {@code b64} parameter with a value of {@code false},
+     * {@code true} otherwise.
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc7797.html">RFC 7797: JWS Unencoded Payload Option</a>
+     * @since JJWT_RELEASE_VERSION
+     */
+    boolean isPayloadEncoded();
 }
@@ -31,6 +31,7 @@ import io.jsonwebtoken.security.StandardSecureDigestAlgorithms;
 import io.jsonwebtoken.security.WeakKeyException;
 
 import javax.crypto.SecretKey;
+import java.io.InputStream;
 import java.security.Key;
 import java.security.PrivateKey;
 import java.security.Provider;
@@ -188,6 +189,45 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      */
     JwtBuilder setContent(byte[] content, String cty) throws IllegalArgumentException;
 
+    /**
+     * Sets the JWS payload to be the bytes read from the specified {@code InputStream}.  This is only supported for
+     * JWSs with an unencoded, detached payload (see {@link #encodePayload(boolean) encodePayload(false)}): the
+     * stream is read exactly once, directly into the signature algorithm, and is never buffered in memory or
+     * Base64Url-encoded, allowing very large content to be signed with constant memory.  The stream is not closed.
+     *
+     * <p>Note that the content stream, content byte array and claims properties are mutually exclusive - only one
+     * may be used.</p>
+     *
+     * @param content the stream of bytes to sign as the (detached) JWS payload
+     * @return the builder for method chaining.
+     * @see #encodePayload(boolean)
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtBuilder setContent(InputStream content);
+
+    /**
+     * Sets whether the JWS payload is Base64Url-encoded as is standard for JWSs ({@code true}, the default), or
+     * is signed without encoding ({@code false}) per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7797.html">RFC 7797: JWS Unencoded Payload Option</a>.
+     *
+     * <p>If {@code false}, the protected header will contain the {@code b64} parameter with a value of
+     * {@code false}, and {@code b64} will be added to the {@code crit} (Critical) header parameter as RFC 7797
+     * requires.  The payload will also be <em>detached</em> from the resulting compact JWS per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#appendix-F">RFC 7515, Appendix F</a>, i.e. the
+     * JWS will be of the form {@code header..signature}.  The recipient must obtain the payload separately and
+     * provide it to the parser, for example via
+     * {@link JwtParser#parseContentJws(String, java.io.InputStream) JwtParser.parseContentJws(jws, payloadStream)}.</p>
+     *
+     * <p>Unencoded payloads are only supported for compact JWSs with a single signature, and may not be
+     * compressed.</p>
+     *
+     * @param b64 whether the JWS payload should be Base64Url-encoded
+     * @return the builder for method chaining.
+     * @see #setContent(InputStream)
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtBuilder encodePayload(boolean b64);
+
     /**
      * Sets the JWT payload to be a JSON Claims instance.  If you do not want the JWT payload to be JSON claims and
      * instead want it to be a byte array representing any type of content, use the {@link #setContent(byte[])}
@@ -441,6 +481,9 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      * </pre>
      * <p>if desired.</p>
      *
+     * <p>Large custom claim values that are the same for many JWTs may be specified as an already-serialized
+     * {@link io.jsonwebtoken.io.RawJson RawJson} value, which the JSON serializer writes verbatim.</p>
+     *
      * @param name  the JWT Claims property name
      * @param value the value to set for the specified Claims property name
      * @return the builder instance for method chaining.
@@ -729,6 +772,46 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      */
     <K extends Key> JwtBuilder signWith(K key, io.jsonwebtoken.security.SecureDigestAlgorithm<? super K, ?> alg) throws InvalidKeyException;
 
+    /**
+     * Adds a JWS signature that will be computed with the specified key and algorithm, equivalent to calling
+     * {@link #addSignature(Key, SecureDigestAlgorithm, Map) addSignature(key, alg, null)}.
+     *
+     * @param key the signing key to use to compute the signature.
+     * @param <K> The type of key accepted by the {@code SignatureAlgorithm}.
+     * @param alg the JWS algorithm to use with the key to compute the signature.
+     * @return the builder for method chaining.
+     * @throws InvalidKeyException if the Key is insufficient or explicitly disallowed by the JWT specification for
+     *                             the specified algorithm.
+     * @see #addSignature(Key, SecureDigestAlgorithm, Map)
+     * @since JJWT_RELEASE_VERSION
+     */
+    <K extends Key> JwtBuilder addSignature(K key, SecureDigestAlgorithm<? super K, ?> alg) throws InvalidKeyException;
+
+    /**
+     * Adds a JWS signature that will be computed with the specified key and algorithm, and whose per-signature
+     * (unprotected) header will contain the specified {@code header} parameters, such as a {@code kid}.  The
+     * {@code header} parameter names may not also be present in the JWS protected header.  The signature's
+     * {@code alg} value is always placed in its own protected header.
+     *
+     * <p>Signatures added via this method are in addition to any signature specified via {@code signWith}.  A JWS
+     * with more than one signature may only be serialized with the
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1">General JWS JSON Serialization</a> via
+     * {@link #toJson()}; calling {@link #compact()} will fail.  The payload is serialized and encoded only once
+     * regardless of the number of signatures.</p>
+     *
+     * @param key    the signing key to use to compute the signature.
+     * @param <K>    The type of key accepted by the {@code SignatureAlgorithm}.
+     * @param alg    the JWS algorithm to use with the key to compute the signature.
+     * @param header the signature's unprotected header parameters, may be {@code null} or empty.
+     * @return the builder for method chaining.
+     * @throws InvalidKeyException if the Key is insufficient or explicitly disallowed by the JWT specification for
+     *                             the specified algorithm.
+     * @see #toJson()
+     * @since JJWT_RELEASE_VERSION
+     */
+    <K extends Key> JwtBuilder addSignature(K key, SecureDigestAlgorithm<? super K, ?> alg, Map<String, ?> header)
+            throws InvalidKeyException;
+
     /**
      * Encrypts the constructed JWT with the specified symmetric {@code key} using the provided {@code enc}ryption
      * algorithm, producing a JWE.  Because it is a symmetric key, the JWE recipient
@@ -791,6 +874,86 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      */
     <K extends Key> JwtBuilder encryptWith(K key, KeyAlgorithm<? super K, ?> keyAlg, AeadAlgorithm enc);
 
+    /**
+     * Encrypts the constructed JWT using the specified {@code enc} algorithm and a single, randomly generated content
+     * encryption key (CEK) that is in turn made available to each recipient added via
+     * {@link #addRecipient(Key, KeyAlgorithm, Map) addRecipient}.  At least one recipient must be added before the
+     * JWE can be built.
+     *
+     * <p>The payload is encrypted only once regardless of the number of recipients; only the CEK is processed
+     * (e.g. wrapped or encrypted) separately for each recipient.</p>
+     *
+     * @param enc the {@link AeadAlgorithm} algorithm used to encrypt the JWE payload
+     * @return the JWE builder for method chaining.
+     * @see #addRecipient(Key, KeyAlgorithm, Map)
+     * @see #toJson()
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtBuilder encryptWith(AeadAlgorithm enc);
+
+    /**
+     * Produces a <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-11.2">Nested JWT</a> when both a
+     * signature key (via {@link #signWith(Key, SecureDigestAlgorithm) signWith} or
+     * {@link #addSignature(Key, SecureDigestAlgorithm) addSignature}) and an encryption algorithm (via
+     * {@code encryptWith}) are configured: the claims or content are first signed as a compact JWS, and that JWS is
+     * then encrypted as the JWE payload.
+     *
+     * <p>The inner compact JWS is written directly to the byte array that is encrypted, without an intermediate
+     * {@code String}.  Any header parameters set on this builder are applied to the outer JWE header, which will also
+     * have a {@link Header#getContentType() cty} value of {@code JWT} per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-5.2">RFC 7519, Section 5.2</a>.  Any
+     * compression is applied to the inner JWS before encryption.  Parameters for the inner JWS header may be
+     * specified via {@link #addSignature(Key, SecureDigestAlgorithm, Map)}.</p>
+     *
+     * <p>Exactly one signature key must be configured.  Without this method, configuring both signing and
+     * encryption results in an {@link IllegalStateException}.</p>
+     *
+     * @return the builder for method chaining.
+     * @see JwtParser#parseNestedClaimsJws(String)
+     * @see JwtParser#parseNestedContentJws(String)
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtBuilder signThenEncrypt();
+
+    /**
+     * Adds a JWE recipient whose {@code keyAlg} will be invoked with the given {@code key} to produce that
+     * recipient's encrypted content encryption key.  This is equivalent to calling
+     * {@link #addRecipient(Key, KeyAlgorithm, Map) addRecipient(key, keyAlg, null)}.
+     *
+     * @param <K>    the type of key that must be used with the specified {@code keyAlg} instance.
+     * @param key    the key used to invoke the provided {@code keyAlg} instance.
+     * @param keyAlg the key management algorithm used to produce the recipient's encrypted key
+     * @return the JWE builder for method chaining.
+     * @see #addRecipient(Key, KeyAlgorithm, Map)
+     * @since JJWT_RELEASE_VERSION
+     */
+    <K extends Key> JwtBuilder addRecipient(K key, KeyAlgorithm<? super K, ?> keyAlg);
+
+    /**
+     * Adds a JWE recipient whose {@code keyAlg} will be invoked with the given {@code key} to produce that
+     * recipient's encrypted content encryption key, and whose per-recipient
+     * (unprotected) header will contain the specified {@code header} parameters, such as a {@code kid}.  The
+     * {@code header} parameter names may not also be present in the JWE protected header.
+     *
+     * <p>A JWE with more than one recipient may only be serialized with the
+     * <a href="https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1">General JWE JSON Serialization</a> via
+     * {@link #toJson()}; calling {@link #compact()} will fail.  Additionally, only key management algorithms that
+     * encrypt or wrap a content encryption key may be used when there is more than one recipient; the
+     * {@link StandardKeyAlgorithms#DIRECT DIRECT} and {@link StandardKeyAlgorithms#ECDH_ES ECDH_ES} algorithms
+     * may only be used for a single recipient per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7518.html#section-4.1">RFC 7518, Section 4.1</a>.</p>
+     *
+     * @param <K>    the type of key that must be used with the specified {@code keyAlg} instance.
+     * @param key    the key used to invoke the provided {@code keyAlg} instance.
+     * @param keyAlg the key management algorithm used to produce the recipient's encrypted key
+     * @param header the recipient's unprotected header parameters, may be {@code null} or empty.
+     * @return the JWE builder for method chaining.
+     * @see #encryptWith(AeadAlgorithm)
+     * @see #toJson()
+     * @since JJWT_RELEASE_VERSION
+     */
+    <K extends Key> JwtBuilder addRecipient(K key, KeyAlgorithm<? super K, ?> keyAlg, Map<String, ?> header);
+
     /**
      * Compresses the JWT payload using the specified {@link CompressionCodec}.
      *
@@ -850,4 +1013,21 @@ public interface JwtBuilder extends ClaimsMutator<JwtBuilder> {
      * @return A compact URL-safe JWT string.
      */
     String compact();
+
+    /**
+     * Actually builds the JWS or JWE and serializes it according to the
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1">General JWS JSON Serialization</a> or
+     * <a href="https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1">General JWE JSON Serialization</a> rules
+     * respectively.
+     *
+     * <p>A JWS has one entry in the {@code signatures} array for each signature, each with its own protected header
+     * containing its {@code alg} value.  A JWE has one entry in the {@code recipients} array for each recipient; the
+     * JWE payload is encrypted only once, and each recipient's header contains its {@code alg} value and any key
+     * management parameters produced by its key algorithm.</p>
+     *
+     * @return the JSON-serialized JWS or JWE string.
+     * @throws IllegalStateException if the builder has not been configured to sign or encrypt the JWT.
+     * @since JJWT_RELEASE_VERSION
+     */
+    String toJson();
 }
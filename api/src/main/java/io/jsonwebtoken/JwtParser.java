@@ -20,6 +20,7 @@ import io.jsonwebtoken.io.Deserializer;
 import io.jsonwebtoken.security.SecurityException;
 import io.jsonwebtoken.security.SignatureException;
 
+import java.io.InputStream;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
@@ -624,6 +625,123 @@ public interface JwtParser {
     Jws<Claims> parseClaimsJws(String jws) throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException,
             SignatureException, SecurityException, IllegalArgumentException;
 
+    /**
+     * Parses the specified compact JWS string that has a detached payload, verifying the JWS signature against the
+     * specified {@code detachedPayload} bytes, and returns the resulting content JWS instance.
+     *
+     * <p>A JWS with a detached payload has an empty payload section, for example {@code header..signature}, per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#appendix-F">RFC 7515, Appendix F</a>.  If the JWS
+     * protected header contains a {@code b64} value of {@code false}, the {@code detachedPayload} bytes are used
+     * directly as the signature payload per <a href="https://www.rfc-editor.org/rfc/rfc7797.html">RFC 7797</a>;
+     * otherwise they are Base64URL-encoded before signature verification as usual.</p>
+     *
+     * @param jws             a compact serialized JWS string with an empty payload section.
+     * @param detachedPayload the detached payload bytes that were signed.
+     * @return the {@link Jws Jws} instance with the verified {@code detachedPayload} as its payload.
+     * @throws UnsupportedJwtException  if the {@code jws} argument does not represent a content JWS
+     * @throws MalformedJwtException    if the {@code jws} string is not a valid JWS or already contains a payload
+     * @throws SignatureException       if the {@code jws} JWS signature validation fails
+     * @throws IllegalArgumentException if the {@code jws} string is {@code null} or empty or only whitespace, or if
+     *                                  {@code detachedPayload} is {@code null}
+     * @see JwtBuilder#encodePayload(boolean)
+     * @since JJWT_RELEASE_VERSION
+     */
+    Jws<byte[]> parseContentJws(String jws, byte[] detachedPayload) throws UnsupportedJwtException,
+            MalformedJwtException, SignatureException, IllegalArgumentException;
+
+    /**
+     * Parses the specified compact JWS string that has an unencoded ({@code b64} = {@code false}) detached payload,
+     * verifying the JWS signature by streaming the {@code unencodedPayload} to the signature algorithm, and returns
+     * the resulting content JWS instance.
+     *
+     * <p>This allows verifying arbitrarily large payloads without buffering them in memory.  Because the payload is
+     * consumed during verification, the returned {@code Jws}'s {@link Jws#getPayload() payload} is an
+     * <em>empty</em> byte array.  The stream is read fully but is not closed; closing it remains the caller's
+     * responsibility.</p>
+     *
+     * @param jws              a compact serialized JWS string with an empty payload section and a {@code b64}
+     *                         protected header value of {@code false}
+     * @param unencodedPayload the stream of unencoded payload bytes that were signed.
+     * @return the verified {@link Jws Jws} instance with an empty payload.
+     * @throws UnsupportedJwtException  if the {@code jws} argument does not represent a content JWS, or its
+     *                                  payload is not unencoded ({@code b64} = {@code false}), or it is compressed
+     * @throws MalformedJwtException    if the {@code jws} string is not a valid JWS or already contains a payload
+     * @throws SignatureException       if the {@code jws} JWS signature validation fails
+     * @throws IllegalArgumentException if the {@code jws} string is {@code null} or empty or only whitespace, or if
+     *                                  {@code unencodedPayload} is {@code null}
+     * @see JwtBuilder#setContent(InputStream)
+     * @see JwtBuilder#encodePayload(boolean)
+     * @since JJWT_RELEASE_VERSION
+     */
+    Jws<byte[]> parseContentJws(String jws, InputStream unencodedPayload) throws UnsupportedJwtException,
+            MalformedJwtException, SignatureException, IllegalArgumentException;
+
+    /**
+     * Parses the specified compact JWS string that has a detached Claims payload, verifying the JWS signature against
+     * the specified {@code detachedPayload} bytes, and returns the resulting Claims JWS instance.  The
+     * {@code detachedPayload} is interpreted per the same rules as {@link #parseContentJws(String, byte[])}.
+     *
+     * @param jws             a compact serialized JWS string with an empty payload section.
+     * @param detachedPayload the detached UTF-8 JSON Claims bytes that were signed.
+     * @return the {@link Jws Jws} instance with the verified Claims as its payload.
+     * @throws UnsupportedJwtException  if the {@code jws} argument does not represent a Claims JWS
+     * @throws MalformedJwtException    if the {@code jws} string is not a valid JWS or already contains a payload
+     * @throws SignatureException       if the {@code jws} JWS signature validation fails
+     * @throws ExpiredJwtException      if the Claims has an expiration time before the time this method is invoked.
+     * @throws IllegalArgumentException if the {@code jws} string is {@code null} or empty or only whitespace, or if
+     *                                  {@code detachedPayload} is {@code null}
+     * @since JJWT_RELEASE_VERSION
+     */
+    Jws<Claims> parseClaimsJws(String jws, byte[] detachedPayload) throws ExpiredJwtException,
+            UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException;
+
+    /**
+     * Decrypts the specified Nested JWT - a JWE with a {@link Header#getContentType() cty} header value of
+     * {@code JWT} whose plaintext is a compact content JWS - and returns the verified inner content JWS.
+     *
+     * <p>The JWE is decrypted and authenticated first, and the inner JWS signature is then verified directly
+     * against the decrypted bytes, without first converting them to an intermediate {@code String}.  Both the JWE
+     * and the inner JWS are processed according to this parser's configuration, so the parser's
+     * {@link JwtParserBuilder#setKeyLocator(Locator) key locator} must be able to locate both the decryption key
+     * and the signature verification key.</p>
+     *
+     * @param jwe a compact or JSON serialized JWE whose payload is a compact content JWS.
+     * @return the verified inner content {@link Jws Jws}.
+     * @throws UnsupportedJwtException  if the {@code jwe} argument does not represent a Nested JWT, or its payload
+     *                                  is not a content JWS
+     * @throws MalformedJwtException    if the {@code jwe} or inner JWS string is not valid
+     * @throws SignatureException       if the inner JWS signature validation fails
+     * @throws SecurityException        if JWE decryption fails
+     * @throws IllegalArgumentException if the {@code jwe} string is {@code null} or empty or only whitespace
+     * @see JwtBuilder#signThenEncrypt()
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-11.2">RFC 7519, Section 11.2</a>
+     * @since JJWT_RELEASE_VERSION
+     */
+    Jws<byte[]> parseNestedContentJws(String jwe) throws UnsupportedJwtException, MalformedJwtException,
+            SignatureException, SecurityException, IllegalArgumentException;
+
+    /**
+     * Decrypts the specified Nested JWT - a JWE with a {@link Header#getContentType() cty} header value of
+     * {@code JWT} whose plaintext is a compact Claims JWS - and returns the verified inner Claims JWS.  This method
+     * behaves identically to {@link #parseNestedContentJws(String)}, except that the inner JWS payload must be
+     * {@link Claims}.
+     *
+     * @param jwe a compact or JSON serialized JWE whose payload is a compact Claims JWS.
+     * @return the verified inner Claims {@link Jws Jws}.
+     * @throws UnsupportedJwtException  if the {@code jwe} argument does not represent a Nested JWT, or its payload
+     *                                  is not a Claims JWS
+     * @throws MalformedJwtException    if the {@code jwe} or inner JWS string is not valid
+     * @throws SignatureException       if the inner JWS signature validation fails
+     * @throws SecurityException        if JWE decryption fails
+     * @throws ExpiredJwtException      if the inner Claims has an expiration time before the time this method is
+     *                                  invoked.
+     * @throws IllegalArgumentException if the {@code jwe} string is {@code null} or empty or only whitespace
+     * @see JwtBuilder#signThenEncrypt()
+     * @since JJWT_RELEASE_VERSION
+     */
+    Jws<Claims> parseNestedClaimsJws(String jwe) throws ExpiredJwtException, UnsupportedJwtException,
+            MalformedJwtException, SignatureException, SecurityException, IllegalArgumentException;
+
     /**
      * Parses the specified compact serialized JWE string based on the builder's current configuration state and
      * returns the resulting content JWE instance. If the JWT creator set the (optional)
@@ -17,6 +17,7 @@ package io.jsonwebtoken;
 
 import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.Encoder;
 import io.jsonwebtoken.lang.Builder;
 import io.jsonwebtoken.security.AeadAlgorithm;
 import io.jsonwebtoken.security.KeyAlgorithm;
@@ -92,6 +93,27 @@ public interface JwtParserBuilder extends Builder<JwtParser> {
      */
     JwtParserBuilder enableUnsecuredDecompression();
 
+    /**
+     * Defers the conversion of certain parsed header parameter values to their Java types until they are first
+     * accessed.  Converting these values can be expensive and they are not needed to verify or decrypt a JWT, so
+     * applications that never read them avoid that cost entirely.  Deferred parameters are currently:
+     * <ul>
+     *     <li>{@code x5c} - {@link ProtectedHeader#getX509CertificateChain()}</li>
+     *     <li>{@code x5t} - {@link ProtectedHeader#getX509CertificateSha1Thumbprint()}</li>
+     *     <li>{@code x5t#S256} - {@link ProtectedHeader#getX509CertificateSha256Thumbprint()}</li>
+     *     <li>{@code jwk} - {@link ProtectedHeader#getJwk()}</li>
+     * </ul>
+     *
+     * <p>The parser still verifies that each such value is of the expected JSON type, but a value that cannot be
+     * converted (for example, malformed certificate data) results in an {@link IllegalArgumentException} when its
+     * accessor is first called, rather than a {@link MalformedJwtException} during parsing.  The canonical value
+     * is always available via {@link java.util.Map#get(Object) Map.get} regardless.</p>
+     *
+     * @return the builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtParserBuilder enableDeferredConversion();
+
     /**
      * Sets the JCA Provider to use during cryptographic signature and decryption operations, or {@code null} if the
      * JCA subsystem preferred provider should be used.
@@ -468,6 +490,61 @@ public interface JwtParserBuilder extends Builder<JwtParser> {
      */
     JwtParserBuilder addEncryptionAlgorithms(Collection<? extends AeadAlgorithm> encAlgs);
 
+    /**
+     * Adds the specified header parameter names to the set of names the parser considers <em>understood</em> when
+     * they are listed in a protected header's {@link ProtectedHeader#getCritical() crit} (Critical) parameter.
+     *
+     * <p>Per <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-4.1.11">RFC 7515, Section 4.1.11</a>, a
+     * JWS or JWE must be rejected if its {@code crit} header lists a parameter the recipient does not understand.
+     * JJWT understands the RFC 7797 {@code b64} parameter natively; any other critical parameters must be added via
+     * this method, and the application is then responsible for processing them (for example, in a
+     * {@link Locator} or after parsing).</p>
+     *
+     * @param names the header parameter names the application understands and processes
+     * @return the builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtParserBuilder addCriticalHeaderParams(Collection<String> names);
+
+    /**
+     * Configures the parser to only retain the specified claims when reading a JWT's {@link Claims} payload, so
+     * that applications that only need a few claims of a large payload don't pay for converting all of them to
+     * Java objects.  All other claims are skipped by the JSON {@link Deserializer} without being materialized and
+     * are absent from the resulting {@code Claims} instance.
+     *
+     * <p>This does not affect security: JWS signatures and JWE authentication tags are always verified over the
+     * entire payload, and claims needed to validate the JWT are always retained, namely the {@code exp} and
+     * {@code nbf} claims as well as any claims specified via the {@code require*} methods.</p>
+     *
+     * <p>Skipping claims requires a {@link Deserializer} that implements
+     * {@link io.jsonwebtoken.io.MapPopulatingDeserializer MapPopulatingDeserializer}, as all of JJWT's
+     * deserializers do.  For any other deserializer, the payload is fully deserialized first and the other claims
+     * are then discarded.</p>
+     *
+     * <p>This method may be called multiple times; the specified names are added to any previously specified.</p>
+     *
+     * @param names the names of the claims to retain
+     * @return the builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtParserBuilder retainClaims(Collection<String> names);
+
+    /**
+     * Configures the parser to read JWT claims payloads into {@link SchemaClaims} of the specified schema.  Each
+     * schema claim value is converted to its declared type and validated once during parsing, and a JWT with an
+     * invalid schema claim value is rejected with a {@link MalformedJwtException}.  The resulting claims are
+     * immutable, and may be obtained from a parsed JWT's payload via {@link ClaimsSchema#from(Map)} without
+     * copying.
+     *
+     * <p>If {@link #retainClaims(Collection)} is also configured, all schema claims are retained as well.</p>
+     *
+     * @param schema the schema used to read JWT claims payloads
+     * @return the builder for method chaining.
+     * @see Jwts#claimsSchema()
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtParserBuilder claimsSchema(ClaimsSchema schema);
+
     /**
      * Adds the specified signature algorithms to the parser's total set of supported signature algorithms,
      * overwriting any previously-added algorithms with the same
@@ -584,6 +661,19 @@ public interface JwtParserBuilder extends Builder<JwtParser> {
      */
     JwtParserBuilder base64UrlDecodeWith(Decoder<String, byte[]> base64UrlDecoder);
 
+    /**
+     * Perform Base64Url encoding with the specified Encoder when re-creating the JWS Signing Input of a
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#appendix-F">detached</a> (encoded) JWS payload.
+     *
+     * <p>JJWT uses a spec-compliant encoder that works on all supported JDK versions, but you may call this method
+     * to specify a different encoder if you desire.</p>
+     *
+     * @param base64UrlEncoder the encoder to use when Base64Url-encoding detached JWS payloads
+     * @return the parser builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwtParserBuilder base64UrlEncodeWith(Encoder<byte[], String> base64UrlEncoder);
+
     /**
      * Uses the specified deserializer to convert JSON Strings (UTF-8 byte arrays) into Java Map objects.  This is
      * used by the parser after Base64Url-decoding to convert JWT/JWS/JWT JSON headers and claims into Java Map
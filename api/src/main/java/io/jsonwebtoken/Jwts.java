@@ -233,6 +233,18 @@ public final class Jwts {
         return Classes.newInstance("io.jsonwebtoken.impl.DefaultClaims", MAP_ARG, claims);
     }
 
+    /**
+     * Returns a new {@link ClaimsSchemaBuilder} that can be used to define typed claims and then create an
+     * immutable/thread-safe {@link ClaimsSchema}.
+     *
+     * @return a new {@link ClaimsSchemaBuilder}.
+     * @see JwtParserBuilder#claimsSchema(ClaimsSchema)
+     * @since JJWT_RELEASE_VERSION
+     */
+    public static ClaimsSchemaBuilder claimsSchema() {
+        return Classes.newInstance("io.jsonwebtoken.impl.DefaultClaimsSchemaBuilder");
+    }
+
     /**
      * Returns a new {@link JwtParser} instance that can be configured and then used to parse JWT strings.
      *
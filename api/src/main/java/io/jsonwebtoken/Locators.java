@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Classes;
+
+import java.util.Collection;
+
+/**
+ * Utility methods for creating and composing {@link Locator}s.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public final class Locators {
+
+    private static final String CACHING_BUILDER_CLASSNAME = "io.jsonwebtoken.impl.DefaultCachingLocatorBuilder";
+
+    private static final String ADAPTIVE_LOCATOR_CLASSNAME = "io.jsonwebtoken.impl.AdaptiveCandidateLocator";
+
+    private Locators() {
+    } //prevent instantiation
+
+    /**
+     * Returns a new {@link CachingLocatorBuilder} to create a {@link CachingLocator} that caches the results of the
+     * specified {@code Locator}.
+     *
+     * @param delegate the locator whose results will be cached
+     * @param <T>      the type of object located
+     * @return a new {@link CachingLocatorBuilder} to create a {@link CachingLocator} for the specified
+     * {@code Locator}.
+     */
+    public static <T> CachingLocatorBuilder<T> caching(Locator<T> delegate) {
+        Assert.notNull(delegate, "Delegate Locator cannot be null.");
+        return Classes.newInstance(CACHING_BUILDER_CLASSNAME, new Class[]{Locator.class}, delegate);
+    }
+
+    /**
+     * Returns a new {@link CandidateLocator} that offers all of the specified candidates for every header, ordered
+     * by how recently and how often each candidate has successfully processed a JWT.  Candidates are initially
+     * offered in iteration order, and a candidate that succeeds repeatedly quickly moves to the front, so the
+     * most commonly used candidate is tried first.
+     *
+     * <p>This is useful for JWTs without a {@link JwsHeader#getKeyId() kid}, for example from legacy issuers that
+     * may have used any one of several keys.  For example:</p>
+     * <blockquote><pre>
+     * Jwts.parserBuilder().setKeyLocator(Locators.&lt;Key&gt;adaptive(keys)).build();</pre></blockquote>
+     *
+     * @param candidates the candidates to offer, in their initial order
+     * @param <T>        the type of object located
+     * @return a new {@link CandidateLocator} that adaptively orders the specified candidates.
+     */
+    public static <T> CandidateLocator<T> adaptive(Collection<? extends T> candidates) {
+        Assert.notEmpty(candidates, "Candidates collection cannot be null or empty.");
+        return Classes.newInstance(ADAPTIVE_LOCATOR_CLASSNAME, new Class[]{Collection.class}, candidates);
+    }
+}
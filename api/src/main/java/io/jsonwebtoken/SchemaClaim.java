@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * A typed claim definition of a {@link ClaimsSchema}, obtained from a {@link ClaimsSchemaBuilder}.  The value of
+ * the claim is read from {@link SchemaClaims} created by the same schema via {@link SchemaClaims#get(SchemaClaim)}
+ * or, for primitive claims, without boxing via {@link SchemaClaims#getLong(SchemaClaim) getLong},
+ * {@link SchemaClaims#getDouble(SchemaClaim) getDouble} or {@link SchemaClaims#getBoolean(SchemaClaim) getBoolean}.
+ *
+ * <p>Instances are immutable and thread-safe, and are usually assigned to {@code static final} constants.</p>
+ *
+ * @param <T> the Java type of the claim's value
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface SchemaClaim<T> {
+
+    /**
+     * Returns the name of the claim, as it appears in a JWT payload.
+     *
+     * @return the name of the claim, as it appears in a JWT payload.
+     */
+    String getName();
+
+    /**
+     * Returns the Java type of the claim's value, for example {@code Long.class} or {@code Set.class}.
+     *
+     * @return the Java type of the claim's value.
+     */
+    Class<?> getType();
+}
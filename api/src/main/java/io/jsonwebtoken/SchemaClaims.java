@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken;
+
+/**
+ * {@link Claims} with a fixed layout determined by a {@link ClaimsSchema}.  The value of each schema claim is
+ * converted and validated once, when the claims are created, and can then be read directly by its
+ * {@link SchemaClaim} without a map lookup or any further conversion.  Values of {@code long}, {@code double} and
+ * {@code boolean} claims are stored as primitives, and are read without boxing.
+ *
+ * <p>Claims that are not part of the schema remain available via the {@link java.util.Map Map} methods, as they are
+ * for any other {@code Claims} instance.</p>
+ *
+ * <p>Instances created by a {@link JwtParser} or by {@link ClaimsSchema#from(java.util.Map)} are immutable: all
+ * mutation methods throw an {@link UnsupportedOperationException}.</p>
+ *
+ * @see JwtParserBuilder#claimsSchema(ClaimsSchema)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface SchemaClaims extends Claims {
+
+    /**
+     * Returns the schema that determines the layout of these claims.
+     *
+     * @return the schema that determines the layout of these claims.
+     */
+    ClaimsSchema getSchema();
+
+    /**
+     * Returns {@code true} if the specified claim is present, {@code false} otherwise.
+     *
+     * @param claim a claim of this instance's {@link #getSchema() schema}
+     * @return {@code true} if the specified claim is present, {@code false} otherwise.
+     * @throws IllegalArgumentException if the claim does not belong to this instance's schema.
+     */
+    boolean isPresent(SchemaClaim<?> claim) throws IllegalArgumentException;
+
+    /**
+     * Returns the value of the specified claim, or {@code null} if it is not present.
+     *
+     * @param claim a claim of this instance's {@link #getSchema() schema}
+     * @param <T>   the Java type of the claim's value
+     * @return the value of the specified claim, or {@code null} if it is not present.
+     * @throws IllegalArgumentException if the claim does not belong to this instance's schema.
+     */
+    <T> T get(SchemaClaim<T> claim) throws IllegalArgumentException;
+
+    /**
+     * Returns the value of the specified {@code long} claim without boxing.  Use {@link #isPresent(SchemaClaim)}
+     * first if the claim is optional.
+     *
+     * @param claim a {@link ClaimsSchemaBuilder#addLong(String) long} claim of this instance's
+     *              {@link #getSchema() schema}
+     * @return the value of the specified claim
+     * @throws IllegalArgumentException if the claim does not belong to this instance's schema.
+     * @throws IllegalStateException    if the claim is not present.
+     */
+    long getLong(SchemaClaim<Long> claim) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns the value of the specified {@code double} claim without boxing.  Use {@link #isPresent(SchemaClaim)}
+     * first if the claim is optional.
+     *
+     * @param claim a {@link ClaimsSchemaBuilder#addDouble(String) double} claim of this instance's
+     *              {@link #getSchema() schema}
+     * @return the value of the specified claim
+     * @throws IllegalArgumentException if the claim does not belong to this instance's schema.
+     * @throws IllegalStateException    if the claim is not present.
+     */
+    double getDouble(SchemaClaim<Double> claim) throws IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Returns the value of the specified {@code boolean} claim without boxing.  Use
+     * {@link #isPresent(SchemaClaim)} first if the claim is optional.
+     *
+     * @param claim a {@link ClaimsSchemaBuilder#addBoolean(String) boolean} claim of this instance's
+     *              {@link #getSchema() schema}
+     * @return the value of the specified claim
+     * @throws IllegalArgumentException if the claim does not belong to this instance's schema.
+     * @throws IllegalStateException    if the claim is not present.
+     */
+    boolean getBoolean(SchemaClaim<Boolean> claim) throws IllegalArgumentException, IllegalStateException;
+}
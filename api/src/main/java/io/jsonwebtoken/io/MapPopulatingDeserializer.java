@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.io;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A deserializer that can read a JSON object directly into a caller-supplied {@code Map}, putting each member
+ * into the map as it is read instead of first building an intermediate {@code Map} that the caller would then copy.
+ *
+ * <p>JJWT uses this capability, when available, to populate JWT headers and claims directly: each header parameter
+ * or claim is put into its final {@link io.jsonwebtoken.Header Header} or {@link io.jsonwebtoken.Claims Claims}
+ * instance as soon as it is read, so the registered values (such as {@code exp}, {@code nbf} or {@code aud}) are
+ * converted during deserialization and each header and claims object is only materialized once.</p>
+ *
+ * <p>A {@link Deserializer} for {@code Map}s may implement this interface in addition to {@code Deserializer}.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface MapPopulatingDeserializer {
+
+    /**
+     * Reads the JSON object in the specified UTF-8 byte array and {@link Map#put(Object, Object) puts} each of its
+     * members into the specified {@code target} map, in document order.  Any exception thrown by the target map's
+     * {@code put} method (for example, an {@code IllegalArgumentException} for an invalid value) is propagated
+     * unchanged.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     */
+    void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException;
+
+    /**
+     * Reads the JSON object in the specified UTF-8 byte array and {@link Map#put(Object, Object) puts} only those of
+     * its members whose names are contained in the specified {@code names} set into the {@code target} map, in
+     * document order.  All other members are skipped at the token level: their values must still be well-formed
+     * JSON, but they are not converted to Java objects.  Exceptions thrown by the target map's {@code put} method
+     * are propagated unchanged, as they are by {@link #deserialize(byte[], Map)}.
+     *
+     * <p>JJWT uses this method when a {@link io.jsonwebtoken.JwtParser JwtParser} is configured to
+     * {@link io.jsonwebtoken.JwtParserBuilder#retainClaims(java.util.Collection) retain only certain claims}.</p>
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     */
+    void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names) throws DeserializationException;
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.io;
+
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A JSON value that has already been serialized, and that JJWT's JSON {@link Serializer}s write verbatim instead of
+ * serializing an object graph.  This is useful for large claim values that are identical across many JWTs, such as
+ * a static set of permissions: create the {@code RawJson} instance once and use it as the value of each
+ * {@link io.jsonwebtoken.JwtBuilder#claim(String, Object) JwtBuilder.claim} call, so that serializing the claim is
+ * reduced to copying its bytes.
+ *
+ * <p>The JSON text is validated when an instance is created, since it is otherwise spliced into JWTs unchecked.  Any
+ * JSON value is allowed (not just objects), but it must be strict
+ * <a href="https://www.rfc-editor.org/rfc/rfc8259">RFC 8259</a> JSON, and objects at any depth may not have duplicate
+ * member names (which JJWT's parser would reject).  Instances are immutable and thread-safe.</p>
+ *
+ * <p><b>Serializer Support</b></p>
+ *
+ * <p>{@code RawJson} values are supported by JJWT's default serializer and the {@code jjwt-jackson},
+ * {@code jjwt-gson} and {@code jjwt-orgjson} serializers.  A custom {@code Gson} instance must register the
+ * {@code io.jsonwebtoken.gson.io.GsonRawJsonAdapter} type adapter for {@code RawJson.class}, just like the
+ * {@code Supplier} type adapter it already requires.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public final class RawJson {
+
+    // Bounds validation recursion, since RawJson text may originate from an external source:
+    private static final int MAX_DEPTH = 256;
+
+    private final String json;
+
+    private final byte[] utf8;
+
+    private RawJson(String json, byte[] utf8) {
+        this.json = json;
+        this.utf8 = utf8;
+    }
+
+    /**
+     * Returns a new {@code RawJson} instance representing the specified JSON text.
+     *
+     * @param json the JSON text
+     * @return a new {@code RawJson} instance representing the specified JSON text.
+     * @throws IllegalArgumentException if {@code json} is null, empty or is not valid JSON.
+     */
+    public static RawJson of(String json) throws IllegalArgumentException {
+        Assert.hasText(json, "JSON string cannot be null or empty.");
+        new Validator(json).validate();
+        return new RawJson(json, json.getBytes(Strings.UTF_8));
+    }
+
+    /**
+     * Returns a new {@code RawJson} instance representing the specified UTF-8 encoded JSON text.  The byte array is
+     * copied, so later changes to it do not affect the returned instance.
+     *
+     * @param utf8 the UTF-8 encoded JSON text
+     * @return a new {@code RawJson} instance representing the specified UTF-8 encoded JSON text.
+     * @throws IllegalArgumentException if {@code utf8} is null, empty, or is not valid UTF-8 encoded JSON.
+     */
+    public static RawJson of(byte[] utf8) throws IllegalArgumentException {
+        Assert.notEmpty(utf8, "JSON byte array cannot be null or empty.");
+        byte[] bytes = utf8.clone();
+        String json;
+        try {
+            json = Strings.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString(); // rejects malformed UTF-8
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("JSON byte array is not valid UTF-8.", e);
+        }
+        new Validator(json).validate();
+        return new RawJson(json, bytes);
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoded JSON text.
+     *
+     * @return the number of bytes of the UTF-8 encoded JSON text.
+     */
+    public int length() {
+        return this.utf8.length;
+    }
+
+    /**
+     * Returns a new byte array containing the UTF-8 encoded JSON text.
+     *
+     * @return a new byte array containing the UTF-8 encoded JSON text.
+     */
+    public byte[] toByteArray() {
+        return this.utf8.clone();
+    }
+
+    /**
+     * Returns a read-only {@code ByteBuffer} of the UTF-8 encoded JSON text that shares this instance's content, so
+     * serializers can copy the bytes into their output without an intermediate copy.
+     *
+     * @return a read-only {@code ByteBuffer} of the UTF-8 encoded JSON text.
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(this.utf8).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the JSON text.
+     *
+     * @return the JSON text.
+     */
+    @Override
+    public String toString() {
+        return this.json;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.utf8);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof RawJson && Arrays.equals(this.utf8, ((RawJson) obj).utf8));
+    }
+
+    /**
+     * A strict RFC 8259 JSON validator that does not create any values other than the member names of each object,
+     * which are needed to detect duplicates.
+     */
+    private static final class Validator {
+
+        private final String s;
+        private final int len;
+        private int pos;
+        private int depth;
+
+        Validator(String s) {
+            this.s = s;
+            this.len = s.length();
+        }
+
+        private IllegalArgumentException error(String msg) {
+            return new IllegalArgumentException("Invalid JSON: " + msg + " at index " + this.pos + ".");
+        }
+
+        private char peek(String expected) {
+            if (this.pos >= this.len) {
+                throw error("unexpected end of input, expected " + expected);
+            }
+            return this.s.charAt(this.pos);
+        }
+
+        private void expect(char c) {
+            if (peek("'" + c + "'") != c) {
+                throw error("unexpected '" + this.s.charAt(this.pos) + "', expected '" + c + "'");
+            }
+            this.pos++;
+        }
+
+        private void skipWhitespace() {
+            while (this.pos < this.len) {
+                char c = this.s.charAt(this.pos);
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    return;
+                }
+                this.pos++;
+            }
+        }
+
+        void validate() {
+            skipWhitespace();
+            value();
+            skipWhitespace();
+            if (this.pos != this.len) {
+                throw error("unexpected '" + this.s.charAt(this.pos) + "', expected end of input");
+            }
+        }
+
+        private void value() {
+            char c = peek("a JSON value");
+            switch (c) {
+                case '{':
+                    object();
+                    break;
+                case '[':
+                    array();
+                    break;
+                case '"':
+                    string(null);
+                    break;
+                case 't':
+                    literal("true");
+                    break;
+                case 'f':
+                    literal("false");
+                    break;
+                case 'n':
+                    literal("null");
+                    break;
+                default:
+                    number();
+            }
+        }
+
+        private void enter() {
+            if (++this.depth > MAX_DEPTH) {
+                throw error("nesting depth exceeds the maximum allowed depth of " + MAX_DEPTH);
+            }
+        }
+
+        private void object() {
+            enter();
+            this.pos++; // '{'
+            skipWhitespace();
+            if (peek("'\"' or '}'") == '}') {
+                this.pos++;
+                this.depth--;
+                return;
+            }
+            Set<String> names = new HashSet<>();
+            StringBuilder name = new StringBuilder();
+            while (true) {
+                if (peek("'\"'") != '"') {
+                    throw error("unexpected '" + this.s.charAt(this.pos) + "', expected '\"'");
+                }
+                int start = this.pos;
+                name.setLength(0);
+                string(name);
+                if (!names.add(name.toString())) { // JJWT's own deserializer rejects duplicates as well
+                    this.pos = start;
+                    throw error("duplicate member name '" + name + "'");
+                }
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                value();
+                skipWhitespace();
+                char c = peek("',' or '}'");
+                this.pos++;
+                if (c == '}') {
+                    break;
+                } else if (c != ',') {
+                    this.pos--;
+                    throw error("unexpected '" + c + "', expected ',' or '}'");
+                }
+                skipWhitespace();
+            }
+            this.depth--;
+        }
+
+        private void array() {
+            enter();
+            this.pos++; // '['
+            skipWhitespace();
+            if (peek("a JSON value or ']'") == ']') {
+                this.pos++;
+                this.depth--;
+                return;
+            }
+            while (true) {
+                value();
+                skipWhitespace();
+                char c = peek("',' or ']'");
+                this.pos++;
+                if (c == ']') {
+                    break;
+                } else if (c != ',') {
+                    this.pos--;
+                    throw error("unexpected '" + c + "', expected ',' or ']'");
+                }
+                skipWhitespace();
+            }
+            this.depth--;
+        }
+
+        private void literal(String literal) {
+            if (!this.s.startsWith(literal, this.pos)) {
+                throw error("invalid literal, expected '" + literal + "'");
+            }
+            this.pos += literal.length();
+        }
+
+        // appends the decoded string to 'decoded' if it isn't null:
+        private void string(StringBuilder decoded) {
+            this.pos++; // opening quote
+            while (true) {
+                char c = peek("'\"'");
+                if (c == '"') {
+                    this.pos++;
+                    return;
+                } else if (c == '\\') {
+                    this.pos++;
+                    c = escape();
+                } else if (c < 0x20) {
+                    throw error("unescaped control character in string");
+                } else if (Character.isHighSurrogate(c)) {
+                    if (this.pos + 1 >= this.len || !Character.isLowSurrogate(this.s.charAt(this.pos + 1))) {
+                        throw error("unpaired surrogate character in string");
+                    }
+                    if (decoded != null) {
+                        decoded.append(c);
+                    }
+                    c = this.s.charAt(++this.pos);
+                    this.pos++;
+                } else if (Character.isLowSurrogate(c)) {
+                    throw error("unpaired surrogate character in string");
+                } else {
+                    this.pos++;
+                }
+                if (decoded != null) {
+                    decoded.append(c);
+                }
+            }
+        }
+
+        // returns the escaped character:
+        private char escape() {
+            char c = peek("an escape character");
+            int i = "\"\\/bfnrt".indexOf(c);
+            if (i >= 0) {
+                this.pos++;
+                return "\"\\/\b\f\n\r\t".charAt(i);
+            }
+            if (c != 'u') {
+                throw error("invalid escape character '" + c + "'");
+            }
+            this.pos++;
+            int value = 0;
+            for (int n = 0; n < 4; n++) {
+                int digit = Character.digit(peek("a hexadecimal digit"), 16);
+                if (digit < 0 || this.s.charAt(this.pos) > 'f') {
+                    throw error("invalid unicode escape");
+                }
+                value = (value << 4) | digit;
+                this.pos++;
+            }
+            return (char) value;
+        }
+
+        private int digits() {
+            int start = this.pos;
+            while (this.pos < this.len && this.s.charAt(this.pos) >= '0' && this.s.charAt(this.pos) <= '9') {
+                this.pos++;
+            }
+            return this.pos - start;
+        }
+
+        private void number() {
+            int start = this.pos;
+            if (this.s.charAt(this.pos) == '-') {
+                this.pos++;
+            }
+            if (this.pos < this.len && this.s.charAt(this.pos) == '0') {
+                this.pos++; // no leading zeros
+            } else if (digits() == 0) {
+                this.pos = start;
+                throw error("unexpected '" + this.s.charAt(start) + "', expected a JSON value");
+            }
+            if (this.pos < this.len && this.s.charAt(this.pos) == '.') {
+                this.pos++;
+                if (digits() == 0) {
+                    throw error("invalid number, expected a digit");
+                }
+            }
+            if (this.pos < this.len && (this.s.charAt(this.pos) == 'e' || this.s.charAt(this.pos) == 'E')) {
+                this.pos++;
+                if (this.pos < this.len && (this.s.charAt(this.pos) == '+' || this.s.charAt(this.pos) == '-')) {
+                    this.pos++;
+                }
+                if (digits() == 0) {
+                    throw error("invalid number, expected a digit");
+                }
+            }
+        }
+    }
+}
@@ -15,8 +15,10 @@
  */
 package io.jsonwebtoken.security;
 
+import java.io.InputStream;
+
 /**
- * Parses a JWK JSON string and produces its resulting {@link Jwk} instance.
+ * Parses a JWK or JWK Set JSON string and produces its resulting {@link Jwk} or {@link JwkSet} instance.
  *
  * @since JJWT_RELEASE_VERSION
  */
@@ -30,4 +32,50 @@ public interface JwkParser {
      * @throws KeyException if the json string cannot be represented as a {@link Jwk}.
      */
     Jwk<?> parse(String json) throws KeyException;
+
+    /**
+     * Parses the specified <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a> JSON string
+     * and returns the resulting immutable, indexed {@link JwkSet} instance.
+     *
+     * <p>Per <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">RFC 7517, Section 5</a>, JWKs with
+     * {@code kty} values that are not supported are ignored.</p>
+     *
+     * @param json the json string representing the JWK Set
+     * @return the {@link JwkSet} instance corresponding to the specified JWK Set json string.
+     * @throws KeyException if the json string cannot be represented as a {@link JwkSet}, or if any of its supported
+     *                      JWKs are invalid.
+     */
+    JwkSet parseSet(String json) throws KeyException;
+
+    /**
+     * Parses the <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a> UTF-8 JSON read from
+     * the specified {@code InputStream} and returns the resulting immutable, indexed {@link JwkSet} instance.  The
+     * stream is read fully, but is not closed; closing it remains the caller's responsibility.
+     *
+     * <p>This method is equivalent to {@link #parseSet(String)}, but avoids creating an intermediate
+     * {@code String} for large JWK Sets.</p>
+     *
+     * @param in the stream containing the UTF-8 JSON representing the JWK Set
+     * @return the {@link JwkSet} instance corresponding to the JWK Set json read from the stream.
+     * @throws KeyException if the json cannot be represented as a {@link JwkSet}, or if any of its supported JWKs
+     *                      are invalid.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwkSet parseSet(InputStream in) throws KeyException;
+
+    /**
+     * Parses the <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a> UTF-8 JSON read from
+     * the specified {@code InputStream}, skipping any individual JWKs that are invalid instead of failing the
+     * entire set.  The stream is read fully, but is not closed; closing it remains the caller's responsibility.
+     *
+     * <p>This is useful when aggregating JWK Sets from many parties, where one malformed key should not prevent
+     * all others from being used.  Each skipped JWK's failure is available via
+     * {@link JwkSetParseResult#getFailures()}.</p>
+     *
+     * @param in the stream containing the UTF-8 JSON representing the JWK Set
+     * @return the parsed JWK Set and the failure for each JWK that could not be parsed.
+     * @throws KeyException if the json cannot be deserialized or does not contain a JWK Set {@code keys} array.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwkSetParseResult parseSetLenient(InputStream in) throws KeyException;
 }
@@ -20,6 +20,7 @@ import io.jsonwebtoken.lang.Builder;
 
 import java.security.Provider;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A builder to construct a {@link JwkParser}.  Example usage:
@@ -58,4 +59,38 @@ public interface JwkParserBuilder extends Builder<JwkParser> {
      */
     JwkParserBuilder deserializeJsonWith(Deserializer<Map<String, ?>> deserializer);
 
+    /**
+     * Enables or disables interning of parsed public JWKs.  When enabled, public RSA, EC and Edwards/Montgomery
+     * curve JWKs are retained in a bounded, process-wide cache keyed by their
+     * <a href="https://www.rfc-editor.org/rfc/rfc7638">JWK thumbprint</a>, and parsing the same JWK again returns
+     * the previously created immutable {@link Jwk} (or reuses its already-materialized {@code PublicKey} if only its
+     * metadata, such as {@code kid}, differs).  This avoids repeatedly decoding and validating the same keys, for
+     * example each time a frequently refreshed JWK Set is parsed, and avoids retaining duplicate key instances.
+     *
+     * <p>Private and secret keys are never interned, nor are JWKs with non-standard members or when a
+     * {@link #setProvider(Provider) provider} has been specified.  Interning is disabled by default.</p>
+     *
+     * @param intern whether to intern parsed public JWKs
+     * @return the builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwkParserBuilder internPublicJwks(boolean intern);
+
+    /**
+     * Sets the {@link ForkJoinPool} used to materialize the JWKs of large JWK Sets in parallel, or {@code null}
+     * (the default) to materialize all JWKs on the calling thread.
+     *
+     * <p>Creating each JWK's {@code java.security.Key} and validating it (for example, checking that an elliptic
+     * curve point is on its curve) is the dominant cost of parsing a JWK Set, and each JWK is independent of the
+     * others.  When a pool is specified, JWK Sets with many keys are split into batches that are materialized
+     * concurrently on the pool, and the resulting {@link JwkSet} retains document order.  Small JWK Sets are always
+     * materialized on the calling thread.</p>
+     *
+     * @param pool the pool used to materialize the JWKs of large JWK Sets in parallel, or {@code null} to
+     *             materialize all JWKs on the calling thread.
+     * @return the builder for method chaining.
+     * @since JJWT_RELEASE_VERSION
+     */
+    JwkParserBuilder setForkJoinPool(ForkJoinPool pool);
+
 }
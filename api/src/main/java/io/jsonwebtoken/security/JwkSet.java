@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.security;
+
+import io.jsonwebtoken.Locator;
+
+import java.security.Key;
+import java.util.List;
+
+/**
+ * An immutable <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a>, a collection of
+ * {@link Jwk}s typically published by an identity provider at a well-known URL.
+ *
+ * <p>All lookup methods are constant-time: each JWK Set is indexed once when it is created by its
+ * {@link Jwk#getId() kid}, its <a href="https://www.rfc-editor.org/rfc/rfc7638.html">RFC 7638</a> SHA-256
+ * {@link Jwk#thumbprint() thumbprint}, and its {@code kty}, {@code alg} and {@code use} parameters.</p>
+ *
+ * @see JwkParser#parseSet(String)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface JwkSet extends Iterable<Jwk<?>> {
+
+    /**
+     * Returns the immutable list of JWKs in this set, in the order they were defined in the JWK Set {@code keys}
+     * array.
+     *
+     * @return the immutable list of JWKs in this set.
+     */
+    List<Jwk<?>> getKeys();
+
+    /**
+     * Returns the immutable list of JWKs with the specified {@link Jwk#getId() kid}, or an empty list if there are
+     * none.  More than one JWK may be returned because a JWK Set may contain keys with the same {@code kid} but
+     * different {@code kty} values, or different representations of the same key.
+     *
+     * @param kid the key id to look up
+     * @return the immutable list of JWKs with the specified {@code kid}, never {@code null}.
+     */
+    List<Jwk<?>> findByKeyId(String kid);
+
+    /**
+     * Returns the JWK with the specified Base64URL-encoded
+     * <a href="https://www.rfc-editor.org/rfc/rfc7638.html">RFC 7638</a> SHA-256 thumbprint, or {@code null} if
+     * there is no such JWK.
+     *
+     * @param thumbprint the Base64URL-encoded SHA-256 JWK thumbprint to look up
+     * @return the JWK with the specified thumbprint, or {@code null} if there is no such JWK.
+     */
+    Jwk<?> findByThumbprint(String thumbprint);
+
+    /**
+     * Returns the immutable list of JWKs that have exactly the specified {@code kty}, {@code alg} and {@code use}
+     * values, or an empty list if there are none.  A {@code null} {@code alg} or {@code use} argument matches
+     * only JWKs that do not have that parameter.
+     *
+     * @param kty the {@link Jwk#getType() key type}
+     * @param alg the {@link Jwk#getAlgorithm() algorithm}, or {@code null} to match JWKs without an {@code alg}
+     * @param use the {@link AsymmetricJwk#getPublicKeyUse() public key use}, or {@code null} to match JWKs without
+     *            a {@code use}
+     * @return the immutable list of matching JWKs, never {@code null}.
+     */
+    List<Jwk<?>> find(String kty, String alg, String use);
+
+    /**
+     * Returns a {@link Locator} that resolves the signature verification key for a JWS, or the decryption key for a
+     * JWE, from this JWK Set, suitable for use with
+     * {@link io.jsonwebtoken.JwtParserBuilder#setKeyLocator(Locator) JwtParserBuilder.setKeyLocator}.
+     *
+     * <p>If the JWT header has a {@code kid}, the JWK with that {@code kid} (or, if none, the JWK whose SHA-256
+     * thumbprint equals the {@code kid}) is used.  Otherwise, the header {@code alg} must match exactly one JWK's
+     * {@code alg}.  In both cases, a JWK's {@code alg} and {@code use} values, if present, must be compatible with
+     * the header, and JWEs may only be decrypted with private or secret JWKs.  For JWSs signed with a private
+     * key, the corresponding public key is returned.</p>
+     *
+     * @return a {@link Locator} that resolves JWS and JWE keys from this JWK Set.
+     */
+    Locator<Key> toKeyLocator();
+}
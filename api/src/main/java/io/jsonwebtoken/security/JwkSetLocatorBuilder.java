@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.security;
+
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.lang.Builder;
+import io.jsonwebtoken.lang.Supplier;
+
+import java.net.URL;
+import java.security.Key;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A builder to construct a caching {@link Locator} that resolves JWS and JWE keys from a remote or local
+ * <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a>.  Example usage:
+ * <blockquote><pre>
+ * Locator&lt;Key&gt; locator = Jwks.locator()
+ *         .setSource(new URL("https://idp.example.com/.well-known/jwks.json"))
+ *         .setTimeToLive(10, TimeUnit.MINUTES)      // optional
+ *         .build();
+ *
+ * JwtParser parser = Jwts.parserBuilder().setKeyLocator(locator).build();</pre></blockquote>
+ *
+ * <p>The resulting locator never blocks a parsing thread on I/O: the JWK Set is always loaded asynchronously by
+ * the configured {@link #setExecutor(Executor) executor}, and keys are resolved from the most recently loaded
+ * {@link JwkSet} per {@link JwkSet#toKeyLocator()}.  Specifically:</p>
+ * <ul>
+ *     <li>The first load is started when {@link #build()} is called.  Until it completes, the locator returns
+ *     {@code null}, so parsing fails as it would for any unknown key.</li>
+ *     <li>A refresh is started in the background once the loaded JWK Set is older than its time to live minus the
+ *     {@link #setRefreshAhead(long, TimeUnit) refresh-ahead} duration, and the current (possibly stale) keys
+ *     continue to be used while the refresh runs, or if it fails.</li>
+ *     <li>A header with a {@code kid} that is not in the JWK Set starts a refresh, for example after a key
+ *     rotation.  All refreshes are rate-limited by the
+ *     {@link #setMinRefreshInterval(long, TimeUnit) minimum refresh interval}.</li>
+ *     <li>Concurrent refresh triggers are coalesced so that only one load runs at a time.</li>
+ * </ul>
+ *
+ * @see Jwks#locator()
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface JwkSetLocatorBuilder extends Builder<Locator<Key>> {
+
+    /**
+     * Sets the supplier that returns the JWK Set JSON string each time the JWK Set is loaded.  The supplier is
+     * only ever invoked by the configured {@link #setExecutor(Executor) executor}, one invocation at a time.  Any
+     * exception it throws causes the previously loaded keys to be retained.
+     *
+     * <p>Either this method or {@link #setSource(URL)} must be called.</p>
+     *
+     * @param source the supplier that returns the JWK Set JSON string
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setSource(Supplier<String> source);
+
+    /**
+     * Sets the URL to read the UTF-8 JWK Set JSON from each time the JWK Set is loaded.  Any URL supported by the
+     * JVM may be used, for example an {@code https:} URL, a {@code file:} URL, or a classpath resource URL obtained
+     * via {@link ClassLoader#getResource(String)}.
+     *
+     * <p>Either this method or {@link #setSource(Supplier)} must be called.</p>
+     *
+     * @param url the URL to read the JWK Set JSON from
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setSource(URL url);
+
+    /**
+     * Sets the timeout for connecting to a {@link #setSource(URL) URL source}, for example an {@code https:} URL.
+     * Defaults to 5 seconds; zero means no timeout.  Ignored for {@link #setSource(Supplier) Supplier} sources.
+     *
+     * @param duration the connect timeout duration, must be zero or greater
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     * @see java.net.URLConnection#setConnectTimeout(int)
+     */
+    JwkSetLocatorBuilder setConnectTimeout(long duration, TimeUnit unit);
+
+    /**
+     * Sets the timeout for reading from a {@link #setSource(URL) URL source} once connected.  Defaults to
+     * 10 seconds; zero means no timeout.  Ignored for {@link #setSource(Supplier) Supplier} sources.
+     *
+     * @param duration the read timeout duration, must be zero or greater
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     * @see java.net.URLConnection#setReadTimeout(int)
+     */
+    JwkSetLocatorBuilder setReadTimeout(long duration, TimeUnit unit);
+
+    /**
+     * Sets the parser used to parse the JWK Set JSON.  If not set, a default
+     * {@code Jwks.parser().internPublicJwks(true).build()} is used so that unchanged public keys are not
+     * re-materialized on each reload.
+     *
+     * @param parser the parser used to parse the JWK Set JSON
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setParser(JwkParser parser);
+
+    /**
+     * Sets how long a loaded JWK Set is considered fresh.  Defaults to 5 minutes.
+     *
+     * @param duration the time to live duration, must be greater than zero
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setTimeToLive(long duration, TimeUnit unit);
+
+    /**
+     * Sets how long before the {@link #setTimeToLive(long, TimeUnit) time to live} expires a background refresh is
+     * started.  Defaults to 30 seconds, and must be less than the time to live.
+     *
+     * @param duration the refresh-ahead duration, must be zero or greater
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setRefreshAhead(long duration, TimeUnit unit);
+
+    /**
+     * Sets the minimum time between two load attempts, which rate-limits refreshes triggered by unknown
+     * {@code kid}s and retries after a failed load.  Defaults to 30 seconds.
+     *
+     * @param duration the minimum refresh interval duration, must be zero or greater
+     * @param unit     the duration time unit
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setMinRefreshInterval(long duration, TimeUnit unit);
+
+    /**
+     * Sets the executor that loads the JWK Set.  If not set, a daemon thread that is started on demand and stops
+     * when idle is used.
+     *
+     * @param executor the executor that loads the JWK Set
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setExecutor(Executor executor);
+
+    /**
+     * Sets the clock used to determine JWK Set age.  If not set, the system clock is used.
+     *
+     * @param clock the clock used to determine JWK Set age
+     * @return the builder for method chaining.
+     */
+    JwkSetLocatorBuilder setClock(Clock clock);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.security;
+
+import java.util.Map;
+
+/**
+ * The result of leniently parsing a <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">JWK Set</a>:
+ * the {@link JwkSet} of all JWKs that could be parsed, as well as the failure for each JWK that could not.
+ *
+ * @see JwkParser#parseSetLenient(java.io.InputStream)
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface JwkSetParseResult {
+
+    /**
+     * Returns the {@link JwkSet} containing every supported JWK that was parsed successfully, in document order.
+     *
+     * @return the {@link JwkSet} containing every supported JWK that was parsed successfully.
+     */
+    JwkSet getJwkSet();
+
+    /**
+     * Returns an immutable map of the JWKs that could not be parsed, keyed by their zero-based index in the JWK Set
+     * {@code keys} array, in ascending index order.  The map is empty if all JWKs were parsed successfully.  JWKs
+     * with unsupported {@code kty} values are ignored per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7517.html#section-5">RFC 7517, Section 5</a> and are not
+     * considered failures.
+     *
+     * @return an immutable map of JWK Set {@code keys} array indices to the exception that prevented parsing the
+     * JWK at that index, never {@code null}.
+     */
+    Map<Integer, KeyException> getFailures();
+}
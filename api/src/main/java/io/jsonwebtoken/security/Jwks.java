@@ -42,6 +42,8 @@ public final class Jwks {
 
     private static final String PARSERBUILDER_CLASSNAME = "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder";
 
+    private static final String LOCATORBUILDER_CLASSNAME = "io.jsonwebtoken.impl.security.DefaultJwkSetLocatorBuilder";
+
     /**
      * Registry of various (<em>but not all</em>)
      * <a href="https://www.iana.org/assignments/named-information/named-information.xhtml#hash-alg">IANA Hash
@@ -83,4 +85,14 @@ public final class Jwks {
         return Classes.newInstance(PARSERBUILDER_CLASSNAME);
     }
 
+    /**
+     * Return a new {@link JwkSetLocatorBuilder} to create a caching, asynchronously refreshed
+     * {@link io.jsonwebtoken.Locator Locator} that resolves JWS and JWE keys from a JWK Set.
+     *
+     * @return a new {@link JwkSetLocatorBuilder} to create a caching JWK Set key locator.
+     */
+    public static JwkSetLocatorBuilder locator() {
+        return Classes.newInstance(LOCATORBUILDER_CLASSNAME);
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.io
+
+import io.jsonwebtoken.lang.Strings
+import org.junit.Test
+
+import java.nio.ReadOnlyBufferException
+
+import static org.junit.Assert.*
+
+class RawJsonTest {
+
+    private static void assertInvalid(String json, String message) {
+        try {
+            RawJson.of(json)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Invalid JSON: ${message}.".toString(), expected.getMessage()
+        }
+    }
+
+    @Test
+    void testValidValues() {
+        def values = ['{}', '[]', '{"a":1}', ' { "a" : [ 1 , -2.5e+3 , true , false , null ] } ', '"x"', '0', '-0.1',
+                      '1E9', 'true', 'null', '"\\u00e9\\n\\"\\\\\\/\\b\\f\\r\\t"', '"😀"', '[[[{"a":{}}]]]']
+        for (String json : values) {
+            def raw = RawJson.of(json)
+            assertEquals json, raw.toString()
+            assertArrayEquals json.getBytes(Strings.UTF_8), raw.toByteArray()
+            assertEquals json.getBytes(Strings.UTF_8).length, raw.length()
+        }
+    }
+
+    @Test
+    void testInvalidValues() {
+        assertInvalid '{', 'unexpected end of input, expected \'"\' or \'}\' at index 1'
+        assertInvalid '{"a":1,}', 'unexpected \'}\', expected \'"\' at index 7'
+        assertInvalid '[1 2]', 'unexpected \'2\', expected \',\' or \']\' at index 3'
+        assertInvalid '{} {}', 'unexpected \'{\', expected end of input at index 3'
+        assertInvalid 'tru', 'invalid literal, expected \'true\' at index 0'
+        assertInvalid '01', 'unexpected \'1\', expected end of input at index 1'
+        assertInvalid '1.', 'invalid number, expected a digit at index 2'
+        assertInvalid '"\\x"', 'invalid escape character \'x\' at index 2'
+        assertInvalid '"\\u12g4"', 'invalid unicode escape at index 5'
+        assertInvalid '"a\nb"', 'unescaped control character in string at index 2'
+        assertInvalid '"\ud83d"', 'unpaired surrogate character in string at index 1'
+        assertInvalid "'a'", 'unexpected \'\'\', expected a JSON value at index 0'
+    }
+
+    @Test
+    void testDuplicateMemberNames() {
+        assertInvalid '{"a":1,"a":2}', 'duplicate member name \'a\' at index 7'
+        assertInvalid '{"p":{"a":1, "\\u0061":2}}', 'duplicate member name \'a\' at index 13' // escaped duplicate
+        assertInvalid '[{"a":1},{"b":{"c":true,"c":false}}]', 'duplicate member name \'c\' at index 24'
+        // the same name at different depths or in sibling objects is not a duplicate:
+        assertEquals '{"a":{"a":1},"b":[{"a":2},{"a":3}]}', RawJson.of('{"a":{"a":1},"b":[{"a":2},{"a":3}]}').toString()
+    }
+
+    @Test
+    void testMaxDepth() {
+        RawJson.of('[' * 256 + ']' * 256)
+        try {
+            RawJson.of('[' * 257 + ']' * 257)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertTrue expected.getMessage().contains('nesting depth exceeds the maximum allowed depth of 256')
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNullString() {
+        RawJson.of((String) null)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testBlankString() {
+        RawJson.of('  ')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testEmptyBytes() {
+        RawJson.of(new byte[0])
+    }
+
+    @Test
+    void testInvalidUtf8() {
+        try {
+            RawJson.of([0x22, 0xC3, 0x22] as byte[])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'JSON byte array is not valid UTF-8.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testBytesAreCopied() {
+        byte[] bytes = '["é"]'.getBytes(Strings.UTF_8)
+        def raw = RawJson.of(bytes)
+        bytes[2] = (byte) 'x'
+        assertEquals '["é"]', raw.toString()
+        byte[] copy = raw.toByteArray()
+        copy[0] = (byte) '{'
+        assertEquals '["é"]', new String(raw.toByteArray(), Strings.UTF_8)
+    }
+
+    @Test(expected = ReadOnlyBufferException)
+    void testByteBufferIsReadOnly() {
+        def buf = RawJson.of('[1]').toByteBuffer()
+        assertEquals 3, buf.remaining()
+        buf.put((byte) 0)
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        def a = RawJson.of('{"a":1}')
+        def b = RawJson.of('{"a":1}'.getBytes(Strings.UTF_8))
+        assertEquals a, a
+        assertEquals a, b
+        assertEquals a.hashCode(), b.hashCode()
+        assertNotEquals a, RawJson.of('{"a": 1}')
+        assertNotEquals a, '{"a":1}'
+    }
+}
@@ -16,14 +16,25 @@
 package io.jsonwebtoken.gson.io;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import io.jsonwebtoken.io.DeserializationException;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.lang.Strings;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Map;
+import java.util.Set;
 
-public class GsonDeserializer<T> implements Deserializer<T> {
+public class GsonDeserializer<T> implements Deserializer<T>, MapPopulatingDeserializer {
 
     private final Class<T> returnType;
     private final Gson gson;
@@ -56,6 +67,103 @@ public class GsonDeserializer<T> implements Deserializer<T> {
     }
 
     protected T readValue(byte[] bytes) throws IOException {
-        return gson.fromJson(new String(bytes, Strings.UTF_8), returnType);
+        return gson.fromJson(reader(bytes), returnType);
+    }
+
+    /**
+     * Reads the JSON object in the specified byte array directly into the {@code target} map with Gson's streaming
+     * {@link JsonReader}, putting each member into the map as soon as its value has been read.  Member values are
+     * read with the same {@code TypeAdapter} used by {@link #deserialize(byte[])}, but no intermediate {@code Map}
+     * is created.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        try {
+            readValue(bytes, target);
+        } catch (IOException | JsonParseException e) {
+            String msg = "Unable to deserialize bytes into a " + Map.class.getName() + " instance: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
+
+    /**
+     * Reads the JSON object into the target map.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws IOException if Gson is unable to read the JSON object
+     * @since JJWT_RELEASE_VERSION
+     */
+    protected void readValue(byte[] bytes, Map<String, Object> target) throws IOException {
+        readValue(bytes, target, null);
+    }
+
+    /**
+     * Reads the JSON object in the specified byte array with Gson's streaming {@link JsonReader}, putting only the
+     * members named in {@code names} into the {@code target} map.  Retained member values are read exactly as they
+     * are by {@link #deserialize(byte[], Map)}, and all other member values are skipped by the reader without being
+     * read into objects.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names)
+            throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        Assert.notNull(names, "Member names cannot be null.");
+        try {
+            readValue(bytes, target, names);
+        } catch (IOException | JsonParseException e) {
+            String msg = "Unable to deserialize bytes into a " + Map.class.getName() + " instance: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
+
+    /**
+     * Reads the JSON object into the target map, skipping any members not named in {@code names} unless it is
+     * {@code null}.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map, or {@code null} to put all members
+     * @throws IOException if Gson is unable to read the JSON object
+     * @since JJWT_RELEASE_VERSION
+     */
+    protected void readValue(byte[] bytes, Map<String, Object> target, Set<String> names) throws IOException {
+        JsonReader reader = gson.newJsonReader(reader(bytes));
+        reader.setLenient(true); // as Gson.fromJson does
+        TypeAdapter<Object> adapter = gson.getAdapter(Object.class);
+        JsonToken token = reader.peek();
+        if (token != JsonToken.BEGIN_OBJECT) {
+            throw new MalformedJsonException("Expected a JSON object but was " + token);
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (names == null || names.contains(name)) {
+                target.put(name, adapter.read(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new MalformedJsonException("JSON document was not fully consumed.");
+        }
+    }
+
+    // decodes the UTF-8 bytes as they are read instead of creating an intermediate String:
+    private static Reader reader(byte[] bytes) {
+        return new InputStreamReader(new ByteArrayInputStream(bytes), Strings.UTF_8);
     }
 }
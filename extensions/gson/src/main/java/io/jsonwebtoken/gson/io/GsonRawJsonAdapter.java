@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.gson.io;
+
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.jsonwebtoken.io.RawJson;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link RawJson} values verbatim.  This adapter must be registered for the {@code RawJson} type when
+ * providing a custom {@code Gson} instance to the {@link GsonSerializer}, for example:
+ * <pre>
+ * new GsonBuilder()
+ *     .registerTypeAdapter(RawJson.class, GsonRawJsonAdapter.INSTANCE)
+ *     // ... etc ...</pre>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public final class GsonRawJsonAdapter extends TypeAdapter<RawJson> {
+
+    public static final GsonRawJsonAdapter INSTANCE = new GsonRawJsonAdapter();
+
+    @Override
+    public void write(JsonWriter out, RawJson value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.jsonValue(value.toString());
+        }
+    }
+
+    @Override
+    public RawJson read(JsonReader in) throws IOException {
+        return RawJson.of(JsonParser.parseReader(in).toString());
+    }
+}
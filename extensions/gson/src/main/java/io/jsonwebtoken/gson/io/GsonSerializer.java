@@ -18,6 +18,7 @@ package io.jsonwebtoken.gson.io;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.io.RawJson;
 import io.jsonwebtoken.io.SerializationException;
 import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.lang.Assert;
@@ -28,6 +29,7 @@ public class GsonSerializer<T> implements Serializer<T> {
 
     static final Gson DEFAULT_GSON = new GsonBuilder()
             .registerTypeHierarchyAdapter(Supplier.class, GsonSupplierSerializer.INSTANCE)
+            .registerTypeAdapter(RawJson.class, GsonRawJsonAdapter.INSTANCE)
             .disableHtmlEscaping().create();
     private final Gson gson;
 
@@ -88,4 +88,57 @@ class GsonDeserializerTest {
 
         verify ex
     }
+
+    @Test
+    void testDeserializeIntoMap() {
+        Map<String, Object> target = [existing: 'value']
+        byte[] serialized = '{"hello":"世界","n":42,"aud":["a","b"],"nested":{"x":true},"empty":null}'.getBytes(Strings.UTF_8)
+        new GsonDeserializer().deserialize(serialized, target)
+        assertEquals([existing: 'value', hello: '世界', n: 42d, aud: ['a', 'b'], nested: [x: true], empty: null], target)
+        assertEquals(['existing', 'hello', 'n', 'aud', 'nested', 'empty'], target.keySet() as List)
+    }
+
+    @Test
+    void testDeserializeIntoMapRetained() {
+        byte[] serialized = '{"sub":"joe","perms":{"admin":["read",{"x":[1,2]}]},"n":42,"skip":"世界","scope":null}'
+                .getBytes(Strings.UTF_8)
+        Map<String, Object> target = [:]
+        new GsonDeserializer().deserialize(serialized, target, ['sub', 'n', 'scope'] as Set)
+        assertEquals([sub: 'joe', n: 42d, scope: null], target)
+        assertEquals(['sub', 'n', 'scope'], target.keySet() as List)
+    }
+
+    @Test
+    void testDeserializeIntoMapWithInvalidJson() {
+        ['["hello"]', '{"hello":', '{"a":1} {"b":2}', ''].each { String json ->
+            try {
+                new GsonDeserializer().deserialize(json.getBytes(Strings.UTF_8), [:])
+                fail()
+            } catch (DeserializationException expected) {
+                assertTrue expected.getMessage().startsWith('Unable to deserialize bytes into a java.util.Map instance: ')
+            }
+        }
+    }
+
+    @Test
+    void testDeserializeIntoMapPropagatesTargetExceptions() {
+        def ex = new IllegalArgumentException('invalid')
+        def target = new LinkedHashMap<String, Object>() {
+            @Override
+            Object put(String key, Object value) {
+                throw ex
+            }
+        }
+        try {
+            new GsonDeserializer().deserialize('{"exp":"foo"}'.getBytes(Strings.UTF_8), target)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertSame ex, expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testDeserializeIntoNullMap() {
+        new GsonDeserializer().deserialize('{}'.getBytes(Strings.UTF_8), null)
+    }
 }
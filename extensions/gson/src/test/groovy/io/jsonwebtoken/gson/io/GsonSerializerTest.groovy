@@ -17,6 +17,7 @@ package io.jsonwebtoken.gson.io
 
 import com.google.gson.Gson
 import com.google.gson.GsonBuilder
+import io.jsonwebtoken.io.RawJson
 import io.jsonwebtoken.io.SerializationException
 import io.jsonwebtoken.io.Serializer
 import io.jsonwebtoken.lang.Strings
@@ -139,4 +140,18 @@ class GsonSerializerTest {
 
         verify ex
     }
+
+    @Test
+    void testRawJson() {
+        def perms = RawJson.of('[ "read", {"scope":"世界"} ]')
+        byte[] result = new GsonSerializer().serialize([sub: 'joe', perms: perms])
+        assertEquals '{"sub":"joe","perms":[ "read", {"scope":"世界"} ]}', new String(result, Strings.UTF_8)
+    }
+
+    @Test
+    void testRawJsonAdapterRead() {
+        def gson = new GsonBuilder().registerTypeAdapter(RawJson, GsonRawJsonAdapter.INSTANCE).create()
+        assertEquals RawJson.of('{"b":[1,2]}'), gson.fromJson(' { "b" : [ 1 , 2 ] } ', RawJson)
+        assertEquals 'null', gson.toJson(null, RawJson)
+    }
 }
@@ -16,25 +16,38 @@
 package io.jsonwebtoken.jackson.io;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.jsonwebtoken.io.DeserializationException;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
 import io.jsonwebtoken.lang.Assert;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @since 0.10.0
  */
-public class JacksonDeserializer<T> implements Deserializer<T> {
+public class JacksonDeserializer<T> implements Deserializer<T>, MapPopulatingDeserializer {
 
     private final Class<T> returnType;
     private final ObjectMapper objectMapper;
+    private final ObjectReader reader; // reads retained member values, see readValue(byte[], Map, Set)
+    private final ObjectReader mapReader; // reads JSON objects into target maps, see readValue(byte[], Map)
 
     public JacksonDeserializer() {
         this(JacksonSerializer.DEFAULT_OBJECT_MAPPER);
@@ -66,16 +79,27 @@ public class JacksonDeserializer<T> implements Deserializer<T> {
      * @param claimTypeMap The claim name-to-class map used to deserialize claims into the given type
      */
     public JacksonDeserializer(Map<String, Class<?>> claimTypeMap) {
+        this(newObjectMapper(claimTypeMap));
+    }
+
+    private static ObjectMapper newObjectMapper(Map<String, Class<?>> claimTypeMap) {
+        Assert.notNull(claimTypeMap, "Claim type map cannot be null.");
         // DO NOT reuse JacksonSerializer.DEFAULT_OBJECT_MAPPER as this could result in sharing the custom deserializer
         // between instances
-        this(new ObjectMapper());
-        Assert.notNull(claimTypeMap, "Claim type map cannot be null.");
+        ObjectMapper objectMapper = new ObjectMapper();
         // register a new Deserializer
         SimpleModule module = new SimpleModule();
         module.addDeserializer(Object.class, new MappedTypeDeserializer(Collections.unmodifiableMap(claimTypeMap)));
         objectMapper.registerModule(module);
+        return objectMapper;
     }
 
+    /**
+     * Creates a new JacksonDeserializer that uses the specified {@code ObjectMapper}.  The {@code ObjectMapper} should
+     * be fully configured (for example, with any custom modules registered) before calling this constructor.
+     *
+     * @param objectMapper the ObjectMapper to use for deserialization
+     */
     @SuppressWarnings({"unchecked", "WeakerAccess", "unused"}) // for end-users providing a custom ObjectMapper
     public JacksonDeserializer(ObjectMapper objectMapper) {
         this(objectMapper, (Class<T>) Object.class);
@@ -86,6 +110,11 @@ public class JacksonDeserializer<T> implements Deserializer<T> {
         Assert.notNull(returnType, "Return type cannot be null.");
         this.objectMapper = objectMapper;
         this.returnType = returnType;
+        // ObjectReaders are immutable and thread-safe, so the readers are created once, from the fully configured
+        // ObjectMapper:
+        this.reader = objectMapper.readerFor(Object.class).without(DeserializationFeature.WRAP_EXCEPTIONS);
+        JavaType mapType = objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class);
+        this.mapReader = this.reader.forType(mapType);
     }
 
     @Override
@@ -102,14 +131,108 @@ public class JacksonDeserializer<T> implements Deserializer<T> {
         return objectMapper.readValue(bytes, returnType);
     }
 
+    /**
+     * Reads the JSON object in the specified byte array directly into the {@code target} map with Jackson's
+     * streaming parser, putting each member into the map as soon as its value has been read.  Member values are
+     * deserialized exactly as they are by {@link #deserialize(byte[])}, including any {@code claimTypeMap}
+     * customizations, but no intermediate {@code Map} is created.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        try {
+            readValue(bytes, target);
+        } catch (IOException e) {
+            String msg = "Unable to deserialize bytes into a " + Map.class.getName() + " instance: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
+
+    /**
+     * Reads the JSON object into the target map.  Exceptions thrown by the target map (for example when it
+     * rejects an invalid value) are not wrapped by Jackson so that they may be reported by the caller as-is.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws IOException if Jackson is unable to read the JSON object
+     * @since JJWT_RELEASE_VERSION
+     */
+    protected void readValue(byte[] bytes, Map<String, Object> target) throws IOException {
+        this.mapReader.withValueToUpdate(target).readValue(bytes);
+    }
+
+    /**
+     * Reads the JSON object in the specified byte array with Jackson's streaming parser, putting only the members
+     * named in {@code names} into the {@code target} map.  Retained member values are deserialized exactly as they
+     * are by {@link #deserialize(byte[], Map)}, and all other member values are skipped by the parser without being
+     * deserialized.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names)
+            throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        Assert.notNull(names, "Member names cannot be null.");
+        try {
+            readValue(bytes, target, names);
+        } catch (IOException e) {
+            String msg = "Unable to deserialize bytes into a " + Map.class.getName() + " instance: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
+
+    /**
+     * Reads the members of the JSON object named in {@code names} into the target map, skipping all others.
+     * Exceptions thrown by the target map are not wrapped by Jackson so that they may be reported by the caller
+     * as-is.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map
+     * @throws IOException if Jackson is unable to read the JSON object
+     * @since JJWT_RELEASE_VERSION
+     */
+    protected void readValue(byte[] bytes, Map<String, Object> target, Set<String> names) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw MismatchedInputException.from(parser, Map.class, "Expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (names.contains(name)) {
+                    target.put(name, this.reader.readValue(parser));
+                } else {
+                    parser.skipChildren(); // no-op for scalar values, which are never materialized by the parser
+                }
+            }
+        }
+    }
+
     /**
      * A Jackson {@link com.fasterxml.jackson.databind.JsonDeserializer JsonDeserializer}, that will convert claim
      * values to types based on {@code claimTypeMap}.
+     *
+     * <p>Each mapped claim value is bound directly from the token stream by the Jackson deserializer for its mapped
+     * type.  That deserializer is looked up once per claim name and cached, since this instance is only ever
+     * registered with the single {@code ObjectMapper} created by the {@code claimTypeMap} constructor.</p>
      */
     private static class MappedTypeDeserializer extends UntypedObjectDeserializer {
 
         private final Map<String, Class<?>> claimTypeMap;
 
+        private final ConcurrentMap<String, JsonDeserializer<Object>> deserializers = new ConcurrentHashMap<>();
+
         private MappedTypeDeserializer(Map<String, Class<?>> claimTypeMap) {
             super(null, null);
             this.claimTypeMap = claimTypeMap;
@@ -117,14 +240,31 @@ public class JacksonDeserializer<T> implements Deserializer<T> {
 
         @Override
         public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException {
-            // check if the current claim key is mapped, if so traverse it's value
+            // check if the current claim key is mapped, if so bind its value directly:
             String name = parser.currentName();
             if (claimTypeMap != null && name != null && claimTypeMap.containsKey(name)) {
-                Class<?> type = claimTypeMap.get(name);
-                return parser.readValueAsTree().traverse(parser.getCodec()).readValueAs(type);
+                JsonDeserializer<Object> deserializer = deserializer(name, context);
+                if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    return deserializer.getNullValue(context);
+                }
+                return deserializer.deserialize(parser, context);
             }
             // otherwise default to super
             return super.deserialize(parser, context);
         }
+
+        private JsonDeserializer<Object> deserializer(String name, DeserializationContext context)
+                throws JsonMappingException {
+            JsonDeserializer<Object> deserializer = deserializers.get(name);
+            if (deserializer == null) {
+                Class<?> type = claimTypeMap.get(name);
+                deserializer = context.findRootValueDeserializer(context.constructType(type));
+                JsonDeserializer<Object> existing = deserializers.putIfAbsent(name, deserializer);
+                if (existing != null) {
+                    deserializer = existing;
+                }
+            }
+            return deserializer;
+        }
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.jackson.io;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.jsonwebtoken.io.RawJson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes {@link RawJson} values verbatim.  When generating UTF-8 output (as {@link JacksonSerializer} does), the
+ * raw bytes are copied directly into the generator's output buffer.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+final class JacksonRawJsonSerializer extends StdSerializer<RawJson> {
+
+    static final JacksonRawJsonSerializer INSTANCE = new JacksonRawJsonSerializer();
+
+    public JacksonRawJsonSerializer() {
+        super(RawJson.class);
+    }
+
+    @Override
+    public void serialize(RawJson json, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeRawValue(new RawJsonString(json));
+    }
+
+    /**
+     * Only the unquoted methods are used for raw values, the quoted methods are implemented for completeness.
+     */
+    private static final class RawJsonString implements SerializableString {
+
+        private final RawJson json;
+
+        private RawJsonString(RawJson json) {
+            this.json = json;
+        }
+
+        private SerializableString quoted() {
+            return new SerializedString(getValue());
+        }
+
+        @Override
+        public String getValue() {
+            return this.json.toString();
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return quoted().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return this.json.toByteArray();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return quoted().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return quoted().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return quoted().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            int length = this.json.length();
+            if (offset + length > buffer.length) {
+                return -1; // the generator then falls back to asUnquotedUTF8()
+            }
+            this.json.toByteBuffer().get(buffer, offset, length);
+            return length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            int length = value.length();
+            if (offset + length > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, length, buffer, offset);
+            return length;
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return quoted().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            byte[] bytes = this.json.toByteArray();
+            out.write(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return quoted().putQuotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+            int length = this.json.length();
+            if (length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(this.json.toByteBuffer());
+            return length;
+        }
+    }
+}
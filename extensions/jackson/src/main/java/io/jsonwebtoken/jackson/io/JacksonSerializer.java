@@ -34,6 +34,7 @@ public class JacksonSerializer<T> implements Serializer<T> {
     static {
         SimpleModule module = new SimpleModule(MODULE_ID);
         module.addSerializer(JacksonSupplierSerializer.INSTANCE);
+        module.addSerializer(JacksonRawJsonSerializer.INSTANCE);
         MODULE = module;
     }
 
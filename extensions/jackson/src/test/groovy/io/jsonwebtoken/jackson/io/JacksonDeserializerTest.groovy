@@ -15,13 +15,18 @@
  */
 package io.jsonwebtoken.jackson.io
 
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.databind.DeserializationContext
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.deser.std.UntypedObjectDeserializer
+import com.fasterxml.jackson.databind.module.SimpleModule
 import io.jsonwebtoken.io.DeserializationException
 import io.jsonwebtoken.io.Deserializer
 import io.jsonwebtoken.io.Encoders
 import io.jsonwebtoken.jackson.io.stubs.CustomBean
 import io.jsonwebtoken.lang.Maps
 import io.jsonwebtoken.lang.Strings
+import org.junit.Assume
 import org.junit.Test
 
 import static org.easymock.EasyMock.*
@@ -179,6 +184,166 @@ class JacksonDeserializerTest {
         verify ex
     }
 
+    @Test
+    void testDeserializeIntoMap() {
+        byte[] serialized = '{"hello":"世界","n":42,"aud":["a","b"],"nested":{"x":true}}'.getBytes(Strings.UTF_8)
+        def target = new LinkedHashMap<String, Object>()
+        target.put('existing', 'value')
+        new JacksonDeserializer().deserialize(serialized, target)
+        assertEquals([existing: 'value', hello: '世界', n: 42, aud: ['a', 'b'], nested: [x: true]], target)
+        assertEquals(['existing', 'hello', 'n', 'aud', 'nested'], target.keySet() as List) // document order
+    }
+
+    @Test
+    void testDeserializeIntoMapWithCustomObject() {
+        byte[] serialized = """{"oneKey":"oneValue","custom":{"stringValue":"s-value","intValue":"11",
+                "byteArrayValue":"${base64('bytes')}"}}""".getBytes(Strings.UTF_8)
+        def target = [:]
+        new JacksonDeserializer(Maps.of("custom", CustomBean).build()).deserialize(serialized, target)
+        def bean = new CustomBean().setStringValue('s-value').setIntValue(11)
+                .setByteArrayValue('bytes'.getBytes('UTF-8'))
+        def expected = [oneKey: 'oneValue', custom: bean]
+        assertEquals expected, target
+    }
+
+    @Test
+    void testDeserializeIntoMapPropagatesTargetExceptions() {
+        def ex = new IllegalArgumentException('invalid')
+        def target = new LinkedHashMap<String, Object>() {
+            @Override
+            Object put(String key, Object value) {
+                throw ex
+            }
+        }
+        try {
+            new JacksonDeserializer().deserialize('{"exp":"foo"}'.getBytes(Strings.UTF_8), target)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertSame ex, expected
+        }
+    }
+
+    @Test
+    void testDeserializeIntoMapWithInvalidJson() {
+        try {
+            new JacksonDeserializer().deserialize('["hello"]'.getBytes(Strings.UTF_8), [:])
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith('Unable to deserialize bytes into a java.util.Map instance: ')
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testDeserializeIntoNullMap() {
+        new JacksonDeserializer().deserialize('{}'.getBytes(Strings.UTF_8), null)
+    }
+
+    @Test
+    void testDeserializeIntoMapRetained() {
+        byte[] serialized = """{"sub":"joe","perms":{"admin":["read",{"x":[1,2]}]},"n":42,"custom":{"stringValue":"s",
+                "byteArrayValue":"${base64('b')}"},"skip":"世界","scope":null}""".getBytes(Strings.UTF_8)
+        def target = new LinkedHashMap<String, Object>()
+        new JacksonDeserializer(Maps.of('custom', CustomBean).build())
+                .deserialize(serialized, target, ['sub', 'custom', 'scope'] as Set)
+        assertEquals(['sub', 'custom', 'scope'], target.keySet() as List)
+        assertEquals 'joe', target.sub
+        assertEquals new CustomBean().setStringValue('s').setByteArrayValue('b'.getBytes('UTF-8')), target.custom
+        assertNull target.scope
+    }
+
+    @Test
+    void testDeserializeIntoMapRetainedWithInvalidJson() {
+        ['["hello"]', '{"a":1,"b":[1,}', '{"a":1,"b":'].each { json ->
+            try {
+                new JacksonDeserializer().deserialize(json.getBytes(Strings.UTF_8), [:], ['a'] as Set)
+                fail()
+            } catch (DeserializationException expected) {
+                assertTrue expected.getMessage().startsWith('Unable to deserialize bytes into a java.util.Map instance: ')
+            }
+        }
+    }
+
+    @Test
+    void testMappedTypesAreBoundRepeatedly() {
+        def deserializer = new JacksonDeserializer(Maps.of('custom', CustomBean).and('roles', String[]).build())
+        2.times { i ->
+            def json = """{"custom":{"stringValue":"s$i","byteArrayValue":"${base64('b')}"},"roles":["r$i"]}"""
+            def result = deserializer.deserialize(json.getBytes(Strings.UTF_8)) as Map
+            assertEquals "s$i" as String, (result.custom as CustomBean).getStringValue()
+            assertArrayEquals(["r$i" as String] as String[], result.roles as String[])
+        }
+    }
+
+    @Test
+    void testMappedTypeWithNullValue() {
+        def deserializer = new JacksonDeserializer(Maps.of('custom', CustomBean).build())
+        def result = deserializer.deserialize('{"custom":null,"other":{"stringValue":"foo"}}'.getBytes(Strings.UTF_8))
+        assertEquals([custom: null, other: [stringValue: 'foo']], result)
+    }
+
+    @Test
+    void testMappedTypeWithInvalidValue() {
+        def deserializer = new JacksonDeserializer(Maps.of('custom', CustomBean).build())
+        try {
+            deserializer.deserialize('{"custom":{"intValue":"foo"}}'.getBytes(Strings.UTF_8))
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith('Unable to deserialize bytes into a java.lang.Object instance: ')
+        }
+    }
+
+    /**
+     * Compares mapped claim binding against the previous approach of buffering each mapped value as a
+     * {@code JsonNode} tree and re-parsing it.  Timings are environment dependent, so this only runs when the
+     * {@code jjwt.benchmark} system property is {@code true}, for example:
+     * {@code mvn test -pl extensions/jackson -Dtest=JacksonDeserializerTest -Djjwt.benchmark=true}
+     */
+    @Test
+    void benchmarkMappedTypes() {
+        Assume.assumeTrue(Boolean.getBoolean('jjwt.benchmark'))
+
+        Map<String, Class<?>> types = [:]
+        StringBuilder sb = new StringBuilder('{"iss":"me","sub":"joe"')
+        6.times { i ->
+            types.put("c$i" as String, CustomBean)
+            sb.append(",\"c$i\":{\"stringValue\":\"value-$i\",\"intValue\":$i,\"longValue\":${i * 1000L}," +
+                    "\"nestedValue\":{\"stringValue\":\"nested-$i\"}}")
+        }
+        byte[] json = sb.append('}').toString().getBytes(Strings.UTF_8)
+
+        def direct = new JacksonDeserializer(types)
+        def tree = new ObjectMapper()
+        def module = new SimpleModule()
+        module.addDeserializer(Object, new UntypedObjectDeserializer(null, null) {
+            @Override
+            Object deserialize(JsonParser p, DeserializationContext ctxt) throws java.io.IOException {
+                String name = p.currentName()
+                if (name != null && types.containsKey(name)) {
+                    return p.readValueAsTree().traverse(p.getCodec()).readValueAs(types.get(name))
+                }
+                return super.deserialize(p, ctxt)
+            }
+        })
+        tree.registerModule(module)
+        def treeDeserializer = new JacksonDeserializer(tree)
+
+        int iterations = 100_000
+        3.times { // warm up, then measure
+            long treeNanos = time(iterations) { treeDeserializer.deserialize(json) }
+            long directNanos = time(iterations) { direct.deserialize(json) }
+            println String.format('mapped claims: tree round-trip %,d ns/op, direct binding %,d ns/op',
+                    (long) (treeNanos / iterations), (long) (directNanos / iterations))
+        }
+    }
+
+    private static long time(int iterations, Closure c) {
+        long start = System.nanoTime()
+        for (int i = 0; i < iterations; i++) {
+            c.call()
+        }
+        return System.nanoTime() - start
+    }
+
     private String base64(String input) {
         return Encoders.BASE64.encode(input.getBytes('UTF-8'))
     }
@@ -17,6 +17,7 @@ package io.jsonwebtoken.jackson.io
 
 import com.fasterxml.jackson.core.JsonProcessingException
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.jsonwebtoken.io.RawJson
 import io.jsonwebtoken.io.SerializationException
 import io.jsonwebtoken.io.Serializer
 import io.jsonwebtoken.lang.Strings
@@ -129,4 +130,28 @@ class JacksonSerializerTest {
 
         verify ex
     }
+
+    @Test
+    void testRawJson() {
+        def perms = RawJson.of('[ "read", {"scope":"世界"} ]')
+        byte[] result = new JacksonSerializer().serialize([sub: 'joe', perms: perms])
+        assertEquals '{"sub":"joe","perms":[ "read", {"scope":"世界"} ]}', new String(result, Strings.UTF_8)
+    }
+
+    @Test
+    void testRawJsonLargerThanOutputBuffer() {
+        def sb = new StringBuilder('[')
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i == 0 ? '' : ',').append('"v').append(i).append('"')
+        }
+        String json = sb.append(']').toString()
+        byte[] result = new JacksonSerializer().serialize([perms: RawJson.of(json)])
+        assertEquals '{"perms":' + json + '}', new String(result, Strings.UTF_8)
+    }
+
+    @Test
+    void testRawJsonWithWriter() {
+        def om = new ObjectMapper().registerModule(JacksonSerializer.MODULE)
+        assertEquals '{"a":{"b":[1,2]}}', om.writeValueAsString([a: RawJson.of('{"b":[1,2]}')])
+    }
 }
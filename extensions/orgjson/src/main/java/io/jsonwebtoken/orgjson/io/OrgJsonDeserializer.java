@@ -17,95 +17,265 @@ package io.jsonwebtoken.orgjson.io;
 
 import io.jsonwebtoken.io.DeserializationException;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.lang.Strings;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONTokener;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
+ * A {@link Deserializer} that uses org.json's {@link JSONTokener} to tokenize JSON, but builds the resulting
+ * {@code Map}s and {@code List}s directly in a single pass instead of first creating {@code JSONObject} and
+ * {@code JSONArray} instances and then converting them.  Objects, arrays and separators are parsed with the same
+ * rules as {@code JSONObject} and {@code JSONArray}, and all scalar values are read by the tokener itself.
+ *
  * @since 0.10.0
  */
-public class OrgJsonDeserializer implements Deserializer<Object> {
+public class OrgJsonDeserializer implements Deserializer<Object>, MapPopulatingDeserializer {
+
+    // Android's org.json JSONTokener only has a String constructor, so the Reader constructor is only used when
+    // it is available: https://github.com/jwtk/jjwt/issues/380
+    private static final boolean READER_SUPPORTED = isReaderSupported();
+
+    private static boolean isReaderSupported() {
+        try {
+            JSONTokener.class.getConstructor(Reader.class);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
 
     @Override
     public Object deserialize(byte[] bytes) throws DeserializationException {
 
-        Assert.notNull(bytes, "JSON byte array cannot be null");
+        assertBytes(bytes);
 
-        if (bytes.length == 0) {
-            throw new DeserializationException("Invalid JSON: zero length byte array.");
+        try {
+            return parse(tokener(bytes));
+        } catch (Exception e) {
+            String msg = "Invalid JSON: " + e.getMessage();
+            throw new DeserializationException(msg, e);
         }
+    }
+
+    /**
+     * Reads the JSON object in the specified byte array directly into the {@code target} map, putting each member
+     * into the map as soon as its value has been read.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's members
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+
+        assertBytes(bytes);
+        Assert.notNull(target, "Target map cannot be null.");
 
         try {
-            String s = new String(bytes, Strings.UTF_8);
-            return parse(s);
-        } catch (Exception e) {
+            JSONTokener tokener = tokener(bytes);
+            if (tokener.nextClean() != '{') {
+                throw tokener.syntaxError("A JSONObject text must begin with '{'");
+            }
+            parseObject(tokener, target, new HashSet<String>(), null);
+        } catch (JSONException e) {
             String msg = "Invalid JSON: " + e.getMessage();
             throw new DeserializationException(msg, e);
         }
     }
 
-    private Object parse(String json) throws JSONException {
+    /**
+     * Reads the JSON object in the specified byte array, putting only the members named in {@code names} into the
+     * {@code target} map.  The values of all other members are skipped without building any {@code Map}s or
+     * {@code List}s, although org.json's tokener still reads their scalar values.
+     *
+     * @param bytes  the UTF-8 bytes of the JSON object to read
+     * @param target the map to receive each of the JSON object's retained members
+     * @param names  the names of the members to put into the target map
+     * @throws DeserializationException if there is a problem reading the byte array as a JSON object.
+     * @since JJWT_RELEASE_VERSION
+     */
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names)
+            throws DeserializationException {
 
-        JSONTokener tokener = new JSONTokener(json);
+        assertBytes(bytes);
+        Assert.notNull(target, "Target map cannot be null.");
+        Assert.notNull(names, "Member names cannot be null.");
 
-        char c = tokener.nextClean(); //peak ahead
-        tokener.back(); //revert
+        try {
+            JSONTokener tokener = tokener(bytes);
+            if (tokener.nextClean() != '{') {
+                throw tokener.syntaxError("A JSONObject text must begin with '{'");
+            }
+            parseObject(tokener, target, new HashSet<String>(), names);
+        } catch (JSONException e) {
+            String msg = "Invalid JSON: " + e.getMessage();
+            throw new DeserializationException(msg, e);
+        }
+    }
+
+    private static void assertBytes(byte[] bytes) {
+        Assert.notNull(bytes, "JSON byte array cannot be null");
+        if (bytes.length == 0) {
+            throw new DeserializationException("Invalid JSON: zero length byte array.");
+        }
+    }
 
+    private static JSONTokener tokener(byte[] bytes) {
+        if (READER_SUPPORTED) { // decode the UTF-8 bytes as they are read instead of creating an intermediate String:
+            return new JSONTokener(new InputStreamReader(new ByteArrayInputStream(bytes), Strings.UTF_8));
+        }
+        return new JSONTokener(new String(bytes, Strings.UTF_8));
+    }
+
+    private Object parse(JSONTokener tokener) throws JSONException {
+        char c = tokener.nextClean(); //peak ahead
         if (c == '{') { //json object
-            JSONObject o = new JSONObject(tokener);
-            return toMap(o);
+            Map<String, Object> map = new LinkedHashMap<>();
+            parseObject(tokener, map, null, null);
+            return map;
         } else if (c == '[') {
-            JSONArray a = new JSONArray(tokener);
-            return toList(a);
+            return parseArray(tokener, false);
         } else {
             //raw json value
-            Object value = tokener.nextValue();
-            return convertIfNecessary(value);
+            tokener.back(); //revert
+            return convertIfNecessary(tokener.nextValue());
+        }
+    }
+
+    // If 'skip' is true, the value is only validated and null is returned, without building Maps or Lists:
+    private Object parseValue(JSONTokener tokener, boolean skip) throws JSONException {
+        char c = tokener.nextClean();
+        switch (c) {
+            case '{':
+                Map<String, Object> map = skip ? null : new LinkedHashMap<String, Object>();
+                parseObject(tokener, map, null, null);
+                return map;
+            case '[':
+                return parseArray(tokener, skip);
+            case '"':
+            case '\'':
+                return tokener.nextString(c);
+            default:
+                tokener.back();
+                return convertIfNecessary(tokener.nextValue()); // numbers, booleans and null
         }
     }
 
-    private Map<String, Object> toMap(JSONObject o) {
-        Map<String, Object> map = new LinkedHashMap<>();
-        // https://github.com/jwtk/jjwt/issues/380: use .keys() and *not* .keySet() for Android compatibility:
-        Iterator<String> iterator = o.keys();
-        while (iterator.hasNext()) {
-            String key = iterator.next();
-            Object value = o.get(key);
-            value = convertIfNecessary(value);
-            map.put(key, value);
+    /**
+     * Parses the members of a JSON object, following the opening brace, into the specified map, per the same rules
+     * as the {@code JSONObject(JSONTokener)} constructor, including its rejection of duplicate keys.  If
+     * {@code seen} is {@code null}, the map itself is used to detect duplicate keys.  If {@code retained} is not
+     * {@code null}, the values of members not named in it are skipped.  If {@code map} is {@code null}, all member
+     * values are skipped and duplicate keys are not detected.
+     */
+    private void parseObject(JSONTokener tokener, Map<String, Object> map, Set<String> seen, Set<String> retained)
+            throws JSONException {
+        if (tokener.nextClean() == '}') {
+            return;
+        }
+        tokener.back();
+        for (; ; ) {
+            char c = tokener.nextClean();
+            String key;
+            if (c == '"' || c == '\'') {
+                key = tokener.nextString(c);
+            } else if (c == 0) {
+                throw tokener.syntaxError("A JSONObject text must end with '}'");
+            } else {
+                tokener.back();
+                key = tokener.nextValue().toString();
+            }
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+            boolean duplicate = seen != null ? !seen.add(key) : map != null && map.containsKey(key);
+            if (duplicate) {
+                throw tokener.syntaxError("Duplicate key \"" + key + "\"");
+            }
+            if (map != null && (retained == null || retained.contains(key))) {
+                map.put(key, parseValue(tokener, false));
+            } else {
+                parseValue(tokener, true);
+            }
+
+            switch (tokener.nextClean()) {
+                case ';':
+                case ',':
+                    if (tokener.nextClean() == '}') {
+                        return;
+                    }
+                    tokener.back();
+                    break;
+                case '}':
+                    return;
+                default:
+                    throw tokener.syntaxError("Expected a ',' or '}'");
+            }
         }
-        return map;
     }
 
-    private List<Object> toList(JSONArray a) {
-        int length = a.length();
-        List<Object> list = new ArrayList<>(length);
-        // https://github.com/jwtk/jjwt/issues/380: use a.get(i) and *not* a.toList() for Android compatibility:
-        for (int i = 0; i < length; i++) {
-            Object value = a.get(i);
-            value = convertIfNecessary(value);
-            list.add(value);
+    /**
+     * Parses the elements of a JSON array, following the opening bracket, per the same rules as the
+     * {@code JSONArray(JSONTokener)} constructor.  If {@code skip} is {@code true}, the elements are only
+     * validated and {@code null} is returned.
+     */
+    private List<Object> parseArray(JSONTokener tokener, boolean skip) throws JSONException {
+        List<Object> list = skip ? null : new ArrayList<Object>();
+        if (tokener.nextClean() == ']') {
+            return list;
+        }
+        tokener.back();
+        for (; ; ) {
+            Object element = null;
+            if (tokener.nextClean() == ',') { // elided element
+                tokener.back();
+            } else {
+                tokener.back();
+                element = parseValue(tokener, skip);
+            }
+            if (list != null) {
+                list.add(element);
+            }
+            switch (tokener.nextClean()) {
+                case 0:
+                    throw tokener.syntaxError("Expected a ',' or ']'");
+                case ',':
+                    char c = tokener.nextClean();
+                    if (c == 0) {
+                        throw tokener.syntaxError("Expected a ',' or ']'");
+                    }
+                    if (c == ']') {
+                        return list;
+                    }
+                    tokener.back();
+                    break;
+                case ']':
+                    return list;
+                default:
+                    throw tokener.syntaxError("Expected a ',' or ']'");
+            }
         }
-        return list;
     }
 
     private Object convertIfNecessary(Object v) {
         Object value = v;
         if (JSONObject.NULL.equals(value)) {
             value = null;
-        } else if (value instanceof JSONArray) {
-            value = toList((JSONArray) value);
-        } else if (value instanceof JSONObject) {
-            value = toMap((JSONObject) value);
         }
         return value;
     }
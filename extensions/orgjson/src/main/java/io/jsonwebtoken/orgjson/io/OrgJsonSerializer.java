@@ -16,6 +16,7 @@
 package io.jsonwebtoken.orgjson.io;
 
 import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.io.RawJson;
 import io.jsonwebtoken.io.SerializationException;
 import io.jsonwebtoken.io.Serializer;
 import io.jsonwebtoken.lang.Classes;
@@ -26,6 +27,8 @@ import io.jsonwebtoken.lang.Strings;
 import io.jsonwebtoken.lang.Supplier;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONString;
+import org.json.JSONTokener;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -87,6 +90,10 @@ public class OrgJsonSerializer<T> implements Serializer<T> {
             object = ((Supplier<?>)object).get();
         }
 
+        if (object instanceof RawJson) {
+            return toRawJSONInstance((RawJson) object);
+        }
+
         if (object instanceof JSONObject || object instanceof JSONArray
                 || JSONObject.NULL.equals(object) || isJSONString(object)
                 || object instanceof Byte || object instanceof Character
@@ -135,6 +142,19 @@ public class OrgJsonSerializer<T> implements Serializer<T> {
         throw new SerializationException(msg);
     }
 
+    /**
+     * Returns a {@code JSONString} that org.json writes verbatim, or if {@code JSONString} is not available (as is
+     * the case on older Android versions), the equivalent parsed JSON value.
+     *
+     * @since JJWT_RELEASE_VERSION
+     */
+    private static Object toRawJSONInstance(RawJson json) {
+        if (JSON_STRING_CLASS != null) {
+            return new RawJSONString(json);
+        }
+        return new JSONTokener(json.toString()).nextValue();
+    }
+
     private JSONObject toJSONObject(Map<?, ?> m) {
 
         JSONObject obj = new JSONObject();
@@ -183,4 +203,23 @@ public class OrgJsonSerializer<T> implements Serializer<T> {
         }
         return s.getBytes(Strings.UTF_8);
     }
+
+    /**
+     * Only referenced when {@code org.json.JSONString} is available, see {@link #toRawJSONInstance(RawJson)}.
+     *
+     * @since JJWT_RELEASE_VERSION
+     */
+    private static final class RawJSONString implements JSONString {
+
+        private final RawJson json;
+
+        private RawJSONString(RawJson json) {
+            this.json = json;
+        }
+
+        @Override
+        public String toJSONString() {
+            return this.json.toString();
+        }
+    }
 }
@@ -168,4 +168,113 @@ class OrgJsonDeserializerTest {
         def expected = [hello: '世界', test: [foo: 'bar']]
         assertEquals expected, value
     }
+
+    @Test
+    void testObjectPreservesDocumentOrder() {
+        def d = new OrgJsonDeserializer()
+        def value = d.deserialize('{"z":1,"a":2,"m":3}'.getBytes(Strings.UTF_8)) as Map
+        assertEquals(['z', 'a', 'm'], value.keySet() as List)
+    }
+
+    @Test
+    void testNestedStructures() {
+        def d = new OrgJsonDeserializer()
+        def json = '{"aud":["a",{"b":[1,2.5,null,true]}],"nested":{"deeper":{"s":"世界"}}}'
+        def value = d.deserialize(json.getBytes(Strings.UTF_8))
+        assertEquals([aud: ['a', [b: [1, 2.5, null, true]]], nested: [deeper: [s: '世界']]], value)
+    }
+
+    @Test
+    void testDuplicateKey() {
+        def d = new OrgJsonDeserializer()
+        try {
+            d.deserialize('{"a":1,"a":2}'.getBytes(Strings.UTF_8))
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith('Invalid JSON: Duplicate key "a"')
+        }
+    }
+
+    @Test
+    void testMissingColon() {
+        def d = new OrgJsonDeserializer()
+        try {
+            d.deserialize('{"a" 1}'.getBytes(Strings.UTF_8))
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith("Invalid JSON: Expected a ':' after a key")
+        }
+    }
+
+    @Test
+    void testUnterminatedStructures() {
+        def d = new OrgJsonDeserializer()
+        ['{"a":1', '{"a":1 "b":2}', '[1,2', '[1}', '{'].each { String json ->
+            try {
+                d.deserialize(json.getBytes(Strings.UTF_8))
+                fail(json)
+            } catch (DeserializationException expected) {
+                assertTrue expected.getMessage(), expected.getMessage().startsWith('Invalid JSON: ')
+            }
+        }
+    }
+
+    @Test
+    void testDeserializeIntoMap() {
+        def d = new OrgJsonDeserializer()
+        Map<String, Object> target = [existing: 'value']
+        d.deserialize('{"hello":"世界","n":42,"aud":["a","b"],"empty":null}'.getBytes(Strings.UTF_8), target)
+        assertEquals([existing: 'value', hello: '世界', n: 42, aud: ['a', 'b'], empty: null], target)
+    }
+
+    @Test
+    void testDeserializeIntoMapDuplicateKey() {
+        def d = new OrgJsonDeserializer()
+        try {
+            d.deserialize('{"a":null,"a":2}'.getBytes(Strings.UTF_8), [:])
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith('Invalid JSON: Duplicate key "a"')
+        }
+    }
+
+    @Test
+    void testDeserializeIntoMapRetained() {
+        def d = new OrgJsonDeserializer()
+        byte[] serialized = '{"sub":"joe","perms":{"admin":["read",{"x":[1,,2]}]},"n":42,"skip":"世界","scope":null}'
+                .getBytes(Strings.UTF_8)
+        Map<String, Object> target = [:]
+        d.deserialize(serialized, target, ['sub', 'n', 'scope'] as Set)
+        assertEquals([sub: 'joe', n: 42, scope: null], target)
+        assertEquals(['sub', 'n', 'scope'], target.keySet() as List)
+    }
+
+    @Test
+    void testDeserializeIntoMapRetainedValidatesSkippedValues() {
+        def d = new OrgJsonDeserializer()
+        ['{"a":1,"b":[1,2}', '{"a":1,"b":{"c"}}', '{"a":1,"b":{"c":1', '{"a":1,"a":2}'].each { json ->
+            try {
+                d.deserialize(json.getBytes(Strings.UTF_8), [:], ['a'] as Set)
+                fail("Expected invalid JSON: $json")
+            } catch (DeserializationException expected) {
+                assertTrue expected.getMessage().startsWith('Invalid JSON: ')
+            }
+        }
+    }
+
+    @Test
+    void testDeserializeIntoMapNonObject() {
+        def d = new OrgJsonDeserializer()
+        try {
+            d.deserialize('["a"]'.getBytes(Strings.UTF_8), [:])
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().startsWith("Invalid JSON: A JSONObject text must begin with '{'")
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testDeserializeIntoNullMap() {
+        new OrgJsonDeserializer().deserialize('{}'.getBytes(Strings.UTF_8), null)
+    }
 }
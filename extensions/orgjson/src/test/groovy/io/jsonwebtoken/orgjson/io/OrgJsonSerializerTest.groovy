@@ -16,6 +16,7 @@
 package io.jsonwebtoken.orgjson.io
 
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.io.RawJson
 import io.jsonwebtoken.io.SerializationException
 import io.jsonwebtoken.io.Serializer
 import io.jsonwebtoken.lang.DateFormats
@@ -276,4 +277,11 @@ class OrgJsonSerializerTest {
     void testListWithNestedObject() {
         assertEquals '[1,null,{"hello":"世界"}]', ser([1, null, [hello: '世界']])
     }
+
+    @Test
+    void testRawJson() {
+        def perms = RawJson.of('[ "read", {"scope":"all"} ]')
+        assertEquals '[ "read", {"scope":"all"} ]', ser(perms)
+        assertEquals '{"perms":[ "read", {"scope":"all"} ]}', ser([perms: perms])
+    }
 }
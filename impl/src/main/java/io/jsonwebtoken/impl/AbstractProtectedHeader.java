@@ -44,7 +44,7 @@ public abstract class AbstractProtectedHeader<T extends ProtectedHeader<T>> exte
     @SuppressWarnings("unchecked")
     static final Field<PublicJwk<?>> JWK = Fields.builder((Class<PublicJwk<?>>) (Class<?>) PublicJwk.class)
             .setId("jwk").setName("JSON Web Key")
-            .setConverter(JwkConverter.PUBLIC_JWK).build();
+            .setConverter(JwkConverter.PUBLIC_JWK).setCanonicalType(Map.class).build();
     static final Field<Set<String>> CRIT = Fields.stringSet("crit", "Critical");
 
     static final Set<Field<?>> FIELDS = Collections.concat(AbstractHeader.FIELDS, CRIT, JKU, JWK, AbstractJwk.KID,
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.CandidateLocator;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A {@link CandidateLocator} that offers a fixed set of candidates for every header, ordered by an exponentially
+ * decayed success score: each successful use of a candidate adds {@code 1} to its score after all scores have been
+ * multiplied by {@link #DECAY}, so recent successes outweigh older ones.  Candidates with equal scores retain
+ * their original order.
+ *
+ * <p>Lookups read an immutable, volatile snapshot of the current order and never block.  Success notifications
+ * synchronize to update scores, and only re-sort when the successful candidate was not already first, so the
+ * common case of the preferred candidate succeeding again is cheap.</p>
+ *
+ * @param <T> the type of object located
+ * @since JJWT_RELEASE_VERSION
+ */
+public class AdaptiveCandidateLocator<T> implements CandidateLocator<T> {
+
+    static final double DECAY = 0.9;
+
+    private final List<T> candidates; // original order, used to break ties
+
+    private final double[] scores; // guarded by this
+
+    private volatile List<T> ordered;
+
+    public AdaptiveCandidateLocator(Collection<? extends T> candidates) {
+        Assert.notEmpty(candidates, "Candidates collection cannot be null or empty.");
+        List<T> list = new ArrayList<>(candidates.size());
+        for (T candidate : candidates) {
+            Assert.notNull(candidate, "Candidates cannot contain null elements.");
+            if (indexOf(list, candidate) < 0) {
+                list.add(candidate);
+            }
+        }
+        this.candidates = Collections.immutable(list);
+        this.scores = new double[list.size()];
+        this.ordered = this.candidates;
+    }
+
+    private static int indexOf(List<?> list, Object candidate) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == candidate || list.get(i).equals(candidate)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public T locate(Header<?> header) {
+        return this.ordered.get(0);
+    }
+
+    @Override
+    public List<T> locateCandidates(Header<?> header) {
+        return this.ordered;
+    }
+
+    @Override
+    public void onSuccess(Header<?> header, T candidate) {
+        final int index = indexOf(this.candidates, candidate);
+        if (index < 0) {
+            return; // not one of ours
+        }
+        synchronized (this) {
+            for (int i = 0; i < this.scores.length; i++) {
+                this.scores[i] *= DECAY;
+            }
+            this.scores[index] += 1;
+            // uniform decay doesn't change relative order, so only the boosted candidate can move, and it can't
+            // move if it's already first:
+            if (this.ordered.get(0) != this.candidates.get(index)) {
+                this.ordered = sort();
+            }
+        }
+    }
+
+    private List<T> sort() {
+        List<Integer> indices = new ArrayList<>(this.scores.length);
+        for (int i = 0; i < this.scores.length; i++) {
+            indices.add(i);
+        }
+        java.util.Collections.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int c = Double.compare(scores[b], scores[a]); // highest score first
+                return c != 0 ? c : a.compareTo(b);
+            }
+        });
+        List<T> sorted = new ArrayList<>(indices.size());
+        for (Integer i : indices) {
+            sorted.add(this.candidates.get(i));
+        }
+        return Collections.immutable(sorted);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.CachingLocator;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JweHeader;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.lang.Assert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link CachingLocator} implementation.  Cache entries are kept in an access-ordered map guarded by its
+ * own monitor, which is only ever held for map operations - never while the delegate {@code Locator} is invoked.
+ *
+ * @param <T> the type of object located
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultCachingLocator<T> implements CachingLocator<T> {
+
+    private static final String UNPROTECTED = "none";
+    private static final String JWS = "JWS";
+    private static final String JWE = "JWE";
+
+    private final Locator<T> delegate;
+    private final List<String> keyParams;
+    private final long timeToLiveMillis;
+    private final long negativeTimeToLiveMillis;
+    private final Clock clock;
+    private final Map<List<Object>, Entry<T>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DefaultCachingLocator(Locator<T> delegate, List<String> keyParams, long timeToLiveMillis,
+                                 long negativeTimeToLiveMillis, final int maximumSize, Clock clock) {
+        this.delegate = Assert.notNull(delegate, "Delegate Locator cannot be null.");
+        this.keyParams = Assert.notEmpty(keyParams, "Header parameter names cannot be null or empty.");
+        Assert.isTrue(timeToLiveMillis > 0, "Time to live must be greater than zero.");
+        Assert.isTrue(negativeTimeToLiveMillis >= 0, "Negative time to live must be zero or greater.");
+        Assert.isTrue(maximumSize > 0, "Maximum size must be greater than zero.");
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.negativeTimeToLiveMillis = negativeTimeToLiveMillis;
+        this.clock = Assert.notNull(clock, "Clock cannot be null.");
+        this.entries = new LinkedHashMap<List<Object>, Entry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry<T>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    private long now() {
+        return this.clock.now().getTime();
+    }
+
+    // The cache key is the header type followed by the selected header parameter values:
+    private List<Object> toCacheKey(Header<?> header) {
+        List<Object> key = new ArrayList<>(this.keyParams.size() + 1);
+        key.add(header instanceof JweHeader ? JWE : header instanceof JwsHeader ? JWS : UNPROTECTED);
+        for (String name : this.keyParams) {
+            key.add(header.get(name));
+        }
+        return key;
+    }
+
+    @Override
+    public T locate(Header<?> header) {
+        Assert.notNull(header, "Header cannot be null.");
+        final List<Object> key = toCacheKey(header);
+        final long now = now();
+
+        Entry<T> entry;
+        boolean load = false;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+            if (entry == null || entry.isExpired(now)) {
+                entry = new Entry<>();
+                this.entries.put(key, entry);
+                load = true;
+            }
+        }
+
+        if (!load) {
+            this.hits.incrementAndGet();
+            return entry.get(); // waits if a concurrent load of the same key is in progress
+        }
+
+        this.misses.incrementAndGet();
+        try {
+            T value = this.delegate.locate(header);
+            long ttl = value != null ? this.timeToLiveMillis : this.negativeTimeToLiveMillis;
+            entry.complete(value, expiresAt(now, ttl));
+            if (ttl == 0) { // negative caching disabled
+                remove(key, entry);
+            }
+            return value;
+        } catch (RuntimeException | Error e) { // never cached, but propagated to any waiting callers:
+            remove(key, entry);
+            entry.fail(e);
+            throw e;
+        }
+    }
+
+    // saturates instead of overflowing for very long time-to-live values:
+    private static long expiresAt(long now, long ttl) {
+        return ttl > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttl;
+    }
+
+    private void remove(List<Object> key, Entry<T> entry) {
+        synchronized (this.entries) {
+            if (this.entries.get(key) == entry) { // might have been evicted and replaced already
+                this.entries.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    @Override
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private volatile long expiresAt = Long.MAX_VALUE; // never expires while loading
+        private T value;
+        private Throwable failure;
+
+        private boolean isExpired(long now) {
+            return now >= this.expiresAt;
+        }
+
+        private void complete(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.loaded.countDown(); // publishes value
+        }
+
+        private void fail(Throwable t) {
+            this.failure = t;
+            this.expiresAt = Long.MIN_VALUE;
+            this.loaded.countDown();
+        }
+
+        private T get() {
+            try {
+                this.loaded.await();
+            } catch (InterruptedException e) { // stop waiting, the loading thread still completes the entry
+                Thread.currentThread().interrupt();
+                String msg = "Interrupted while waiting for a concurrent lookup of the same cache key.";
+                throw new IllegalStateException(msg, e);
+            }
+            Throwable t = this.failure;
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            }
+            return this.value;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.CachingLocator;
+import io.jsonwebtoken.CachingLocatorBuilder;
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("unused") //used via reflection by Locators.caching()
+public class DefaultCachingLocatorBuilder<T> implements CachingLocatorBuilder<T> {
+
+    static final List<String> DEFAULT_KEY_PARAMS = Collections.of(JwsHeader.KEY_ID, Header.ALGORITHM);
+    static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final long DEFAULT_NEGATIVE_TIME_TO_LIVE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final Locator<T> delegate;
+    private List<String> keyParams = DEFAULT_KEY_PARAMS;
+    private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+    private long negativeTimeToLiveMillis = DEFAULT_NEGATIVE_TIME_TO_LIVE_MILLIS;
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private Clock clock = DefaultClock.INSTANCE;
+
+    public DefaultCachingLocatorBuilder(Locator<T> delegate) {
+        this.delegate = Assert.notNull(delegate, "Delegate Locator cannot be null.");
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> keyedBy(String... headerParamNames) {
+        Assert.notEmpty(headerParamNames, "Header parameter names cannot be null or empty.");
+        return keyedBy(Collections.arrayToList(headerParamNames));
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> keyedBy(Collection<String> headerParamNames) {
+        Assert.notEmpty(headerParamNames, "Header parameter names cannot be null or empty.");
+        List<String> names = new ArrayList<>(headerParamNames.size());
+        for (String name : headerParamNames) {
+            names.add(Assert.hasText(name, "Header parameter names cannot be null or empty."));
+        }
+        this.keyParams = Collections.immutable(names);
+        return this;
+    }
+
+    private static long toMillis(long duration, TimeUnit unit) {
+        Assert.notNull(unit, "TimeUnit cannot be null.");
+        return unit.toMillis(duration);
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> setTimeToLive(long duration, TimeUnit unit) {
+        this.timeToLiveMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> setNegativeTimeToLive(long duration, TimeUnit unit) {
+        this.negativeTimeToLiveMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    @Override
+    public CachingLocatorBuilder<T> setClock(Clock clock) {
+        this.clock = Assert.notNull(clock, "Clock cannot be null.");
+        return this;
+    }
+
+    @Override
+    public CachingLocator<T> build() {
+        return new DefaultCachingLocator<>(this.delegate, this.keyParams, this.timeToLiveMillis,
+                this.negativeTimeToLiveMillis, this.maximumSize, this.clock);
+    }
+}
@@ -57,6 +57,10 @@ public class DefaultClaims extends JwtMap implements Claims {
         super(FIELDS, map);
     }
 
+    protected DefaultClaims(Set<Field<?>> fields) { // for subclasses that support additional fields
+        super(fields);
+    }
+
     @Override
     public String getName() {
         return "JWT Claim";
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.ClaimsSchema;
+import io.jsonwebtoken.SchemaClaim;
+import io.jsonwebtoken.SchemaClaims;
+import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable {@link ClaimsSchema} that creates {@link DefaultSchemaClaims} instances.  Its field set - the
+ * registered claims followed by the schema claims - is created once, so all of its claims instances share the same
+ * cached {@link JwtMap} slot layout.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultClaimsSchema implements ClaimsSchema {
+
+    private final Object owner;
+    private final List<DefaultSchemaClaim<?>> claims;
+    private final Collection<SchemaClaim<?>> claimsView;
+    private final Set<Field<?>> fields;
+    private final Map<String, DefaultSchemaClaim<?>> byName;
+    private final int[] counts; // the number of claims of each DefaultSchemaClaim.Kind
+
+    DefaultClaimsSchema(Object owner, List<DefaultSchemaClaim<?>> claims, int[] counts) {
+        this.owner = Assert.notNull(owner, "Owner cannot be null.");
+        this.claims = Collections.immutable(Assert.notNull(claims, "Claims cannot be null."));
+        this.claimsView = Collections.<SchemaClaim<?>>immutable(new ArrayList<SchemaClaim<?>>(claims));
+        Set<Field<?>> fields = new LinkedHashSet<>(DefaultClaims.FIELDS);
+        Map<String, DefaultSchemaClaim<?>> byName = new LinkedHashMap<>();
+        for (DefaultSchemaClaim<?> claim : claims) {
+            fields.add(claim.getField());
+            byName.put(claim.getName(), claim);
+        }
+        this.fields = Collections.immutable(fields);
+        this.byName = Collections.immutable(byName);
+        this.counts = Assert.notNull(counts, "Counts cannot be null.");
+    }
+
+    Set<Field<?>> getFields() {
+        return this.fields;
+    }
+
+    List<DefaultSchemaClaim<?>> getSchemaClaims() {
+        return this.claims;
+    }
+
+    Set<String> getClaimNames() {
+        return this.byName.keySet();
+    }
+
+    DefaultSchemaClaim<?> getClaim(Object name) {
+        return this.byName.get(name);
+    }
+
+    int count(DefaultSchemaClaim.Kind kind) {
+        return this.counts[kind.ordinal()];
+    }
+
+    boolean owns(SchemaClaim<?> claim) {
+        return claim instanceof DefaultSchemaClaim && ((DefaultSchemaClaim<?>) claim).isOwnedBy(this.owner);
+    }
+
+    @Override
+    public Collection<SchemaClaim<?>> getClaims() {
+        return this.claimsView;
+    }
+
+    /**
+     * Returns new, empty and mutable claims of this schema.
+     *
+     * @return new, empty and mutable claims of this schema.
+     */
+    public DefaultSchemaClaims newClaims() {
+        return new DefaultSchemaClaims(this);
+    }
+
+    @Override
+    public SchemaClaims from(Map<String, ?> claims) {
+        Assert.notNull(claims, "Claims cannot be null.");
+        if (claims instanceof DefaultSchemaClaims) {
+            DefaultSchemaClaims schemaClaims = (DefaultSchemaClaims) claims;
+            if (schemaClaims.getSchema() == this && !schemaClaims.isMutable()) {
+                return schemaClaims;
+            }
+        }
+        DefaultSchemaClaims schemaClaims = newClaims();
+        schemaClaims.putAll(claims);
+        schemaClaims.makeImmutable();
+        return schemaClaims;
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimsSchema" + this.byName.keySet();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.ClaimsSchema;
+import io.jsonwebtoken.ClaimsSchemaBuilder;
+import io.jsonwebtoken.SchemaClaim;
+import io.jsonwebtoken.impl.lang.DoubleConverter;
+import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.impl.lang.Fields;
+import io.jsonwebtoken.impl.lang.LongConverter;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultClaimsSchemaBuilder implements ClaimsSchemaBuilder {
+
+    // registered claims share the JwtMap slot layout with schema claims, which can't have more than 254 fields:
+    static final int MAX_CLAIMS = 0xFE - DefaultClaims.FIELDS.size();
+
+    private final Object owner = new Object();
+    private final Map<String, DefaultSchemaClaim<?>> claims = new LinkedHashMap<>();
+    private final int[] counts = new int[DefaultSchemaClaim.Kind.values().length];
+    private boolean built;
+
+    private static boolean isRegistered(String name) {
+        for (Field<?> field : DefaultClaims.FIELDS) {
+            if (field.getId().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String claimName(String name) {
+        Assert.state(!this.built, "ClaimsSchema has already been built.");
+        name = Assert.hasText(Strings.clean(name), "Claim name cannot be null or empty.");
+        if (isRegistered(name)) {
+            String msg = "Claim '" + name + "' is a registered claim and may not be redefined by a schema.";
+            throw new IllegalArgumentException(msg);
+        }
+        if (this.claims.containsKey(name)) {
+            String msg = "Claim '" + name + "' has already been added to the schema.";
+            throw new IllegalArgumentException(msg);
+        }
+        Assert.isTrue(this.claims.size() < MAX_CLAIMS, "A schema may not have more than " + MAX_CLAIMS + " claims.");
+        return name;
+    }
+
+    private <T> SchemaClaim<T> add(Field<T> field, Class<?> type, DefaultSchemaClaim.Kind kind) {
+        int slot = this.counts[kind.ordinal()]++;
+        DefaultSchemaClaim<T> claim = new DefaultSchemaClaim<>(this.owner, field, type, kind, this.claims.size(), slot);
+        this.claims.put(claim.getName(), claim);
+        return claim;
+    }
+
+    @Override
+    public SchemaClaim<String> addString(String name) {
+        name = claimName(name);
+        return add(Fields.string(name, "String"), String.class, DefaultSchemaClaim.Kind.OBJECT);
+    }
+
+    @Override
+    public SchemaClaim<Long> addLong(String name) {
+        name = claimName(name);
+        Field<Long> field = Fields.builder(Long.class).setConverter(LongConverter.INSTANCE)
+                .setId(name).setName("Long").build();
+        return add(field, Long.class, DefaultSchemaClaim.Kind.LONG);
+    }
+
+    @Override
+    public SchemaClaim<Double> addDouble(String name) {
+        name = claimName(name);
+        Field<Double> field = Fields.builder(Double.class).setConverter(DoubleConverter.INSTANCE)
+                .setId(name).setName("Double").build();
+        return add(field, Double.class, DefaultSchemaClaim.Kind.DOUBLE);
+    }
+
+    @Override
+    public SchemaClaim<Boolean> addBoolean(String name) {
+        name = claimName(name);
+        Field<Boolean> field = Fields.builder(Boolean.class).setId(name).setName("Boolean").build();
+        return add(field, Boolean.class, DefaultSchemaClaim.Kind.BOOLEAN);
+    }
+
+    @Override
+    public SchemaClaim<Date> addDate(String name) {
+        name = claimName(name);
+        return add(Fields.rfcDate(name, "NumericDate"), Date.class, DefaultSchemaClaim.Kind.OBJECT);
+    }
+
+    @Override
+    public SchemaClaim<Set<String>> addStringSet(String name) {
+        name = claimName(name);
+        return add(Fields.stringSet(name, "String Set"), Set.class, DefaultSchemaClaim.Kind.OBJECT);
+    }
+
+    @Override
+    public ClaimsSchema build() {
+        Assert.state(!this.built, "ClaimsSchema has already been built.");
+        this.built = true;
+        List<DefaultSchemaClaim<?>> claims = new ArrayList<>(this.claims.values());
+        return new DefaultClaimsSchema(this.owner, claims, this.counts.clone());
+    }
+}
@@ -42,7 +42,7 @@ public class DefaultJweHeader extends AbstractProtectedHeader<JweHeader> impleme
     @SuppressWarnings("unchecked")
     public static final Field<PublicJwk<?>> EPK = Fields.builder((Class<PublicJwk<?>>) (Class<?>) PublicJwk.class)
             .setId("epk").setName("Ephemeral Public Key")
-            .setConverter(JwkConverter.PUBLIC_JWK).build();
+            .setConverter(JwkConverter.EPHEMERAL_PUBLIC_JWK).build();
     static final Field<byte[]> APU = Fields.bytes("apu", "Agreement PartyUInfo").build();
     static final Field<byte[]> APV = Fields.bytes("apv", "Agreement PartyVInfo").build();
 
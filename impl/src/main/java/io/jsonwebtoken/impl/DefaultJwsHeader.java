@@ -17,13 +17,19 @@ package io.jsonwebtoken.impl;
 
 import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.impl.lang.Fields;
+import io.jsonwebtoken.lang.Collections;
 
 import java.util.Map;
 import java.util.Set;
 
 public class DefaultJwsHeader extends AbstractProtectedHeader<JwsHeader> implements JwsHeader {
 
-    static final Set<Field<?>> FIELDS = AbstractProtectedHeader.FIELDS; //same
+    // https://www.rfc-editor.org/rfc/rfc7797.html#section-3 :
+    static final Field<Boolean> B64 = Fields.builder(Boolean.class)
+            .setId("b64").setName("Base64url-Encode Payload").build();
+
+    static final Set<Field<?>> FIELDS = Collections.concat(AbstractProtectedHeader.FIELDS, B64);
 
     public DefaultJwsHeader() {
         super(FIELDS);
@@ -37,4 +43,10 @@ public class DefaultJwsHeader extends AbstractProtectedHeader<JwsHeader> impleme
     public String getName() {
         return "JWS header";
     }
+
+    @Override
+    public boolean isPayloadEncoded() {
+        Boolean b64 = idiomaticGet(B64);
+        return b64 == null || b64;
+    }
 }
@@ -22,6 +22,7 @@ import io.jsonwebtoken.JweHeader;
 import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.io.SimpleJsonSerializer;
 import io.jsonwebtoken.impl.lang.Bytes;
 import io.jsonwebtoken.impl.lang.CompactMediaTypeIdConverter;
 import io.jsonwebtoken.impl.lang.Function;
@@ -30,7 +31,10 @@ import io.jsonwebtoken.impl.lang.Services;
 import io.jsonwebtoken.impl.security.DefaultAeadRequest;
 import io.jsonwebtoken.impl.security.DefaultKeyRequest;
 import io.jsonwebtoken.impl.security.DefaultSecureRequest;
+import io.jsonwebtoken.impl.security.DefaultStreamingSecureRequest;
+import io.jsonwebtoken.impl.security.FixedKeyAeadAlgorithm;
 import io.jsonwebtoken.impl.security.Pbes2HsAkwAlgorithm;
+import io.jsonwebtoken.impl.security.StreamingRequests;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoder;
 import io.jsonwebtoken.io.Encoders;
@@ -49,6 +53,7 @@ import io.jsonwebtoken.security.KeyAlgorithm;
 import io.jsonwebtoken.security.KeyRequest;
 import io.jsonwebtoken.security.KeyResult;
 import io.jsonwebtoken.security.Password;
+import io.jsonwebtoken.security.SecretKeyBuilder;
 import io.jsonwebtoken.security.SecureDigestAlgorithm;
 import io.jsonwebtoken.security.SecureRequest;
 import io.jsonwebtoken.security.SecurityException;
@@ -56,13 +61,21 @@ import io.jsonwebtoken.security.SignatureException;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.Provider;
 import java.security.PublicKey;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DefaultJwtBuilder implements JwtBuilder {
 
@@ -77,20 +90,23 @@ public class DefaultJwtBuilder implements JwtBuilder {
     protected Claims claims;
     protected byte[] content;
 
-    private SecureDigestAlgorithm<Key, ?> sigAlg = Jwts.SIG.NONE;
-    private Function<SecureRequest<byte[], Key>, byte[]> signFunction;
+    private Signer signer; // set by signWith*
+    private final List<Signer> signers = new ArrayList<>(); // additional JWS JSON signatures, set by addSignature
 
     private AeadAlgorithm enc; // MUST be Symmetric AEAD per https://tools.ietf.org/html/rfc7516#section-4.1.2
     private Function<AeadRequest, AeadResult> encFunction;
 
-    private KeyAlgorithm<Key, ?> keyAlg;
-    private Function<KeyRequest<Key>, KeyResult> keyAlgFunction;
+    private final List<Recipient> recipients = new ArrayList<>(); // JWE only
 
-    private Key key;
+    private boolean encodePayload = true; // false only for RFC 7797 unencoded JWS payloads
+    private InputStream contentStream; // JWS unencoded payload only
+
+    private boolean nested; // sign, then encrypt the compact JWS
 
     protected Serializer<Map<String, ?>> serializer;
     protected Function<Map<String, ?>, byte[]> headerSerializer;
     protected Function<Map<String, ?>, byte[]> claimsSerializer;
+    protected Function<Map<String, ?>, byte[]> jsonSerializer;
 
     protected Encoder<byte[], String> base64UrlEncoder = Encoders.BASE64URL;
     protected CompressionCodec compressionCodec;
@@ -132,6 +148,7 @@ public class DefaultJwtBuilder implements JwtBuilder {
         this.serializer = serializer;
         this.headerSerializer = wrap(serializer, "header");
         this.claimsSerializer = wrap(serializer, "claims");
+        this.jsonSerializer = wrap(serializer, "JSON Serialization");
         return this;
     }
 
@@ -198,42 +215,32 @@ public class DefaultJwtBuilder implements JwtBuilder {
 
     @Override
     public <K extends Key> JwtBuilder signWith(K key, final SecureDigestAlgorithm<? super K, ?> alg) throws InvalidKeyException {
-        Assert.notNull(key, "Key argument cannot be null.");
-        if (key instanceof PublicKey) { // it's always wrong to try to create signatures with PublicKeys:
-            throw new IllegalArgumentException(PUB_KEY_SIGN_MSG);
-        }
-        // Implementation note:  Ordinarily Passwords should not be used to create secure digests because they usually
-        // lack the length or entropy necessary for secure cryptographic operations, and are prone to misuse.
-        // However, we DO NOT prevent them as arguments here (like the above PublicKey check) because
-        // it is conceivable that a custom SecureDigestAlgorithm implementation would allow Password instances
-        // so that it might perform its own internal key-derivation logic producing a key that is then used to create a
-        // secure hash.
-        //
-        // Even so, a fallback safety check is that JJWT's only out-of-the-box Password implementation
-        // (io.jsonwebtoken.impl.security.PasswordSpec) explicitly forbids calls to password.getEncoded() in all
-        // scenarios to avoid potential misuse, so a digest algorithm implementation would explicitly need to avoid
-        // this by calling toCharArray() instead.
-        //
-        // TLDR; the digest algorithm implementation has the final say whether a password instance is valid
+        //noinspection unchecked
+        this.signer = new Signer(key, (SecureDigestAlgorithm<Key, ?>) alg, null);
+        return this;
+    }
 
-        Assert.notNull(alg, "SignatureAlgorithm cannot be null.");
-        String id = Assert.hasText(alg.getId(), "SignatureAlgorithm id cannot be null or empty.");
-        if (Jwts.SIG.NONE.getId().equalsIgnoreCase(id)) {
-            String msg = "The 'none' JWS algorithm cannot be used to sign JWTs.";
-            throw new IllegalArgumentException(msg);
-        }
-        this.key = key;
+    @Override
+    public <K extends Key> JwtBuilder addSignature(K key, SecureDigestAlgorithm<? super K, ?> alg) {
+        return addSignature(key, alg, null);
+    }
+
+    @Override
+    public <K extends Key> JwtBuilder addSignature(K key, SecureDigestAlgorithm<? super K, ?> alg, Map<String, ?> header) {
         //noinspection unchecked
-        this.sigAlg = (SecureDigestAlgorithm<Key, ?>) alg;
-        this.signFunction = Functions.wrap(new Function<SecureRequest<byte[], Key>, byte[]>() {
-            @Override
-            public byte[] apply(SecureRequest<byte[], Key> request) {
-                return sigAlg.digest(request);
-            }
-        }, SignatureException.class, "Unable to compute %s signature.", id);
+        this.signers.add(new Signer(key, (SecureDigestAlgorithm<Key, ?>) alg, header));
         return this;
     }
 
+    private List<Signer> signers() {
+        List<Signer> all = new ArrayList<>(this.signers.size() + 1);
+        if (this.signer != null) {
+            all.add(this.signer);
+        }
+        all.addAll(this.signers);
+        return all;
+    }
+
     @SuppressWarnings({"deprecation", "unchecked"}) // TODO: remove method for 1.0
     @Override
     public JwtBuilder signWith(Key key, io.jsonwebtoken.SignatureAlgorithm alg) throws InvalidKeyException {
@@ -277,6 +284,13 @@ public class DefaultJwtBuilder implements JwtBuilder {
 
     @Override
     public <K extends Key> JwtBuilder encryptWith(final K key, final KeyAlgorithm<? super K, ?> keyAlg, final AeadAlgorithm enc) {
+        encryptWith(enc);
+        this.recipients.clear();
+        return addRecipient(key, keyAlg);
+    }
+
+    @Override
+    public JwtBuilder encryptWith(final AeadAlgorithm enc) {
         this.enc = Assert.notNull(enc, "Encryption algorithm cannot be null.");
         final String encId = Assert.hasText(enc.getId(), "Encryption algorithm id cannot be null or empty.");
         this.encFunction = wrap(new Function<AeadRequest, AeadResult>() {
@@ -285,21 +299,20 @@ public class DefaultJwtBuilder implements JwtBuilder {
                 return enc.encrypt(request);
             }
         }, "%s encryption failed.", encId);
+        return this;
+    }
 
-        this.key = Assert.notNull(key, "Key cannot be null.");
+    @Override
+    public <K extends Key> JwtBuilder addRecipient(K key, KeyAlgorithm<? super K, ?> keyAlg) {
+        return addRecipient(key, keyAlg, null);
+    }
 
+    @Override
+    public <K extends Key> JwtBuilder addRecipient(K key, KeyAlgorithm<? super K, ?> keyAlg, Map<String, ?> header) {
+        Assert.notNull(key, "Key cannot be null.");
+        Assert.notNull(keyAlg, "KeyAlgorithm cannot be null.");
         //noinspection unchecked
-        this.keyAlg = (KeyAlgorithm<Key, ?>) Assert.notNull(keyAlg, "KeyAlgorithm cannot be null.");
-        final String algId = Assert.hasText(keyAlg.getId(), "KeyAlgorithm id cannot be null or empty.");
-        final KeyAlgorithm<Key, ?> alg = this.keyAlg;
-        final String cekMsg = "Unable to obtain content encryption key from key management algorithm '%s'.";
-        this.keyAlgFunction = Functions.wrap(new Function<KeyRequest<Key>, KeyResult>() {
-            @Override
-            public KeyResult apply(KeyRequest<Key> request) {
-                return alg.getEncryptionKey(request);
-            }
-        }, SecurityException.class, cekMsg, algId);
-
+        this.recipients.add(new Recipient(key, (KeyAlgorithm<Key, ?>) keyAlg, header));
         return this;
     }
 
@@ -322,6 +335,24 @@ public class DefaultJwtBuilder implements JwtBuilder {
         return this;
     }
 
+    @Override
+    public JwtBuilder setContent(InputStream content) {
+        this.contentStream = Assert.notNull(content, "Content InputStream cannot be null.");
+        return this;
+    }
+
+    @Override
+    public JwtBuilder encodePayload(boolean b64) {
+        this.encodePayload = b64;
+        return this;
+    }
+
+    @Override
+    public JwtBuilder signThenEncrypt() {
+        this.nested = true;
+        return this;
+    }
+
     @Override
     public JwtBuilder setContent(byte[] content, String cty) {
         Assert.notEmpty(content, "content byte array cannot be null or empty.");
@@ -416,7 +447,142 @@ public class DefaultJwtBuilder implements JwtBuilder {
 
         final boolean jwe = encFunction != null;
 
-        if (jwe && signFunction != null) {
+        if (jwe && this.recipients.size() > 1) {
+            String msg = "JWEs with more than one recipient cannot be compacted; they may only be serialized " +
+                    "with toJson().";
+            throw new IllegalStateException(msg);
+        }
+        final List<Signer> signers = signers();
+        if (signers.size() > 1) {
+            String msg = "JWSs with more than one signature cannot be compacted; they may only be serialized " +
+                    "with toJson().";
+            throw new IllegalStateException(msg);
+        }
+
+        Header<?> header = ensureHeader();
+
+        if (!this.encodePayload || this.contentStream != null) {
+            return compactUnencoded(header, jwe, signers);
+        }
+
+        byte[] payload = isNested() ? nest(header, signers) : payload(header, jwe);
+
+        if (jwe) {
+            JweHeader jweHeader = header instanceof JweHeader ? (JweHeader) header : new DefaultJweHeader(header);
+            return encrypt(jweHeader, payload);
+        } else {
+            return compact(header, payload, signers.isEmpty() ? null : signers.get(0));
+        }
+    }
+
+    /**
+     * Creates a compact JWS with a detached, unencoded payload per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7797.html">RFC 7797</a>.  The signature is computed over the
+     * ASCII header bytes and a period followed directly by the payload bytes, so an {@code InputStream} payload is
+     * read exactly once and never buffered in memory.
+     */
+    private String compactUnencoded(Header<?> header, boolean jwe, List<Signer> signers) {
+
+        if (this.encodePayload) {
+            String msg = "InputStream content may only be used for unencoded JWS payloads. Call " +
+                    "encodePayload(false) to use an InputStream.";
+            throw new IllegalStateException(msg);
+        }
+        if (jwe || signers.isEmpty()) {
+            String msg = "Unencoded payloads are only supported for signed JWTs (JWSs) per " +
+                    "https://www.rfc-editor.org/rfc/rfc7797.html";
+            throw new IllegalStateException(msg);
+        }
+        if (this.compressionCodec != null) {
+            String msg = "Unencoded JWS payloads cannot be compressed.";
+            throw new IllegalStateException(msg);
+        }
+
+        InputStream stream = this.contentStream;
+        if (stream != null) {
+            if (!Objects.isEmpty(content) || !Collections.isEmpty(claims)) {
+                String msg = "InputStream content cannot be specified with either 'content' or 'claims'. Choose one.";
+                throw new IllegalStateException(msg);
+            }
+            if (this.serializer == null) { // header serialization still requires one:
+                //noinspection unchecked
+                serializeToJsonWith(Services.loadFirst(Serializer.class, SimpleJsonSerializer.SUPPLIER));
+            }
+        } else {
+            stream = new ByteArrayInputStream(payload(header, false));
+        }
+
+        JwsHeader jwsHeader = header instanceof JwsHeader ? (JwsHeader) header : new DefaultJwsHeader(header);
+        Signer signer = signers.get(0);
+        jwsHeader.putAll(signer.header);
+        jwsHeader.setAlgorithm(signer.alg.getId());
+        // 'b64' must always be understood by the recipient per https://www.rfc-editor.org/rfc/rfc7797.html#section-6
+        jwsHeader.put(DefaultJwsHeader.B64.getId(), Boolean.FALSE);
+        Set<String> crit = new LinkedHashSet<>();
+        if (!Collections.isEmpty(jwsHeader.getCritical())) {
+            crit.addAll(jwsHeader.getCritical());
+        }
+        crit.add(DefaultJwsHeader.B64.getId());
+        jwsHeader.setCritical(crit);
+
+        byte[] headerBytes = headerSerializer.apply(jwsHeader);
+        String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
+        byte[] prefix = (base64UrlEncodedHeader + DefaultJwtParser.SEPARATOR_CHAR).getBytes(StandardCharsets.US_ASCII);
+        String base64UrlSignature = signer.sign(prefix, stream);
+
+        // detached payload per https://www.rfc-editor.org/rfc/rfc7515.html#appendix-F :
+        return base64UrlEncodedHeader + DefaultJwtParser.SEPARATOR_CHAR + DefaultJwtParser.SEPARATOR_CHAR +
+                base64UrlSignature;
+    }
+
+    @Override
+    public String toJson() {
+
+        final boolean jwe = encFunction != null;
+        final List<Signer> signers = signers();
+
+        if (!jwe && signers.isEmpty()) {
+            String msg = "JSON serialization is only supported for signed or encrypted JWTs. Call signWith, " +
+                    "addSignature, encryptWith and/or addRecipient before calling toJson().";
+            throw new IllegalStateException(msg);
+        }
+
+        if (!this.encodePayload || this.contentStream != null) {
+            String msg = "Unencoded and InputStream payloads are only supported for compact JWSs.";
+            throw new IllegalStateException(msg);
+        }
+
+        Header<?> header = ensureHeader();
+        byte[] payload = isNested() ? nest(header, signers) : payload(header, jwe);
+        Map<String, ?> json;
+        if (jwe) {
+            JweHeader jweHeader = header instanceof JweHeader ? (JweHeader) header : new DefaultJweHeader(header);
+            json = encryptJson(jweHeader, payload);
+        } else {
+            json = signJson(header, payload, signers);
+        }
+        return new String(this.jsonSerializer.apply(json), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Validates the builder's content and claims state and returns the (possibly compressed) payload bytes to
+     * protect, updating the specified header if compression is used.
+     *
+     * @param header the header to update if compression is used
+     * @param jwe    whether the payload will be encrypted
+     * @return the (possibly compressed) payload bytes to protect
+     */
+    private byte[] payload(Header<?> header, boolean jwe) {
+        byte[] payload = serializePayload(jwe);
+        return compress(header, payload);
+    }
+
+    /**
+     * Validates the builder's content and claims state and returns the uncompressed payload bytes.
+     */
+    private byte[] serializePayload(boolean jwe) {
+
+        if (jwe && (this.signer != null || !this.signers.isEmpty())) {
             String msg = "Both 'signWith' and 'encryptWith' cannot be specified - choose either.";
             throw new IllegalStateException(msg);
         }
@@ -433,53 +599,103 @@ public class DefaultJwtBuilder implements JwtBuilder {
             throw new IllegalStateException("Both 'content' and 'claims' cannot both be specified. Choose either one.");
         }
 
-        Header<?> header = ensureHeader();
-
-        if (this.serializer == null) { // try to find one based on the services available
+        if (this.serializer == null) { // try to find one based on the services available, or use the built-in one
             //noinspection unchecked
-            serializeToJsonWith(Services.loadFirst(Serializer.class));
+            serializeToJsonWith(Services.loadFirst(Serializer.class, SimpleJsonSerializer.SUPPLIER));
         }
 
         byte[] payload = content;
         if (!Collections.isEmpty(claims)) {
             payload = claimsSerializer.apply(claims);
         }
+        return payload;
+    }
+
+    private byte[] compress(Header<?> header, byte[] payload) {
         if (!Objects.isEmpty(payload) && compressionCodec != null) {
             payload = compressionCodec.compress(payload);
             header.setCompressionAlgorithm(compressionCodec.getId());
         }
+        return payload;
+    }
 
-        if (jwe) {
-            JweHeader jweHeader = header instanceof JweHeader ? (JweHeader) header : new DefaultJweHeader(header);
-            return encrypt(jweHeader, payload);
-        } else {
-            return compact(header, payload);
+    private boolean isNested() {
+        return this.nested && this.encFunction != null;
+    }
+
+    /**
+     * Signs the builder's claims or content as a compact JWS and returns its ASCII bytes, (possibly compressed) for
+     * use as the payload of a <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-11.2">Nested JWT</a>.
+     * The JWS is written directly to a byte array, so no intermediate compact {@code String} is created.
+     *
+     * @param header the outer JWE header, updated with the {@code cty} value and compression algorithm if any
+     * @param signers the configured signers, of which there must be exactly one
+     * @return the (possibly compressed) compact JWS bytes to encrypt
+     */
+    private byte[] nest(Header<?> header, List<Signer> signers) {
+
+        if (signers.size() != 1) {
+            String msg = "Nested JWTs require exactly one signature key. Call signWith or addSignature once " +
+                    "before calling compact() or toJson().";
+            throw new IllegalStateException(msg);
         }
+        Signer signer = signers.get(0);
+
+        byte[] payload = serializePayload(false);
+
+        JwsHeader jwsHeader = new DefaultJwsHeader();
+        jwsHeader.putAll(signer.header);
+        jwsHeader.setAlgorithm(signer.alg.getId());
+
+        String base64UrlEncodedHeader = base64UrlEncoder.encode(headerSerializer.apply(jwsHeader));
+        String base64UrlEncodedBody = base64UrlEncoder.encode(payload);
+
+        int signingInputLength = base64UrlEncodedHeader.length() + 1 + base64UrlEncodedBody.length();
+        byte[] signingInput = new byte[signingInputLength];
+        int i = ascii(base64UrlEncodedHeader, signingInput, 0);
+        signingInput[i++] = DefaultJwtParser.SEPARATOR_CHAR;
+        ascii(base64UrlEncodedBody, signingInput, i);
+
+        String base64UrlSignature = signer.sign(signingInput, null);
+
+        byte[] jws = Arrays.copyOf(signingInput, signingInputLength + 1 + base64UrlSignature.length());
+        jws[signingInputLength] = DefaultJwtParser.SEPARATOR_CHAR;
+        ascii(base64UrlSignature, jws, signingInputLength + 1);
+
+        header.setContentType(DefaultJwtParser.NESTED_JWT_CONTENT_TYPE);
+        return compress(header, jws);
     }
 
-    private String compact(Header<?> header, byte[] payload) {
+    /**
+     * Copies the specified ASCII (e.g. Base64URL) string's characters into {@code dest} starting at
+     * {@code offset}, returning the index after the last copied byte.
+     */
+    private static int ascii(String s, byte[] dest, int offset) {
+        for (int i = 0; i < s.length(); i++) {
+            dest[offset++] = (byte) s.charAt(i);
+        }
+        return offset;
+    }
 
-        Assert.stateNotNull(sigAlg, "SignatureAlgorithm is required."); // invariant
+    private String compact(Header<?> header, byte[] payload, Signer signer) {
 
-        if (this.key != null && !(header instanceof JwsHeader)) {
+        if (signer != null) {
+            // compact JWSs only have a protected header; merge into a copy so the builder's header is not modified:
             header = new DefaultJwsHeader(header);
+            header.putAll(signer.header);
+            header.setAlgorithm(signer.alg.getId());
+        } else {
+            header.setAlgorithm(Jwts.SIG.NONE.getId());
         }
 
-        header.setAlgorithm(sigAlg.getId());
-
         byte[] headerBytes = headerSerializer.apply(header);
         String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
         String base64UrlEncodedBody = base64UrlEncoder.encode(payload);
 
         String jwt = base64UrlEncodedHeader + DefaultJwtParser.SEPARATOR_CHAR + base64UrlEncodedBody;
 
-        if (this.key != null) { //jwt must be signed:
-            Assert.stateNotNull(key, "Signing key cannot be null.");
-            Assert.stateNotNull(signFunction, "signFunction cannot be null.");
-            byte[] data = jwt.getBytes(StandardCharsets.US_ASCII);
-            SecureRequest<byte[], Key> request = new DefaultSecureRequest<>(data, provider, secureRandom, key);
-            byte[] signature = signFunction.apply(request);
-            String base64UrlSignature = base64UrlEncoder.encode(signature);
+        if (signer != null) { //jwt must be signed:
+            String base64UrlSignature = signer.sign(jwt);
             jwt += DefaultJwtParser.SEPARATOR_CHAR + base64UrlSignature;
         } else {
             // no signature (unprotected JWT), but must terminate w/ a period, see
@@ -490,39 +706,88 @@ public class DefaultJwtBuilder implements JwtBuilder {
         return jwt;
     }
 
-    private String encrypt(JweHeader header, byte[] payload) {
+    private Map<String, ?> signJson(Header<?> header, byte[] payload, List<Signer> signers) {
+
+        // The payload is encoded only once regardless of the number of signatures, per
+        // https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1
+        final String base64UrlEncodedBody = base64UrlEncoder.encode(payload);
+
+        List<Map<String, Object>> signatureMaps = new ArrayList<>(signers.size());
+        for (Signer signer : signers) {
+
+            // each signature has its own protected header since 'alg' is always integrity protected per
+            // https://www.rfc-editor.org/rfc/rfc7515.html#section-10.7
+            JwsHeader protectedHeader = new DefaultJwsHeader(header);
+            for (String name : signer.header.keySet()) {
+                if (protectedHeader.containsKey(name)) {
+                    String msg = "JWS signature header parameter '" + name + "' may not also be present in the " +
+                            "JWS protected header per https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1";
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+            protectedHeader.setAlgorithm(signer.alg.getId());
+
+            byte[] headerBytes = headerSerializer.apply(protectedHeader);
+            String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
+            String signingInput = base64UrlEncodedHeader + DefaultJwtParser.SEPARATOR_CHAR + base64UrlEncodedBody;
+
+            Map<String, Object> signatureMap = new LinkedHashMap<>(3);
+            signatureMap.put(DefaultJwtParser.JSON_PROTECTED, base64UrlEncodedHeader);
+            if (!signer.header.isEmpty()) {
+                signatureMap.put(DefaultJwtParser.JSON_HEADER, signer.header);
+            }
+            signatureMap.put(DefaultJwtParser.JSON_SIGNATURE, signer.sign(signingInput));
+            signatureMaps.add(signatureMap);
+        }
 
-        Assert.stateNotNull(key, "Key is required."); // set by encryptWith*
+        Map<String, Object> jws = new LinkedHashMap<>(2);
+        jws.put(DefaultJwtParser.JSON_PAYLOAD, base64UrlEncodedBody);
+        jws.put(DefaultJwtParser.JSON_SIGNATURES, signatureMaps);
+        return jws;
+    }
+
+    private void assertEncryptionState(byte[] payload) {
         Assert.stateNotNull(enc, "Encryption algorithm is required."); // set by encryptWith*
         Assert.stateNotNull(encFunction, "Encryption function cannot be null.");
-        Assert.stateNotNull(keyAlg, "KeyAlgorithm is required."); //set by encryptWith*
-        Assert.stateNotNull(keyAlgFunction, "KeyAlgorithm function cannot be null.");
+        Assert.state(!this.recipients.isEmpty(), "At least one JWE recipient is required. Call encryptWith " +
+                "with a key and KeyAlgorithm, or addRecipient."); // set by encryptWith* or addRecipient
         Assert.notEmpty(payload, "JWE payload bytes cannot be empty."); // JWE invariant (JWS can be empty however)
+    }
 
-        KeyRequest<Key> keyRequest = new DefaultKeyRequest<>(this.key, this.provider, this.secureRandom, header, enc);
-        KeyResult keyResult = keyAlgFunction.apply(keyRequest);
-        Assert.stateNotNull(keyResult, "KeyAlgorithm must return a KeyResult.");
+    private AeadResult encrypt(byte[] payload, SecretKey cek, String base64UrlEncodedHeader) {
+        byte[] aad = base64UrlEncodedHeader.getBytes(StandardCharsets.US_ASCII);
+        AeadRequest encRequest = new DefaultAeadRequest(payload, provider, secureRandom, cek, aad);
+        AeadResult encResult = encFunction.apply(encRequest);
+        Assert.notEmpty(encResult.getInitializationVector(), "Encryption result must have a non-empty initialization vector.");
+        Assert.notEmpty(encResult.getPayload(), "Encryption result must have non-empty ciphertext (result.getData()).");
+        Assert.notEmpty(encResult.getDigest(), "Encryption result must have a non-empty authentication tag.");
+        return encResult;
+    }
+
+    private String encrypt(JweHeader builderHeader, byte[] payload) {
+
+        assertEncryptionState(payload);
+        Recipient recipient = this.recipients.get(0);
+        // compact JWEs only have a protected header; merge into a copy so the builder's header is not modified:
+        JweHeader header = new DefaultJweHeader(builderHeader);
+        header.putAll(recipient.header);
+
+        KeyResult keyResult = recipient.getEncryptionKey(header, this.enc);
         SecretKey cek = Assert.notNull(keyResult.getKey(), "KeyResult must return a content encryption key.");
         byte[] encryptedCek = Assert.notNull(keyResult.getPayload(), "KeyResult must return an encrypted key byte array, even if empty.");
 
-        header.put(AbstractHeader.ALGORITHM.getId(), keyAlg.getId());
+        header.put(AbstractHeader.ALGORITHM.getId(), recipient.alg.getId());
         header.put(DefaultJweHeader.ENCRYPTION_ALGORITHM.getId(), enc.getId());
 
         byte[] headerBytes = this.headerSerializer.apply(header);
         final String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
-        byte[] aad = base64UrlEncodedHeader.getBytes(StandardCharsets.US_ASCII);
 
-        AeadRequest encRequest = new DefaultAeadRequest(payload, provider, secureRandom, cek, aad);
-        AeadResult encResult = encFunction.apply(encRequest);
-
-        byte[] iv = Assert.notEmpty(encResult.getInitializationVector(), "Encryption result must have a non-empty initialization vector.");
-        byte[] ciphertext = Assert.notEmpty(encResult.getPayload(), "Encryption result must have non-empty ciphertext (result.getData()).");
-        byte[] tag = Assert.notEmpty(encResult.getDigest(), "Encryption result must have a non-empty authentication tag.");
+        AeadResult encResult = encrypt(payload, cek, base64UrlEncodedHeader);
 
         String base64UrlEncodedEncryptedCek = base64UrlEncoder.encode(encryptedCek);
-        String base64UrlEncodedIv = base64UrlEncoder.encode(iv);
-        String base64UrlEncodedCiphertext = base64UrlEncoder.encode(ciphertext);
-        String base64UrlEncodedTag = base64UrlEncoder.encode(tag);
+        String base64UrlEncodedIv = base64UrlEncoder.encode(encResult.getInitializationVector());
+        String base64UrlEncodedCiphertext = base64UrlEncoder.encode(encResult.getPayload());
+        String base64UrlEncodedTag = base64UrlEncoder.encode(encResult.getDigest());
 
         return base64UrlEncodedHeader + DefaultJwtParser.SEPARATOR_CHAR +
                 base64UrlEncodedEncryptedCek + DefaultJwtParser.SEPARATOR_CHAR +
@@ -530,4 +795,179 @@ public class DefaultJwtBuilder implements JwtBuilder {
                 base64UrlEncodedCiphertext + DefaultJwtParser.SEPARATOR_CHAR +
                 base64UrlEncodedTag;
     }
+
+    private Map<String, ?> encryptJson(JweHeader header, byte[] payload) {
+
+        assertEncryptionState(payload);
+
+        // 'alg' is a per-recipient parameter, and 'enc' is common to all recipients:
+        header.remove(AbstractHeader.ALGORITHM.getId());
+        header.put(DefaultJweHeader.ENCRYPTION_ALGORITHM.getId(), enc.getId());
+
+        // Only one content encryption key (CEK) is used for all recipients, so we generate it once and ensure
+        // each recipient's key algorithm uses the same one, per https://www.rfc-editor.org/rfc/rfc7516.html#section-5.1
+        // steps 1-2.  A single recipient however may use direct encryption or direct key agreement (step 6):
+        final boolean multiple = this.recipients.size() > 1;
+        AeadAlgorithm keyEnc = this.enc;
+        SecretKey cek = null;
+        if (multiple) {
+            SecretKeyBuilder builder = Assert.notNull(enc.keyBuilder(), "Encryption algorithm keyBuilder cannot be null.");
+            cek = builder.setProvider(this.provider).setRandom(this.secureRandom).build();
+            Assert.stateNotNull(cek, "Encryption algorithm keyBuilder cannot produce null keys.");
+            keyEnc = new FixedKeyAeadAlgorithm(this.enc, cek);
+        }
+
+        List<Map<String, Object>> recipientMaps = new ArrayList<>(this.recipients.size());
+        for (Recipient recipient : this.recipients) {
+
+            for (String name : recipient.header.keySet()) {
+                if (header.containsKey(name)) {
+                    String msg = "JWE recipient header parameter '" + name + "' may not also be present in the " +
+                            "JWE protected header per https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1";
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+
+            // the complete JOSE header for this recipient, per https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1
+            JweHeader recipientHeader = new DefaultJweHeader(header);
+            recipientHeader.putAll(recipient.header);
+            KeyResult keyResult = recipient.getEncryptionKey(recipientHeader, keyEnc);
+            SecretKey resultKey = Assert.notNull(keyResult.getKey(), "KeyResult must return a content encryption key.");
+            byte[] encryptedCek = Assert.notNull(keyResult.getPayload(), "KeyResult must return an encrypted key byte array, even if empty.");
+            if (!multiple) {
+                cek = resultKey;
+            } else if (resultKey != cek) {
+                String msg = "The '" + recipient.alg.getId() + "' key management algorithm does not encrypt or " +
+                        "wrap a content encryption key and may not be used for JWEs with more than one recipient.";
+                throw new IllegalArgumentException(msg);
+            }
+            recipientHeader.put(AbstractHeader.ALGORITHM.getId(), recipient.alg.getId());
+
+            // only retain the per-recipient parameters, i.e. those not in the protected header:
+            Map<String, Object> unprotected = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : recipientHeader.entrySet()) {
+                if (!header.containsKey(entry.getKey())) {
+                    unprotected.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Map<String, Object> recipientMap = new LinkedHashMap<>(2);
+            recipientMap.put(DefaultJwtParser.JSON_HEADER, unprotected);
+            if (!Bytes.isEmpty(encryptedCek)) {
+                recipientMap.put(DefaultJwtParser.JSON_ENCRYPTED_KEY, base64UrlEncoder.encode(encryptedCek));
+            }
+            recipientMaps.add(recipientMap);
+        }
+
+        byte[] headerBytes = this.headerSerializer.apply(header);
+        final String base64UrlEncodedHeader = base64UrlEncoder.encode(headerBytes);
+
+        AeadResult encResult = encrypt(payload, cek, base64UrlEncodedHeader);
+
+        Map<String, Object> jwe = new LinkedHashMap<>(5);
+        jwe.put(DefaultJwtParser.JSON_PROTECTED, base64UrlEncodedHeader);
+        jwe.put(DefaultJwtParser.JSON_RECIPIENTS, recipientMaps);
+        jwe.put(DefaultJwtParser.JSON_IV, base64UrlEncoder.encode(encResult.getInitializationVector()));
+        jwe.put(DefaultJwtParser.JSON_CIPHERTEXT, base64UrlEncoder.encode(encResult.getPayload()));
+        jwe.put(DefaultJwtParser.JSON_TAG, base64UrlEncoder.encode(encResult.getDigest()));
+        return jwe;
+    }
+
+    private final class Recipient {
+
+        private final Key key;
+        private final KeyAlgorithm<Key, ?> alg;
+        private final Function<KeyRequest<Key>, KeyResult> function;
+        private final Map<String, ?> header;
+
+        private Recipient(Key key, final KeyAlgorithm<Key, ?> alg, Map<String, ?> header) {
+            this.key = key;
+            this.alg = alg;
+            final String algId = Assert.hasText(alg.getId(), "KeyAlgorithm id cannot be null or empty.");
+            final String cekMsg = "Unable to obtain content encryption key from key management algorithm '%s'.";
+            this.function = Functions.wrap(new Function<KeyRequest<Key>, KeyResult>() {
+                @Override
+                public KeyResult apply(KeyRequest<Key> request) {
+                    return alg.getEncryptionKey(request);
+                }
+            }, SecurityException.class, cekMsg, algId);
+            Map<String, ?> params = java.util.Collections.emptyMap();
+            if (!Collections.isEmpty(header)) {
+                params = new LinkedHashMap<>(header);
+            }
+            this.header = params;
+        }
+
+        private KeyResult getEncryptionKey(JweHeader header, AeadAlgorithm enc) {
+            KeyRequest<Key> request = new DefaultKeyRequest<>(this.key, provider, secureRandom, header, enc);
+            KeyResult result = this.function.apply(request);
+            return Assert.stateNotNull(result, "KeyAlgorithm must return a KeyResult.");
+        }
+    }
+
+    private final class Signer {
+
+        private final Key key;
+        private final SecureDigestAlgorithm<Key, ?> alg;
+        private final Function<SecureRequest<byte[], Key>, byte[]> function;
+        private final Map<String, ?> header;
+
+        private Signer(Key key, final SecureDigestAlgorithm<Key, ?> alg, Map<String, ?> header) {
+            Assert.notNull(key, "Key argument cannot be null.");
+            if (key instanceof PublicKey) { // it's always wrong to try to create signatures with PublicKeys:
+                throw new IllegalArgumentException(PUB_KEY_SIGN_MSG);
+            }
+            // Implementation note:  Ordinarily Passwords should not be used to create secure digests because they usually
+            // lack the length or entropy necessary for secure cryptographic operations, and are prone to misuse.
+            // However, we DO NOT prevent them as arguments here (like the above PublicKey check) because
+            // it is conceivable that a custom SecureDigestAlgorithm implementation would allow Password instances
+            // so that it might perform its own internal key-derivation logic producing a key that is then used to create a
+            // secure hash.
+            //
+            // Even so, a fallback safety check is that JJWT's only out-of-the-box Password implementation
+            // (io.jsonwebtoken.impl.security.PasswordSpec) explicitly forbids calls to password.getEncoded() in all
+            // scenarios to avoid potential misuse, so a digest algorithm implementation would explicitly need to avoid
+            // this by calling toCharArray() instead.
+            //
+            // TLDR; the digest algorithm implementation has the final say whether a password instance is valid
+
+            Assert.notNull(alg, "SignatureAlgorithm cannot be null.");
+            String id = Assert.hasText(alg.getId(), "SignatureAlgorithm id cannot be null or empty.");
+            if (Jwts.SIG.NONE.getId().equalsIgnoreCase(id)) {
+                String msg = "The 'none' JWS algorithm cannot be used to sign JWTs.";
+                throw new IllegalArgumentException(msg);
+            }
+            this.key = key;
+            this.alg = alg;
+            this.function = Functions.wrap(new Function<SecureRequest<byte[], Key>, byte[]>() {
+                @Override
+                public byte[] apply(SecureRequest<byte[], Key> request) {
+                    return alg.digest(request);
+                }
+            }, SignatureException.class, "Unable to compute %s signature.", id);
+            Map<String, ?> params = java.util.Collections.emptyMap();
+            if (!Collections.isEmpty(header)) {
+                params = new LinkedHashMap<>(header);
+            }
+            this.header = params;
+        }
+
+        private String sign(String signingInput) {
+            byte[] data = signingInput.getBytes(StandardCharsets.US_ASCII);
+            return sign(data, null);
+        }
+
+        private String sign(byte[] data, InputStream stream) {
+            SecureRequest<byte[], Key> request;
+            if (stream != null && StreamingRequests.isSupportedBy(this.alg)) {
+                request = new DefaultStreamingSecureRequest<>(data, stream, provider, secureRandom, this.key);
+            } else {
+                if (stream != null) { // a custom algorithm only sees the request payload:
+                    data = StreamingRequests.readAll(data, stream);
+                }
+                request = new DefaultSecureRequest<>(data, provider, secureRandom, this.key);
+            }
+            byte[] signature = this.function.apply(request);
+            return base64UrlEncoder.encode(signature);
+        }
+    }
 }
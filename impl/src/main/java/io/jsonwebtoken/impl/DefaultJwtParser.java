@@ -15,6 +15,7 @@
  */
 package io.jsonwebtoken.impl;
 
+import io.jsonwebtoken.CandidateLocator;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Clock;
 import io.jsonwebtoken.CompressionCodec;
@@ -37,6 +38,7 @@ import io.jsonwebtoken.Locator;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.MissingClaimException;
 import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.SigningKeyResolver;
 import io.jsonwebtoken.UnprotectedHeader;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -45,16 +47,23 @@ import io.jsonwebtoken.impl.lang.Bytes;
 import io.jsonwebtoken.impl.lang.Function;
 import io.jsonwebtoken.impl.lang.IdRegistry;
 import io.jsonwebtoken.impl.lang.LegacyServices;
+import io.jsonwebtoken.impl.lang.LruCache;
 import io.jsonwebtoken.impl.security.ConstantKeyLocator;
 import io.jsonwebtoken.impl.security.DefaultAeadResult;
 import io.jsonwebtoken.impl.security.DefaultDecryptionKeyRequest;
+import io.jsonwebtoken.impl.security.DefaultStreamingVerifySecureDigestRequest;
 import io.jsonwebtoken.impl.security.DefaultVerifySecureDigestRequest;
 import io.jsonwebtoken.impl.security.LocatingKeyResolver;
+import io.jsonwebtoken.impl.security.StreamingRequests;
 import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.io.DeserializationException;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.Encoder;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.io.IOException;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
 import io.jsonwebtoken.lang.Arrays;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.lang.Collections;
@@ -73,21 +82,59 @@ import io.jsonwebtoken.security.VerifySecureDigestRequest;
 import io.jsonwebtoken.security.WeakKeyException;
 
 import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.Provider;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class DefaultJwtParser implements JwtParser {
 
     static final char SEPARATOR_CHAR = '.';
 
+    // JWS and JWE JSON Serialization member names per https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1
+    // and https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1
+    static final String JSON_PAYLOAD = "payload";
+    static final String JSON_SIGNATURES = "signatures";
+    static final String JSON_SIGNATURE = "signature";
+    static final String JSON_PROTECTED = "protected";
+    static final String JSON_UNPROTECTED = "unprotected";
+    static final String JSON_HEADER = "header";
+    static final String JSON_RECIPIENTS = "recipients";
+    static final String JSON_ENCRYPTED_KEY = "encrypted_key";
+    static final String JSON_IV = "iv";
+    static final String JSON_AAD = "aad";
+    static final String JSON_CIPHERTEXT = "ciphertext";
+    static final String JSON_TAG = "tag";
+
+    // header parameters that may only be present in the protected header of JSON serialized JWTs:
+    private static final Set<String> PROTECTED_ONLY_HEADER_PARAMS = Collections.setOf(
+            AbstractHeader.COMPRESSION_ALGORITHM.getId(), AbstractHeader.DEPRECATED_COMPRESSION_ALGORITHM.getId(),
+            AbstractProtectedHeader.CRIT.getId());
+
     private static final int MILLISECONDS_PER_SECOND = 1000;
 
+    private static final int HEADER_CACHE_CAPACITY = 256;
+
+    // bounds the memory retained by the header cache (e.g. for headers with large 'x5c' chains):
+    private static final int MAX_CACHED_HEADER_LENGTH = 4096;
+
+    // JWE header parameters that are (usually) different for every token, making those headers worthless to cache:
+    private static final List<String> PER_TOKEN_HEADER_PARAMS = Collections.of(DefaultJweHeader.EPK.getId(),
+            DefaultJweHeader.APU.getId(), DefaultJweHeader.APV.getId(), DefaultJweHeader.IV.getId(),
+            DefaultJweHeader.TAG.getId(), DefaultJweHeader.P2S.getId());
+
+    static final String NESTED_JWT_CONTENT_TYPE = "JWT";
+
     private static final JwtTokenizer jwtTokenizer = new JwtTokenizer();
 
     public static final String INCORRECT_EXPECTED_CLAIM_MESSAGE_TEMPLATE = "Expected %s claim to be: %s, but was: %s.";
@@ -172,6 +219,8 @@ public class DefaultJwtParser implements JwtParser {
 
     private final boolean enableUnsecuredDecompression;
 
+    private final boolean enableDeferredConversion;
+
     private final Function<JwsHeader, SecureDigestAlgorithm<?, ?>> signatureAlgorithmLocator;
 
     private final Function<JweHeader, AeadAlgorithm> encryptionAlgorithmLocator;
@@ -180,8 +229,24 @@ public class DefaultJwtParser implements JwtParser {
 
     private final Locator<? extends Key> keyLocator;
 
+    private final Set<String> critical;
+
+    // The names of the claims to read from a payload, or null if all claims are read:
+    private final Set<String> retainedClaims;
+
+    // The schema of all parsed claims, or null if claims are read as plain DefaultClaims:
+    private final DefaultClaimsSchema claimsSchema;
+
+    // Parsed protected headers by their Base64Url-encoded form, since all tokens from the same issuer usually have
+    // byte-for-byte identical headers.  Headers with per-token parameters (see PER_TOKEN_HEADER_PARAMS) are never
+    // cached, and the cache is cleared whenever the (deprecated) mutable decoder or deserializer settings change:
+    private final LruCache<String, Header<?>> headerCache = new LruCache<>(HEADER_CACHE_CAPACITY);
+
     private Decoder<String, byte[]> base64UrlDecoder = Decoders.BASE64URL;
 
+    // only used to re-create the JWS Signing Input of encoded detached payloads:
+    private final Encoder<byte[], String> base64UrlEncoder;
+
     private Deserializer<Map<String, ?>> deserializer;
 
     private Claims expectedClaims = new DefaultClaims();
@@ -205,6 +270,11 @@ public class DefaultJwtParser implements JwtParser {
         this.compressionCodecLocator = new DefaultCompressionCodecResolver();
         this.enableUnsecuredJws = false;
         this.enableUnsecuredDecompression = false;
+        this.enableDeferredConversion = false;
+        this.critical = Collections.emptySet();
+        this.retainedClaims = null;
+        this.claimsSchema = null;
+        this.base64UrlEncoder = Encoders.BASE64URL;
     }
 
     //SigningKeyResolver will be removed for 1.0:
@@ -213,36 +283,63 @@ public class DefaultJwtParser implements JwtParser {
                      SigningKeyResolver signingKeyResolver,
                      boolean enableUnsecuredJws,
                      boolean enableUnsecuredDecompression,
+                     boolean enableDeferredConversion,
                      Locator<? extends Key> keyLocator,
                      Clock clock,
                      long allowedClockSkewMillis,
                      Claims expectedClaims,
                      Decoder<String, byte[]> base64UrlDecoder,
+                     Encoder<byte[], String> base64UrlEncoder,
                      Deserializer<Map<String, ?>> deserializer,
                      Locator<CompressionCodec> compressionCodecLocator,
                      Collection<SecureDigestAlgorithm<?, ?>> extraSigAlgs,
                      Collection<KeyAlgorithm<?, ?>> extraKeyAlgs,
-                     Collection<AeadAlgorithm> extraEncAlgs) {
+                     Collection<AeadAlgorithm> extraEncAlgs,
+                     Set<String> critical,
+                     Set<String> retainedClaims,
+                     DefaultClaimsSchema claimsSchema) {
         this.provider = provider;
         this.enableUnsecuredJws = enableUnsecuredJws;
         this.enableUnsecuredDecompression = enableUnsecuredDecompression;
+        this.enableDeferredConversion = enableDeferredConversion;
         this.signingKeyResolver = signingKeyResolver;
         this.keyLocator = Assert.notNull(keyLocator, "Key Locator cannot be null.");
         this.clock = clock;
         this.allowedClockSkewMillis = allowedClockSkewMillis;
         this.expectedClaims = expectedClaims;
         this.base64UrlDecoder = base64UrlDecoder;
+        this.base64UrlEncoder = Assert.notNull(base64UrlEncoder, "base64UrlEncoder cannot be null.");
         this.deserializer = deserializer;
         this.signatureAlgorithmLocator = sigFn(extraSigAlgs);
         this.keyAlgorithmLocator = keyFn(extraKeyAlgs);
         this.encryptionAlgorithmLocator = encFn(extraEncAlgs);
         this.compressionCodecLocator = Assert.notNull(compressionCodecLocator, "CompressionCodec locator cannot be null.");
+        this.critical = Collections.immutable(new LinkedHashSet<>(Assert.notNull(critical, "Critical parameter names cannot be null.")));
+        this.claimsSchema = claimsSchema;
+        this.retainedClaims = retained(Assert.notNull(retainedClaims, "Retained claim names cannot be null."),
+                expectedClaims, claimsSchema);
+    }
+
+    // Claims needed for validation or by the claims schema are always retained, even if not explicitly requested:
+    private static Set<String> retained(Set<String> names, Claims expectedClaims, DefaultClaimsSchema schema) {
+        if (names.isEmpty()) {
+            return null; // retain all claims
+        }
+        Set<String> retained = new LinkedHashSet<>(names);
+        retained.add(Claims.EXPIRATION);
+        retained.add(Claims.NOT_BEFORE);
+        retained.addAll(expectedClaims.keySet());
+        if (schema != null) {
+            retained.addAll(schema.getClaimNames());
+        }
+        return Collections.immutable(retained);
     }
 
     @Override
     public JwtParser deserializeJsonWith(Deserializer<Map<String, ?>> deserializer) {
         Assert.notNull(deserializer, "deserializer cannot be null.");
         this.deserializer = new JwtDeserializer<>(deserializer);
+        this.headerCache.clear();
         return this;
     }
 
@@ -250,6 +347,7 @@ public class DefaultJwtParser implements JwtParser {
     public JwtParser base64UrlDecodeWith(Decoder<String, byte[]> base64UrlDecoder) {
         Assert.notNull(base64UrlDecoder, "base64UrlDecoder cannot be null.");
         this.base64UrlDecoder = base64UrlDecoder;
+        this.headerCache.clear();
         return this;
     }
 
@@ -443,19 +541,11 @@ public class DefaultJwtParser implements JwtParser {
 
     private void verifySignature(final TokenizedJwt tokenized, final JwsHeader jwsHeader, final String alg,
                                  @SuppressWarnings("deprecation") SigningKeyResolver resolver,
-                                 Claims claims, byte[] payload) {
+                                 Claims claims, byte[] payload, InputStream signingInput) {
 
         Assert.notNull(resolver, "SigningKeyResolver instance cannot be null.");
 
-        SecureDigestAlgorithm<?, Key> algorithm;
-        try {
-            algorithm = (SecureDigestAlgorithm<?, Key>) signatureAlgorithmLocator.apply(jwsHeader);
-        } catch (UnsupportedJwtException e) {
-            //For backwards compatibility.  TODO: remove this try/catch block for 1.0 and let UnsupportedJwtException propagate
-            String msg = "Unsupported signature algorithm '" + alg + "'";
-            throw new SignatureException(msg, e);
-        }
-        Assert.stateNotNull(algorithm, "JWS Signature Algorithm cannot be null.");
+        SecureDigestAlgorithm<?, Key> algorithm = signatureAlgorithm(jwsHeader, alg);
 
         //digitally signed, let's assert the signature:
         Key key;
@@ -469,37 +559,182 @@ public class DefaultJwtParser implements JwtParser {
             throw new UnsupportedJwtException(msg);
         }
 
-        //re-create the jwt part without the signature.  This is what is needed for signature verification:
-        String jwtWithoutSignature = tokenized.getProtected() + SEPARATOR_CHAR + tokenized.getBody();
+        verifySignature(tokenized, algorithm, key, signingInput);
+    }
 
-        byte[] data = jwtWithoutSignature.getBytes(StandardCharsets.US_ASCII);
-        byte[] signature = base64UrlDecode(tokenized.getDigest(), "JWS signature");
+    /**
+     * Verifies the tokenized JWS signature with each candidate key returned by the parser's {@link CandidateLocator}
+     * in order, stopping at the first candidate that succeeds.  The JWT is only decoded once; if a
+     * {@code signingInput} stream is available it is rewound (or buffered once if it cannot be rewound) for each
+     * subsequent candidate.
+     */
+    private void verifyCandidates(final TokenizedJwt tokenized, final JwsHeader jwsHeader, final String alg,
+                                  InputStream signingInput) {
 
-        try {
-            VerifySecureDigestRequest<Key> request =
-                    new DefaultVerifySecureDigestRequest<>(data, this.provider, null, key, signature);
-            if (!algorithm.verify(request)) {
-                String msg = "JWT signature does not match locally computed signature. JWT validity cannot be " +
-                        "asserted and should not be trusted.";
-                throw new SignatureException(msg);
+        SecureDigestAlgorithm<?, Key> algorithm = signatureAlgorithm(jwsHeader, alg);
+
+        @SuppressWarnings("unchecked") CandidateLocator<Key> locator = (CandidateLocator<Key>) this.keyLocator;
+        List<? extends Key> candidates = locator.locateCandidates(jwsHeader);
+        if (Collections.isEmpty(candidates)) {
+            String msg = "Cannot verify JWS signature: unable to locate signature verification key for JWS with header: " + jwsHeader;
+            throw new UnsupportedJwtException(msg);
+        }
+
+        if (signingInput != null && candidates.size() > 1) {
+            if (signingInput.markSupported()) {
+                signingInput.mark(Integer.MAX_VALUE);
+            } else {
+                signingInput = new ByteArrayInputStream(StreamingRequests.readAll(Bytes.EMPTY, signingInput));
             }
+        }
+
+        JwtException failure = null;
+        for (Key candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            if (failure != null && signingInput != null) {
+                rewind(signingInput);
+            }
+            try {
+                verify(tokenized, algorithm, candidate, signingInput);
+                locator.onSuccess(jwsHeader, candidate);
+                return;
+            } catch (WeakKeyException e) {
+                failure = preferredFailure(failure, e);
+            } catch (InvalidKeyException e) { // wrong key type for this candidate, try the next one
+                failure = preferredFailure(failure, unsupportedKey(algorithm, candidate, e));
+            } catch (io.jsonwebtoken.security.SecurityException e) { // includes signature mismatches
+                failure = preferredFailure(failure, e);
+            }
+        }
+        if (failure == null) { // all candidates were null:
+            String msg = "Cannot verify JWS signature: unable to locate signature verification key for JWS with header: " + jwsHeader;
+            throw new UnsupportedJwtException(msg);
+        }
+        throw failure;
+    }
+
+    /**
+     * Returns the exception that best explains why all candidates failed: a signature or decryption failure
+     * (meaning a candidate was applicable but did not match) is more informative than a key type mismatch, so
+     * the first such failure is preferred, and otherwise the first failure encountered.
+     */
+    private static <E extends RuntimeException> E preferredFailure(E current, E next) {
+        if (current == null) {
+            return next;
+        }
+        boolean currentMismatch = current instanceof io.jsonwebtoken.security.SecurityException &&
+                !(current instanceof InvalidKeyException);
+        boolean nextMismatch = next instanceof io.jsonwebtoken.security.SecurityException &&
+                !(next instanceof InvalidKeyException);
+        return !currentMismatch && nextMismatch ? next : current;
+    }
+
+    private static void rewind(InputStream in) {
+        try {
+            in.reset();
+        } catch (java.io.IOException e) {
+            String msg = "Unable to reset JWS Signing Input stream: " + e.getMessage();
+            throw new IOException(msg, e);
+        }
+    }
+
+    private SecureDigestAlgorithm<?, Key> signatureAlgorithm(JwsHeader jwsHeader, String alg) {
+        SecureDigestAlgorithm<?, Key> algorithm;
+        try {
+            //noinspection unchecked
+            algorithm = (SecureDigestAlgorithm<?, Key>) signatureAlgorithmLocator.apply(jwsHeader);
+        } catch (UnsupportedJwtException e) {
+            //For backwards compatibility.  TODO: remove this try/catch block for 1.0 and let UnsupportedJwtException propagate
+            String msg = "Unsupported signature algorithm '" + alg + "'";
+            throw new SignatureException(msg, e);
+        }
+        return Assert.stateNotNull(algorithm, "JWS Signature Algorithm cannot be null.");
+    }
+
+    /**
+     * Verifies the tokenized JWS signature with a single key, reporting a key that cannot be used with the JWS
+     * algorithm as an {@link UnsupportedJwtException}.
+     */
+    private void verifySignature(final TokenizedJwt tokenized, SecureDigestAlgorithm<?, Key> algorithm, Key key,
+                                 InputStream signingInput) {
+        try {
+            verify(tokenized, algorithm, key, signingInput);
         } catch (WeakKeyException e) {
             throw e;
         } catch (InvalidKeyException | IllegalArgumentException e) {
-            String algId = algorithm.getId();
-            String msg = "The parsed JWT indicates it was signed with the '" + algId + "' signature " +
-                    "algorithm, but the provided " + key.getClass().getName() + " key may " +
-                    "not be used to verify " + algId + " signatures.  Because the specified " +
-                    "key reflects a specific and expected algorithm, and the JWT does not reflect " +
-                    "this algorithm, it is likely that the JWT was not expected and therefore should not be " +
-                    "trusted.  Another possibility is that the parser was provided the incorrect " +
-                    "signature verification key, but this cannot be assumed for security reasons.";
-            throw new UnsupportedJwtException(msg, e);
+            throw unsupportedKey(algorithm, key, e);
+        }
+    }
+
+    private static UnsupportedJwtException unsupportedKey(SecureDigestAlgorithm<?, ?> algorithm, Key key,
+                                                          RuntimeException cause) {
+        String algId = algorithm.getId();
+        String msg = "The parsed JWT indicates it was signed with the '" + algId + "' signature " +
+                "algorithm, but the provided " + key.getClass().getName() + " key may " +
+                "not be used to verify " + algId + " signatures.  Because the specified " +
+                "key reflects a specific and expected algorithm, and the JWT does not reflect " +
+                "this algorithm, it is likely that the JWT was not expected and therefore should not be " +
+                "trusted.  Another possibility is that the parser was provided the incorrect " +
+                "signature verification key, but this cannot be assumed for security reasons.";
+        return new UnsupportedJwtException(msg, cause);
+    }
+
+    /**
+     * Verifies the tokenized JWS signature.  If {@code signingInput} is not {@code null}, it is the complete JWS
+     * Signing Input and is used as-is, for example an
+     * <a href="https://www.rfc-editor.org/rfc/rfc7797.html#section-3">RFC 7797</a> unencoded payload or the
+     * already-decrypted ASCII bytes of a Nested JWT: it is streamed to JJWT's own signature algorithms, and read
+     * fully into the request payload for any other algorithm.  Otherwise the signing input is re-created from the
+     * tokenized JWS.
+     */
+    private void verify(final TokenizedJwt tokenized, SecureDigestAlgorithm<?, Key> algorithm, Key key,
+                        InputStream signingInput) {
+
+        byte[] signature = base64UrlDecode(tokenized.getDigest(), "JWS signature");
+
+        VerifySecureDigestRequest<Key> request;
+        if (signingInput != null && StreamingRequests.isSupportedBy(algorithm)) { // already available:
+            request = new DefaultStreamingVerifySecureDigestRequest<>(Bytes.EMPTY, signingInput, this.provider,
+                    null, key, signature);
+        } else if (signingInput != null) { // a custom algorithm only sees the request payload:
+            byte[] data = StreamingRequests.readAll(Bytes.EMPTY, signingInput);
+            request = new DefaultVerifySecureDigestRequest<>(data, this.provider, null, key, signature);
+        } else {
+            //re-create the jwt part without the signature.  This is what is needed for signature verification:
+            String jwtWithoutSignature = tokenized.getProtected() + SEPARATOR_CHAR + tokenized.getBody();
+            byte[] data = jwtWithoutSignature.getBytes(StandardCharsets.US_ASCII);
+            request = new DefaultVerifySecureDigestRequest<>(data, this.provider, null, key, signature);
+        }
+        if (!algorithm.verify(request)) {
+            String msg = "JWT signature does not match locally computed signature. JWT validity cannot be " +
+                    "asserted and should not be trusted.";
+            throw new SignatureException(msg);
         }
     }
 
     @Override
     public Jwt<?, ?> parse(String compact) throws ExpiredJwtException, MalformedJwtException, SignatureException {
+        return parse(compact, null, null, null);
+    }
+
+    /**
+     * Parses the specified JWT string, using the specified detached JWS payload if not {@code null}.
+     *
+     * @param compact          the JWT string to parse
+     * @param compactBytes     the ASCII bytes of {@code compact} if already available (as is the case for the
+     *                         decrypted payload of a Nested JWT), or {@code null} otherwise.  If present, JWS
+     *                         signatures are verified directly against these bytes.
+     * @param detachedPayload  the detached JWS payload bytes, or {@code null} if the payload is not detached or is
+     *                         provided via {@code detachedStream}
+     * @param detachedStream   the detached unencoded JWS payload stream, or {@code null} if the payload is not
+     *                         detached or is provided via {@code detachedPayload}
+     * @return the parsed JWT
+     */
+    private Jwt<?, ?> parse(CharSequence compact, byte[] compactBytes, byte[] detachedPayload,
+                            InputStream detachedStream)
+            throws ExpiredJwtException, MalformedJwtException, SignatureException {
 
         // TODO, this logic is only need for a now deprecated code path
         // remove this block in v1.0 (the equivalent is already in DefaultJwtParserBuilder)
@@ -510,9 +745,15 @@ public class DefaultJwtParser implements JwtParser {
             this.deserializer = LegacyServices.loadFirst(Deserializer.class);
         }
 
-        Assert.hasText(compact, "JWT String cannot be null or empty.");
+        Assert.isTrue(Strings.hasText(compact), "JWT String cannot be null or empty.");
+
+        final boolean detached = detachedPayload != null || detachedStream != null;
 
-        final TokenizedJwt tokenized = jwtTokenizer.tokenize(compact);
+        if (!detached && isJson(compact)) {
+            return parseJson(compact.toString());
+        }
+
+        TokenizedJwt tokenized = jwtTokenizer.tokenize(compact);
         final String base64UrlHeader = tokenized.getProtected();
         if (!Strings.hasText(base64UrlHeader)) {
             String msg = "Compact JWT strings MUST always have a Base64Url protected header per https://tools.ietf.org/html/rfc7519#section-7.2 (steps 2-4).";
@@ -520,14 +761,9 @@ public class DefaultJwtParser implements JwtParser {
         }
 
         // =============== Header =================
-        final byte[] headerBytes = base64UrlDecode(base64UrlHeader, "protected header");
-        Map<String, ?> m = readValue(headerBytes, "protected header");
-        Header<?> header;
-        try {
-            header = tokenized.createHeader(m);
-        } catch (Exception e) {
-            String msg = "Invalid protected header: " + e.getMessage();
-            throw new MalformedJwtException(msg, e);
+        final Header<?> header = parseHeader(tokenized, base64UrlHeader);
+        if (header instanceof ProtectedHeader) {
+            assertCritical((ProtectedHeader<?>) header);
         }
 
         // https://tools.ietf.org/html/rfc7515#section-10.7 , second-to-last bullet point, note the use of 'always':
@@ -564,7 +800,50 @@ public class DefaultJwtParser implements JwtParser {
         }
 
         // =============== Body =================
-        byte[] payload = base64UrlDecode(tokenized.getBody(), "payload");
+        // https://www.rfc-editor.org/rfc/rfc7797.html#section-3 :
+        final boolean unencoded = header instanceof JwsHeader && !((JwsHeader) header).isPayloadEncoded();
+        InputStream signingInput = null; // the complete JWS Signing Input, if already available
+        byte[] payload;
+        if (detached) {
+            if (!(header instanceof JwsHeader) || tokenized instanceof TokenizedJwe) {
+                String msg = "Detached payloads are only supported for signed JWTs (JWSs).";
+                throw new UnsupportedJwtException(msg);
+            }
+            if (Strings.hasText(tokenized.getBody())) {
+                String msg = "A detached payload was provided, but the JWS already contains a payload.";
+                throw new MalformedJwtException(msg);
+            }
+            if (detachedStream != null) {
+                if (!unencoded) {
+                    String msg = "InputStream payloads are only supported for JWSs with an unencoded payload " +
+                            "(b64 = false) per https://www.rfc-editor.org/rfc/rfc7797.html";
+                    throw new UnsupportedJwtException(msg);
+                }
+                if (Strings.hasText(header.getCompressionAlgorithm())) {
+                    String msg = "InputStream payloads cannot be decompressed.";
+                    throw new UnsupportedJwtException(msg);
+                }
+                payload = Bytes.EMPTY; // never buffered
+                signingInput = unencodedSigningInput(base64UrlHeader, detachedStream);
+            } else if (unencoded) {
+                payload = detachedPayload;
+                signingInput = unencodedSigningInput(base64UrlHeader, new ByteArrayInputStream(payload));
+            } else { // encoded detached payload per https://www.rfc-editor.org/rfc/rfc7515.html#appendix-F
+                payload = detachedPayload;
+                String base64UrlPayload = this.base64UrlEncoder.encode(payload);
+                tokenized = new DefaultTokenizedJwt(base64UrlHeader, base64UrlPayload, base64UrlDigest);
+            }
+        } else if (unencoded) { // embedded unencoded payload per https://www.rfc-editor.org/rfc/rfc7797.html#section-5.2
+            payload = tokenized.getBody().getBytes(StandardCharsets.UTF_8);
+            signingInput = unencodedSigningInput(base64UrlHeader, new ByteArrayInputStream(payload));
+        } else {
+            payload = base64UrlDecode(tokenized.getBody(), "payload");
+            if (compactBytes != null && !(tokenized instanceof TokenizedJwe)) {
+                // The JWS Signing Input is the compact bytes up to (but excluding) the last period:
+                int length = base64UrlHeader.length() + 1 + tokenized.getBody().length();
+                signingInput = new ByteArrayInputStream(compactBytes, 0, length);
+            }
+        }
         if (tokenized instanceof TokenizedJwe && Arrays.length(payload) == 0) { // Only JWS body can be empty per https://github.com/jwtk/jjwt/pull/540
             String msg = "Compact JWE strings MUST always contain a payload (ciphertext).";
             throw new MalformedJwtException(msg);
@@ -610,42 +889,127 @@ public class DefaultJwtParser implements JwtParser {
                 throw new MalformedJwtException(msg);
             }
 
-            String enc = jweHeader.getEncryptionAlgorithm();
-            if (!Strings.hasText(enc)) {
-                throw new MalformedJwtException(MISSING_ENC_MSG);
+            payload = decrypt(jweHeader, null, cekBytes, payload, aad, iv, tag);
+
+        } else if (hasDigest && this.signingKeyResolver == null) { //TODO: for 1.0, remove the == null check
+            // not using a signing key resolver, so we can verify the signature before reading the body, which is
+            // always safer:
+            if (this.keyLocator instanceof CandidateLocator) {
+                verifyCandidates(tokenized, (JwsHeader) header, alg, signingInput);
+            } else {
+                verifySignature(tokenized, ((JwsHeader) header), alg, new LocatingKeyResolver(this.keyLocator), null,
+                        null, signingInput);
             }
-            final AeadAlgorithm encAlg = this.encryptionAlgorithmLocator.apply(jweHeader);
-            Assert.stateNotNull(encAlg, "JWE Encryption Algorithm cannot be null.");
+        }
 
-            @SuppressWarnings("rawtypes") final KeyAlgorithm keyAlg = this.keyAlgorithmLocator.apply(jweHeader);
-            Assert.stateNotNull(keyAlg, "JWE Key Algorithm cannot be null.");
+        payload = decompress(header, payload, unsecured);
+        Claims claims = readClaims(header, payload);
 
-            final Key key = this.keyLocator.locate(jweHeader);
-            if (key == null) {
-                String msg = "Cannot decrypt JWE payload: unable to locate key for JWE with header: " + jweHeader;
-                throw new UnsupportedJwtException(msg);
-            }
+        Jwt<?, ?> jwt;
+        Object body = claims != null ? claims : payload;
+        if (header instanceof JweHeader) {
+            jwt = new DefaultJwe<>((JweHeader) header, body, iv, tag);
+        } else if (hasDigest) {
+            JwsHeader jwsHeader = Assert.isInstanceOf(JwsHeader.class, header, "JwsHeader required.");
+            jwt = new DefaultJws<>(jwsHeader, body, base64UrlDigest);
+        } else {
+            //noinspection rawtypes
+            jwt = new DefaultJwt(header, body);
+        }
 
-            DecryptionKeyRequest<Key> request =
-                    new DefaultDecryptionKeyRequest<>(cekBytes, this.provider, null, jweHeader, encAlg, key);
-            final SecretKey cek = keyAlg.getDecryptionKey(request);
-            if (cek == null) {
-                String msg = "The '" + keyAlg.getId() + "' JWE key algorithm did not return a decryption key. " +
-                        "Unable to perform '" + encAlg.getId() + "' decryption.";
-                throw new IllegalStateException(msg);
-            }
+        // =============== Signature =================
+        if (hasDigest && signingKeyResolver != null) { // TODO: remove for 1.0
+            // A SigningKeyResolver has been configured, and due to it's API, we have to verify the signature after
+            // parsing the body.  This can be a security risk, so it needs to be removed before 1.0
+            verifySignature(tokenized, ((JwsHeader) header), alg, this.signingKeyResolver, claims, payload,
+                    signingInput);
+        }
 
-            DecryptAeadRequest decryptRequest =
-                    new DefaultAeadResult(this.provider, null, payload, cek, aad, tag, iv);
-            Message<byte[]> result = encAlg.decrypt(decryptRequest);
-            payload = result.getPayload();
+        validate(header, claims);
 
-        } else if (hasDigest && this.signingKeyResolver == null) { //TODO: for 1.0, remove the == null check
-            // not using a signing key resolver, so we can verify the signature before reading the body, which is
-            // always safer:
-            verifySignature(tokenized, ((JwsHeader) header), alg, new LocatingKeyResolver(this.keyLocator), null, null);
+        return jwt;
+    }
+
+    private byte[] decrypt(JweHeader jweHeader, Key key, byte[] cekBytes, byte[] ciphertext, byte[] aad,
+                           byte[] iv, byte[] tag) {
+
+        String enc = jweHeader.getEncryptionAlgorithm();
+        if (!Strings.hasText(enc)) {
+            throw new MalformedJwtException(MISSING_ENC_MSG);
+        }
+        final AeadAlgorithm encAlg = this.encryptionAlgorithmLocator.apply(jweHeader);
+        Assert.stateNotNull(encAlg, "JWE Encryption Algorithm cannot be null.");
+
+        @SuppressWarnings("rawtypes") final KeyAlgorithm keyAlg = this.keyAlgorithmLocator.apply(jweHeader);
+        Assert.stateNotNull(keyAlg, "JWE Key Algorithm cannot be null.");
+
+        if (key == null && this.keyLocator instanceof CandidateLocator) {
+            return decryptCandidates(jweHeader, encAlg, keyAlg, cekBytes, ciphertext, aad, iv, tag);
+        }
+        if (key == null) { // not already located by the caller:
+            key = this.keyLocator.locate(jweHeader);
+        }
+        if (key == null) {
+            String msg = "Cannot decrypt JWE payload: unable to locate key for JWE with header: " + jweHeader;
+            throw new UnsupportedJwtException(msg);
+        }
+
+        return decrypt(jweHeader, encAlg, keyAlg, key, cekBytes, ciphertext, aad, iv, tag);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private byte[] decrypt(JweHeader jweHeader, AeadAlgorithm encAlg, KeyAlgorithm keyAlg, Key key, byte[] cekBytes,
+                           byte[] ciphertext, byte[] aad, byte[] iv, byte[] tag) {
+
+        DecryptionKeyRequest<Key> request =
+                new DefaultDecryptionKeyRequest<>(cekBytes, this.provider, null, jweHeader, encAlg, key);
+        final SecretKey cek = keyAlg.getDecryptionKey(request);
+        if (cek == null) {
+            String msg = "The '" + keyAlg.getId() + "' JWE key algorithm did not return a decryption key. " +
+                    "Unable to perform '" + encAlg.getId() + "' decryption.";
+            throw new IllegalStateException(msg);
+        }
+
+        DecryptAeadRequest decryptRequest =
+                new DefaultAeadResult(this.provider, null, ciphertext, cek, aad, tag, iv);
+        Message<byte[]> result = encAlg.decrypt(decryptRequest);
+        return result.getPayload();
+    }
+
+    /**
+     * Decrypts the JWE with each candidate key returned by the parser's {@link CandidateLocator} in order,
+     * stopping at the first candidate that succeeds.
+     */
+    @SuppressWarnings("rawtypes")
+    private byte[] decryptCandidates(JweHeader jweHeader, AeadAlgorithm encAlg, KeyAlgorithm keyAlg, byte[] cekBytes,
+                                     byte[] ciphertext, byte[] aad, byte[] iv, byte[] tag) {
+
+        @SuppressWarnings("unchecked") CandidateLocator<Key> locator = (CandidateLocator<Key>) this.keyLocator;
+        List<? extends Key> candidates = locator.locateCandidates(jweHeader);
+        if (Collections.isEmpty(candidates)) {
+            candidates = java.util.Collections.emptyList();
         }
+        RuntimeException failure = null;
+        for (Key candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            try {
+                byte[] payload = decrypt(jweHeader, encAlg, keyAlg, candidate, cekBytes, ciphertext, aad, iv, tag);
+                locator.onSuccess(jweHeader, candidate);
+                return payload;
+            } catch (io.jsonwebtoken.security.SecurityException e) { // wrong key type or decryption failure
+                failure = preferredFailure(failure, e);
+            }
+        }
+        if (failure == null) {
+            String msg = "Cannot decrypt JWE payload: unable to locate key for JWE with header: " + jweHeader;
+            throw new UnsupportedJwtException(msg);
+        }
+        throw failure;
+    }
 
+    private byte[] decompress(Header<?> header, byte[] payload, boolean unsecured) {
         CompressionCodec compressionCodec = compressionCodecLocator.locate(header);
         if (compressionCodec != null) {
             if (unsecured && !enableUnsecuredDecompression) {
@@ -654,7 +1018,14 @@ public class DefaultJwtParser implements JwtParser {
             }
             payload = compressionCodec.decompress(payload);
         }
+        return payload;
+    }
 
+    private DefaultClaims newClaims() {
+        return this.claimsSchema != null ? this.claimsSchema.newClaims() : new DefaultClaims();
+    }
+
+    private Claims readClaims(Header<?> header, byte[] payload) {
         Claims claims = null;
         if (!hasContentType(header) // If there is a content type set, then the application using JJWT is expected
                 //                     to convert the byte payload themselves based on this content type
@@ -664,33 +1035,43 @@ public class DefaultJwtParser implements JwtParser {
                 //                      parameter is performed by the JWS application."
                 //
                 && isLikelyJson(payload)) { // likely to be json, parse it:
-            Map<String, ?> claimsMap = readValue(payload, "claims");
-            try {
-                claims = new DefaultClaims(claimsMap);
-            } catch (Exception e) {
-                String msg = "Invalid claims: " + e.getMessage();
-                throw new MalformedJwtException(msg, e);
+            MapPopulatingDeserializer populator = populatingDeserializer();
+            if (populator != null) { // populate the claims directly, without an intermediate Map:
+                DefaultClaims populated = newClaims();
+                try {
+                    readValue(populator, payload, "claims", populated, this.retainedClaims);
+                } catch (JwtException e) { // already reported, e.g. invalid JSON
+                    throw e;
+                } catch (RuntimeException e) { // thrown by DefaultClaims for invalid claim values
+                    String msg = "Invalid claims: " + e.getMessage();
+                    throw new MalformedJwtException(msg, e);
+                }
+                if (this.claimsSchema != null) { // schema claims are validated and may be shared as-is:
+                    populated.makeImmutable();
+                }
+                claims = populated;
+            } else {
+                Map<String, ?> claimsMap;
+                if (this.retainedClaims != null) { // only set by the builder, which always uses a JwtDeserializer:
+                    Map<String, Object> retained = new LinkedHashMap<>();
+                    MapPopulatingDeserializer d = (MapPopulatingDeserializer) this.deserializer;
+                    readValue(d, payload, "claims", retained, this.retainedClaims);
+                    claimsMap = retained;
+                } else {
+                    claimsMap = readValue(payload, "claims");
+                }
+                try {
+                    claims = this.claimsSchema != null ? this.claimsSchema.from(claimsMap) : new DefaultClaims(claimsMap);
+                } catch (Exception e) {
+                    String msg = "Invalid claims: " + e.getMessage();
+                    throw new MalformedJwtException(msg, e);
+                }
             }
         }
+        return claims;
+    }
 
-        Jwt<?, ?> jwt;
-        Object body = claims != null ? claims : payload;
-        if (header instanceof JweHeader) {
-            jwt = new DefaultJwe<>((JweHeader) header, body, iv, tag);
-        } else if (hasDigest) {
-            JwsHeader jwsHeader = Assert.isInstanceOf(JwsHeader.class, header, "JwsHeader required.");
-            jwt = new DefaultJws<>(jwsHeader, body, base64UrlDigest);
-        } else {
-            //noinspection rawtypes
-            jwt = new DefaultJwt(header, body);
-        }
-
-        // =============== Signature =================
-        if (hasDigest && signingKeyResolver != null) { // TODO: remove for 1.0
-            // A SigningKeyResolver has been configured, and due to it's API, we have to verify the signature after
-            // parsing the body.  This can be a security risk, so it needs to be removed before 1.0
-            verifySignature(tokenized, ((JwsHeader) header), alg, this.signingKeyResolver, claims, payload);
-        }
+    private void validate(Header<?> header, Claims claims) {
 
         final boolean allowSkew = this.allowedClockSkewMillis > 0;
 
@@ -743,10 +1124,370 @@ public class DefaultJwtParser implements JwtParser {
 
             validateExpectedClaims(header, claims);
         }
+    }
+
+    /**
+     * Asserts that every header parameter named in the {@code crit} (Critical) header parameter is present in the
+     * header and understood by this parser per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-4.1.11">RFC 7515, Section 4.1.11</a>, and that
+     * the {@code b64} parameter, if present, is critical per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7797.html#section-6">RFC 7797, Section 6</a>.
+     */
+    private void assertCritical(ProtectedHeader<?> header) {
+        final String b64 = DefaultJwsHeader.B64.getId();
+        Set<String> crit = header.getCritical();
+        crit = crit != null ? crit : Collections.<String>emptySet();
+        for (String name : crit) {
+            if (!header.containsKey(name)) {
+                String msg = "Protected header 'crit' (Critical) parameter references header parameter '" + name +
+                        "', but that parameter is not present in the header.";
+                throw new MalformedJwtException(msg);
+            }
+            boolean understood = this.critical.contains(name) || (header instanceof JwsHeader && b64.equals(name));
+            if (!understood) {
+                String msg = "Unsupported protected header 'crit' (Critical) parameter '" + name + "'. Critical " +
+                        "parameters that are not understood by the parser must be rejected per " +
+                        "https://www.rfc-editor.org/rfc/rfc7515.html#section-4.1.11";
+                throw new UnsupportedJwtException(msg);
+            }
+        }
+        if (header instanceof JwsHeader && header.containsKey(b64) && !crit.contains(b64)) {
+            String msg = "The 'b64' header parameter must be included in the 'crit' (Critical) header parameter per " +
+                    "https://www.rfc-editor.org/rfc/rfc7797.html#section-6";
+            throw new MalformedJwtException(msg);
+        }
+    }
+
+    private static InputStream unencodedSigningInput(String base64UrlHeader, InputStream payload) {
+        byte[] prefix = (base64UrlHeader + SEPARATOR_CHAR).getBytes(StandardCharsets.US_ASCII);
+        return new SequenceInputStream(new ByteArrayInputStream(prefix), payload);
+    }
+
+    private static boolean isJson(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{';
+            }
+        }
+        return false;
+    }
+
+    private Jwt<?, ?> parseJson(String json) {
+        final Map<String, ?> m = readValue(json.getBytes(StandardCharsets.UTF_8), "JSON Serialization");
+        if (m.containsKey(JSON_CIPHERTEXT)) {
+            return parseJweJson(m);
+        } else if (m.containsKey(JSON_PAYLOAD)) {
+            return parseJwsJson(m);
+        }
+        String msg = "JSON Serialization documents must be either JWSs with a '" + JSON_PAYLOAD + "' member per " +
+                "https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1 or JWEs with a '" + JSON_CIPHERTEXT +
+                "' member per https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1";
+        throw new MalformedJwtException(msg);
+    }
+
+    /**
+     * Parses a JWS represented with either the
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1">General</a> or
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.2">Flattened</a> JWS JSON Serialization
+     * syntax.
+     *
+     * <p>Only one signature is verified: the first in document order for which the {@code keyLocator} (or the
+     * {@code signingKeyResolver}, if configured) returns a non-null key for that signature's header (typically
+     * based on its {@code kid} and/or {@code alg}).  Signatures
+     * after that one are never inspected, and if verification of the selected signature fails, no other signatures
+     * are attempted.</p>
+     *
+     * @param m the JSON serialized JWS members
+     * @return the verified JWS, with a header that is the union of the selected signature's protected and
+     * unprotected header parameters.
+     */
+    private Jwt<?, ?> parseJwsJson(Map<String, ?> m) {
+
+        final String base64UrlPayload = jsonMember(m, JSON_PAYLOAD, String.class, true);
+
+        List<?> signatures = jsonMember(m, JSON_SIGNATURES, List.class, false);
+        if (signatures == null) { // flattened syntax, the signature members are top-level members:
+            signatures = java.util.Collections.singletonList(m);
+        } else if (m.containsKey(JSON_PROTECTED) || m.containsKey(JSON_HEADER) || m.containsKey(JSON_SIGNATURE)) {
+            String msg = "JSON serialized JWSs may not contain both a '" + JSON_SIGNATURES + "' member and " +
+                    "top-level '" + JSON_PROTECTED + "', '" + JSON_HEADER + "' or '" + JSON_SIGNATURE + "' members.";
+            throw new MalformedJwtException(msg);
+        } else if (signatures.isEmpty()) {
+            String msg = "JSON serialized JWS '" + JSON_SIGNATURES + "' member cannot be empty.";
+            throw new MalformedJwtException(msg);
+        }
 
+        JwsHeader header = null;
+        Key key = null;
+        TokenizedJwt tokenized = null;
+        byte[] payload = null;
+        Claims claims = null;
+        for (Object o : signatures) {
+            if (!(o instanceof Map)) {
+                String msg = "JSON serialized JWS '" + JSON_SIGNATURES + "' elements must be JSON objects.";
+                throw new MalformedJwtException(msg);
+            }
+            Map<?, ?> signature = (Map<?, ?>) o;
+            String base64UrlProtected = jsonMember(signature, JSON_PROTECTED, String.class, true);
+            Map<String, ?> unprotected = jsonMember(signature, JSON_HEADER, Map.class, false);
+            String base64UrlSignature = jsonMember(signature, JSON_SIGNATURE, String.class, true);
+            byte[] headerBytes = base64UrlDecode(base64UrlProtected, "protected header");
+            Map<String, ?> protectedHeader = readValue(headerBytes, "protected header");
+            header = jwsHeader(protectedHeader, unprotected);
+            if (this.signingKeyResolver != null) { // TODO: remove for 1.0
+                // As with compact JWSs, the SigningKeyResolver API requires the payload to be read before the
+                // signature is verified:
+                payload = decompress(header, base64UrlDecode(base64UrlPayload, "payload"), false);
+                claims = readClaims(header, payload);
+                key = claims != null ? this.signingKeyResolver.resolveSigningKey(header, claims) :
+                        this.signingKeyResolver.resolveSigningKey(header, payload);
+            } else {
+                key = this.keyLocator.locate(header);
+            }
+            if (key != null) {
+                tokenized = new DefaultTokenizedJwt(base64UrlProtected, base64UrlPayload, base64UrlSignature);
+                break;
+            }
+        }
+        if (key == null) {
+            String msg = "Cannot verify JWS signature: unable to locate a signature verification key for any " +
+                    "JWS signature.";
+            throw new UnsupportedJwtException(msg);
+        }
+
+        verifySignature(tokenized, signatureAlgorithm(header, header.getAlgorithm()), key, null);
+
+        if (payload == null) { // not already read for a SigningKeyResolver:
+            payload = base64UrlDecode(base64UrlPayload, "payload");
+            payload = decompress(header, payload, false);
+            claims = readClaims(header, payload);
+        }
+        Object body = claims != null ? claims : payload;
+        Jwt<?, ?> jwt = new DefaultJws<>(header, body, tokenized.getDigest());
+        validate(header, claims);
         return jwt;
     }
 
+    private JwsHeader jwsHeader(Map<String, ?> protectedHeader, Map<String, ?> unprotected) {
+
+        // https://www.rfc-editor.org/rfc/rfc7515.html#section-10.7 - 'alg' must always be integrity protected:
+        Object alg = protectedHeader.get(AbstractHeader.ALGORITHM.getId());
+        if (!(alg instanceof String) || !Strings.hasText((String) alg)) {
+            throw new MalformedJwtException(MISSING_JWS_ALG_MSG);
+        }
+        if (Jwts.SIG.NONE.getId().equalsIgnoreCase(Strings.clean((String) alg))) {
+            throw new MalformedJwtException(JWS_NONE_SIG_MISMATCH_MSG);
+        }
+
+        // The protected and unprotected header parameter names must be disjoint per
+        // https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1
+        Map<String, Object> params = new LinkedHashMap<>(protectedHeader);
+        assertUnprotected(unprotected, "JWS", "unprotected header");
+        putDisjoint(params, unprotected, "JWS", "protected or unprotected headers");
+
+        JwsHeader header;
+        try {
+            header = deferConversions(new DefaultJwsHeader());
+            header.putAll(params);
+        } catch (Exception e) {
+            String msg = "Invalid JWS header: " + e.getMessage();
+            throw new MalformedJwtException(msg, e);
+        }
+        assertCritical(header);
+        if (!header.isPayloadEncoded()) {
+            String msg = "Unencoded payloads (b64 = false) are only supported for compact JWSs.";
+            throw new UnsupportedJwtException(msg);
+        }
+        return header;
+    }
+
+    /**
+     * Asserts that the specified unprotected header parameters do not contain any parameter that must be integrity
+     * protected: the {@code crit} (Critical) parameter must be in the protected header per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-4.1.11">RFC 7515, Section 4.1.11</a>, as must
+     * the {@code zip} (Compression Algorithm) parameter per
+     * <a href="https://www.rfc-editor.org/rfc/rfc7516.html#section-4.1.3">RFC 7516, Section 4.1.3</a>.
+     */
+    private static void assertUnprotected(Map<String, ?> unprotected, String type, String header) {
+        if (unprotected == null) {
+            return;
+        }
+        for (String name : PROTECTED_ONLY_HEADER_PARAMS) {
+            if (unprotected.containsKey(name)) {
+                String msg = "JSON serialized " + type + " header parameter '" + name + "' must be integrity " +
+                        "protected and may not be present in the " + header + ".";
+                throw new MalformedJwtException(msg);
+            }
+        }
+    }
+
+    private static void putDisjoint(Map<String, Object> params, Map<String, ?> other, String type, String headers) {
+        if (other == null) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : other.entrySet()) {
+            if (params.containsKey(entry.getKey())) {
+                String msg = "JSON serialized " + type + " header parameter '" + entry.getKey() + "' may only be " +
+                        "present in one of the " + headers + ".";
+                throw new MalformedJwtException(msg);
+            }
+            params.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Parses a JWE represented with either the
+     * <a href="https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1">General</a> or
+     * <a href="https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.2">Flattened</a> JWE JSON Serialization
+     * syntax.
+     *
+     * <p>The payload is decrypted only once, for the first recipient in document order for which the
+     * {@code keyLocator} returns a non-null key.  Recipients after that one are never inspected further, and if
+     * decryption with the located key fails, no other recipients are attempted.</p>
+     *
+     * @param m the JSON serialized JWE members
+     * @return the decrypted JWE, with a header that is the union of the protected, shared unprotected and selected
+     * recipient's header parameters.
+     */
+    private Jwt<?, ?> parseJweJson(Map<String, ?> m) {
+
+        String base64UrlProtected = jsonMember(m, JSON_PROTECTED, String.class, false);
+        Map<String, ?> protectedHeader = java.util.Collections.emptyMap();
+        if (Strings.hasText(base64UrlProtected)) {
+            byte[] headerBytes = base64UrlDecode(base64UrlProtected, "protected header");
+            protectedHeader = readValue(headerBytes, "protected header");
+        } else {
+            base64UrlProtected = "";
+        }
+        Map<String, ?> unprotected = jsonMember(m, JSON_UNPROTECTED, Map.class, false);
+
+        // The AAD for JSON serialized JWEs is ASCII(BASE64URL(UTF8(JWE Protected Header)) || '.' || BASE64URL(JWE AAD))
+        // if the 'aad' member is present, per https://www.rfc-editor.org/rfc/rfc7516.html#section-5.1, Step 14:
+        String aadText = base64UrlProtected;
+        String base64UrlAad = jsonMember(m, JSON_AAD, String.class, false);
+        if (base64UrlAad != null) {
+            aadText = aadText + SEPARATOR_CHAR + base64UrlAad;
+        }
+        final byte[] aad = aadText.getBytes(StandardCharsets.US_ASCII);
+
+        String base64UrlIv = jsonMember(m, JSON_IV, String.class, true);
+        final byte[] iv = base64UrlDecode(base64UrlIv, "JWE Initialization Vector");
+        if (Arrays.length(iv) == 0) {
+            String msg = "JSON serialized JWEs must always contain an Initialization Vector.";
+            throw new MalformedJwtException(msg);
+        }
+        String base64UrlCiphertext = jsonMember(m, JSON_CIPHERTEXT, String.class, true);
+        final byte[] ciphertext = base64UrlDecode(base64UrlCiphertext, "ciphertext");
+        if (Arrays.length(ciphertext) == 0) {
+            String msg = "JSON serialized JWEs must always contain a payload (ciphertext).";
+            throw new MalformedJwtException(msg);
+        }
+        String base64UrlTag = jsonMember(m, JSON_TAG, String.class, true);
+        final byte[] tag = base64UrlDecode(base64UrlTag, "JWE AAD Authentication Tag");
+        if (Arrays.length(tag) == 0) {
+            String msg = "JSON serialized JWEs must always contain an AAD Authentication Tag.";
+            throw new MalformedJwtException(msg);
+        }
+
+        List<?> recipients = jsonMember(m, JSON_RECIPIENTS, List.class, false);
+        if (recipients == null) { // flattened syntax, the recipient members are top-level members:
+            recipients = java.util.Collections.singletonList(m);
+        } else if (m.containsKey(JSON_HEADER) || m.containsKey(JSON_ENCRYPTED_KEY)) {
+            String msg = "JSON serialized JWEs may not contain both a '" + JSON_RECIPIENTS + "' member and " +
+                    "top-level '" + JSON_HEADER + "' or '" + JSON_ENCRYPTED_KEY + "' members.";
+            throw new MalformedJwtException(msg);
+        } else if (recipients.isEmpty()) {
+            String msg = "JSON serialized JWE '" + JSON_RECIPIENTS + "' member cannot be empty.";
+            throw new MalformedJwtException(msg);
+        }
+
+        JweHeader header = null;
+        Key key = null;
+        String base64UrlEncryptedKey = null;
+        for (Object o : recipients) {
+            if (!(o instanceof Map)) {
+                String msg = "JSON serialized JWE '" + JSON_RECIPIENTS + "' elements must be JSON objects.";
+                throw new MalformedJwtException(msg);
+            }
+            Map<?, ?> recipient = (Map<?, ?>) o;
+            Map<String, ?> recipientHeader = jsonMember(recipient, JSON_HEADER, Map.class, false);
+            header = jweHeader(protectedHeader, unprotected, recipientHeader);
+            key = this.keyLocator.locate(header);
+            if (key != null) {
+                base64UrlEncryptedKey = jsonMember(recipient, JSON_ENCRYPTED_KEY, String.class, false);
+                break;
+            }
+        }
+        if (key == null) {
+            String msg = "Cannot decrypt JWE payload: unable to locate a key for any JWE recipient.";
+            throw new UnsupportedJwtException(msg);
+        }
+
+        byte[] cekBytes = Bytes.EMPTY; //ignored unless using an encrypted key algorithm
+        if (Strings.hasText(base64UrlEncryptedKey)) {
+            cekBytes = base64UrlDecode(base64UrlEncryptedKey, "JWE encrypted key");
+        }
+
+        byte[] payload = decrypt(header, key, cekBytes, ciphertext, aad, iv, tag);
+        payload = decompress(header, payload, false);
+        Claims claims = readClaims(header, payload);
+        Object body = claims != null ? claims : payload;
+        Jwt<?, ?> jwt = new DefaultJwe<>(header, body, iv, tag);
+        validate(header, claims);
+        return jwt;
+    }
+
+    private JweHeader jweHeader(Map<String, ?> protectedHeader, Map<String, ?> unprotected,
+                                Map<String, ?> recipientHeader) {
+
+        // The protected, shared unprotected, and per-recipient header parameter names must be disjoint per
+        // https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1
+        Map<String, Object> params = new LinkedHashMap<>(protectedHeader);
+        String headers = "protected, shared unprotected, or per-recipient headers";
+        assertUnprotected(unprotected, "JWE", "shared unprotected header");
+        assertUnprotected(recipientHeader, "JWE", "per-recipient header");
+        putDisjoint(params, unprotected, "JWE", headers);
+        putDisjoint(params, recipientHeader, "JWE", headers);
+
+        JweHeader header;
+        try {
+            header = deferConversions(new DefaultJweHeader());
+            header.putAll(params);
+        } catch (Exception e) {
+            String msg = "Invalid JWE header: " + e.getMessage();
+            throw new MalformedJwtException(msg, e);
+        }
+        assertCritical(header);
+
+        String alg = Strings.clean(header.getAlgorithm());
+        if (!Strings.hasText(alg)) {
+            throw new MalformedJwtException(MISSING_JWE_ALG_MSG);
+        }
+        if (Jwts.SIG.NONE.getId().equalsIgnoreCase(alg)) {
+            throw new MalformedJwtException(JWE_NONE_MSG);
+        }
+        return header;
+    }
+
+    private static <T> T jsonMember(Map<?, ?> m, String name, Class<?> type, boolean required) {
+        Object value = m.get(name);
+        if (value == null) {
+            if (required) {
+                String msg = "JSON Serialization document is missing required '" + name + "' member.";
+                throw new MalformedJwtException(msg);
+            }
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            String msg = "JSON Serialization '" + name + "' member must be a JSON " +
+                    (String.class.equals(type) ? "string" : Map.class.equals(type) ? "object" : "array") + ".";
+            throw new MalformedJwtException(msg);
+        }
+        @SuppressWarnings("unchecked") T t = (T) value;
+        return t;
+    }
+
     /**
      * @since 0.10.0
      */
@@ -793,7 +1534,11 @@ public class DefaultJwtParser implements JwtParser {
         Assert.hasText(compact, "JWT String argument cannot be null or empty.");
 
         Jwt<?, ?> jwt = parse(compact);
+        return handle(jwt, handler);
+    }
 
+    @SuppressWarnings("unchecked")
+    private static <T> T handle(Jwt<?, ?> jwt, JwtHandler<T> handler) {
         if (jwt instanceof Jws) {
             Jws<?> jws = (Jws<?>) jwt;
             Object body = jws.getPayload();
@@ -860,6 +1605,82 @@ public class DefaultJwtParser implements JwtParser {
         });
     }
 
+    @Override
+    public Jws<byte[]> parseContentJws(String jws, byte[] detachedPayload) {
+        Assert.hasText(jws, "JWS String argument cannot be null or empty.");
+        Assert.notNull(detachedPayload, "Detached payload byte array cannot be null.");
+        return handle(parse(jws, null, detachedPayload, null), new JwtHandlerAdapter<Jws<byte[]>>() {
+            @Override
+            public Jws<byte[]> onContentJws(Jws<byte[]> jws) {
+                return jws;
+            }
+        });
+    }
+
+    @Override
+    public Jws<byte[]> parseContentJws(String jws, InputStream unencodedPayload) {
+        Assert.hasText(jws, "JWS String argument cannot be null or empty.");
+        Assert.notNull(unencodedPayload, "Unencoded payload InputStream cannot be null.");
+        return handle(parse(jws, null, null, unencodedPayload), new JwtHandlerAdapter<Jws<byte[]>>() {
+            @Override
+            public Jws<byte[]> onContentJws(Jws<byte[]> jws) {
+                return jws;
+            }
+        });
+    }
+
+    @Override
+    public Jws<Claims> parseClaimsJws(String jws, byte[] detachedPayload) {
+        Assert.hasText(jws, "JWS String argument cannot be null or empty.");
+        Assert.notNull(detachedPayload, "Detached payload byte array cannot be null.");
+        return handle(parse(jws, null, detachedPayload, null), new JwtHandlerAdapter<Jws<Claims>>() {
+            @Override
+            public Jws<Claims> onClaimsJws(Jws<Claims> jws) {
+                return jws;
+            }
+        });
+    }
+
+    @Override
+    public Jws<byte[]> parseNestedContentJws(String jwe) throws JwtException {
+        return handle(parseNested(jwe), new JwtHandlerAdapter<Jws<byte[]>>() {
+            @Override
+            public Jws<byte[]> onContentJws(Jws<byte[]> jws) {
+                return jws;
+            }
+        });
+    }
+
+    @Override
+    public Jws<Claims> parseNestedClaimsJws(String jwe) throws JwtException {
+        return handle(parseNested(jwe), new JwtHandlerAdapter<Jws<Claims>>() {
+            @Override
+            public Jws<Claims> onClaimsJws(Jws<Claims> jws) {
+                return jws;
+            }
+        });
+    }
+
+    /**
+     * Decrypts the specified Nested JWT and parses its plaintext as a compact JWT directly from the decrypted bytes
+     * per <a href="https://www.rfc-editor.org/rfc/rfc7519.html#section-7.2">RFC 7519, Section 7.2, Step 8</a>.
+     */
+    private Jwt<?, ?> parseNested(String jwe) {
+        Assert.hasText(jwe, "JWE String argument cannot be null or empty.");
+        Jwt<?, ?> outer = parse(jwe);
+        if (!(outer instanceof Jwe) || !(outer.getPayload() instanceof byte[])) {
+            String msg = "Nested JWTs must be JWEs with a JWT payload.";
+            throw new UnsupportedJwtException(msg);
+        }
+        if (!NESTED_JWT_CONTENT_TYPE.equalsIgnoreCase(outer.getHeader().getContentType())) {
+            String msg = "Nested JWEs must have a 'cty' (Content Type) header value of '" + NESTED_JWT_CONTENT_TYPE +
+                    "' per https://www.rfc-editor.org/rfc/rfc7519.html#section-5.2";
+            throw new UnsupportedJwtException(msg);
+        }
+        byte[] compact = (byte[]) outer.getPayload();
+        return parse(new AsciiSequence(compact), compact, null, null);
+    }
+
     @Override
     public Jwe<byte[]> parseContentJwe(String compact) throws JwtException {
         return parse(compact, new JwtHandlerAdapter<Jwe<byte[]>>() {
@@ -889,6 +1710,93 @@ public class DefaultJwtParser implements JwtParser {
         }
     }
 
+    /**
+     * Returns the immutable header represented by the specified Base64Url-encoded protected header, from the header
+     * cache if possible.
+     */
+    private Header<?> parseHeader(TokenizedJwt tokenized, String base64UrlHeader) {
+
+        Header<?> header = this.headerCache.get(base64UrlHeader);
+        // the same encoded header results in a different Header type depending on the token's format:
+        if (header != null && (tokenized instanceof TokenizedJwe ? header instanceof JweHeader :
+                header instanceof JwsHeader && Strings.hasText(tokenized.getDigest()))) {
+            return header;
+        }
+
+        final byte[] headerBytes = base64UrlDecode(base64UrlHeader, "protected header");
+        header = deferConversions(tokenized.createHeader(java.util.Collections.<String, Object>emptyMap()));
+        MapPopulatingDeserializer populator = populatingDeserializer();
+        if (populator != null) { // populate the header directly, without an intermediate Map:
+            try {
+                readValue(populator, headerBytes, "protected header", header, null);
+            } catch (JwtException e) { // already reported, e.g. invalid JSON
+                throw e;
+            } catch (RuntimeException e) { // thrown by the header for invalid parameter values
+                String msg = "Invalid protected header: " + e.getMessage();
+                throw new MalformedJwtException(msg, e);
+            }
+        } else {
+            Map<String, ?> m = readValue(headerBytes, "protected header");
+            try {
+                header.putAll(m);
+            } catch (Exception e) {
+                String msg = "Invalid protected header: " + e.getMessage();
+                throw new MalformedJwtException(msg, e);
+            }
+        }
+        ((JwtMap) header).makeImmutable();
+
+        if (header instanceof ProtectedHeader && base64UrlHeader.length() <= MAX_CACHED_HEADER_LENGTH &&
+                !containsAny(header, PER_TOKEN_HEADER_PARAMS)) {
+            this.headerCache.put(base64UrlHeader, header);
+        }
+        return header;
+    }
+
+    // returns the specified (empty) header after enabling deferred conversion for it if configured:
+    private <H extends Header<?>> H deferConversions(H header) {
+        if (this.enableDeferredConversion) {
+            ((JwtMap) header).enableDeferredConversion();
+        }
+        return header;
+    }
+
+    private static boolean containsAny(Header<?> header, Collection<String> names) {
+        for (String name : names) {
+            if (header.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the parser's deserializer as a {@link MapPopulatingDeserializer} if it can populate headers and claims
+     * directly, or {@code null} if JSON objects must be deserialized into an intermediate {@code Map} first.
+     */
+    private MapPopulatingDeserializer populatingDeserializer() {
+        if (this.deserializer instanceof JwtDeserializer) {
+            JwtDeserializer<?> d = (JwtDeserializer<?>) this.deserializer;
+            return d.isPopulating() ? d : null;
+        }
+        return this.deserializer instanceof MapPopulatingDeserializer ?
+                (MapPopulatingDeserializer) this.deserializer : null;
+    }
+
+    private static void readValue(MapPopulatingDeserializer populator, byte[] bytes, final String name,
+                                  Map<String, Object> target, Set<String> retained) {
+        try {
+            if (retained != null) {
+                populator.deserialize(bytes, target, retained);
+            } else {
+                populator.deserialize(bytes, target);
+            }
+        } catch (MalformedJwtException | DeserializationException e) {
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            throw new MalformedJwtException("Unable to read " + name + " JSON: " + s, e);
+        }
+    }
+
     protected Map<String, ?> readValue(byte[] bytes, final String name) {
         try {
             return deserializer.deserialize(bytes);
@@ -897,4 +1805,51 @@ public class DefaultJwtParser implements JwtParser {
             throw new MalformedJwtException("Unable to read " + name + " JSON: " + s, e);
         }
     }
+
+    /**
+     * A read-only {@link CharSequence} view of ASCII bytes, allowing compact JWTs that are already available as
+     * bytes to be tokenized without first being copied into an intermediate {@code String}.
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+
+        private AsciiSequence(byte[] bytes) {
+            this(bytes, 0, bytes.length);
+        }
+
+        private AsciiSequence(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= this.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + this.length);
+            }
+            return (char) (this.bytes[this.offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > this.length || start > end) {
+                throw new IndexOutOfBoundsException("Start: " + start + ", End: " + end + ", Length: " + this.length);
+            }
+            return new AsciiSequence(this.bytes, this.offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(this.bytes, this.offset, this.length, StandardCharsets.US_ASCII);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.jsonwebtoken.impl;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ClaimsSchema;
 import io.jsonwebtoken.Clock;
 import io.jsonwebtoken.CompressionCodec;
 import io.jsonwebtoken.CompressionCodecResolver;
@@ -24,13 +25,17 @@ import io.jsonwebtoken.JwtParserBuilder;
 import io.jsonwebtoken.Locator;
 import io.jsonwebtoken.SigningKeyResolver;
 import io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver;
+import io.jsonwebtoken.impl.io.SimpleJsonDeserializer;
 import io.jsonwebtoken.impl.lang.Services;
 import io.jsonwebtoken.impl.security.ConstantKeyLocator;
 import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.Encoder;
+import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.lang.Collections;
+import io.jsonwebtoken.lang.Strings;
 import io.jsonwebtoken.security.AeadAlgorithm;
 import io.jsonwebtoken.security.KeyAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -42,6 +47,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @since 0.11.0
@@ -66,6 +72,8 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
 
     private boolean enableUnsecuredDecompression = false;
 
+    private boolean enableDeferredConversion = false;
+
     private Locator<? extends Key> keyLocator;
 
     @SuppressWarnings("deprecation") //TODO: remove for 1.0
@@ -81,8 +89,16 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
 
     private final Collection<CompressionCodec> extraCompressionCodecs = new LinkedHashSet<>();
 
+    private final Set<String> critical = new LinkedHashSet<>();
+
+    private final Set<String> retainedClaims = new LinkedHashSet<>();
+
+    private DefaultClaimsSchema claimsSchema;
+
     private Decoder<String, byte[]> base64UrlDecoder = Decoders.BASE64URL;
 
+    private Encoder<byte[], String> base64UrlEncoder = Encoders.BASE64URL;
+
     private Deserializer<Map<String, ?>> deserializer;
 
     private final Claims expectedClaims = new DefaultClaims();
@@ -106,6 +122,12 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
         return this;
     }
 
+    @Override
+    public JwtParserBuilder enableDeferredConversion() {
+        this.enableDeferredConversion = true;
+        return this;
+    }
+
     @Override
     public JwtParserBuilder setProvider(Provider provider) {
         this.provider = provider;
@@ -126,6 +148,13 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
         return this;
     }
 
+    @Override
+    public JwtParserBuilder base64UrlEncodeWith(Encoder<byte[], String> base64UrlEncoder) {
+        Assert.notNull(base64UrlEncoder, "base64UrlEncoder cannot be null.");
+        this.base64UrlEncoder = base64UrlEncoder;
+        return this;
+    }
+
     @Override
     public JwtParserBuilder requireIssuedAt(Date issuedAt) {
         expectedClaims.setIssuedAt(issuedAt);
@@ -248,6 +277,32 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
         return this;
     }
 
+    @Override
+    public JwtParserBuilder addCriticalHeaderParams(Collection<String> names) {
+        Assert.notEmpty(names, "Critical header parameter names collection cannot be null or empty.");
+        for (String name : names) {
+            this.critical.add(Assert.hasText(Strings.clean(name), "Critical header parameter names cannot be null or empty."));
+        }
+        return this;
+    }
+
+    @Override
+    public JwtParserBuilder retainClaims(Collection<String> names) {
+        Assert.notEmpty(names, "Retained claim names collection cannot be null or empty.");
+        for (String name : names) {
+            this.retainedClaims.add(Assert.hasText(Strings.clean(name), "Retained claim names cannot be null or empty."));
+        }
+        return this;
+    }
+
+    @Override
+    public JwtParserBuilder claimsSchema(ClaimsSchema schema) {
+        Assert.notNull(schema, "ClaimsSchema cannot be null.");
+        this.claimsSchema = Assert.isInstanceOf(DefaultClaimsSchema.class, schema,
+                "ClaimsSchema must be created by Jwts.claimsSchema().");
+        return this;
+    }
+
     @SuppressWarnings("deprecation") //TODO: remove for 1.0
     @Override
     public JwtParserBuilder setSigningKeyResolver(SigningKeyResolver signingKeyResolver) {
@@ -281,9 +336,9 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
         // Only lookup the deserializer IF it is null. It is possible a Deserializer implementation was set
         // that is NOT exposed as a service and no other implementations are available for lookup.
         if (this.deserializer == null) {
-            // try to find one based on the services available:
+            // try to find one based on the services available, or use the built-in one if there are none:
             //noinspection unchecked
-            this.deserializer = Services.loadFirst(Deserializer.class);
+            this.deserializer = Services.loadFirst(Deserializer.class, SimpleJsonDeserializer.SUPPLIER);
         }
 
         if (this.signingKeyResolver != null && this.signatureVerificationKey != null) {
@@ -324,16 +379,21 @@ public class DefaultJwtParserBuilder implements JwtParserBuilder {
                 signingKeyResolver,
                 enableUnsecuredJws,
                 enableUnsecuredDecompression,
+                enableDeferredConversion,
                 keyLocator,
                 clock,
                 allowedClockSkewMillis,
                 expectedClaims,
                 base64UrlDecoder,
+                base64UrlEncoder,
                 new JwtDeserializer<>(deserializer),
                 compressionCodecLocator,
                 extraDigestAlgorithms,
                 extraKeyAlgorithms,
-                extraEncryptionAlgorithms
+                extraEncryptionAlgorithms,
+                critical,
+                retainedClaims,
+                claimsSchema
         ));
     }
 }
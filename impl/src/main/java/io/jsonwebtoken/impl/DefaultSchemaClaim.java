@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.SchemaClaim;
+import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.lang.Assert;
+
+/**
+ * A {@link SchemaClaim} that knows where its value is stored in the {@link DefaultSchemaClaims} of its schema, and
+ * that provides the {@link Field} used to convert and validate its values.
+ *
+ * @param <T> the claim value type
+ * @since JJWT_RELEASE_VERSION
+ */
+final class DefaultSchemaClaim<T> implements SchemaClaim<T> {
+
+    /**
+     * The kind of slot that stores a claim's value: primitive values are stored without boxing.
+     */
+    enum Kind {OBJECT, LONG, DOUBLE, BOOLEAN}
+
+    private final Object owner; // identifies the schema this claim belongs to
+    private final ClaimField field;
+    private final Class<?> type;
+    private final Kind kind;
+    private final int index; // position among all schema claims
+    private final int slot; // position among the schema claims of the same kind
+
+    DefaultSchemaClaim(Object owner, Field<T> field, Class<?> type, Kind kind, int index, int slot) {
+        this.owner = Assert.notNull(owner, "Owner cannot be null.");
+        this.field = new ClaimField(Assert.notNull(field, "Field cannot be null."));
+        this.type = Assert.notNull(type, "Type cannot be null.");
+        this.kind = Assert.notNull(kind, "Kind cannot be null.");
+        this.index = index;
+        this.slot = slot;
+    }
+
+    boolean isOwnedBy(Object owner) {
+        return this.owner == owner;
+    }
+
+    Field<T> getField() {
+        return this.field;
+    }
+
+    Kind getKind() {
+        return this.kind;
+    }
+
+    int getIndex() {
+        return this.index;
+    }
+
+    int getSlot() {
+        return this.slot;
+    }
+
+    @Override
+    public String getName() {
+        return this.field.getId();
+    }
+
+    @Override
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    @Override
+    public String toString() {
+        return this.field.toString();
+    }
+
+    /**
+     * The claim's {@link Field}, which can find its way back to the claim when populating {@link JwtMap} slots.
+     * Schema claim values are always converted (and therefore validated) when populated, never deferred.
+     */
+    final class ClaimField implements Field<T> {
+
+        private final Field<T> delegate;
+
+        private ClaimField(Field<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        DefaultSchemaClaim<T> getClaim() {
+            return DefaultSchemaClaim.this;
+        }
+
+        @Override
+        public String getId() {
+            return this.delegate.getId();
+        }
+
+        @Override
+        public String getName() {
+            return this.delegate.getName();
+        }
+
+        @Override
+        public boolean supports(Object value) {
+            return this.delegate.supports(value);
+        }
+
+        @Override
+        public T cast(Object value) {
+            return this.delegate.cast(value);
+        }
+
+        @Override
+        public boolean isSecret() {
+            return false;
+        }
+
+        @Override
+        public boolean isDeferrable(Object value) {
+            return false;
+        }
+
+        @Override
+        public Object applyTo(T t) {
+            return this.delegate.applyTo(t);
+        }
+
+        @Override
+        public T applyFrom(Object o) {
+            return this.delegate.applyFrom(o);
+        }
+
+        @Override
+        public String toString() {
+            return this.delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl;
+
+import io.jsonwebtoken.SchemaClaim;
+import io.jsonwebtoken.SchemaClaims;
+import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.lang.Assert;
+
+import java.util.Arrays;
+
+/**
+ * {@link SchemaClaims} that, in addition to the usual {@link JwtMap} storage, keep each schema claim's converted
+ * value in a fixed slot determined by the schema: {@code long}, {@code double} and {@code boolean} values in
+ * primitive arrays (so they can be read without boxing or map lookups), and all other values in an object array.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultSchemaClaims extends DefaultClaims implements SchemaClaims {
+
+    private final DefaultClaimsSchema schema;
+    private final boolean[] present;
+    private final long[] longs;
+    private final double[] doubles;
+    private final boolean[] booleans;
+    private final Object[] objects;
+
+    DefaultSchemaClaims(DefaultClaimsSchema schema) {
+        super(Assert.notNull(schema, "ClaimsSchema cannot be null.").getFields());
+        this.schema = schema;
+        this.present = new boolean[schema.getSchemaClaims().size()];
+        this.longs = new long[schema.count(DefaultSchemaClaim.Kind.LONG)];
+        this.doubles = new double[schema.count(DefaultSchemaClaim.Kind.DOUBLE)];
+        this.booleans = new boolean[schema.count(DefaultSchemaClaim.Kind.BOOLEAN)];
+        this.objects = new Object[schema.count(DefaultSchemaClaim.Kind.OBJECT)];
+    }
+
+    @Override
+    public DefaultClaimsSchema getSchema() {
+        return this.schema;
+    }
+
+    @Override
+    protected <T> Object apply(Field<T> field, Object rawValue) {
+        Object previous = super.apply(field, rawValue); // converts and validates, or throws
+        if (field instanceof DefaultSchemaClaim.ClaimField) { // only this schema's claims are in the field set
+            store(((DefaultSchemaClaim<?>.ClaimField) field).getClaim(), idiomaticGet(field));
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = super.remove(key);
+        DefaultSchemaClaim<?> claim = this.schema.getClaim(key);
+        if (claim != null) {
+            store(claim, null);
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(this.present, false);
+        Arrays.fill(this.longs, 0L);
+        Arrays.fill(this.doubles, 0d);
+        Arrays.fill(this.booleans, false);
+        Arrays.fill(this.objects, null);
+    }
+
+    @Override
+    public void makeImmutable() {
+        super.makeImmutable();
+        for (DefaultSchemaClaim<?> claim : this.schema.getSchemaClaims()) {
+            if (claim.getKind() == DefaultSchemaClaim.Kind.OBJECT) { // reflect any unmodifiable collection views
+                this.objects[claim.getSlot()] = idiomaticGet(claim.getField());
+            }
+        }
+    }
+
+    private void store(DefaultSchemaClaim<?> claim, Object value) {
+        final boolean present = value != null;
+        final int slot = claim.getSlot();
+        this.present[claim.getIndex()] = present;
+        switch (claim.getKind()) {
+            case LONG:
+                this.longs[slot] = present ? (Long) value : 0L;
+                break;
+            case DOUBLE:
+                this.doubles[slot] = present ? (Double) value : 0d;
+                break;
+            case BOOLEAN:
+                this.booleans[slot] = present && (Boolean) value;
+                break;
+            default:
+                this.objects[slot] = value;
+        }
+    }
+
+    private DefaultSchemaClaim<?> assertClaim(SchemaClaim<?> claim) {
+        Assert.notNull(claim, "SchemaClaim cannot be null.");
+        if (!this.schema.owns(claim)) {
+            String msg = "Claim '" + claim.getName() + "' does not belong to this instance's schema.";
+            throw new IllegalArgumentException(msg);
+        }
+        return (DefaultSchemaClaim<?>) claim;
+    }
+
+    // returns the primitive slot of a present claim of the given kind:
+    private int slot(SchemaClaim<?> claim, DefaultSchemaClaim.Kind kind) {
+        DefaultSchemaClaim<?> c = assertClaim(claim);
+        Assert.isTrue(c.getKind() == kind, "Claim '" + c.getName() + "' is not a " +
+                kind.name().toLowerCase() + " claim.");
+        Assert.state(this.present[c.getIndex()], "Claim '" + c.getName() + "' is not present.");
+        return c.getSlot();
+    }
+
+    @Override
+    public boolean isPresent(SchemaClaim<?> claim) {
+        return this.present[assertClaim(claim).getIndex()];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(SchemaClaim<T> claim) {
+        DefaultSchemaClaim<?> c = assertClaim(claim);
+        if (!this.present[c.getIndex()]) {
+            return null;
+        }
+        final int slot = c.getSlot();
+        switch (c.getKind()) {
+            case LONG:
+                return (T) Long.valueOf(this.longs[slot]);
+            case DOUBLE:
+                return (T) Double.valueOf(this.doubles[slot]);
+            case BOOLEAN:
+                return (T) Boolean.valueOf(this.booleans[slot]);
+            default:
+                return (T) this.objects[slot];
+        }
+    }
+
+    @Override
+    public long getLong(SchemaClaim<Long> claim) {
+        return this.longs[slot(claim, DefaultSchemaClaim.Kind.LONG)];
+    }
+
+    @Override
+    public double getDouble(SchemaClaim<Double> claim) {
+        return this.doubles[slot(claim, DefaultSchemaClaim.Kind.DOUBLE)];
+    }
+
+    @Override
+    public boolean getBoolean(SchemaClaim<Boolean> claim) {
+        return this.booleans[slot(claim, DefaultSchemaClaim.Kind.BOOLEAN)];
+    }
+}
@@ -33,6 +33,7 @@ import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Deserializer;
 import io.jsonwebtoken.security.SignatureException;
 
+import java.io.InputStream;
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
@@ -175,6 +176,31 @@ class ImmutableJwtParser implements JwtParser {
         return this.jwtParser.parseClaimsJws(jws);
     }
 
+    @Override
+    public Jws<byte[]> parseContentJws(String jws, byte[] detachedPayload) throws UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parseContentJws(jws, detachedPayload);
+    }
+
+    @Override
+    public Jws<byte[]> parseContentJws(String jws, InputStream unencodedPayload) throws UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parseContentJws(jws, unencodedPayload);
+    }
+
+    @Override
+    public Jws<Claims> parseClaimsJws(String jws, byte[] detachedPayload) throws ExpiredJwtException, UnsupportedJwtException, MalformedJwtException, SignatureException, IllegalArgumentException {
+        return this.jwtParser.parseClaimsJws(jws, detachedPayload);
+    }
+
+    @Override
+    public Jws<byte[]> parseNestedContentJws(String jwe) throws JwtException {
+        return this.jwtParser.parseNestedContentJws(jwe);
+    }
+
+    @Override
+    public Jws<Claims> parseNestedClaimsJws(String jwe) throws JwtException {
+        return this.jwtParser.parseNestedClaimsJws(jwe);
+    }
+
     @Override
     public Jwe<byte[]> parseContentJwe(String jwe) throws JwtException {
         return this.jwtParser.parseContentJwe(jwe);
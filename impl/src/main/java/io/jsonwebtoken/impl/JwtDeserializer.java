@@ -19,9 +19,12 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.DeserializationException;
 import io.jsonwebtoken.io.Deserializer;
 import io.jsonwebtoken.io.IOException;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
 import io.jsonwebtoken.lang.Assert;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A {@link Deserializer} implementation that wraps another Deserializer implementation to add common JWT related
@@ -29,7 +32,7 @@ import java.nio.charset.StandardCharsets;
  * @param <T> type of object to deserialize.
  * @since 0.11.3
  */
-class JwtDeserializer<T> implements Deserializer<T> {
+class JwtDeserializer<T> implements Deserializer<T>, MapPopulatingDeserializer {
 
     static final String MALFORMED_ERROR = "Malformed JWT JSON: ";
     static final String MALFORMED_COMPLEX_ERROR = "Malformed or excessively complex JWT JSON. This could reflect a potential malicious JWT, please investigate the JWT source further. JSON: ";
@@ -51,4 +54,58 @@ class JwtDeserializer<T> implements Deserializer<T> {
             throw new IOException(MALFORMED_COMPLEX_ERROR + new String(bytes, StandardCharsets.UTF_8), e);
         }
     }
+
+    /**
+     * Returns {@code true} if the wrapped deserializer can populate a target map directly via
+     * {@link #deserialize(byte[], Map)}, {@code false} if that method would deserialize an intermediate map first.
+     *
+     * @return {@code true} if the wrapped deserializer is a {@link MapPopulatingDeserializer}.
+     */
+    boolean isPopulating() {
+        return this.deserializer instanceof MapPopulatingDeserializer;
+    }
+
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+        populate(bytes, target, null);
+    }
+
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names)
+            throws DeserializationException {
+        Assert.notNull(names, "Member names cannot be null.");
+        populate(bytes, target, names);
+    }
+
+    private void populate(byte[] bytes, Map<String, Object> target, Set<String> names) {
+        try {
+            if (isPopulating()) {
+                MapPopulatingDeserializer populator = (MapPopulatingDeserializer) this.deserializer;
+                if (names != null) {
+                    populator.deserialize(bytes, target, names);
+                } else {
+                    populator.deserialize(bytes, target);
+                }
+            } else {
+                Object value = this.deserializer.deserialize(bytes);
+                if (!(value instanceof Map)) {
+                    throw new DeserializationException("JSON value is not an object.");
+                }
+                @SuppressWarnings("unchecked") Map<String, ?> m = (Map<String, ?>) value;
+                if (names == null) {
+                    target.putAll(m);
+                } else {
+                    for (Map.Entry<String, ?> entry : m.entrySet()) {
+                        if (names.contains(entry.getKey())) {
+                            target.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+            }
+        } catch (DeserializationException e) {
+            throw new MalformedJwtException(MALFORMED_ERROR + new String(bytes, StandardCharsets.UTF_8), e);
+        } catch (StackOverflowError e) {
+            throw new IOException(MALFORMED_COMPLEX_ERROR + new String(bytes, StandardCharsets.UTF_8), e);
+        }
+    }
 }
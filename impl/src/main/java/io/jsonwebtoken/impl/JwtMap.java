@@ -15,6 +15,7 @@
  */
 package io.jsonwebtoken.impl;
 
+import io.jsonwebtoken.impl.lang.Bytes;
 import io.jsonwebtoken.impl.lang.Field;
 import io.jsonwebtoken.impl.lang.FieldReadable;
 import io.jsonwebtoken.impl.lang.Nameable;
@@ -25,26 +26,57 @@ import io.jsonwebtoken.lang.Objects;
 import io.jsonwebtoken.lang.Strings;
 
 import java.lang.reflect.Array;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A {@link Map} of JWT/JOSE members that retains, for each registered {@link Field}, both the canonical value
+ * (formatted per RFC requirements) and the idiomatic value (the canonical value converted to a type-safe Java
+ * value where possible).
+ *
+ * <p>Registered field values are stored in a flat array at fixed slot indexes shared by all instances with the
+ * same field set, so a registered member costs two array references instead of two hash map entries.  Only custom
+ * (non-registered) members are kept in a lazily-created side map.  Iteration order is member insertion order, just
+ * like a {@link LinkedHashMap}.</p>
+ */
 public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
 
+    private static final int CUSTOM = 0xFF; // order marker for a custom member, must be > Layout.MAX_FIELDS
+
+    private static final int MAX_CACHED_LAYOUTS = 64;
+
+    // keyed by field Set identity - field sets are almost always static constants:
+    private static final ConcurrentMap<IdentityKey, Layout> LAYOUTS = new ConcurrentHashMap<>();
+
     protected final Map<String, Field<?>> FIELDS;
-    protected final Map<String, Object> values; // canonical values formatted per RFC requirements
-    protected final Map<String, Object> idiomaticValues; // the values map with any RFC values converted to Java type-safe values where possible
+    private final Layout layout;
+    private final Object[] slots; // canonical value at 2i, idiomatic value at 2i+1 for the registered field at index i
+    private byte[] order; // slot index (or CUSTOM) of each member in insertion order
+    private int size;
+    private Map<String, Object> custom; // canonical values of custom members, created when needed
+    private Map<String, Object> customIdiomatic; // only for custom members whose idiomatic value differs
+    private boolean mutable = true;
+    private boolean deferConversion;
 
     public JwtMap(Set<Field<?>> fieldSet) {
         Assert.notEmpty(fieldSet, "Fields cannot be null or empty.");
-        Map<String, Field<?>> fields = new LinkedHashMap<>();
-        for (Field<?> field : fieldSet) {
-            fields.put(field.getId(), field);
-        }
-        this.FIELDS = java.util.Collections.unmodifiableMap(fields);
-        this.values = new LinkedHashMap<>();
-        this.idiomaticValues = new LinkedHashMap<>();
+        this.layout = layout(fieldSet);
+        this.FIELDS = this.layout.fields;
+        this.slots = new Object[this.layout.size() * 2];
+        this.order = Bytes.EMPTY;
     }
 
     public JwtMap(Set<Field<?>> fieldSet, Map<String, ?> values) {
@@ -53,11 +85,130 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
         putAll(values);
     }
 
+    private static Layout layout(Set<Field<?>> fieldSet) {
+        IdentityKey key = new IdentityKey(fieldSet);
+        Layout layout = LAYOUTS.get(key);
+        if (layout == null) {
+            layout = new Layout(fieldSet);
+            if (LAYOUTS.size() < MAX_CACHED_LAYOUTS) { // don't retain an unbounded number of one-off field sets
+                Layout existing = LAYOUTS.putIfAbsent(key, layout);
+                if (existing != null) {
+                    layout = existing;
+                }
+            }
+        }
+        return layout;
+    }
+
     @Override
     public String getName() {
         return "Map";
     }
 
+    /**
+     * Returns {@code true} if this map may still be modified, or {@code false} if {@link #makeImmutable()} has been
+     * called.
+     *
+     * @return {@code true} if this map may still be modified, {@code false} otherwise.
+     * @since JJWT_RELEASE_VERSION
+     */
+    public boolean isMutable() {
+        return this.mutable;
+    }
+
+    /**
+     * Prevents any further modification of this map, after which all mutation methods throw an
+     * {@link UnsupportedOperationException}.  Collection values, including nested collections, are replaced with
+     * unmodifiable copies, and byte array values are copied when accessed, so an immutable instance may be safely
+     * shared across threads (as is the case for cached JWT headers).
+     *
+     * @since JJWT_RELEASE_VERSION
+     */
+    public void makeImmutable() {
+        if (!this.mutable) {
+            return;
+        }
+        for (int i = 0; i < this.slots.length; i++) {
+            this.slots[i] = unmodifiable(this.slots[i]);
+        }
+        unmodifiableValues(this.custom);
+        unmodifiableValues(this.customIdiomatic);
+        this.mutable = false;
+    }
+
+    private static void unmodifiableValues(Map<String, Object> m) {
+        if (m == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : m.entrySet()) { // setValue doesn't change the map's structure
+            entry.setValue(unmodifiable(entry.getValue()));
+        }
+    }
+
+    // Collections are copied so that nested collections (e.g. JSON arrays of JSON objects) may be replaced with
+    // unmodifiable views as well, and so the map is not affected by later changes to the original collections:
+    private static Object unmodifiable(Object value) {
+        if (value instanceof Set) {
+            Set<Object> set = new LinkedHashSet<>(Math.max(2 * ((Set<?>) value).size(), 16));
+            for (Object element : (Set<?>) value) {
+                set.add(unmodifiable(element));
+            }
+            return java.util.Collections.unmodifiableSet(set);
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                list.add(unmodifiable(element));
+            }
+            return java.util.Collections.unmodifiableList(list);
+        } else if (value instanceof HashMap) { // e.g. a JSON object, but not a Map type like Jwk
+            Map<Object, Object> map = new LinkedHashMap<>(Math.max(2 * ((Map<?, ?>) value).size(), 16));
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), unmodifiable(entry.getValue()));
+            }
+            return java.util.Collections.unmodifiableMap(map);
+        }
+        return value;
+    }
+
+    /**
+     * Returns {@code true} if {@link #enableDeferredConversion()} has been called, {@code false} otherwise.
+     *
+     * @return {@code true} if {@link #enableDeferredConversion()} has been called, {@code false} otherwise.
+     * @since JJWT_RELEASE_VERSION
+     */
+    public boolean isDeferredConversion() {
+        return this.deferConversion;
+    }
+
+    /**
+     * Defers the conversion of subsequently added field values to their idiomatic Java types until first accessed.
+     * Values that are already in their field's canonical (JSON) form and would otherwise require an expensive
+     * conversion (for example, X.509 certificate chains or embedded JWKs) are retained as-is, and only converted -
+     * once - when first obtained via an idiomatic accessor.  An invalid value therefore results in an
+     * {@link IllegalArgumentException} when it is first accessed rather than when it is added.
+     *
+     * @since JJWT_RELEASE_VERSION
+     */
+    public void enableDeferredConversion() {
+        assertMutable();
+        this.deferConversion = true;
+    }
+
+    protected void assertMutable() {
+        if (!this.mutable) {
+            String msg = getName() + " instance is immutable and may not be modified.";
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    // byte arrays can't be made immutable, so immutable instances hand out copies instead:
+    private Object safe(Object value) {
+        if (!this.mutable && value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return value;
+    }
+
     public static boolean isReducibleToNull(Object v) {
         return v == null ||
                 (v instanceof String && !Strings.hasText((String) v)) ||
@@ -66,12 +217,41 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
                 (v.getClass().isArray() && Array.getLength(v) == 0);
     }
 
+    private int slot(Object key) {
+        return key instanceof String ? this.layout.indexOf((String) key) : -1;
+    }
+
+    private Object canonicalValue(Object key) {
+        int i = slot(key);
+        if (i >= 0) {
+            return this.slots[i * 2];
+        }
+        return this.custom != null ? this.custom.get(key) : null;
+    }
+
+    private Object idiomaticValue(String key) {
+        Object value = null;
+        int i = this.layout.indexOf(key);
+        if (i >= 0) {
+            value = this.slots[i * 2 + 1];
+        } else if (this.customIdiomatic != null) {
+            value = this.customIdiomatic.get(key);
+        }
+        if (value instanceof Deferred) {
+            return ((Deferred) value).get();
+        }
+        if (value == null && i < 0 && this.custom != null) {
+            value = this.custom.get(key);
+        }
+        return value;
+    }
+
     protected Object idiomaticGet(String key) {
-        return this.idiomaticValues.get(key);
+        return safe(idiomaticValue(key));
     }
 
     protected <T> T idiomaticGet(Field<T> field) {
-        Object value = this.idiomaticValues.get(field.getId());
+        Object value = safe(idiomaticValue(field.getId()));
         return field.cast(value);
     }
 
@@ -79,33 +259,45 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
     public <T> T get(Field<T> field) {
         Assert.notNull(field, "Field cannot be null.");
         final String id = Assert.hasText(field.getId(), "Field id cannot be null or empty.");
-        Object value = idiomaticValues.get(id);
+        Object value = safe(idiomaticValue(id));
         return field.cast(value);
     }
 
     @Override
     public int size() {
-        return values.size();
+        return this.size;
     }
 
     @Override
     public boolean isEmpty() {
-        return values.isEmpty();
+        return this.size == 0;
     }
 
     @Override
     public boolean containsKey(Object o) {
-        return values.containsKey(o);
+        int i = slot(o);
+        if (i >= 0) {
+            return this.slots[i * 2] != null;
+        }
+        return this.custom != null && this.custom.containsKey(o);
     }
 
     @Override
     public boolean containsValue(Object o) {
-        return values.containsValue(o);
+        if (o == null) { // null values are never retained
+            return false;
+        }
+        for (int i = 0; i < this.slots.length; i += 2) {
+            if (o.equals(this.slots[i])) {
+                return true;
+            }
+        }
+        return this.custom != null && this.custom.containsValue(o);
     }
 
     @Override
     public Object get(Object o) {
-        return values.get(o);
+        return safe(canonicalValue(o));
     }
 
     /**
@@ -122,6 +314,7 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
 
     @Override
     public Object put(String name, Object value) {
+        assertMutable();
         name = Assert.notNull(Strings.clean(name), "Member name cannot be null or empty.");
         if (value instanceof String) {
             value = Strings.clean((String) value);
@@ -133,31 +326,37 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
     // as an idiomatic type-safe Java value in addition to the canonical RFC/encoded value.
     private Object idiomaticPut(String name, Object value) {
         Assert.stateNotNull(name, "Name cannot be null."); // asserted by caller
-        Field<?> field = FIELDS.get(name);
-        if (field != null) { //Setting a JWA-standard property - let's ensure we can represent it idiomatically:
-            return apply(field, value);
+        int i = this.layout.indexOf(name);
+        if (i >= 0) { //Setting a JWA-standard property - let's ensure we can represent it idiomatically:
+            return apply(this.layout.field(i), value);
         } else { //non-standard/custom property:
             return nullSafePut(name, value);
         }
     }
 
     protected Object nullSafePut(String name, Object value) {
+        assertMutable();
         if (isReducibleToNull(value)) {
             return remove(name);
         } else {
-            this.idiomaticValues.put(name, value);
-            return this.values.put(name, value);
+            return doPut(name, value, value);
         }
     }
 
     protected <T> Object apply(Field<T> field, Object rawValue) {
 
+        assertMutable();
+
         final String id = field.getId();
 
         if (isReducibleToNull(rawValue)) {
             return remove(id);
         }
 
+        if (this.deferConversion && field.isDeferrable(rawValue)) { // already canonical, convert when needed:
+            return doPut(id, rawValue, new Deferred(field, rawValue));
+        }
+
         T idiomaticValue; // preferred Java format
         Object canonicalValue; // as required by the RFC
         try {
@@ -166,29 +365,138 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
             canonicalValue = field.applyTo(idiomaticValue);
             Assert.notNull(canonicalValue, "Field's resulting canonicalValue cannot be null.");
         } catch (Exception e) {
-            StringBuilder sb = new StringBuilder(100);
-            sb.append("Invalid ").append(getName()).append(" ").append(field).append(" value");
-            if (field.isSecret()) {
-                sb.append(": ").append(RedactedSupplier.REDACTED_VALUE);
-            } else if (!(rawValue instanceof byte[])) {
-                // don't print raw byte array gibberish.  We can't base64[url] encode it either because that could
-                // make the exception message confusing: the developer would see an encoded string and could think
-                // that was the rawValue specified when it wasn't.
-                sb.append(": ").append(Objects.nullSafeToString(rawValue));
+            throw invalidValue(field, rawValue, e);
+        }
+        if (isReducibleToNull(canonicalValue)) {
+            return remove(id);
+        }
+        return doPut(id, canonicalValue, idiomaticValue);
+    }
+
+    private IllegalArgumentException invalidValue(Field<?> field, Object rawValue, Exception e) {
+        StringBuilder sb = new StringBuilder(100);
+        sb.append("Invalid ").append(getName()).append(" ").append(field).append(" value");
+        if (field.isSecret()) {
+            sb.append(": ").append(RedactedSupplier.REDACTED_VALUE);
+        } else if (!(rawValue instanceof byte[])) {
+            // don't print raw byte array gibberish.  We can't base64[url] encode it either because that could
+            // make the exception message confusing: the developer would see an encoded string and could think
+            // that was the rawValue specified when it wasn't.
+            sb.append(": ").append(Objects.nullSafeToString(rawValue));
+        }
+        sb.append(". ").append(e.getMessage());
+        String msg = sb.toString();
+        return new IllegalArgumentException(msg, e);
+    }
+
+    // stores a (non-null) canonical and idiomatic value pair, retaining the member's original insertion position
+    // if it already exists:
+    private Object doPut(String name, Object canonical, Object idiomatic) {
+        int i = this.layout.indexOf(name);
+        if (i >= 0) {
+            Object previous = this.slots[i * 2];
+            if (previous == null) {
+                appendOrder(i);
+            }
+            this.slots[i * 2] = canonical;
+            this.slots[i * 2 + 1] = idiomatic;
+            return previous;
+        }
+        if (this.custom == null) {
+            this.custom = new LinkedHashMap<>(4); // custom members are usually few
+        }
+        Object previous = this.custom.put(name, canonical);
+        if (previous == null) {
+            appendOrder(CUSTOM);
+        }
+        if (idiomatic != canonical) {
+            if (this.customIdiomatic == null) {
+                this.customIdiomatic = new HashMap<>();
+            }
+            this.customIdiomatic.put(name, idiomatic);
+        } else if (this.customIdiomatic != null) {
+            this.customIdiomatic.remove(name);
+        }
+        return previous;
+    }
+
+    private void appendOrder(int index) {
+        if (this.size == this.order.length) {
+            this.order = Arrays.copyOf(this.order, Math.max(4, this.size * 2));
+        }
+        this.order[this.size++] = (byte) index;
+    }
+
+    private void removeOrderAt(int position) {
+        System.arraycopy(this.order, position + 1, this.order, position, this.size - position - 1);
+        this.size--;
+    }
+
+    // returns the order position of the n-th custom member (zero-based):
+    private int customPosition(int n) {
+        for (int position = 0; position < this.size; position++) {
+            if ((this.order[position] & 0xFF) == CUSTOM && n-- == 0) {
+                return position;
+            }
+        }
+        throw new IllegalStateException("Custom member order is inconsistent.");
+    }
+
+    /**
+     * Copies all members of the specified {@code src} map into this one, retaining the source's idiomatic values
+     * where they are supported by this map's fields, and re-converting the canonical values otherwise.
+     *
+     * @param src the map to copy
+     * @since JJWT_RELEASE_VERSION
+     */
+    protected void copyFrom(JwtMap src) {
+        assertMutable();
+        Assert.notNull(src, "Source map cannot be null.");
+        for (String id : src.keySet()) {
+            Object value = src.canonicalValue(id);
+            Object idiomatic = src.idiomaticValue(id);
+            int i = this.layout.indexOf(id);
+            if (i >= 0 && !this.layout.field(i).supports(idiomatic)) { // not what is expected, so convert:
+                apply(this.layout.field(i), value); // perform idiomatic conversion with original/raw src value
+            } else {
+                doPut(id, value, idiomatic);
             }
-            sb.append(". ").append(e.getMessage());
-            String msg = sb.toString();
-            throw new IllegalArgumentException(msg, e);
         }
-        Object retval = nullSafePut(id, canonicalValue);
-        this.idiomaticValues.put(id, idiomaticValue);
-        return retval;
     }
 
     @Override
     public Object remove(Object key) {
-        this.idiomaticValues.remove(key);
-        return this.values.remove(key);
+        assertMutable();
+        int i = slot(key);
+        if (i >= 0) {
+            Object previous = this.slots[i * 2];
+            if (previous != null) {
+                this.slots[i * 2] = null;
+                this.slots[i * 2 + 1] = null;
+                for (int position = 0; position < this.size; position++) {
+                    if ((this.order[position] & 0xFF) == i) {
+                        removeOrderAt(position);
+                        break;
+                    }
+                }
+            }
+            return previous;
+        }
+        if (this.custom == null || !this.custom.containsKey(key)) {
+            return null;
+        }
+        int n = 0;
+        for (String name : this.custom.keySet()) {
+            if (name.equals(key)) {
+                break;
+            }
+            n++;
+        }
+        removeOrderAt(customPosition(n));
+        if (this.customIdiomatic != null) {
+            this.customIdiomatic.remove(key);
+        }
+        return this.custom.remove(key);
     }
 
     @Override
@@ -204,38 +512,278 @@ public class JwtMap implements Map<String, Object>, FieldReadable, Nameable {
 
     @Override
     public void clear() {
-        this.values.clear();
-        this.idiomaticValues.clear();
+        assertMutable();
+        Arrays.fill(this.slots, null);
+        this.size = 0;
+        this.custom = null;
+        this.customIdiomatic = null;
+    }
+
+    private Map<String, Object> view() {
+        Map<String, Object> view = new View();
+        return this.mutable ? view : java.util.Collections.unmodifiableMap(view);
     }
 
     @Override
     public Set<String> keySet() {
-        return values.keySet();
+        return view().keySet();
     }
 
     @Override
     public Collection<Object> values() {
-        return values.values();
+        return view().values();
     }
 
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return values.entrySet();
+        // (an unmodifiable Map's entrySet also prevents Entry.setValue):
+        return view().entrySet();
     }
 
     @Override
     public String toString() {
-        return values.toString();
+        return new View().toString();
     }
 
     @Override
     public int hashCode() {
-        return values.hashCode();
+        return new View().hashCode();
     }
 
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
     @Override
     public boolean equals(Object obj) {
-        return values.equals(obj);
+        return obj == this || new View().equals(obj);
+    }
+
+    /**
+     * Live, insertion-ordered view of the canonical values.  All mutations are delegated to the enclosing map.
+     */
+    private final class View extends AbstractMap<String, Object> {
+
+        @Override
+        public int size() {
+            return JwtMap.this.size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return JwtMap.this.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return canonicalValue(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return JwtMap.this.put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return JwtMap.this.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            JwtMap.this.clear();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return JwtMap.this.size;
+                }
+            };
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int position; // the order position of the next member
+        private Iterator<Entry<String, Object>> customIterator;
+        private Entry<String, Object> last;
+        private boolean lastCustom;
+
+        @Override
+        public boolean hasNext() {
+            return this.position < JwtMap.this.size;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int index = order[this.position++] & 0xFF;
+            if (index == CUSTOM) {
+                if (this.customIterator == null) {
+                    this.customIterator = custom.entrySet().iterator();
+                }
+                Entry<String, Object> entry = this.customIterator.next();
+                this.last = new MemberEntry(entry.getKey(), entry.getValue());
+                this.lastCustom = true;
+            } else {
+                this.last = new MemberEntry(layout.field(index).getId(), slots[index * 2]);
+                this.lastCustom = false;
+            }
+            return this.last;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            assertMutable();
+            if (this.lastCustom) {
+                this.customIterator.remove(); // keeps the custom iterator valid
+                if (customIdiomatic != null) {
+                    customIdiomatic.remove(this.last.getKey());
+                }
+                removeOrderAt(--this.position);
+            } else {
+                JwtMap.this.remove(this.last.getKey());
+                this.position--;
+            }
+            this.last = null;
+        }
+    }
+
+    private final class MemberEntry extends AbstractMap.SimpleEntry<String, Object> {
+
+        MemberEntry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = JwtMap.this.put(getKey(), value);
+            super.setValue(canonicalValue(getKey()));
+            return previous;
+        }
+    }
+
+    /**
+     * An idiomatic value that is converted from its canonical value only when first accessed.  Deferred values may
+     * belong to an immutable map shared across threads: the conversion has no side effects, so concurrent first
+     * accesses may each perform it, and the volatile field safely publishes whichever result is retained.
+     */
+    private final class Deferred {
+
+        private final Field<?> field;
+        private final Object canonical;
+        private volatile Object value;
+
+        Deferred(Field<?> field, Object canonical) {
+            this.field = field;
+            this.canonical = canonical;
+        }
+
+        Object get() {
+            Object value = this.value;
+            if (value == null) {
+                try {
+                    value = Assert.notNull(this.field.applyFrom(this.canonical),
+                            "Field's resulting idiomaticValue cannot be null.");
+                } catch (Exception e) {
+                    throw invalidValue(this.field, this.canonical, e);
+                }
+                if (!mutable) {
+                    value = unmodifiable(value);
+                }
+                this.value = value;
+            }
+            return value;
+        }
+    }
+
+    private static final class IdentityKey {
+
+        private final Object value;
+
+        IdentityKey(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).value == this.value;
+        }
+    }
+
+    /**
+     * The slot layout shared by all maps with the same field set: each field's index, and an open-addressing
+     * table to find that index by member name without allocating or boxing.
+     */
+    private static final class Layout {
+
+        private static final int MAX_FIELDS = 0xFE; // indexes must fit in an unsigned byte with room for CUSTOM
+
+        private final Map<String, Field<?>> fields;
+        private final Field<?>[] indexed;
+        private final String[] names; // open-addressing table
+        private final byte[] indexes; // the field index for each name in the table
+        private final int mask;
+
+        Layout(Set<Field<?>> fieldSet) {
+            Map<String, Field<?>> fields = new LinkedHashMap<>();
+            for (Field<?> field : fieldSet) {
+                fields.put(field.getId(), field);
+            }
+            Assert.isTrue(fields.size() <= MAX_FIELDS, "Too many fields.");
+            this.fields = java.util.Collections.unmodifiableMap(fields);
+            this.indexed = fields.values().toArray(new Field<?>[0]);
+            int capacity = Integer.highestOneBit(Math.max(this.indexed.length, 1) * 2 - 1) << 1; // load <= 0.5
+            this.names = new String[capacity];
+            this.indexes = new byte[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < this.indexed.length; i++) {
+                String id = this.indexed[i].getId();
+                int slot = id.hashCode() & this.mask;
+                while (this.names[slot] != null) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.names[slot] = id;
+                this.indexes[slot] = (byte) i;
+            }
+        }
+
+        int size() {
+            return this.indexed.length;
+        }
+
+        Field<?> field(int index) {
+            return this.indexed[index];
+        }
+
+        int indexOf(String name) {
+            if (name == null) {
+                return -1;
+            }
+            int slot = name.hashCode() & this.mask;
+            String candidate;
+            while ((candidate = this.names[slot]) != null) {
+                if (candidate == name || candidate.equals(name)) {
+                    return this.indexes[slot] & 0xFF;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            return -1;
+        }
     }
 }
@@ -17,6 +17,7 @@ package io.jsonwebtoken.impl;
 
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
 
 public class JwtTokenizer {
 
@@ -26,9 +27,9 @@ public class JwtTokenizer {
         "exactly 2 period characters, and compact JWEs must contain exactly 4.  Found: ";
 
     @SuppressWarnings("unchecked")
-    public <T extends TokenizedJwt> T tokenize(String jwt) {
+    public <T extends TokenizedJwt> T tokenize(CharSequence jwt) {
 
-        Assert.hasText(jwt, "Argument cannot be null or empty.");
+        Assert.isTrue(Strings.hasText(jwt), "Argument cannot be null or empty.");
 
         String protectedHeader = ""; //Both JWS and JWE
         String body = ""; //JWS payload or JWE Ciphertext
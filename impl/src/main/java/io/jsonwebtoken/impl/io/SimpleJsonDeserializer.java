@@ -0,0 +1,682 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.io;
+
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.MapPopulatingDeserializer;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Supplier;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A dependency-free JSON {@link Deserializer} tuned for the small, shallow JSON objects found in JOSE documents
+ * (JWT headers, claims, JWKs and JWK Sets).
+ *
+ * <p>Unlike general-purpose JSON libraries, this deserializer reads UTF-8 bytes directly without an intermediate
+ * {@code Reader} or {@code String}, requires no reflection and only ever produces {@code Map}s
+ * ({@code LinkedHashMap}, retaining member order), {@code List}s ({@code ArrayList}), {@code String}s,
+ * {@code Boolean}s, {@code null} and {@code Number}s ({@code Integer}, {@code Long} or {@code BigInteger} for
+ * integral values and {@code Double} for all others).</p>
+ *
+ * <p>Input is strict <a href="https://www.rfc-editor.org/rfc/rfc8259">RFC 8259</a> JSON, and the top-level value
+ * must be a JSON object.  Because JWS and JWE headers are security-sensitive, an object with duplicate member names
+ * is rejected rather than silently using the last value, as recommended by
+ * <a href="https://www.rfc-editor.org/rfc/rfc7515.html#section-5.2">RFC 7515, Section 5.2</a>.  To bound the
+ * resources used for untrusted input, documents longer than a maximum number of bytes or nested deeper than a
+ * maximum depth are rejected as well.</p>
+ *
+ * <p>When only some members are requested via {@link #deserialize(byte[], Map, Set)}, the values of all other
+ * members are skipped without creating any objects: they are still checked for well-formedness (including string
+ * escapes and UTF-8 encoding), but duplicate member names within them are not detected.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class SimpleJsonDeserializer implements Deserializer<Map<String, ?>>, MapPopulatingDeserializer {
+
+    /**
+     * Supplies new instances with the default limits, for use as a fallback when no other JSON deserializer is
+     * available.
+     */
+    public static final Supplier<SimpleJsonDeserializer> SUPPLIER = new Supplier<SimpleJsonDeserializer>() {
+        @Override
+        public SimpleJsonDeserializer get() {
+            return new SimpleJsonDeserializer();
+        }
+    };
+
+    /**
+     * The default maximum nesting depth of JSON objects and arrays, where the top-level object is depth {@code 1}.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 64;
+
+    /**
+     * The default maximum length of a JSON document in bytes (1 MiB).
+     */
+    public static final int DEFAULT_MAX_LENGTH = 1024 * 1024;
+
+    // Integral numbers with more digits than this (and all JSON numbers longer than MAX_NUMBER_LENGTH) are rejected
+    // before being handed to BigInteger or Double.parseDouble, whose cost grows super-linearly with input length:
+    private static final int MAX_NUMBER_LENGTH = 1000;
+
+    // Registered JOSE and JWT member names and common values, always returned as canonical String instances:
+    private static final String[] KNOWN = {"alg", "enc", "zip", "jku", "jwk", "kid", "x5u", "x5c", "x5t", "x5t#S256",
+            "typ", "cty", "crit", "b64", "epk", "apu", "apv", "iv", "tag", "p2s", "p2c", "iss", "sub", "aud", "exp",
+            "nbf", "iat", "jti", "kty", "use", "key_ops", "crv", "x", "y", "d", "n", "e", "p", "q", "dp", "dq", "qi",
+            "k", "keys", "JWT", "JOSE", "JOSE+JSON", "JWK", "EC", "RSA", "oct", "OKP", "P-256", "P-384", "P-521",
+            "Ed25519", "Ed448", "X25519", "X448", "sig", "DEF", "none", "HS256", "HS384", "HS512", "RS256", "RS384",
+            "RS512", "ES256", "ES384", "ES512", "PS256", "PS384", "PS512", "EdDSA", "dir", "A128KW", "A192KW",
+            "A256KW", "A128GCMKW", "A192GCMKW", "A256GCMKW", "RSA1_5", "RSA-OAEP", "RSA-OAEP-256", "ECDH-ES",
+            "ECDH-ES+A128KW", "ECDH-ES+A192KW", "ECDH-ES+A256KW", "PBES2-HS256+A128KW", "PBES2-HS384+A192KW",
+            "PBES2-HS512+A256KW", "A128CBC-HS256", "A192CBC-HS384", "A256CBC-HS512", "A128GCM", "A192GCM", "A256GCM"};
+
+    private final int maxDepth;
+
+    private final int maxLength;
+
+    private static final NameTable NAMES = new NameTable(KNOWN);
+
+    public SimpleJsonDeserializer() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_MAX_LENGTH);
+    }
+
+    public SimpleJsonDeserializer(int maxDepth, int maxLength) {
+        this.maxDepth = Assert.gt(maxDepth, 0, "maxDepth must be greater than zero.");
+        this.maxLength = Assert.gt(maxLength, 0, "maxLength must be greater than zero.");
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    public int getMaxLength() {
+        return this.maxLength;
+    }
+
+    @Override
+    public Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        read(bytes, map, null, null);
+        return map;
+    }
+
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        // the target may discard some values (e.g. nulls), so duplicates must be tracked separately:
+        read(bytes, target, new HashSet<String>(), null);
+    }
+
+    @Override
+    public void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names)
+            throws DeserializationException {
+        Assert.notNull(target, "Target map cannot be null.");
+        Assert.notNull(names, "Member names cannot be null.");
+        read(bytes, target, new HashSet<String>(), names);
+    }
+
+    private void read(byte[] bytes, Map<String, Object> target, Set<String> seen, Set<String> retained) {
+        Assert.notNull(bytes, "JSON byte array cannot be null.");
+        if (bytes.length > this.maxLength) {
+            String msg = "Unable to deserialize JSON: document length of " + bytes.length +
+                    " bytes exceeds the maximum allowed length of " + this.maxLength + " bytes.";
+            throw new DeserializationException(msg);
+        }
+        new Parser(bytes, this.maxDepth).readDocument(target, seen, retained);
+    }
+
+    private static final class Parser {
+
+        private final byte[] b;
+        private final int len;
+        private final int maxDepth;
+        private int pos;
+        private int depth;
+        private StringBuilder sb; // lazily created for strings with escapes or non-ASCII characters
+
+        Parser(byte[] b, int maxDepth) {
+            this.b = b;
+            this.len = b.length;
+            this.maxDepth = maxDepth;
+        }
+
+        private DeserializationException error(String msg) {
+            return new DeserializationException("Unable to deserialize JSON: " + msg + " at byte offset " +
+                    this.pos + ".");
+        }
+
+        private DeserializationException unexpected(String expected) {
+            if (this.pos >= this.len) {
+                return error("unexpected end of input, expected " + expected);
+            }
+            int c = this.b[this.pos] & 0xFF;
+            String found = c >= 0x20 && c < 0x7F ? "'" + (char) c + "'" : String.format("byte 0x%02X", c);
+            return error("unexpected " + found + ", expected " + expected);
+        }
+
+        void readDocument(Map<String, Object> target, Set<String> seen, Set<String> retained) {
+            skipWhitespace();
+            expect('{', "'{'");
+            readMembers(target, seen, retained);
+            skipWhitespace();
+            if (this.pos != this.len) {
+                throw unexpected("end of input");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (this.pos < this.len) {
+                byte c = this.b[this.pos];
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                this.pos++;
+            }
+        }
+
+        private void expect(char c, String expected) {
+            if (this.pos >= this.len || this.b[this.pos] != c) {
+                throw unexpected(expected);
+            }
+            this.pos++;
+        }
+
+        private void enter() {
+            if (++this.depth > this.maxDepth) {
+                throw error("nesting depth exceeds the maximum allowed depth of " + this.maxDepth);
+            }
+        }
+
+        // assumes the opening '{' has been consumed.  Only members named in 'retained' are read, unless it is null:
+        private void readMembers(Map<String, Object> m, Set<String> seen, Set<String> retained) {
+            enter();
+            skipWhitespace();
+            if (this.pos < this.len && this.b[this.pos] == '}') {
+                this.pos++;
+                this.depth--;
+                return;
+            }
+            while (true) {
+                skipWhitespace();
+                int start = this.pos;
+                expect('"', "'\"'");
+                String name = readString();
+                boolean duplicate = seen != null ? !seen.add(name) : m.containsKey(name);
+                if (duplicate) {
+                    this.pos = start;
+                    throw error("duplicate member name '" + name + "'");
+                }
+                skipWhitespace();
+                expect(':', "':'");
+                skipWhitespace();
+                if (retained == null || retained.contains(name)) {
+                    m.put(name, readValue());
+                } else {
+                    skipValue();
+                }
+                skipWhitespace();
+                if (this.pos < this.len) {
+                    byte c = this.b[this.pos++];
+                    if (c == ',') {
+                        continue;
+                    }
+                    if (c == '}') {
+                        this.depth--;
+                        return;
+                    }
+                    this.pos--;
+                }
+                throw unexpected("',' or '}'");
+            }
+        }
+
+        // assumes the opening '[' has been consumed
+        private List<Object> readElements() {
+            enter();
+            List<Object> list = new ArrayList<>();
+            skipWhitespace();
+            if (this.pos < this.len && this.b[this.pos] == ']') {
+                this.pos++;
+                this.depth--;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(readValue());
+                skipWhitespace();
+                if (this.pos < this.len) {
+                    byte c = this.b[this.pos++];
+                    if (c == ',') {
+                        continue;
+                    }
+                    if (c == ']') {
+                        this.depth--;
+                        return list;
+                    }
+                    this.pos--;
+                }
+                throw unexpected("',' or ']'");
+            }
+        }
+
+        private Object readValue() {
+            if (this.pos >= this.len) {
+                throw unexpected("a JSON value");
+            }
+            switch (this.b[this.pos]) {
+                case '"':
+                    this.pos++;
+                    return readString();
+                case '{':
+                    this.pos++;
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    readMembers(map, null, null);
+                    return map;
+                case '[':
+                    this.pos++;
+                    return readElements();
+                case 't':
+                    readLiteral("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    readLiteral("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    readLiteral("null");
+                    return null;
+                default:
+                    return readNumber();
+            }
+        }
+
+        // validates and advances past a JSON value without creating any objects:
+        private void skipValue() {
+            if (this.pos >= this.len) {
+                throw unexpected("a JSON value");
+            }
+            switch (this.b[this.pos]) {
+                case '"':
+                    this.pos++;
+                    skipString();
+                    return;
+                case '{':
+                    this.pos++;
+                    skipContainer('}', "',' or '}'");
+                    return;
+                case '[':
+                    this.pos++;
+                    skipContainer(']', "',' or ']'");
+                    return;
+                case 't':
+                    readLiteral("true");
+                    return;
+                case 'f':
+                    readLiteral("false");
+                    return;
+                case 'n':
+                    readLiteral("null");
+                    return;
+                default:
+                    scanNumber();
+            }
+        }
+
+        // assumes the opening '{' or '[' has been consumed
+        private void skipContainer(char end, String expected) {
+            enter();
+            skipWhitespace();
+            if (this.pos < this.len && this.b[this.pos] == end) {
+                this.pos++;
+                this.depth--;
+                return;
+            }
+            while (true) {
+                skipWhitespace();
+                if (end == '}') {
+                    expect('"', "'\"'");
+                    skipString();
+                    skipWhitespace();
+                    expect(':', "':'");
+                    skipWhitespace();
+                }
+                skipValue();
+                skipWhitespace();
+                if (this.pos < this.len) {
+                    byte c = this.b[this.pos++];
+                    if (c == ',') {
+                        continue;
+                    }
+                    if (c == end) {
+                        this.depth--;
+                        return;
+                    }
+                    this.pos--;
+                }
+                throw unexpected(expected);
+            }
+        }
+
+        // assumes the opening '"' has been consumed
+        private void skipString() {
+            while (this.pos < this.len) {
+                int c = this.b[this.pos] & 0xFF;
+                if (c == '"') {
+                    this.pos++;
+                    return;
+                } else if (c == '\\') {
+                    this.pos++;
+                    readEscape();
+                } else if (c < 0x20) {
+                    throw error("unescaped control character in string");
+                } else if (c < 0x80) {
+                    this.pos++;
+                } else {
+                    readCodePoint(c);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void readLiteral(String literal) {
+            int n = literal.length();
+            if (this.pos + n > this.len) {
+                throw error("invalid literal, expected '" + literal + "'");
+            }
+            for (int i = 0; i < n; i++) {
+                if (this.b[this.pos + i] != literal.charAt(i)) {
+                    throw error("invalid literal, expected '" + literal + "'");
+                }
+            }
+            this.pos += n;
+        }
+
+        private int digits() {
+            int start = this.pos;
+            while (this.pos < this.len && this.b[this.pos] >= '0' && this.b[this.pos] <= '9') {
+                this.pos++;
+            }
+            return this.pos - start;
+        }
+
+        // advances past a valid JSON number and returns whether it is integral (has no fraction or exponent):
+        private boolean scanNumber() {
+            final int start = this.pos;
+            if (this.pos < this.len && this.b[this.pos] == '-') {
+                this.pos++;
+            }
+            if (this.pos < this.len && this.b[this.pos] == '0') {
+                this.pos++;
+            } else if (digits() == 0) {
+                this.pos = start;
+                throw unexpected("a JSON value");
+            }
+            boolean integral = true;
+            if (this.pos < this.len && this.b[this.pos] == '.') {
+                this.pos++;
+                integral = false;
+                if (digits() == 0) {
+                    throw unexpected("a digit");
+                }
+            }
+            if (this.pos < this.len && (this.b[this.pos] == 'e' || this.b[this.pos] == 'E')) {
+                this.pos++;
+                integral = false;
+                if (this.pos < this.len && (this.b[this.pos] == '+' || this.b[this.pos] == '-')) {
+                    this.pos++;
+                }
+                if (digits() == 0) {
+                    throw unexpected("a digit");
+                }
+            }
+            if (this.pos - start > MAX_NUMBER_LENGTH) {
+                this.pos = start;
+                throw error("number length exceeds the maximum allowed length of " + MAX_NUMBER_LENGTH);
+            }
+            return integral;
+        }
+
+        private Object readNumber() {
+            final int start = this.pos;
+            final boolean integral = scanNumber();
+            final boolean negative = this.b[start] == '-';
+            final int intStart = negative ? start + 1 : start;
+            if (integral && this.pos - intStart <= 18) { // always fits in a long
+                long value = 0;
+                for (int i = intStart; i < this.pos; i++) {
+                    value = value * 10 + (this.b[i] - '0');
+                }
+                if (negative) {
+                    value = -value;
+                }
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            }
+            String s = new String(this.b, start, this.pos - start, StandardCharsets.ISO_8859_1);
+            if (integral) {
+                BigInteger value = new BigInteger(s);
+                return value.bitLength() < 64 ? (Object) value.longValue() : value;
+            }
+            return Double.parseDouble(s);
+        }
+
+        // assumes the opening '"' has been consumed
+        private String readString() {
+            final int start = this.pos;
+            // fast path: the vast majority of JOSE strings are unescaped ASCII (names, Base64URL values, URIs):
+            int hash = 0;
+            while (this.pos < this.len) {
+                byte c = this.b[this.pos];
+                if (c == '"') {
+                    int n = this.pos - start;
+                    String s = NAMES.get(this.b, start, n, hash);
+                    if (s == null) {
+                        s = new String(this.b, start, n, StandardCharsets.ISO_8859_1);
+                    }
+                    this.pos++;
+                    return s;
+                }
+                if (c == '\\' || c < 0x20) { // (c < 0x20) also matches all non-ASCII bytes since bytes are signed
+                    break;
+                }
+                hash = 31 * hash + c; // same as String.hashCode() for ASCII
+                this.pos++;
+            }
+            if (this.sb == null) {
+                this.sb = new StringBuilder(Math.max(16, this.pos - start + 16));
+            } else {
+                this.sb.setLength(0);
+            }
+            for (int i = start; i < this.pos; i++) {
+                this.sb.append((char) this.b[i]);
+            }
+            return readStringSlow();
+        }
+
+        private String readStringSlow() {
+            final StringBuilder sb = this.sb;
+            while (this.pos < this.len) {
+                int c = this.b[this.pos] & 0xFF;
+                if (c == '"') {
+                    this.pos++;
+                    return sb.toString();
+                } else if (c == '\\') {
+                    this.pos++;
+                    sb.append(readEscape());
+                } else if (c < 0x20) {
+                    throw error("unescaped control character in string");
+                } else if (c < 0x80) {
+                    sb.append((char) c);
+                    this.pos++;
+                } else {
+                    sb.appendCodePoint(readCodePoint(c));
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private char readEscape() {
+            if (this.pos >= this.len) {
+                throw error("unterminated string");
+            }
+            byte c = this.b[this.pos++];
+            switch (c) {
+                case '"':
+                    return '"';
+                case '\\':
+                    return '\\';
+                case '/':
+                    return '/';
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    if (this.pos + 4 > this.len) {
+                        throw error("unterminated string");
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(this.b[this.pos], 16);
+                        if (digit < 0) {
+                            throw error("invalid unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                        this.pos++;
+                    }
+                    return (char) value;
+                default:
+                    this.pos--;
+                    throw error("invalid escape sequence");
+            }
+        }
+
+        private int continuation(int start) {
+            if (this.pos >= this.len || (this.b[this.pos] & 0xC0) != 0x80) {
+                this.pos = start; // report the start of the sequence
+                throw error("invalid UTF-8 byte sequence");
+            }
+            return this.b[this.pos++] & 0x3F;
+        }
+
+        private int readCodePoint(int lead) {
+            final int start = this.pos++;
+            int cp;
+            if (lead >= 0xC2 && lead <= 0xDF) {
+                cp = ((lead & 0x1F) << 6) | continuation(start);
+            } else if (lead >= 0xE0 && lead <= 0xEF) {
+                cp = ((lead & 0x0F) << 12) | (continuation(start) << 6) | continuation(start);
+                if (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF)) { // overlong or UTF-16 surrogate
+                    cp = -1;
+                }
+            } else if (lead >= 0xF0 && lead <= 0xF4) {
+                cp = ((lead & 0x07) << 18) | (continuation(start) << 12) | (continuation(start) << 6) | continuation(start);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    cp = -1;
+                }
+            } else {
+                cp = -1;
+            }
+            if (cp < 0) {
+                this.pos = start;
+                throw error("invalid UTF-8 byte sequence");
+            }
+            return cp;
+        }
+    }
+
+    /**
+     * An open-addressing table of canonical ASCII strings, looked up by their UTF-8 bytes and
+     * {@link String#hashCode() hashCode} so that the registered names and values in {@link #KNOWN} can be returned
+     * without allocating a new {@code String}.  The table is filled once and never learns names from parsed
+     * documents, so untrusted input can neither grow nor pollute it, and it may be shared by all threads without
+     * synchronization.  Lookups give up after a bounded number of probes, so names with colliding hashes can't make
+     * them arbitrarily slow.
+     */
+    private static final class NameTable {
+
+        private static final int CAPACITY = 1024; // sparse, so a lookup miss almost always ends at an empty slot
+        private static final int MASK = CAPACITY - 1;
+        private static final int MAX_NAME_LENGTH = 32;
+        private static final int MAX_PROBES = 16;
+
+        private final String[] strings = new String[CAPACITY];
+        private final int[] hashes = new int[CAPACITY];
+        private int size;
+
+        NameTable(String[] known) {
+            for (String s : known) {
+                add(s, s.hashCode());
+            }
+        }
+
+        String get(byte[] b, int start, int n, int hash) {
+            if (n > MAX_NAME_LENGTH) {
+                return null;
+            }
+            for (int probes = 0, i = hash & MASK; probes < MAX_PROBES; probes++, i = (i + 1) & MASK) {
+                String s = this.strings[i];
+                if (s == null) {
+                    return null;
+                }
+                if (this.hashes[i] == hash && s.length() == n && matches(s, b, start)) {
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        private static boolean matches(String s, byte[] b, int start) {
+            for (int i = 0; i < s.length(); i++) {
+                if (b[start + i] != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(String s, int hash) {
+            Assert.isTrue(s.length() <= MAX_NAME_LENGTH, "Known names cannot exceed the maximum name length.");
+            for (int probes = 0, i = hash & MASK; probes < MAX_PROBES; probes++, i = (i + 1) & MASK) { // linear probing
+                String existing = this.strings[i];
+                if (existing == null || existing.equals(s)) {
+                    this.hashes[i] = hash;
+                    this.strings[i] = s;
+                    if (existing == null) {
+                        this.size++;
+                    }
+                    return;
+                }
+            }
+            throw new IllegalStateException("Unable to add known name '" + s + "' within " + MAX_PROBES + " probes.");
+        }
+    }
+}
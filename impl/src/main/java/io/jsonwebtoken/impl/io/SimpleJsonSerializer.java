@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.io;
+
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.io.RawJson;
+import io.jsonwebtoken.io.SerializationException;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+import io.jsonwebtoken.lang.DateFormats;
+import io.jsonwebtoken.lang.Objects;
+import io.jsonwebtoken.lang.Strings;
+import io.jsonwebtoken.lang.Supplier;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * A dependency-free JSON {@link Serializer} that writes compact (whitespace-free) UTF-8 JSON for the value types
+ * found in JOSE documents, without reflection.  Strings are encoded straight into the output byte array, without an
+ * intermediate {@code StringBuilder} or {@code String}.
+ *
+ * <p>Supported types are {@code Map}s (whose keys are converted with {@link String#valueOf(Object)}),
+ * {@code Collection}s and arrays, {@code CharSequence}s, {@code Character}s and {@code char[]}s, {@code Boolean}s,
+ * {@code Number}s, {@code Enum}s (as their {@link Enum#name() name}), {@code byte[]}s (as Base64 strings),
+ * {@code Date}s and {@code Calendar}s (as ISO 8601 strings), {@link Supplier}s (which are serialized as the
+ * value they supply), {@link RawJson}s (whose bytes are copied verbatim) and {@code null}.  Any other type results
+ * in a {@link SerializationException}, as do non-finite floating point numbers, which cannot be represented in
+ * JSON.</p>
+ *
+ * <p>Object graphs nested deeper than a maximum depth are rejected, which also guards against infinite recursion
+ * for self-referencing collections and {@code Supplier}s.</p>
+ *
+ * @param <T> the type of object to serialize
+ * @since JJWT_RELEASE_VERSION
+ */
+public class SimpleJsonSerializer<T> implements Serializer<T> {
+
+    /**
+     * Supplies new instances, for use as a fallback when no other JSON serializer is available.
+     */
+    @SuppressWarnings("rawtypes")
+    public static final Supplier<SimpleJsonSerializer> SUPPLIER = new Supplier<SimpleJsonSerializer>() {
+        @Override
+        public SimpleJsonSerializer get() {
+            return new SimpleJsonSerializer<>();
+        }
+    };
+
+    private final int maxDepth;
+
+    public SimpleJsonSerializer() {
+        this(SimpleJsonDeserializer.DEFAULT_MAX_DEPTH);
+    }
+
+    public SimpleJsonSerializer(int maxDepth) {
+        this.maxDepth = Assert.gt(maxDepth, 0, "maxDepth must be greater than zero.");
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    @Override
+    public byte[] serialize(T t) throws SerializationException {
+        Output out = new Output();
+        try {
+            write(out, t, 0);
+        } catch (SerializationException se) {
+            //propagate
+            throw se;
+        } catch (Exception e) {
+            String msg = "Unable to serialize object of type " + t.getClass().getName() + " to JSON: " + e.getMessage();
+            throw new SerializationException(msg, e);
+        }
+        return out.toByteArray();
+    }
+
+    private void write(Output out, Object o, int depth) {
+
+        // The most common value types are final classes, which are matched by identity first since (unlike
+        // instanceof checks against interfaces) that never requires scanning a class's super types:
+        Class<?> clazz = o != null ? o.getClass() : null;
+        if (o == null) {
+            out.ascii("null");
+        } else if (clazz == String.class) {
+            out.string((String) o);
+        } else if (clazz == Integer.class || clazz == Long.class || clazz == Short.class || clazz == Byte.class) {
+            out.number(((Number) o).longValue());
+        } else if (clazz == Boolean.class) {
+            out.ascii((Boolean) o ? "true" : "false");
+        } else if (clazz == RawJson.class) {
+            out.raw(((RawJson) o).toByteBuffer());
+        } else if (o instanceof Supplier) {
+            checkDepth(depth + 1); // a Supplier could (indirectly) supply itself
+            write(out, ((Supplier<?>) o).get(), depth + 1);
+        } else if (o instanceof Map) {
+            writeObject(out, (Map<?, ?>) o, depth + 1);
+        } else if (o instanceof Collection) {
+            writeArray(out, (Collection<?>) o, depth + 1);
+        } else if (o instanceof Number) {
+            writeNumber(out, (Number) o);
+        } else if (o instanceof CharSequence) {
+            out.string(o.toString());
+        } else if (o instanceof byte[]) {
+            out.string(Encoders.BASE64.encode((byte[]) o));
+        } else if (o instanceof char[]) {
+            out.string(new String((char[]) o));
+        } else if (Objects.isArray(o)) {
+            writeArray(out, Collections.arrayToList(o), depth + 1);
+        } else if (o instanceof Character) {
+            out.string(o.toString());
+        } else if (o instanceof Enum) {
+            out.string(((Enum<?>) o).name());
+        } else if (o instanceof Date) {
+            out.string(DateFormats.formatIso8601((Date) o));
+        } else if (o instanceof Calendar) {
+            out.string(DateFormats.formatIso8601(((Calendar) o).getTime()));
+        } else {
+            //not an immediately JSON-compatible object and probably a JavaBean (or similar).  We can't convert that
+            //directly without using a marshaller of some sort:
+            String msg = "Unable to serialize object of type " + o.getClass().getName() +
+                    " to JSON using known heuristics.";
+            throw new SerializationException(msg);
+        }
+    }
+
+    private void checkDepth(int depth) {
+        if (depth > this.maxDepth) {
+            String msg = "Unable to serialize object to JSON: nesting depth exceeds the maximum allowed depth of " +
+                    this.maxDepth + ".";
+            throw new SerializationException(msg);
+        }
+    }
+
+    private void writeObject(Output out, Map<?, ?> m, int depth) {
+        checkDepth(depth);
+        out.ascii('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : m.entrySet()) {
+            if (!first) {
+                out.ascii(',');
+            }
+            first = false;
+            Object key = entry.getKey();
+            out.string(key instanceof String ? (String) key : String.valueOf(key));
+            out.ascii(':');
+            write(out, entry.getValue(), depth);
+        }
+        out.ascii('}');
+    }
+
+    private void writeArray(Output out, Collection<?> c, int depth) {
+        checkDepth(depth);
+        out.ascii('[');
+        boolean first = true;
+        for (Object o : c) {
+            if (!first) {
+                out.ascii(',');
+            }
+            first = false;
+            write(out, o, depth);
+        }
+        out.ascii(']');
+    }
+
+    private static void writeNumber(Output out, Number n) {
+        if (n instanceof Double || n instanceof Float) {
+            double d = n.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                String msg = "Unable to serialize non-finite number " + n + " to JSON.";
+                throw new SerializationException(msg);
+            }
+        } else if (!(n instanceof BigInteger || n instanceof BigDecimal)) {
+            // other Number implementations (e.g. AtomicLong) don't guarantee a JSON-compatible toString():
+            n = new BigDecimal(n.toString());
+        }
+        out.ascii(n.toString());
+    }
+
+    /**
+     * A growable byte buffer that encodes JSON strings directly to UTF-8, avoiding the intermediate
+     * {@code String} (and its copy) that a {@code StringBuilder} would require.
+     */
+    private static final class Output {
+
+        private static final byte[] HEX = "0123456789abcdef".getBytes(Strings.UTF_8);
+
+        private byte[] buf = new byte[256];
+        private int count;
+
+        private void ensure(int n) {
+            if (this.count + n > this.buf.length) {
+                this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length * 2, this.count + n));
+            }
+        }
+
+        void ascii(char c) {
+            ensure(1);
+            this.buf[this.count++] = (byte) c;
+        }
+
+        void ascii(String s) {
+            int n = s.length();
+            ensure(n);
+            for (int i = 0; i < n; i++) {
+                this.buf[this.count++] = (byte) s.charAt(i);
+            }
+        }
+
+        void raw(ByteBuffer bytes) {
+            int n = bytes.remaining();
+            ensure(n);
+            bytes.get(this.buf, this.count, n);
+            this.count += n;
+        }
+
+        void number(long value) {
+            if (value == Long.MIN_VALUE) { // can't be negated
+                ascii(Long.toString(value));
+                return;
+            }
+            ensure(20);
+            if (value < 0) {
+                this.buf[this.count++] = '-';
+                value = -value;
+            }
+            int start = this.count;
+            do { // least significant digit first, then reversed:
+                this.buf[this.count++] = (byte) ('0' + (value % 10));
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = this.count - 1; i < j; i++, j--) {
+                byte b = this.buf[i];
+                this.buf[i] = this.buf[j];
+                this.buf[j] = b;
+            }
+        }
+
+        void string(String s) {
+            int n = s.length();
+            ensure(n + 2); // enough for unescaped ASCII, the common case
+            this.buf[this.count++] = '"';
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                    if (this.count == this.buf.length) {
+                        ensure(n - i + 1);
+                    }
+                    this.buf[this.count++] = (byte) c;
+                } else {
+                    i = special(s, i, c);
+                }
+            }
+            ascii('"');
+        }
+
+        // writes a character that must be escaped or UTF-8 encoded, returning the index of the last char consumed
+        private int special(String s, int i, char c) {
+            ensure(s.length() - i + 6); // worst case for this char, plus the remaining chars if they're plain ASCII
+            switch (c) {
+                case '"':
+                    escape('"');
+                    return i;
+                case '\\':
+                    escape('\\');
+                    return i;
+                case '\b':
+                    escape('b');
+                    return i;
+                case '\f':
+                    escape('f');
+                    return i;
+                case '\n':
+                    escape('n');
+                    return i;
+                case '\r':
+                    escape('r');
+                    return i;
+                case '\t':
+                    escape('t');
+                    return i;
+                default:
+            }
+            if (c < 0x20) {
+                escape('u');
+                this.buf[this.count++] = '0';
+                this.buf[this.count++] = '0';
+                this.buf[this.count++] = HEX[c >> 4];
+                this.buf[this.count++] = HEX[c & 0xF];
+            } else if (c < 0x800) {
+                this.buf[this.count++] = (byte) (0xC0 | (c >> 6));
+                this.buf[this.count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    this.buf[this.count++] = (byte) (0xF0 | (cp >> 18));
+                    this.buf[this.count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    this.buf[this.count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    this.buf[this.count++] = (byte) (0x80 | (cp & 0x3F));
+                } else { // unpaired surrogate, replaced the same way as String.getBytes(UTF_8):
+                    this.buf[this.count++] = '?';
+                }
+            } else {
+                this.buf[this.count++] = (byte) (0xE0 | (c >> 12));
+                this.buf[this.count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                this.buf[this.count++] = (byte) (0x80 | (c & 0x3F));
+            }
+            return i;
+        }
+
+        private void escape(char c) {
+            this.buf[this.count++] = '\\';
+            this.buf[this.count++] = (byte) c;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(this.buf, this.count);
+        }
+    }
+}
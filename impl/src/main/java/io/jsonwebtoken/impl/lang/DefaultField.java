@@ -28,17 +28,27 @@ public class DefaultField<T> implements Field<T> {
     private final Class<T> IDIOMATIC_TYPE; // data type, or if collection, element type
     private final Class<? extends Collection<T>> COLLECTION_TYPE; // null if field doesn't represent collection
     private final Converter<T, Object> CONVERTER;
+    private final Class<?> CANONICAL_TYPE; // canonical JSON type, or if collection, element type. Null if not deferrable
 
     public DefaultField(String id, String name, boolean secret,
                         Class<T> idiomaticType,
                         Class<? extends Collection<T>> collectionType,
                         Converter<T, Object> converter) {
+        this(id, name, secret, idiomaticType, collectionType, converter, null);
+    }
+
+    public DefaultField(String id, String name, boolean secret,
+                        Class<T> idiomaticType,
+                        Class<? extends Collection<T>> collectionType,
+                        Converter<T, Object> converter,
+                        Class<?> canonicalType) {
         this.ID = Strings.clean(Assert.hasText(id, "ID argument cannot be null or empty."));
         this.NAME = Strings.clean(Assert.hasText(name, "Name argument cannot be null or empty."));
         this.IDIOMATIC_TYPE = Assert.notNull(idiomaticType, "idiomaticType argument cannot be null.");
         this.CONVERTER = Assert.notNull(converter, "Converter argument cannot be null.");
         this.SECRET = secret;
         this.COLLECTION_TYPE = collectionType; // can be null if field isn't a collection
+        this.CANONICAL_TYPE = canonicalType; // can be null if conversion should never be deferred
     }
 
     @Override
@@ -96,6 +106,25 @@ public class DefaultField<T> implements Field<T> {
         return SECRET;
     }
 
+    @Override
+    public boolean isDeferrable(Object value) {
+        if (CANONICAL_TYPE == null || value == null) {
+            return false;
+        }
+        if (COLLECTION_TYPE != null) { // canonical collections are JSON arrays, so any Collection is allowed:
+            if (!(value instanceof Collection)) {
+                return false;
+            }
+            for (Object element : (Collection<?>) value) {
+                if (!CANONICAL_TYPE.isInstance(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return CANONICAL_TYPE.isInstance(value);
+    }
+
     @Override
     public int hashCode() {
         return this.ID.hashCode();
@@ -28,6 +28,7 @@ public class DefaultFieldBuilder<T> implements FieldBuilder<T> {
     private boolean secret;
     private final Class<T> type;
     private Converter<T, ?> converter;
+    private Class<?> canonicalType; // will be null if the field's conversion may not be deferred
     private Class<? extends Collection<T>> collectionType; // will be null if field doesn't represent a collection (list or set)
 
     public DefaultFieldBuilder(Class<T> type) {
@@ -74,6 +75,12 @@ public class DefaultFieldBuilder<T> implements FieldBuilder<T> {
         return this;
     }
 
+    @Override
+    public FieldBuilder<T> setCanonicalType(Class<?> canonicalType) {
+        this.canonicalType = canonicalType;
+        return this;
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Override
     public Field<T> build() {
@@ -88,6 +95,7 @@ public class DefaultFieldBuilder<T> implements FieldBuilder<T> {
         if (this.secret) {
             conv = new RedactedValueConverter(conv);
         }
-        return new DefaultField<>(this.id, this.name, this.secret, this.type, this.collectionType, conv);
+        return new DefaultField<>(this.id, this.name, this.secret, this.type, this.collectionType, conv,
+                this.canonicalType);
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang;
+
+import io.jsonwebtoken.lang.Assert;
+
+/**
+ * Converts JSON number values to {@code Double}s, rejecting all non-numeric values.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DoubleConverter implements Converter<Double, Object> {
+
+    public static final DoubleConverter INSTANCE = new DoubleConverter();
+
+    @Override
+    public Object applyTo(Double d) {
+        return d;
+    }
+
+    @Override
+    public Double applyFrom(Object o) {
+        Assert.notNull(o, "Argument cannot be null.");
+        if (!(o instanceof Number)) {
+            String msg = "Value must be a JSON number, found: " + o.getClass().getName();
+            throw new IllegalArgumentException(msg);
+        }
+        double d = ((Number) o).doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("Value must be a finite number.");
+        }
+        return d;
+    }
+}
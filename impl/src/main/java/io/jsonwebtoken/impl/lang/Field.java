@@ -26,4 +26,15 @@ public interface Field<T> extends Identifiable, Converter<T, Object> {
     T cast(Object value);
 
     boolean isSecret();
+
+    /**
+     * Returns {@code true} if the specified value is already in this field's canonical (JSON) form and converting it
+     * to this field's idiomatic type is relatively expensive, such that the conversion may be deferred until the
+     * idiomatic value is first accessed, {@code false} otherwise.
+     *
+     * @param value the candidate canonical value
+     * @return {@code true} if the conversion of the specified value may be deferred, {@code false} otherwise.
+     * @since JJWT_RELEASE_VERSION
+     */
+    boolean isDeferrable(Object value);
 }
@@ -36,4 +36,14 @@ public interface FieldBuilder<T> extends Builder<Field<T>> {
     FieldBuilder<Set<T>> set();
 
     FieldBuilder<T> setConverter(Converter<T, ?> converter);
+
+    /**
+     * Sets the JSON type of the field's canonical value (or of each element if the field is a list or set), allowing
+     * the conversion of values of that type to be deferred until the field's idiomatic value is first accessed.  This
+     * should only be set for fields with expensive conversions that are not needed to process a JWT.
+     *
+     * @param canonicalType the JSON type of the field's canonical value, or {@code null} to always convert eagerly
+     * @return the builder for method chaining.
+     */
+    FieldBuilder<T> setCanonicalType(Class<?> canonicalType);
 }
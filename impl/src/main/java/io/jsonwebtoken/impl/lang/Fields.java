@@ -37,7 +37,7 @@ public final class Fields {
 
     public static Field<List<X509Certificate>> x509Chain(String id, String name) {
         return builder(X509Certificate.class)
-                .setConverter(Converters.X509_CERTIFICATE).list()
+                .setConverter(Converters.X509_CERTIFICATE).setCanonicalType(String.class).list()
                 .setId(id).setName(name).build();
     }
 
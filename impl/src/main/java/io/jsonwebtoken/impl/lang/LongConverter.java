@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang;
+
+import io.jsonwebtoken.lang.Assert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts JSON integer values to {@code Long}s.  Since some JSON libraries represent all numbers as
+ * {@code Double}s, any {@code Number} with an integral value in the range of a {@code long} is accepted, but numbers
+ * with a fractional part and all non-numeric values are rejected.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class LongConverter implements Converter<Long, Object> {
+
+    public static final LongConverter INSTANCE = new LongConverter();
+
+    private static final double TWO_POW_63 = 0x1p63;
+
+    @Override
+    public Object applyTo(Long l) {
+        return l;
+    }
+
+    @Override
+    public Long applyFrom(Object o) {
+        Assert.notNull(o, "Argument cannot be null.");
+        if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte ||
+                o instanceof AtomicInteger || o instanceof AtomicLong) {
+            return ((Number) o).longValue();
+        }
+        if (o instanceof Double || o instanceof Float) {
+            double d = ((Number) o).doubleValue();
+            if (d >= -TWO_POW_63 && d < TWO_POW_63 && d == Math.rint(d)) {
+                return (long) d;
+            }
+        } else if (o instanceof Number) { // BigInteger, BigDecimal or a library-specific type (e.g. lazily parsed):
+            BigDecimal value = o instanceof BigInteger ? new BigDecimal((BigInteger) o) : toBigDecimal(o);
+            try {
+                return value.longValueExact();
+            } catch (ArithmeticException ignored) { // fractional or out of range, reported below
+            }
+        } else {
+            String msg = "Value must be a JSON number, found: " + o.getClass().getName();
+            throw new IllegalArgumentException(msg);
+        }
+        throw new IllegalArgumentException("Value cannot be represented as a java.lang.Long.");
+    }
+
+    private static BigDecimal toBigDecimal(Object number) {
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value cannot be represented as a java.lang.Long.", e);
+        }
+    }
+}
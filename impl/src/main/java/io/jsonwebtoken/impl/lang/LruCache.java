@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang;
+
+import io.jsonwebtoken.lang.Assert;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe, size-bounded cache that evicts its least-recently-used entry once its capacity is exceeded.
+ * Neither keys nor values may be {@code null}.
+ *
+ * @param <K> the cache key type
+ * @param <V> the cache value type
+ * @since JJWT_RELEASE_VERSION
+ */
+public class LruCache<K, V> {
+
+    private final int capacity;
+
+    private final Map<K, V> entries;
+
+    public LruCache(int capacity) {
+        this.capacity = Assert.gt(capacity, 0, "Cache capacity must be greater than zero.");
+        final int max = capacity;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (this.entries) {
+            return this.entries.get(key);
+        }
+    }
+
+    public V put(K key, V value) {
+        Assert.notNull(key, "Cache key cannot be null.");
+        Assert.notNull(value, "Cache value cannot be null.");
+        synchronized (this.entries) {
+            return this.entries.put(key, value);
+        }
+    }
+
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        synchronized (this.entries) {
+            return this.entries.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+}
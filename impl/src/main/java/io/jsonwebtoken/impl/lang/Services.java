@@ -16,6 +16,7 @@
 package io.jsonwebtoken.impl.lang;
 
 import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Supplier;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -105,6 +106,27 @@ public final class Services {
         throw new UnavailableImplementationException(spi);
     }
 
+    /**
+     * Loads the first available implementation the given SPI class from the classpath as described in
+     * {@link #loadFirst(Class)}, returning an instance obtained from the specified {@code fallback} supplier instead
+     * of throwing an {@link UnavailableImplementationException} if no implementation is available.  The supplier is
+     * only invoked in that case, so a fallback instance is never created needlessly.
+     *
+     * @param spi      The class of the Service Provider Interface
+     * @param fallback Supplies the instance to return if no implementation of the SPI is available on the classpath.
+     * @param <T>      The type of the SPI
+     * @return A new instance of the service, or the {@code fallback} instance if no implementation is available.
+     * @since JJWT_RELEASE_VERSION
+     */
+    public static <T> T loadFirst(Class<T> spi, Supplier<? extends T> fallback) {
+        Assert.notNull(fallback, "Fallback supplier cannot be null.");
+        try {
+            return loadFirst(spi);
+        } catch (UnavailableImplementationException e) {
+            return Assert.notNull(fallback.get(), "Fallback supplier cannot return null.");
+        }
+    }
+
     private static <T> T loadFirst(Class<T> spi, ClassLoader classLoader) {
         ServiceLoader<T> serviceLoader = ServiceLoader.load(spi, classLoader);
         if (serviceLoader.iterator().hasNext()) {
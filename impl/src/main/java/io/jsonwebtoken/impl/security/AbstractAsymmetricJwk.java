@@ -31,8 +31,10 @@ public abstract class AbstractAsymmetricJwk<K extends Key> extends AbstractJwk<K
 
     static final Field<String> USE = Fields.string("use", "Public Key Use");
     public static final Field<List<X509Certificate>> X5C = Fields.x509Chain("x5c", "X.509 Certificate Chain");
-    public static final Field<byte[]> X5T = Fields.bytes("x5t", "X.509 Certificate SHA-1 Thumbprint").build();
-    public static final Field<byte[]> X5T_S256 = Fields.bytes("x5t#S256", "X.509 Certificate SHA-256 Thumbprint").build();
+    public static final Field<byte[]> X5T = Fields.bytes("x5t", "X.509 Certificate SHA-1 Thumbprint")
+            .setCanonicalType(String.class).build();
+    public static final Field<byte[]> X5T_S256 = Fields.bytes("x5t#S256", "X.509 Certificate SHA-256 Thumbprint")
+            .setCanonicalType(String.class).build();
     public static final Field<URI> X5U = Fields.uri("x5u", "X.509 URL");
     static final Set<Field<?>> FIELDS = Collections.concat(AbstractJwk.FIELDS, USE, X5C, X5T, X5T_S256, X5U);
 
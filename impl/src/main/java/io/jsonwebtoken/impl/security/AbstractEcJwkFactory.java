@@ -18,6 +18,7 @@ package io.jsonwebtoken.impl.security;
 import io.jsonwebtoken.impl.lang.CheckedFunction;
 import io.jsonwebtoken.impl.lang.Converters;
 import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.impl.lang.LruCache;
 import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Jwk;
 import io.jsonwebtoken.security.UnsupportedKeyException;
@@ -38,7 +39,9 @@ import java.util.Set;
 
 abstract class AbstractEcJwkFactory<K extends Key & ECKey, J extends Jwk<K>> extends AbstractFamilyJwkFactory<K, J> {
 
-    private static final BigInteger TWO = BigInteger.valueOf(2);
+    static final int VALIDATED_POINT_CACHE_CAPACITY = 256;
+    private static final LruCache<CurvePoint, Boolean> VALIDATED_POINTS = new LruCache<>(VALIDATED_POINT_CACHE_CAPACITY);
+
     private static final BigInteger THREE = BigInteger.valueOf(3);
     private static final String UNSUPPORTED_CURVE_MSG = "The specified ECKey curve does not match a JWA standard curve id.";
 
@@ -92,6 +95,9 @@ abstract class AbstractEcJwkFactory<K extends Key & ECKey, J extends Jwk<K>> ext
      * <code>y<sup>2</sup> = x<sup>3</sup> + ax + b</code>
      * </p>
      *
+     * <p>Because the same public keys (e.g. from a JWK Set, or a JWE {@code epk}) are usually validated repeatedly,
+     * recently validated points are cached so that repeated checks only incur a cache lookup.</p>
+     *
      * @param curve the Elliptic Curve to check
      * @param point a point that may or may not be defined on the specified elliptic curve
      * @return {@code true} if a given elliptic curve contains the specified {@code point}, {@code false} otherwise.
@@ -103,6 +109,20 @@ abstract class AbstractEcJwkFactory<K extends Key & ECKey, J extends Jwk<K>> ext
             return false;
         }
 
+        final CurvePoint key = new CurvePoint(curve, point);
+        if (VALIDATED_POINTS.get(key) != null) {
+            return true;
+        }
+
+        boolean contains = isOnCurve(curve, point);
+        if (contains) { // only valid points are cached, so invalid input can never evict them preemptively
+            VALIDATED_POINTS.put(key, Boolean.TRUE);
+        }
+        return contains;
+    }
+
+    private static boolean isOnCurve(EllipticCurve curve, ECPoint point) {
+
         final BigInteger a = curve.getA();
         final BigInteger b = curve.getB();
         final BigInteger x = point.getAffineX();
@@ -123,9 +143,10 @@ abstract class AbstractEcJwkFactory<K extends Key & ECKey, J extends Jwk<K>> ext
             return false;
         }
 
-        // Finally, assert Weierstrass form equality:
-        final BigInteger lhs = y.modPow(TWO, p); //mod p to account for field prime
-        final BigInteger rhs = x.modPow(THREE, p).add(a.multiply(x)).add(b).mod(p); //mod p to account for field prime
+        // Finally, assert Weierstrass form equality.  Plain multiplication is much cheaper than modPow for small
+        // exponents, and x^3 + ax + b is evaluated as (x^2 + a)x + b to save a multiplication:
+        final BigInteger lhs = y.multiply(y).mod(p); //mod p to account for field prime
+        final BigInteger rhs = x.multiply(x).add(a).mod(p).multiply(x).add(b).mod(p);
         return lhs.equals(rhs);
     }
 
@@ -145,59 +166,141 @@ abstract class AbstractEcJwkFactory<K extends Key & ECKey, J extends Jwk<K>> ext
         BigInteger n = spec.getOrder();
         BigInteger k = s.mod(n);
 
-        ECPoint r0 = ECPoint.POINT_INFINITY;
-        ECPoint r1 = p;
-
         // Montgomery Ladder implementation to mitigate side-channel attacks (i.e. an 'add' operation and a 'double'
-        // operation is calculated for every loop iteration, regardless if the 'add'' is needed or not)
+        // operation is calculated for every bit, regardless of the bit value).  Points are kept in Jacobian
+        // coordinates, so only a single (expensive) modular inversion is needed at the very end instead of one for
+        // every add and double.
         // See: https://en.wikipedia.org/wiki/Elliptic_curve_point_multiplication#Montgomery_ladder
-        while (k.compareTo(BigInteger.ZERO) > 0) {
-            ECPoint temp = add(r0, r1, curve);
-            r0 = k.testBit(0) ? temp : r0;
-            r1 = doublePoint(r1, curve);
-            k = k.shiftRight(1);
+        JacobianPoint r0 = JacobianPoint.INFINITY;
+        JacobianPoint r1 = JacobianPoint.of(p);
+        for (int i = n.bitLength() - 1; i >= 0; i--) {
+            if (k.testBit(i)) {
+                r0 = r0.add(r1, curve);
+                r1 = r1.twice(curve);
+            } else {
+                r1 = r0.add(r1, curve);
+                r0 = r0.twice(curve);
+            }
         }
 
-        return r0;
+        return r0.toAffine(curve);
     }
 
-    private static ECPoint add(ECPoint P, ECPoint Q, EllipticCurve curve) {
+    /**
+     * A point in Jacobian projective coordinates {@code (X, Y, Z)}, representing the affine point
+     * {@code (X/Z^2, Y/Z^3)}.  The point at infinity is represented with {@code Z = 0}.  Formulas are from the
+     * <a href="https://hyperelliptic.org/EFD/g1p/auto-shortw-jacobian.html">Explicit-Formulas Database</a>
+     * ({@code add-1998-cmo-2} and {@code dbl-1998-cmo-2}, for short Weierstrass curves with any {@code a}).
+     */
+    private static final class JacobianPoint {
+
+        private static final JacobianPoint INFINITY =
+                new JacobianPoint(BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO);
 
-        if (ECPoint.POINT_INFINITY.equals(P)) {
-            return Q;
-        } else if (ECPoint.POINT_INFINITY.equals(Q)) {
-            return P;
-        } else if (P.equals(Q)) {
-            return doublePoint(P, curve);
+        private final BigInteger x;
+        private final BigInteger y;
+        private final BigInteger z;
+
+        private JacobianPoint(BigInteger x, BigInteger y, BigInteger z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        private static JacobianPoint of(ECPoint p) {
+            return new JacobianPoint(p.getAffineX(), p.getAffineY(), BigInteger.ONE);
         }
 
-        final BigInteger Px = P.getAffineX();
-        final BigInteger Py = P.getAffineY();
-        final BigInteger Qx = Q.getAffineX();
-        final BigInteger Qy = Q.getAffineY();
-        final BigInteger prime = ((ECFieldFp) curve.getField()).getP();
-        final BigInteger slope = Qy.subtract(Py).multiply(Qx.subtract(Px).modInverse(prime)).mod(prime);
-        final BigInteger Rx = slope.pow(2).subtract(Px).subtract(Qx).mod(prime);
-        final BigInteger Ry = slope.multiply(Px.subtract(Rx)).subtract(Py).mod(prime);
+        private boolean isInfinity() {
+            return this.z.signum() == 0;
+        }
 
-        return new ECPoint(Rx, Ry);
+        private ECPoint toAffine(EllipticCurve curve) {
+            if (isInfinity()) {
+                return ECPoint.POINT_INFINITY;
+            }
+            final BigInteger p = ((ECFieldFp) curve.getField()).getP();
+            BigInteger zInv = this.z.modInverse(p);
+            BigInteger zInv2 = zInv.multiply(zInv).mod(p);
+            BigInteger ax = this.x.multiply(zInv2).mod(p);
+            BigInteger ay = this.y.multiply(zInv2).mod(p).multiply(zInv).mod(p);
+            return new ECPoint(ax, ay);
+        }
+
+        private JacobianPoint twice(EllipticCurve curve) {
+            if (isInfinity() || this.y.signum() == 0) {
+                return INFINITY;
+            }
+            final BigInteger p = ((ECFieldFp) curve.getField()).getP();
+            BigInteger xx = this.x.multiply(this.x).mod(p);
+            BigInteger yy = this.y.multiply(this.y).mod(p);
+            BigInteger yyyy = yy.multiply(yy).mod(p);
+            BigInteger zz = this.z.multiply(this.z).mod(p);
+            BigInteger s = this.x.multiply(yy).shiftLeft(2).mod(p); // 4*X*YY
+            BigInteger m = xx.multiply(THREE).add(curve.getA().multiply(zz.multiply(zz))).mod(p);
+            BigInteger x3 = m.multiply(m).subtract(s.shiftLeft(1)).mod(p);
+            BigInteger y3 = m.multiply(s.subtract(x3)).subtract(yyyy.shiftLeft(3)).mod(p);
+            BigInteger z3 = this.y.multiply(this.z).shiftLeft(1).mod(p);
+            return new JacobianPoint(x3, y3, z3);
+        }
+
+        private JacobianPoint add(JacobianPoint q, EllipticCurve curve) {
+            if (isInfinity()) {
+                return q;
+            } else if (q.isInfinity()) {
+                return this;
+            }
+            final BigInteger p = ((ECFieldFp) curve.getField()).getP();
+            BigInteger z1z1 = this.z.multiply(this.z).mod(p);
+            BigInteger z2z2 = q.z.multiply(q.z).mod(p);
+            BigInteger u1 = this.x.multiply(z2z2).mod(p);
+            BigInteger u2 = q.x.multiply(z1z1).mod(p);
+            BigInteger s1 = this.y.multiply(q.z).multiply(z2z2).mod(p);
+            BigInteger s2 = q.y.multiply(this.z).multiply(z1z1).mod(p);
+            BigInteger h = u2.subtract(u1).mod(p);
+            BigInteger r = s2.subtract(s1).mod(p);
+            if (h.signum() == 0) {
+                return r.signum() == 0 ? twice(curve) : INFINITY; // P + P, or P + (-P)
+            }
+            BigInteger hh = h.multiply(h).mod(p);
+            BigInteger hhh = h.multiply(hh).mod(p);
+            BigInteger v = u1.multiply(hh).mod(p);
+            BigInteger x3 = r.multiply(r).subtract(hhh).subtract(v.shiftLeft(1)).mod(p);
+            BigInteger y3 = r.multiply(v.subtract(x3)).subtract(s1.multiply(hhh)).mod(p);
+            BigInteger z3 = this.z.multiply(q.z).multiply(h).mod(p);
+            return new JacobianPoint(x3, y3, z3);
+        }
     }
 
-    private static ECPoint doublePoint(ECPoint P, EllipticCurve curve) {
+    // Cache key for validated points; EllipticCurve and ECPoint both implement value equality:
+    private static final class CurvePoint {
+
+        private final EllipticCurve curve;
+        private final ECPoint point;
+        private final int hashCode;
 
-        if (ECPoint.POINT_INFINITY.equals(P)) {
-            return P;
+        private CurvePoint(EllipticCurve curve, ECPoint point) {
+            this.curve = curve;
+            this.point = point;
+            this.hashCode = 31 * curve.hashCode() + point.hashCode();
         }
 
-        final BigInteger Px = P.getAffineX();
-        final BigInteger Py = P.getAffineY();
-        final BigInteger p = ((ECFieldFp) curve.getField()).getP();
-        final BigInteger a = curve.getA();
-        final BigInteger s = THREE.multiply(Px.pow(2)).add(a).mod(p).multiply(TWO.multiply(Py).modInverse(p)).mod(p);
-        final BigInteger x = s.pow(2).subtract(TWO.multiply(Px)).mod(p);
-        final BigInteger y = s.multiply(Px.subtract(x)).subtract(Py).mod(p);
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
 
-        return new ECPoint(x, y);
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof CurvePoint)) {
+                return false;
+            }
+            CurvePoint other = (CurvePoint) obj;
+            return this.point.equals(other.point) && this.curve.equals(other.curve);
+        }
     }
 
     AbstractEcJwkFactory(Class<K> keyType, Set<Field<?>> fields) {
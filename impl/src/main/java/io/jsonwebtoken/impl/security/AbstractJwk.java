@@ -37,6 +37,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public abstract class AbstractJwk<K extends Key> implements Jwk<K>, FieldReadable, Nameable {
 
@@ -50,6 +52,10 @@ public abstract class AbstractJwk<K extends Key> implements Jwk<K>, FieldReadabl
     protected final JwkContext<K> context;
     private final List<Field<?>> THUMBPRINT_FIELDS;
 
+    // JWKs are immutable, so a thumbprint never changes once computed:
+    private final ConcurrentMap<HashAlgorithm, JwkThumbprint> thumbprints =
+            new ConcurrentHashMap<>(2); // usually only one algorithm (SHA-256) is ever used
+
     /**
      * @param ctx              the backing JwkContext containing the JWK field values.
      * @param thumbprintFields the required fields to include in the JWK Thumbprint canonical JSON representation,
@@ -106,6 +112,17 @@ public abstract class AbstractJwk<K extends Key> implements Jwk<K>, FieldReadabl
 
     @Override
     public JwkThumbprint thumbprint(final HashAlgorithm alg) {
+        Assert.notNull(alg, "Thumbprint HashAlgorithm cannot be null.");
+        JwkThumbprint thumbprint = this.thumbprints.get(alg);
+        if (thumbprint == null) {
+            // concurrent callers may compute it more than once, but always with the same result:
+            thumbprint = computeThumbprint(alg);
+            this.thumbprints.putIfAbsent(alg, thumbprint);
+        }
+        return thumbprint;
+    }
+
+    private JwkThumbprint computeThumbprint(final HashAlgorithm alg) {
         String json = toThumbprintJson();
         Assert.hasText(json, "Canonical JWK Thumbprint JSON cannot be null or empty.");
         byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
@@ -18,16 +18,22 @@ package io.jsonwebtoken.impl.security;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.security.KeyException;
 import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.Request;
 import io.jsonwebtoken.security.SecureRequest;
 import io.jsonwebtoken.security.SecurityException;
 import io.jsonwebtoken.security.SignatureException;
 import io.jsonwebtoken.security.VerifySecureDigestRequest;
 
+import javax.crypto.Mac;
+import java.io.InputStream;
 import java.security.Key;
 import java.security.MessageDigest;
+import java.security.Signature;
 
 abstract class AbstractSecureDigestAlgorithm<S extends Key, V extends Key> extends CryptoAlgorithm implements SecureDigestAlgorithm<S, V> {
 
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     AbstractSecureDigestAlgorithm(String id, String jcaName) {
         super(id, jcaName);
     }
@@ -42,7 +48,7 @@ abstract class AbstractSecureDigestAlgorithm<S extends Key, V extends Key> exten
     public final byte[] digest(SecureRequest<byte[], S> request) throws SecurityException {
         Assert.notNull(request, "Request cannot be null.");
         final S key = Assert.notNull(request.getKey(), "Request key cannot be null.");
-        Assert.notEmpty(request.getPayload(), "Request content cannot be null or empty.");
+        assertPayload(request);
         try {
             validateKey(key, true);
             return doDigest(request);
@@ -61,7 +67,7 @@ abstract class AbstractSecureDigestAlgorithm<S extends Key, V extends Key> exten
     public final boolean verify(VerifySecureDigestRequest<V> request) throws SecurityException {
         Assert.notNull(request, "Request cannot be null.");
         final V key = Assert.notNull(request.getKey(), "Request key cannot be null.");
-        Assert.notEmpty(request.getPayload(), "Request content cannot be null or empty.");
+        assertPayload(request);
         Assert.notEmpty(request.getDigest(), "Request signature byte array cannot be null or empty.");
         try {
             validateKey(key, false);
@@ -85,4 +91,44 @@ abstract class AbstractSecureDigestAlgorithm<S extends Key, V extends Key> exten
     protected boolean doVerify(VerifySecureDigestRequest<V> request) throws Exception {
         return messageDigest(request);
     }
+
+    private static void assertPayload(Request<byte[]> request) {
+        if (request instanceof StreamingRequest) { // the stream provides the remaining payload bytes
+            Assert.notNull(request.getPayload(), "Request content cannot be null.");
+        } else {
+            Assert.notEmpty(request.getPayload(), "Request content cannot be null or empty.");
+        }
+    }
+
+    /**
+     * Updates the signature with the request payload, followed by all bytes of the request's
+     * {@link StreamingRequest#getPayloadStream() payload stream} if it is a {@link StreamingRequest}.
+     */
+    protected static void update(Signature sig, Request<byte[]> request) throws Exception {
+        sig.update(request.getPayload());
+        if (request instanceof StreamingRequest) {
+            InputStream in = ((StreamingRequest) request).getPayloadStream();
+            byte[] buf = new byte[STREAM_BUFFER_SIZE];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                sig.update(buf, 0, len);
+            }
+        }
+    }
+
+    /**
+     * Updates the MAC with the request payload, followed by all bytes of the request's
+     * {@link StreamingRequest#getPayloadStream() payload stream} if it is a {@link StreamingRequest}.
+     */
+    protected static void update(Mac mac, Request<byte[]> request) throws Exception {
+        mac.update(request.getPayload());
+        if (request instanceof StreamingRequest) {
+            InputStream in = ((StreamingRequest) request).getPayloadStream();
+            byte[] buf = new byte[STREAM_BUFFER_SIZE];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                mac.update(buf, 0, len);
+            }
+        }
+    }
 }
@@ -54,7 +54,7 @@ abstract class AbstractSignatureAlgorithm extends AbstractSecureDigestAlgorithm<
             @Override
             public byte[] apply(Signature sig) throws Exception {
                 sig.initSign(request.getKey());
-                sig.update(request.getPayload());
+                update(sig, request);
                 return sig.sign();
             }
         });
@@ -66,7 +66,7 @@ abstract class AbstractSignatureAlgorithm extends AbstractSecureDigestAlgorithm<
             @Override
             public Boolean apply(Signature sig) throws Exception {
                 sig.initVerify(request.getKey());
-                sig.update(request.getPayload());
+                update(sig, request);
                 return sig.verify(request.getDigest());
             }
         });
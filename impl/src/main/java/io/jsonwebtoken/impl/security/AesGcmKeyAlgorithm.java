@@ -81,7 +81,7 @@ public class AesGcmKeyAlgorithm extends AesAlgorithm implements SecretKeyAlgorit
     @Override
     public SecretKey getDecryptionKey(DecryptionKeyRequest<SecretKey> request) throws SecurityException {
         Assert.notNull(request, "request cannot be null.");
-        final SecretKey kek = assertKey(request.getKey());
+        final SecretKey kek = assertKey(KeysBridge.assertType(request, SecretKey.class, getId()));
         final byte[] cekBytes = Assert.notEmpty(request.getPayload(), "Decryption request content (ciphertext) cannot be null or empty.");
         final JweHeader header = Assert.notNull(request.getHeader(), "Request JweHeader cannot be null.");
         final FieldReadable reader = new RequiredFieldReader(header);
@@ -58,7 +58,7 @@ public class AesWrapKeyAlgorithm extends AesAlgorithm implements SecretKeyAlgori
     @Override
     public SecretKey getDecryptionKey(DecryptionKeyRequest<SecretKey> request) throws SecurityException {
         Assert.notNull(request, "request cannot be null.");
-        final SecretKey kek = assertKey(request.getKey());
+        final SecretKey kek = assertKey(KeysBridge.assertType(request, SecretKey.class, getId()));
         final byte[] cekBytes = Assert.notEmpty(request.getPayload(), "Request content (encrypted key) cannot be null or empty.");
 
         return jca(request).withCipher(new CheckedFunction<Cipher, SecretKey>() {
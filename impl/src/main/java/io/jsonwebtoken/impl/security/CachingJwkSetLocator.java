@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
+import io.jsonwebtoken.lang.Supplier;
+import io.jsonwebtoken.security.JwkParser;
+
+import java.security.Key;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Locator} that resolves keys from a periodically reloaded JWK Set.  Keys are only ever resolved from the
+ * most recently loaded JWK Set in memory; loads are always performed asynchronously by an {@link Executor},
+ * coalesced so that at most one runs at a time, and rate-limited.  See
+ * {@link io.jsonwebtoken.security.JwkSetLocatorBuilder JwkSetLocatorBuilder} for behavior details.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class CachingJwkSetLocator extends LocatorAdapter<Key> {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final Supplier<String> source;
+    private final JwkParser parser;
+    private final long refreshAfterMillis;
+    private final long minRefreshIntervalMillis;
+    private final Executor executor;
+    private final Clock clock;
+
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+    private volatile long lastAttempt = NEVER;
+    private volatile Snapshot snapshot; // null until the first successful load
+    private volatile Exception lastFailure; // null unless the most recent load failed
+
+    private final Runnable loader = new Runnable() {
+        @Override
+        public void run() {
+            load();
+        }
+    };
+
+    public CachingJwkSetLocator(Supplier<String> source, JwkParser parser, long timeToLiveMillis,
+                                long refreshAheadMillis, long minRefreshIntervalMillis, Executor executor,
+                                Clock clock) {
+        this.source = Assert.notNull(source, "JWK Set source cannot be null.");
+        this.parser = Assert.notNull(parser, "JwkParser cannot be null.");
+        Assert.isTrue(timeToLiveMillis > 0, "Time to live must be greater than zero.");
+        Assert.isTrue(refreshAheadMillis >= 0 && refreshAheadMillis < timeToLiveMillis,
+                "Refresh-ahead duration must be zero or greater and less than the time to live.");
+        Assert.isTrue(minRefreshIntervalMillis >= 0, "Minimum refresh interval must be zero or greater.");
+        this.refreshAfterMillis = timeToLiveMillis - refreshAheadMillis;
+        this.minRefreshIntervalMillis = minRefreshIntervalMillis;
+        this.executor = Assert.notNull(executor, "Executor cannot be null.");
+        this.clock = Assert.notNull(clock, "Clock cannot be null.");
+    }
+
+    private long now() {
+        return this.clock.now().getTime();
+    }
+
+    /**
+     * Starts an asynchronous load of the JWK Set unless one is already running or the minimum refresh interval has
+     * not yet elapsed since the last load attempt.
+     *
+     * @return {@code true} if a load was started, {@code false} otherwise.
+     */
+    public boolean refresh() {
+        return refresh(now());
+    }
+
+    private boolean refresh(long now) {
+        long last = this.lastAttempt;
+        if (last != NEVER && now - last < this.minRefreshIntervalMillis) {
+            return false; // rate-limited
+        }
+        if (!this.loading.compareAndSet(false, true)) {
+            return false; // coalesced with the running load
+        }
+        this.lastAttempt = now;
+        try {
+            this.executor.execute(this.loader);
+        } catch (RuntimeException e) { // e.g. RejectedExecutionException, try again after the interval
+            this.loading.set(false);
+            return false;
+        }
+        return true;
+    }
+
+    private void load() {
+        try {
+            String json = this.source.get();
+            Locator<Key> locator = this.parser.parseSet(json).toKeyLocator();
+            this.snapshot = new Snapshot(locator, now());
+            this.lastFailure = null;
+        } catch (Exception e) {
+            // retain any previously loaded keys; the next attempt is rate-limited by the minimum refresh interval
+            this.lastFailure = e;
+        } finally {
+            this.loading.set(false);
+        }
+    }
+
+    /**
+     * Returns the exception thrown by the most recent JWK Set load, or {@code null} if it succeeded or no load has
+     * completed yet.  Failed loads never propagate to parsing threads, so this allows applications to monitor the
+     * health of the JWK Set source.
+     *
+     * @return the exception thrown by the most recent JWK Set load, or {@code null} if it succeeded or no load has
+     * completed yet.
+     */
+    public Exception getLastFailure() {
+        return this.lastFailure;
+    }
+
+    @Override
+    protected Key locate(ProtectedHeader<?> header) {
+        final long now = now();
+        final Snapshot snapshot = this.snapshot;
+        if (snapshot == null) { // not loaded yet, or all loads have failed:
+            refresh(now);
+            return null;
+        }
+        if (now - snapshot.loadedAt >= this.refreshAfterMillis) {
+            refresh(now); // refresh ahead of expiry, or after expiry, but always serve current keys meanwhile
+        }
+        Key key = snapshot.locator.locate(header);
+        if (key == null && Strings.hasText(header.getKeyId())) {
+            refresh(now); // unknown kid, possibly a new key after rotation
+        }
+        return key;
+    }
+
+    private static final class Snapshot {
+
+        private final Locator<Key> locator;
+        private final long loadedAt;
+
+        private Snapshot(Locator<Key> locator, long loadedAt) {
+            this.locator = locator;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
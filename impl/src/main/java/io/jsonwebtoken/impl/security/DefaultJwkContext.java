@@ -99,19 +99,8 @@ public class DefaultJwkContext<K extends Key> extends JwtMap implements JwkConte
         this.provider = other.getProvider();
         this.random = other.getRandom();
         this.idThumbprintAlgorithm = other.getIdThumbprintAlgorithm();
-        this.values.putAll(src.values);
         // Ensure the source's idiomatic values match the types expected by this object:
-        for (Map.Entry<String, Object> entry : src.idiomaticValues.entrySet()) {
-            String id = entry.getKey();
-            Object value = entry.getValue();
-            Field<?> field = this.FIELDS.get(id);
-            if (field != null && !field.supports(value)) { // src idiomatic value is not what is expected, so convert:
-                value = this.values.get(field.getId());
-                put(field, value); // perform idiomatic conversion with original/raw src value
-            } else {
-                this.idiomaticValues.put(id, value);
-            }
-        }
+        copyFrom(src);
         if (removePrivate) {
             for (Field<?> field : src.FIELDS.values()) {
                 if (field.isSecret()) {
@@ -16,27 +16,60 @@
 package io.jsonwebtoken.impl.security;
 
 import io.jsonwebtoken.io.Deserializer;
+import io.jsonwebtoken.io.IOException;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.security.Jwk;
 import io.jsonwebtoken.security.JwkBuilder;
 import io.jsonwebtoken.security.JwkParser;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.JwkSetParseResult;
 import io.jsonwebtoken.security.Jwks;
 import io.jsonwebtoken.security.KeyException;
 import io.jsonwebtoken.security.MalformedKeyException;
+import io.jsonwebtoken.security.UnsupportedKeyException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class DefaultJwkParser implements JwkParser {
 
+    // JWK Sets with fewer JWKs than this are always materialized on the calling thread, since splitting them
+    // across a pool costs more than it saves:
+    static final int PARALLEL_THRESHOLD = 64;
+
+    // the number of JWKs materialized sequentially by each parallel task:
+    static final int BATCH_SIZE = 16;
+
+    private static final String NON_OBJECT_MSG = "JWK Set '" + DefaultJwkSet.KEYS +
+            "' array elements must be JSON objects.";
+
     private final Provider provider;
 
     private final Deserializer<Map<String, ?>> deserializer;
 
+    private final JwkInterner interner; // null if interning is disabled
+
+    private final ForkJoinPool pool; // null if JWK Sets are always materialized on the calling thread
+
     public DefaultJwkParser(Provider provider, Deserializer<Map<String, ?>> deserializer) {
+        this(provider, deserializer, null, null);
+    }
+
+    DefaultJwkParser(Provider provider, Deserializer<Map<String, ?>> deserializer, JwkInterner interner,
+                     ForkJoinPool pool) {
         this.provider = provider;
         this.deserializer = Assert.notNull(deserializer, "Deserializer cannot be null.");
+        this.interner = provider == null ? interner : null; // interned keys may have been created by any provider
+        this.pool = pool;
     }
 
     // visible for testing
@@ -45,15 +78,42 @@ public class DefaultJwkParser implements JwkParser {
         return this.deserializer.deserialize(data);
     }
 
-    @Override
-    public Jwk<?> parse(String json) throws KeyException {
+    private Map<String, ?> deserializeJson(String json) {
         Assert.hasText(json, "JSON string argument cannot be null or empty.");
-        Map<String, ?> data;
         try {
-            data = deserialize(json);
+            return deserialize(json);
         } catch (Exception e) {
             String msg = "Unable to deserialize JSON string argument: " + e.getMessage();
-            throw new MalformedKeyException(msg);
+            throw new MalformedKeyException(msg, e);
+        }
+    }
+
+    private Map<String, ?> deserializeJson(InputStream in) {
+        Assert.notNull(in, "JWK Set InputStream cannot be null.");
+        byte[] data;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                out.write(buf, 0, len);
+            }
+            data = out.toByteArray();
+        } catch (java.io.IOException e) {
+            String msg = "Unable to read JWK Set InputStream: " + e.getMessage();
+            throw new IOException(msg, e);
+        }
+        try {
+            return this.deserializer.deserialize(data);
+        } catch (Exception e) {
+            String msg = "Unable to deserialize JWK Set InputStream: " + e.getMessage();
+            throw new MalformedKeyException(msg, e);
+        }
+    }
+
+    private Jwk<?> build(Map<String, ?> data) {
+        if (this.interner != null) {
+            return this.interner.intern(data);
         }
 
         JwkBuilder<?, ?, ?> builder = Jwks.builder();
@@ -64,4 +124,124 @@ public class DefaultJwkParser implements JwkParser {
 
         return builder.putAll(data).build();
     }
+
+    @Override
+    public Jwk<?> parse(String json) throws KeyException {
+        Map<String, ?> data = deserializeJson(json);
+        return build(data);
+    }
+
+    @Override
+    public JwkSet parseSet(String json) throws KeyException {
+        Map<String, ?> data = deserializeJson(json);
+        return parseSet(data, false).getJwkSet();
+    }
+
+    @Override
+    public JwkSet parseSet(InputStream in) throws KeyException {
+        Map<String, ?> data = deserializeJson(in);
+        return parseSet(data, false).getJwkSet();
+    }
+
+    @Override
+    public JwkSetParseResult parseSetLenient(InputStream in) throws KeyException {
+        Map<String, ?> data = deserializeJson(in);
+        return parseSet(data, true);
+    }
+
+    private JwkSetParseResult parseSet(Map<String, ?> data, boolean lenient) {
+        Object keys = data.get(DefaultJwkSet.KEYS);
+        if (!(keys instanceof Collection)) {
+            String msg = "JWK Set JSON must contain a '" + DefaultJwkSet.KEYS + "' array member per " +
+                    "https://www.rfc-editor.org/rfc/rfc7517.html#section-5.1";
+            throw new MalformedKeyException(msg);
+        }
+        List<?> elements = keys instanceof List ? (List<?>) keys : new ArrayList<>((Collection<?>) keys);
+        final int size = elements.size();
+        Jwk<?>[] jwks = new Jwk<?>[size];
+        KeyException[] failures = new KeyException[size];
+
+        if (this.pool != null && size >= PARALLEL_THRESHOLD) {
+            this.pool.invoke(new MaterializeTask(elements, jwks, failures, 0, size));
+        } else {
+            for (int i = 0; i < size; i++) {
+                materialize(elements, jwks, failures, i);
+                if (!lenient && failures[i] != null) {
+                    throw failures[i]; // fail fast, no need to materialize the rest
+                }
+            }
+        }
+
+        List<Jwk<?>> list = new ArrayList<>(size);
+        Map<Integer, KeyException> failed = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (failures[i] != null) {
+                if (!lenient) {
+                    throw failures[i]; // the first failure in document order, regardless of materialization order
+                }
+                failed.put(i, failures[i]);
+            } else if (jwks[i] != null) { // null if the JWK's key type is not supported
+                list.add(jwks[i]);
+            }
+        }
+        return new DefaultJwkSetParseResult(new DefaultJwkSet(list), failed);
+    }
+
+    private void materialize(List<?> elements, Jwk<?>[] jwks, KeyException[] failures, int i) {
+        Object element = elements.get(i);
+        if (!(element instanceof Map)) {
+            failures[i] = new MalformedKeyException(NON_OBJECT_MSG);
+            return;
+        }
+        @SuppressWarnings("unchecked") Map<String, ?> jwkData = (Map<String, ?>) element;
+        try {
+            Jwk<?> jwk = build(jwkData);
+            jwk.thumbprint(); // memoized, so computing it here parallelizes the JwkSet's thumbprint indexing as well
+            jwks[i] = jwk;
+        } catch (UnsupportedKeyException ignored) {
+            // JWKs with unsupported key types are ignored per https://www.rfc-editor.org/rfc/rfc7517.html#section-5
+        } catch (KeyException e) {
+            failures[i] = e;
+        } catch (RuntimeException e) { // e.g. invalid JWK parameter values, so only this JWK fails, not the whole set
+            String msg = "Invalid JWK: " + e.getMessage();
+            failures[i] = new MalformedKeyException(msg, e);
+        }
+    }
+
+    /**
+     * Materializes a range of JWK Set elements, recursively splitting the range in half until it is no larger than
+     * {@link #BATCH_SIZE}.  Each task writes only to its own range of the result arrays, and
+     * {@link ForkJoinPool#invoke} guarantees the writes are visible to the caller once all tasks complete.
+     */
+    private final class MaterializeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<?> elements;
+        private final Jwk<?>[] jwks;
+        private final KeyException[] failures;
+        private final int from;
+        private final int to;
+
+        private MaterializeTask(List<?> elements, Jwk<?>[] jwks, KeyException[] failures, int from, int to) {
+            this.elements = elements;
+            this.jwks = jwks;
+            this.failures = failures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= BATCH_SIZE) {
+                for (int i = this.from; i < this.to; i++) {
+                    materialize(this.elements, this.jwks, this.failures, i);
+                }
+                return;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(new MaterializeTask(this.elements, this.jwks, this.failures, this.from, mid),
+                    new MaterializeTask(this.elements, this.jwks, this.failures, mid, this.to));
+        }
+    }
 }
@@ -15,6 +15,7 @@
  */
 package io.jsonwebtoken.impl.security;
 
+import io.jsonwebtoken.impl.io.SimpleJsonDeserializer;
 import io.jsonwebtoken.impl.lang.Services;
 import io.jsonwebtoken.io.Deserializer;
 import io.jsonwebtoken.security.JwkParser;
@@ -22,6 +23,7 @@ import io.jsonwebtoken.security.JwkParserBuilder;
 
 import java.security.Provider;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 @SuppressWarnings("unused") //used via reflection by Jwks.parser()
 public class DefaultJwkParserBuilder implements JwkParserBuilder {
@@ -30,6 +32,10 @@ public class DefaultJwkParserBuilder implements JwkParserBuilder {
 
     private Deserializer<Map<String,?>> deserializer;
 
+    private boolean intern;
+
+    private ForkJoinPool pool;
+
     @Override
     public JwkParserBuilder setProvider(Provider provider) {
         this.provider = provider;
@@ -42,14 +48,27 @@ public class DefaultJwkParserBuilder implements JwkParserBuilder {
         return this;
     }
 
+    @Override
+    public JwkParserBuilder internPublicJwks(boolean intern) {
+        this.intern = intern;
+        return this;
+    }
+
+    @Override
+    public JwkParserBuilder setForkJoinPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
     @Override
     public JwkParser build() {
         if (this.deserializer == null) {
-            // try to find one based on the services available:
+            // try to find one based on the services available, or use the built-in one if there are none:
             //noinspection unchecked
-            this.deserializer = Services.loadFirst(Deserializer.class);
+            this.deserializer = Services.loadFirst(Deserializer.class, SimpleJsonDeserializer.SUPPLIER);
         }
 
-        return new DefaultJwkParser(this.provider, this.deserializer);
+        JwkInterner interner = this.intern ? JwkInterner.INSTANCE : null;
+        return new DefaultJwkParser(this.provider, this.deserializer, interner, this.pool);
     }
 }
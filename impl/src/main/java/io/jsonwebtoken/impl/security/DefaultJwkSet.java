@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+import io.jsonwebtoken.lang.Objects;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+
+import java.security.Key;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default {@link JwkSet} implementation that indexes its JWKs once during construction so that all lookups are
+ * constant-time.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultJwkSet implements JwkSet {
+
+    static final String KEYS = "keys";
+
+    private final List<Jwk<?>> keys;
+
+    private final Map<String, List<Jwk<?>>> byKeyId;
+
+    private final Map<String, Jwk<?>> byThumbprint;
+
+    private final Map<Criteria, List<Jwk<?>>> byCriteria;
+
+    private final Set<String> types;
+
+    private final Locator<Key> locator;
+
+    public DefaultJwkSet(List<? extends Jwk<?>> keys) {
+        Assert.notNull(keys, "JWK list cannot be null.");
+        Map<String, List<Jwk<?>>> byKeyId = new LinkedHashMap<>();
+        Map<String, Jwk<?>> byThumbprint = new LinkedHashMap<>();
+        Map<Criteria, List<Jwk<?>>> byCriteria = new LinkedHashMap<>();
+        Set<String> types = new LinkedHashSet<>();
+
+        List<Jwk<?>> list = new ArrayList<>(keys.size());
+        for (Jwk<?> jwk : keys) {
+            Assert.notNull(jwk, "JWK Set may not contain null JWKs.");
+            list.add(jwk);
+            String kid = jwk.getId();
+            if (kid != null) {
+                add(byKeyId, kid, jwk);
+            }
+            String thumbprint = jwk.thumbprint().toString();
+            if (!byThumbprint.containsKey(thumbprint)) { // first one wins, as with document order elsewhere
+                byThumbprint.put(thumbprint, jwk);
+            }
+            add(byCriteria, new Criteria(jwk.getType(), jwk.getAlgorithm(), use(jwk)), jwk);
+            types.add(jwk.getType());
+        }
+
+        this.keys = Collections.immutable(list);
+        this.byKeyId = immutable(byKeyId);
+        this.byThumbprint = Collections.immutable(byThumbprint);
+        this.byCriteria = immutable(byCriteria);
+        this.types = Collections.immutable(types);
+        this.locator = new JwkSetKeyLocator(this);
+    }
+
+    private static <K> void add(Map<K, List<Jwk<?>>> index, K key, Jwk<?> jwk) {
+        List<Jwk<?>> list = index.get(key);
+        if (list == null) {
+            list = new ArrayList<>(1);
+            index.put(key, list);
+        }
+        list.add(jwk);
+    }
+
+    private static <K> Map<K, List<Jwk<?>>> immutable(Map<K, List<Jwk<?>>> index) {
+        for (Map.Entry<K, List<Jwk<?>>> entry : index.entrySet()) {
+            entry.setValue(Collections.immutable(entry.getValue()));
+        }
+        return Collections.immutable(index);
+    }
+
+    static String use(Jwk<?> jwk) {
+        Object use = jwk.get(AbstractAsymmetricJwk.USE.getId());
+        return use != null ? String.valueOf(use) : null;
+    }
+
+    Set<String> getTypes() {
+        return this.types;
+    }
+
+    @Override
+    public List<Jwk<?>> getKeys() {
+        return this.keys;
+    }
+
+    @Override
+    public Iterator<Jwk<?>> iterator() {
+        return this.keys.iterator();
+    }
+
+    @Override
+    public List<Jwk<?>> findByKeyId(String kid) {
+        List<Jwk<?>> found = kid != null ? this.byKeyId.get(kid) : null;
+        return found != null ? found : Collections.<Jwk<?>>emptyList();
+    }
+
+    @Override
+    public Jwk<?> findByThumbprint(String thumbprint) {
+        return thumbprint != null ? this.byThumbprint.get(thumbprint) : null;
+    }
+
+    @Override
+    public List<Jwk<?>> find(String kty, String alg, String use) {
+        List<Jwk<?>> found = this.byCriteria.get(new Criteria(kty, alg, use));
+        return found != null ? found : Collections.<Jwk<?>>emptyList();
+    }
+
+    @Override
+    public Locator<Key> toKeyLocator() {
+        return this.locator;
+    }
+
+    @Override
+    public String toString() {
+        return "JwkSet{" + KEYS + "=" + this.keys + "}";
+    }
+
+    private static final class Criteria {
+
+        private final String kty;
+        private final String alg;
+        private final String use;
+        private final int hashCode;
+
+        private Criteria(String kty, String alg, String use) {
+            this.kty = kty;
+            this.alg = alg;
+            this.use = use;
+            this.hashCode = Objects.nullSafeHashCode(kty, alg, use);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Criteria)) {
+                return false;
+            }
+            Criteria other = (Criteria) obj;
+            return Objects.nullSafeEquals(this.kty, other.kty) &&
+                    Objects.nullSafeEquals(this.alg, other.alg) &&
+                    Objects.nullSafeEquals(this.use, other.use);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.Clock;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.impl.DefaultClock;
+import io.jsonwebtoken.io.IOException;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Supplier;
+import io.jsonwebtoken.security.JwkParser;
+import io.jsonwebtoken.security.JwkSetLocatorBuilder;
+import io.jsonwebtoken.security.Jwks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("unused") //used via reflection by Jwks.locator()
+public class DefaultJwkSetLocatorBuilder implements JwkSetLocatorBuilder {
+
+    static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    static final long DEFAULT_REFRESH_AHEAD_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long DEFAULT_MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(5);
+    static final int DEFAULT_READ_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+    private Supplier<String> source;
+    private URL url; // a URL source is created on build() so that the timeouts may be set in any order
+    private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private int readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+    private JwkParser parser;
+    private long timeToLiveMillis = DEFAULT_TIME_TO_LIVE_MILLIS;
+    private long refreshAheadMillis = DEFAULT_REFRESH_AHEAD_MILLIS;
+    private long minRefreshIntervalMillis = DEFAULT_MIN_REFRESH_INTERVAL_MILLIS;
+    private Executor executor;
+    private Clock clock = DefaultClock.INSTANCE;
+
+    @Override
+    public JwkSetLocatorBuilder setSource(Supplier<String> source) {
+        this.source = Assert.notNull(source, "JWK Set source cannot be null.");
+        this.url = null;
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setSource(URL url) {
+        this.url = Assert.notNull(url, "JWK Set URL cannot be null.");
+        this.source = null;
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setConnectTimeout(long duration, TimeUnit unit) {
+        this.connectTimeoutMillis = toTimeoutMillis(duration, unit, "Connect");
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setReadTimeout(long duration, TimeUnit unit) {
+        this.readTimeoutMillis = toTimeoutMillis(duration, unit, "Read");
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setParser(JwkParser parser) {
+        this.parser = Assert.notNull(parser, "JwkParser cannot be null.");
+        return this;
+    }
+
+    private static long toMillis(long duration, TimeUnit unit) {
+        Assert.notNull(unit, "TimeUnit cannot be null.");
+        return unit.toMillis(duration);
+    }
+
+    private static int toTimeoutMillis(long duration, TimeUnit unit, String name) {
+        long millis = toMillis(duration, unit);
+        Assert.isTrue(millis >= 0 && millis <= Integer.MAX_VALUE, name + " timeout must be between zero and " +
+                Integer.MAX_VALUE + " milliseconds.");
+        return (int) millis;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setTimeToLive(long duration, TimeUnit unit) {
+        this.timeToLiveMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setRefreshAhead(long duration, TimeUnit unit) {
+        this.refreshAheadMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setMinRefreshInterval(long duration, TimeUnit unit) {
+        this.minRefreshIntervalMillis = toMillis(duration, unit);
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setExecutor(Executor executor) {
+        this.executor = Assert.notNull(executor, "Executor cannot be null.");
+        return this;
+    }
+
+    @Override
+    public JwkSetLocatorBuilder setClock(Clock clock) {
+        this.clock = Assert.notNull(clock, "Clock cannot be null.");
+        return this;
+    }
+
+    @Override
+    public Locator<Key> build() {
+        Supplier<String> source = this.url != null ?
+                new UrlSource(this.url, this.connectTimeoutMillis, this.readTimeoutMillis) : this.source;
+        Assert.stateNotNull(source, "A JWK Set source must be specified via setSource.");
+        JwkParser parser = this.parser != null ? this.parser : Jwks.parser().internPublicJwks(true).build();
+        Executor executor = this.executor != null ? this.executor : newDefaultExecutor();
+        CachingJwkSetLocator locator = new CachingJwkSetLocator(source, parser, this.timeToLiveMillis,
+                this.refreshAheadMillis, this.minRefreshIntervalMillis, executor, this.clock);
+        locator.refresh(); // initial asynchronous load
+        return locator;
+    }
+
+    // a single daemon thread that is only alive while loading (and shortly after):
+    private static Executor newDefaultExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "jjwt-jwks-loader");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class UrlSource implements Supplier<String> {
+
+        private final URL url;
+        private final int connectTimeoutMillis;
+        private final int readTimeoutMillis;
+
+        private UrlSource(URL url, int connectTimeoutMillis, int readTimeoutMillis) {
+            this.url = url;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        @Override
+        public String get() {
+            try (InputStream in = open()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buf = new byte[4096];
+                int len;
+                while ((len = in.read(buf)) != -1) {
+                    out.write(buf, 0, len);
+                }
+                return new String(out.toByteArray(), StandardCharsets.UTF_8);
+            } catch (java.io.IOException e) {
+                String msg = "Unable to read JWK Set from " + this.url + ": " + e.getMessage();
+                throw new IOException(msg, e);
+            }
+        }
+
+        private InputStream open() throws java.io.IOException {
+            URLConnection conn = this.url.openConnection();
+            conn.setConnectTimeout(this.connectTimeoutMillis);
+            conn.setReadTimeout(this.readTimeoutMillis);
+            return conn.getInputStream();
+        }
+    }
+}
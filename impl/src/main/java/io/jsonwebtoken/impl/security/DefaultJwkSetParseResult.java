@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.JwkSetParseResult;
+import io.jsonwebtoken.security.KeyException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Default {@link JwkSetParseResult} implementation.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class DefaultJwkSetParseResult implements JwkSetParseResult {
+
+    private final JwkSet jwkSet;
+
+    private final Map<Integer, KeyException> failures;
+
+    public DefaultJwkSetParseResult(JwkSet jwkSet, Map<Integer, KeyException> failures) {
+        this.jwkSet = Assert.notNull(jwkSet, "JwkSet cannot be null.");
+        Assert.notNull(failures, "Failures map cannot be null.");
+        this.failures = Collections.immutable(new LinkedHashMap<>(failures));
+    }
+
+    @Override
+    public JwkSet getJwkSet() {
+        return this.jwkSet;
+    }
+
+    @Override
+    public Map<Integer, KeyException> getFailures() {
+        return this.failures;
+    }
+}
@@ -159,7 +159,8 @@ public class DefaultMacAlgorithm extends AbstractSecureDigestAlgorithm<SecretKey
             @Override
             public byte[] apply(Mac mac) throws Exception {
                 mac.init(request.getKey());
-                return mac.doFinal(request.getPayload());
+                update(mac, request);
+                return mac.doFinal();
             }
         });
     }
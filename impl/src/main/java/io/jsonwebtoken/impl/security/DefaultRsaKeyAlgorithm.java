@@ -100,7 +100,8 @@ public class DefaultRsaKeyAlgorithm extends CryptoAlgorithm implements KeyAlgori
     @Override
     public SecretKey getDecryptionKey(DecryptionKeyRequest<PrivateKey> request) throws SecurityException {
         Assert.notNull(request, "request cannot be null.");
-        final PrivateKey kek = Assert.notNull(request.getKey(), "RSA PrivateKey decryption key cannot be null.");
+        final PrivateKey kek = Assert.notNull(KeysBridge.assertType(request, PrivateKey.class, getId()),
+                "RSA PrivateKey decryption key cannot be null.");
         validate(kek, false);
         final byte[] cekBytes = Assert.notEmpty(request.getPayload(), "Request content (encrypted key) cannot be null or empty.");
 
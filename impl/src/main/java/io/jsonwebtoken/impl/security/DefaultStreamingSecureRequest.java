@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.lang.Assert;
+
+import java.io.InputStream;
+import java.security.Key;
+import java.security.Provider;
+import java.security.SecureRandom;
+
+public class DefaultStreamingSecureRequest<K extends Key> extends DefaultSecureRequest<byte[], K> implements StreamingRequest {
+
+    private final InputStream stream;
+
+    public DefaultStreamingSecureRequest(byte[] payload, InputStream stream, Provider provider, SecureRandom secureRandom, K key) {
+        super(payload, provider, secureRandom, key);
+        this.stream = Assert.notNull(stream, "Payload stream cannot be null.");
+    }
+
+    @Override
+    protected void assertBytePayload(byte[] payload) {
+        // the stream provides the remaining payload bytes, so the byte array prefix may be empty:
+        Assert.notNull(payload, "payload byte array cannot be null.");
+    }
+
+    @Override
+    public InputStream getPayloadStream() {
+        return this.stream;
+    }
+}
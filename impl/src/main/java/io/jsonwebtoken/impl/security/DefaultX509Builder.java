@@ -18,6 +18,7 @@ package io.jsonwebtoken.impl.security;
 import io.jsonwebtoken.impl.lang.CheckedFunction;
 import io.jsonwebtoken.impl.lang.Function;
 import io.jsonwebtoken.impl.lang.Functions;
+import io.jsonwebtoken.impl.lang.LruCache;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.lang.Collections;
 import io.jsonwebtoken.lang.Objects;
@@ -34,6 +35,14 @@ import java.util.List;
 //Consolidates logic between AbstractProtectedHeaderBuilder and AbstractAsymmetricJwkBuilder
 public class DefaultX509Builder<B extends X509Builder<B>> implements X509Builder<B> {
 
+    static final int THUMBPRINT_CACHE_CAPACITY = 64;
+
+    // Certificates are usually long-lived and reused for many headers/JWKs, so avoid re-hashing them each time:
+    private static final LruCache<X509Certificate, byte[]> SHA1_THUMBPRINTS =
+            new LruCache<>(THUMBPRINT_CACHE_CAPACITY);
+    private static final LruCache<X509Certificate, byte[]> SHA256_THUMBPRINTS =
+            new LruCache<>(THUMBPRINT_CACHE_CAPACITY);
+
     private final X509Mutator<?> mutator;
 
     private final B builder;
@@ -104,6 +113,15 @@ public class DefaultX509Builder<B extends X509Builder<B>> implements X509Builder
         return this.builder;
     }
 
+    private byte[] thumbprint(X509Certificate cert, HashAlgorithm alg, LruCache<X509Certificate, byte[]> cache) {
+        byte[] thumbprint = cache.get(cert);
+        if (thumbprint == null) {
+            thumbprint = computeThumbprint(cert, alg);
+            cache.put(cert, thumbprint);
+        }
+        return thumbprint.clone(); // never share the cached array with a mutable header or JWK
+    }
+
     private byte[] computeThumbprint(final X509Certificate cert, HashAlgorithm alg) {
         byte[] encoded = GET_X509_BYTES.apply(cert);
         Request<byte[]> request = new DefaultRequest<>(encoded, null, null);
@@ -124,11 +142,11 @@ public class DefaultX509Builder<B extends X509Builder<B>> implements X509Builder
 
         if (firstCert != null) {
             if (computeX509Sha1Thumbprint) {
-                byte[] thumbprint = computeThumbprint(firstCert, DefaultHashAlgorithm.SHA1);
+                byte[] thumbprint = thumbprint(firstCert, DefaultHashAlgorithm.SHA1, SHA1_THUMBPRINTS);
                 setX509CertificateSha1Thumbprint(thumbprint);
             }
             if (computeX509Sha256Thumbprint) {
-                byte[] thumbprint = computeThumbprint(firstCert, StandardHashAlgorithms.get().SHA256);
+                byte[] thumbprint = thumbprint(firstCert, StandardHashAlgorithms.get().SHA256, SHA256_THUMBPRINTS);
                 setX509CertificateSha256Thumbprint(thumbprint);
             }
         }
@@ -46,6 +46,6 @@ public class DirectKeyAlgorithm implements KeyAlgorithm<SecretKey, SecretKey> {
     @Override
     public SecretKey getDecryptionKey(DecryptionKeyRequest<SecretKey> request) throws SecurityException {
         Assert.notNull(request, "request cannot be null.");
-        return Assert.notNull(request.getKey(), "Decryption key cannot be null.");
+        return Assert.notNull(KeysBridge.assertType(request, SecretKey.class, ID), "Decryption key cannot be null.");
     }
 }
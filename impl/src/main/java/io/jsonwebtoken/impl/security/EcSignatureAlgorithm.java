@@ -135,7 +135,7 @@ public class EcSignatureAlgorithm extends AbstractSignatureAlgorithm {
             @Override
             public byte[] apply(Signature sig) throws Exception {
                 sig.initSign(request.getKey());
-                sig.update(request.getPayload());
+                update(sig, request);
                 byte[] signature = sig.sign();
                 return transcodeDERToConcat(signature, signatureByteLength);
             }
@@ -195,7 +195,7 @@ public class EcSignatureAlgorithm extends AbstractSignatureAlgorithm {
                     }
 
                     sig.initVerify(key);
-                    sig.update(request.getPayload());
+                    update(sig, request);
                     return sig.verify(derSignature);
 
                 } catch (Exception e) {
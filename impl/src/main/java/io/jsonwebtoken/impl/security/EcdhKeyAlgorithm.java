@@ -236,7 +236,8 @@ class EcdhKeyAlgorithm extends CryptoAlgorithm implements KeyAlgorithm<PublicKey
 
         Assert.notNull(request, "Request cannot be null.");
         JweHeader header = Assert.notNull(request.getHeader(), "Request JweHeader cannot be null.");
-        PrivateKey privateKey = Assert.notNull(request.getKey(), "Decryption PrivateKey cannot be null.");
+        PrivateKey privateKey = Assert.notNull(KeysBridge.assertType(request, PrivateKey.class, getId()),
+                "Decryption PrivateKey cannot be null.");
         FieldReadable reader = new RequiredFieldReader(header);
         PublicJwk<?> epk = reader.get(DefaultJweHeader.EPK);
 
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.security.AeadAlgorithm;
+import io.jsonwebtoken.security.AeadRequest;
+import io.jsonwebtoken.security.AeadResult;
+import io.jsonwebtoken.security.DecryptAeadRequest;
+import io.jsonwebtoken.security.Message;
+import io.jsonwebtoken.security.SecretKeyBuilder;
+import io.jsonwebtoken.security.SecurityException;
+
+import javax.crypto.SecretKey;
+import java.security.Provider;
+import java.security.SecureRandom;
+
+/**
+ * An {@link AeadAlgorithm} that delegates to another {@code AeadAlgorithm} for all operations, except that its
+ * {@link #keyBuilder() keyBuilder} always produces the same, previously generated content encryption key (CEK).
+ *
+ * <p>This allows multiple {@link io.jsonwebtoken.security.KeyAlgorithm KeyAlgorithm}s to wrap the exact same CEK
+ * when producing a JWE with multiple recipients, since key management algorithms always obtain new CEKs via
+ * the request's encryption algorithm {@code keyBuilder()}.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public final class FixedKeyAeadAlgorithm implements AeadAlgorithm {
+
+    private final AeadAlgorithm delegate;
+
+    private final SecretKey key;
+
+    public FixedKeyAeadAlgorithm(AeadAlgorithm delegate, SecretKey key) {
+        this.delegate = Assert.notNull(delegate, "Delegate AeadAlgorithm cannot be null.");
+        this.key = Assert.notNull(key, "SecretKey cannot be null.");
+    }
+
+    public SecretKey getKey() {
+        return this.key;
+    }
+
+    @Override
+    public String getId() {
+        return this.delegate.getId();
+    }
+
+    @Override
+    public int getKeyBitLength() {
+        return this.delegate.getKeyBitLength();
+    }
+
+    @Override
+    public SecretKeyBuilder keyBuilder() {
+        return new SecretKeyBuilder() {
+            @Override
+            public SecretKeyBuilder setProvider(Provider provider) {
+                return this;
+            }
+
+            @Override
+            public SecretKeyBuilder setRandom(SecureRandom random) {
+                return this;
+            }
+
+            @Override
+            public SecretKey build() {
+                return key;
+            }
+        };
+    }
+
+    @Override
+    public AeadResult encrypt(AeadRequest request) throws SecurityException {
+        return this.delegate.encrypt(request);
+    }
+
+    @Override
+    public Message<byte[]> decrypt(DecryptAeadRequest request) throws SecurityException {
+        return this.delegate.decrypt(request);
+    }
+
+    @Override
+    public String toString() {
+        return this.delegate.toString();
+    }
+}
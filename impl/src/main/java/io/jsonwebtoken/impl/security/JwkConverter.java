@@ -16,6 +16,7 @@
 package io.jsonwebtoken.impl.security;
 
 import io.jsonwebtoken.impl.lang.Converter;
+import io.jsonwebtoken.impl.lang.LruCache;
 import io.jsonwebtoken.impl.lang.Nameable;
 import io.jsonwebtoken.lang.Assert;
 import io.jsonwebtoken.security.EcPrivateJwk;
@@ -31,6 +32,7 @@ import io.jsonwebtoken.security.RsaPrivateJwk;
 import io.jsonwebtoken.security.RsaPublicJwk;
 import io.jsonwebtoken.security.SecretJwk;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static io.jsonwebtoken.lang.Strings.nespace;
@@ -38,12 +40,33 @@ import static io.jsonwebtoken.lang.Strings.nespace;
 public final class JwkConverter<T extends Jwk<?>> implements Converter<T, Object> {
 
     @SuppressWarnings("unchecked")
-    public static final JwkConverter<PublicJwk<?>> PUBLIC_JWK = new JwkConverter<>((Class<PublicJwk<?>>) (Class<?>) PublicJwk.class);
+    private static final Class<PublicJwk<?>> PUBLIC_JWK_CLASS = (Class<PublicJwk<?>>) (Class<?>) PublicJwk.class;
+
+    public static final JwkConverter<PublicJwk<?>> PUBLIC_JWK = new JwkConverter<>(PUBLIC_JWK_CLASS);
+
+    /**
+     * Maximum number of JWE {@code epk} (Ephemeral Public Key) JWKs retained by {@link #EPHEMERAL_PUBLIC_JWK}.
+     */
+    static final int EPK_CACHE_CAPACITY = 256;
+
+    /**
+     * Converter for JWE {@code epk} header values that retains recently materialized JWKs so that replayed or retried
+     * JWEs with the same {@code epk} do not repeat curve point validation and {@code KeyFactory} key generation.
+     */
+    public static final JwkConverter<PublicJwk<?>> EPHEMERAL_PUBLIC_JWK =
+            new JwkConverter<>(PUBLIC_JWK_CLASS, new LruCache<Map<String, String>, PublicJwk<?>>(EPK_CACHE_CAPACITY));
 
     private final Class<T> desiredType;
 
+    private final LruCache<Map<String, String>, T> cache; // null if caching is disabled
+
     public JwkConverter(Class<T> desiredType) {
+        this(desiredType, null);
+    }
+
+    JwkConverter(Class<T> desiredType, LruCache<Map<String, String>, T> cache) {
         this.desiredType = Assert.notNull(desiredType, "desiredType cannot be null.");
+        this.cache = cache;
     }
 
     @Override
@@ -111,6 +134,15 @@ public final class JwkConverter<T extends Jwk<?>> implements Converter<T, Object
             throw new IllegalArgumentException(msg);
         }
         Map<?, ?> map = (Map<?, ?>) o;
+
+        final Map<String, String> cacheKey = this.cache != null ? toCacheKey(map) : null;
+        if (cacheKey != null) {
+            T cached = this.cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         JwkBuilder<?, ?, ?> builder = Jwks.builder();
         for (Map.Entry<?, ?> entry : map.entrySet()) {
             Object key = entry.getKey();
@@ -126,8 +158,33 @@ public final class JwkConverter<T extends Jwk<?>> implements Converter<T, Object
 
         Jwk<?> jwk = builder.build();
         if (desiredType.isInstance(jwk)) {
-            return desiredType.cast(jwk);
+            T result = desiredType.cast(jwk);
+            if (cacheKey != null) {
+                this.cache.put(cacheKey, result);
+            }
+            return result;
         }
         throw unexpectedIAE(jwk);
     }
+
+    /**
+     * Returns an immutable copy of the specified JWK map suitable for use as a cache key, or {@code null} if the map
+     * has any non-String member names or values.  Standard public JWK members are always Strings, so anything else
+     * (e.g. a {@code key_ops} list that could be modified later) is simply not cached.
+     *
+     * @param map the JWK map to copy
+     * @return an immutable copy of the map suitable for use as a cache key, or {@code null} if it cannot be cached.
+     */
+    private static Map<String, String> toCacheKey(Map<?, ?> map) {
+        Map<String, String> key = new LinkedHashMap<>(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object name = entry.getKey();
+            Object value = entry.getValue();
+            if (!(name instanceof String) || !(value instanceof String)) {
+                return null;
+            }
+            key.put((String) name, (String) value);
+        }
+        return java.util.Collections.unmodifiableMap(key);
+    }
 }
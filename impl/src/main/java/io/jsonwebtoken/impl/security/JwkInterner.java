@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.impl.lang.Field;
+import io.jsonwebtoken.impl.lang.LruCache;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Collections;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A process-wide, size-bounded cache of public JWKs keyed by their RFC 7638 JWK thumbprint, computed directly from
+ * the JWK JSON member values.  This allows the same public key to be materialized only once, regardless of how often
+ * it is parsed (e.g. each time a JWK Set is reloaded).
+ *
+ * <p>Only public RSA, EC and OKP JWKs that contain nothing but standard public JWK members are interned - private
+ * and secret keys are never retained.  If a JWK exactly matches a cached one, the cached (immutable) {@code Jwk} is
+ * returned.  If only its metadata differs (e.g. a different {@code kid} or {@code alg}), a new {@code Jwk} is created
+ * for the already-materialized {@code PublicKey}, avoiding key decoding, validation and {@code KeyFactory}
+ * overhead.</p>
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+final class JwkInterner {
+
+    static final int DEFAULT_CAPACITY = 512;
+
+    static final JwkInterner INSTANCE = new JwkInterner(DEFAULT_CAPACITY);
+
+    private static final Map<String, Family> FAMILIES = families();
+
+    private static Map<String, Family> families() {
+        Map<String, Family> families = new LinkedHashMap<>(3);
+        families.put(DefaultRsaPublicJwk.TYPE_VALUE,
+                new Family(DefaultRsaPublicJwk.FIELDS, DefaultRsaPublicJwk.THUMBPRINT_FIELDS));
+        families.put(DefaultEcPublicJwk.TYPE_VALUE,
+                new Family(DefaultEcPublicJwk.FIELDS, DefaultEcPublicJwk.THUMBPRINT_FIELDS));
+        families.put(DefaultOctetPublicJwk.TYPE_VALUE,
+                new Family(DefaultOctetPublicJwk.FIELDS, DefaultOctetPublicJwk.THUMBPRINT_FIELDS));
+        return java.util.Collections.unmodifiableMap(families);
+    }
+
+    private final LruCache<String, Entry> cache;
+
+    JwkInterner(int capacity) {
+        this.cache = new LruCache<>(capacity);
+    }
+
+    /**
+     * Returns the canonical thumbprint of the specified JWK values if they represent an internable public JWK, or
+     * {@code null} otherwise.
+     *
+     * @param data the JWK JSON members
+     * @return the canonical thumbprint of the JWK values, or {@code null} if the JWK cannot be interned.
+     */
+    static String thumbprint(Map<String, ?> data) {
+        Object kty = data.get(AbstractJwk.KTY.getId());
+        Family family = kty instanceof String ? FAMILIES.get(kty) : null;
+        if (family == null || !family.ids.containsAll(data.keySet())) {
+            return null; // not a public JWK, or has members we can't vouch for
+        }
+        StringBuilder sb = new StringBuilder().append('{');
+        Iterator<Field<?>> i = family.thumbprintFields.iterator();
+        while (i.hasNext()) {
+            String id = i.next().getId();
+            Object value = data.get(id);
+            if (!(value instanceof String)) {
+                return null; // let the JWK factories report the error
+            }
+            sb.append('"').append(id).append("\":\"").append(value).append('"');
+            if (i.hasNext()) {
+                sb.append(',');
+            }
+        }
+        sb.append('}');
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] digest = Jwks.HASH.SHA256.digest(new DefaultRequest<>(bytes, null, null));
+        return Encoders.BASE64URL.encode(digest);
+    }
+
+    /**
+     * Returns the interned {@code Jwk} for the specified JWK JSON members, creating and caching it if necessary.
+     *
+     * @param data the JWK JSON members
+     * @return the interned {@code Jwk} for the specified values.
+     */
+    Jwk<?> intern(Map<String, ?> data) {
+        Assert.notNull(data, "JWK data cannot be null.");
+        String thumbprint = thumbprint(data);
+        if (thumbprint == null) {
+            return Jwks.builder().putAll(data).build();
+        }
+
+        Entry entry = this.cache.get(thumbprint);
+        if (entry != null && entry.data.equals(data)) {
+            return entry.jwk;
+        }
+
+        Jwk<?> jwk;
+        if (entry != null) { // same key, different metadata:
+            PublicKey key = (PublicKey) entry.jwk.toKey();
+            jwk = Jwks.builder().forKey(key).putAll(data).build();
+        } else {
+            jwk = Jwks.builder().putAll(data).build();
+        }
+
+        Map<String, ?> copy = Collections.immutable(new LinkedHashMap<>(data));
+        this.cache.put(thumbprint, new Entry(copy, jwk));
+        return jwk;
+    }
+
+    int size() {
+        return this.cache.size();
+    }
+
+    void clear() {
+        this.cache.clear();
+    }
+
+    private static final class Family {
+
+        private final Set<String> ids;
+        private final List<Field<?>> thumbprintFields;
+
+        private Family(Set<Field<?>> fields, List<Field<?>> thumbprintFields) {
+            Set<String> ids = new LinkedHashSet<>(fields.size());
+            for (Field<?> field : fields) {
+                ids.add(field.getId());
+            }
+            this.ids = java.util.Collections.unmodifiableSet(ids);
+            this.thumbprintFields = thumbprintFields;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Map<String, ?> data;
+        private final Jwk<?> jwk;
+
+        private Entry(Map<String, ?> data, Jwk<?> jwk) {
+            this.data = data;
+            this.jwk = jwk;
+        }
+    }
+}
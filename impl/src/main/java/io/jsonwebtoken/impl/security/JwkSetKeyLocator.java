@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.JweHeader;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.lang.Strings;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.security.Key;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A {@link io.jsonwebtoken.Locator Locator} that resolves JWS signature verification keys and JWE decryption keys
+ * from a {@link DefaultJwkSet} using the set's indexes.  See {@link io.jsonwebtoken.security.JwkSet#toKeyLocator()}
+ * for the matching rules.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public class JwkSetKeyLocator extends LocatorAdapter<Key> {
+
+    static final String SIG_USE = "sig";
+    static final String ENC_USE = "enc";
+
+    private final DefaultJwkSet jwks;
+
+    // public keys for any private JWKs, computed once so JWS verification never re-derives them:
+    private final Map<Jwk<?>, Key> publicKeys = new IdentityHashMap<>();
+
+    public JwkSetKeyLocator(DefaultJwkSet jwks) {
+        this.jwks = Assert.notNull(jwks, "JwkSet cannot be null.");
+        for (Jwk<?> jwk : jwks) {
+            if (jwk instanceof PrivateJwk) {
+                this.publicKeys.put(jwk, ((PrivateJwk<?, ?, ?>) jwk).toPublicJwk().toKey());
+            }
+        }
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        Jwk<?> jwk = find(header, SIG_USE, false);
+        if (jwk == null) {
+            return null;
+        }
+        Key key = this.publicKeys.get(jwk);
+        return key != null ? key : jwk.toKey();
+    }
+
+    @Override
+    protected Key locate(JweHeader header) {
+        Jwk<?> jwk = find(header, ENC_USE, true);
+        return jwk != null ? jwk.toKey() : null;
+    }
+
+    private Jwk<?> find(ProtectedHeader<?> header, String use, boolean decrypt) {
+        final String alg = header.getAlgorithm();
+        final String kid = header.getKeyId();
+        if (Strings.hasText(kid)) {
+            for (Jwk<?> jwk : this.jwks.findByKeyId(kid)) {
+                if (matches(jwk, alg, use, decrypt)) {
+                    return jwk;
+                }
+            }
+            // the kid is often the key's RFC 7638 thumbprint:
+            Jwk<?> jwk = this.jwks.findByThumbprint(kid);
+            return jwk != null && matches(jwk, alg, use, decrypt) ? jwk : null;
+        }
+
+        // no kid, so the alg must identify exactly one key:
+        Jwk<?> found = null;
+        for (String kty : this.jwks.getTypes()) {
+            for (String jwkUse : new String[]{use, null}) {
+                for (Jwk<?> jwk : this.jwks.find(kty, alg, jwkUse)) {
+                    if (matches(jwk, alg, use, decrypt)) {
+                        if (found != null) { // ambiguous
+                            return null;
+                        }
+                        found = jwk;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean matches(Jwk<?> jwk, String alg, String use, boolean decrypt) {
+        if (decrypt && jwk instanceof PublicJwk) { // public keys can't decrypt
+            return false;
+        }
+        String jwkAlg = jwk.getAlgorithm();
+        if (jwkAlg != null && !jwkAlg.equals(alg)) {
+            return false;
+        }
+        String jwkUse = DefaultJwkSet.use(jwk);
+        return jwkUse == null || jwkUse.equals(use);
+    }
+}
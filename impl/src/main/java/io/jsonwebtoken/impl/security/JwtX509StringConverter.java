@@ -16,10 +16,12 @@
 package io.jsonwebtoken.impl.security;
 
 import io.jsonwebtoken.impl.lang.Converter;
+import io.jsonwebtoken.impl.lang.LruCache;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.lang.Arrays;
 import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.security.Jwks;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -32,6 +34,14 @@ public class JwtX509StringConverter implements Converter<X509Certificate, String
 
     public static final JwtX509StringConverter INSTANCE = new JwtX509StringConverter();
 
+    static final int CERTIFICATE_CACHE_CAPACITY = 128;
+
+    // The same certificates (e.g. an issuer's x5c chain) are typically seen in every token, so we avoid re-parsing
+    // them by caching parsed certificates keyed by the SHA-256 digest of their DER encoding:
+    private final LruCache<String, X509Certificate> certificates = new LruCache<>(CERTIFICATE_CACHE_CAPACITY);
+
+    private volatile CertificateFactory certificateFactory; // lazily created, reused for all cache misses
+
     // Returns a Base64 encoded (NOT Base64Url encoded) string of the cert's encoded byte array per
     // https://www.rfc-editor.org/rfc/rfc7515.html#section-4.1.6
     // https://www.rfc-editor.org/rfc/rfc7516.html#section-4.1.8
@@ -59,14 +69,36 @@ public class JwtX509StringConverter implements Converter<X509Certificate, String
         return CertificateFactory.getInstance("X.509");
     }
 
+    private CertificateFactory getCertificateFactory() throws CertificateException {
+        CertificateFactory cf = this.certificateFactory;
+        if (cf == null) { // benign race: at worst, a few threads create their own instance initially
+            cf = newCertificateFactory();
+            this.certificateFactory = cf;
+        }
+        return cf;
+    }
+
+    private X509Certificate generateCertificate(byte[] der) throws CertificateException {
+        CertificateFactory cf = getCertificateFactory();
+        InputStream stream = new ByteArrayInputStream(der);
+        synchronized (cf) { // CertificateFactory instances aren't guaranteed to be thread-safe
+            return (X509Certificate) cf.generateCertificate(stream);
+        }
+    }
+
     @Override
     public X509Certificate applyFrom(String s) {
         Assert.hasText(s, "X.509 Certificate encoded string cannot be null or empty.");
         try {
             byte[] der = Decoders.BASE64.decode(s); //RFC requires Base64, not Base64Url
-            CertificateFactory cf = newCertificateFactory();
-            InputStream stream = new ByteArrayInputStream(der);
-            return (X509Certificate) cf.generateCertificate(stream);
+            byte[] digest = Jwks.HASH.SHA256.digest(new DefaultRequest<>(der, null, null));
+            String id = Encoders.BASE64URL.encode(digest);
+            X509Certificate cert = this.certificates.get(id);
+            if (cert == null) {
+                cert = generateCertificate(der);
+                this.certificates.put(id, cert);
+            }
+            return cert;
         } catch (Exception e) {
             String msg = "Unable to convert Base64 String '" + s + "' to X509Certificate instance. Cause: " + e.getMessage();
             throw new IllegalArgumentException(msg, e);
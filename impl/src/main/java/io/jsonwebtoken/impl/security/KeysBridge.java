@@ -17,6 +17,8 @@ package io.jsonwebtoken.impl.security;
 
 import io.jsonwebtoken.impl.lang.Bytes;
 import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.KeySupplier;
 import io.jsonwebtoken.security.Password;
 import io.jsonwebtoken.security.UnsupportedKeyException;
 
@@ -54,6 +56,26 @@ public final class KeysBridge {
         return encoded;
     }
 
+    /**
+     * Returns the supplied key as the specified type, or {@code null} if there is no key.  A key of any other type
+     * is rejected with an {@link InvalidKeyException} rather than failing later with a {@code ClassCastException}.
+     *
+     * @param supplier the key supplier, usually a request
+     * @param type     the type of key required by the algorithm
+     * @param algId    the id of the algorithm, used in the exception message
+     * @param <K>      the type of key required by the algorithm
+     * @return the supplied key as the specified type, or {@code null} if there is no key.
+     */
+    public static <K extends Key> K assertType(KeySupplier<?> supplier, Class<K> type, String algId) {
+        Key key = Assert.notNull(supplier, "KeySupplier cannot be null.").getKey();
+        if (key != null && !type.isInstance(key)) {
+            String msg = "The '" + algId + "' algorithm requires a " + type.getName() + " key, but the " +
+                    "provided key is a " + key.getClass().getName() + " instance.";
+            throw new InvalidKeyException(msg);
+        }
+        return type.cast(key);
+    }
+
     public static String toString(Key key) {
         if (key == null) {
             return "null";
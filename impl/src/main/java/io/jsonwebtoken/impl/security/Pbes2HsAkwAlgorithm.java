@@ -192,7 +192,8 @@ public class Pbes2HsAkwAlgorithm extends CryptoAlgorithm implements KeyAlgorithm
     public SecretKey getDecryptionKey(DecryptionKeyRequest<Password> request) throws SecurityException {
 
         JweHeader header = Assert.notNull(request.getHeader(), "Request JweHeader cannot be null.");
-        final Password key = Assert.notNull(request.getKey(), "Decryption Password cannot be null.");
+        final Password key = Assert.notNull(KeysBridge.assertType(request, Password.class, getId()),
+                "Decryption Password cannot be null.");
         FieldReadable reader = new RequiredFieldReader(header);
         final byte[] inputSalt = reader.get(DefaultJweHeader.P2S);
         final int iterations = reader.get(DefaultJweHeader.P2C);
@@ -52,6 +52,12 @@ class RsaPrivateJwkFactory extends AbstractFamilyJwkFactory<RSAPrivateKey, RsaPr
             DefaultRsaPrivateJwk.FIRST_CRT_COEFFICIENT
     );
 
+    // Each attempt succeeds with a probability of at least 1/2 for a valid key, so this is effectively never reached
+    // unless the (n, e, d) values are inconsistent:
+    private static final int MAX_FACTORING_ATTEMPTS = 100;
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
     private static final String PUBKEY_ERR_MSG = "JwkContext publicKey must be an " + RSAPublicKey.class.getName() + " instance.";
 
     RsaPrivateJwkFactory() {
@@ -204,7 +210,12 @@ class RsaPrivateJwkFactory extends AbstractFamilyJwkFactory<RSAPrivateKey, RsaPr
                         firstCrtExponent, secondCrtExponent, firstCrtCoefficient);
             }
         } else {
-            spec = new RSAPrivateKeySpec(modulus, privateExponent);
+            // Private keys without CRT values are 3-4 times slower for every private key operation, so recover the
+            // primes if possible.  If not, fall back to the (slower) non-CRT representation:
+            spec = deriveCrtSpec(modulus, publicExponent, privateExponent);
+            if (spec == null) {
+                spec = new RSAPrivateKeySpec(modulus, privateExponent);
+            }
         }
 
         RSAPrivateKey key = generateFromSpec(ctx, spec);
@@ -213,6 +224,81 @@ class RsaPrivateJwkFactory extends AbstractFamilyJwkFactory<RSAPrivateKey, RsaPr
         return new DefaultRsaPrivateJwk(ctx, pubJwk);
     }
 
+    /**
+     * Recovers the prime factors of the modulus {@code n} from the public and private exponents, and returns the
+     * equivalent {@link RSAPrivateCrtKeySpec}, or {@code null} if the primes could not be recovered.  This is the
+     * probabilistic algorithm described in
+     * <a href="https://nvlpubs.nist.gov/nistpubs/SpecialPublications/NIST.SP.800-56Br2.pdf">NIST SP 800-56B
+     * Rev. 2, Appendix C.2</a>: since {@code k = d*e - 1} is a multiple of {@code lcm(p-1, q-1)}, a nontrivial
+     * square root of 1 modulo {@code n} (which reveals a factor) can be found from {@code g^(k/2^i)} for almost
+     * half of all {@code g}.
+     *
+     * @param n the modulus
+     * @param e the public exponent
+     * @param d the private exponent
+     * @return the equivalent {@link RSAPrivateCrtKeySpec}, or {@code null} if the primes could not be recovered.
+     */
+    static RSAPrivateCrtKeySpec deriveCrtSpec(BigInteger n, BigInteger e, BigInteger d) {
+        if (n.signum() <= 0 || !n.testBit(0) || e.signum() <= 0 || d.signum() <= 0) {
+            return null;
+        }
+        BigInteger k = d.multiply(e).subtract(BigInteger.ONE);
+        if (k.signum() <= 0 || k.testBit(0)) { // k must be even
+            return null;
+        }
+        if (!TWO.modPow(k, n).equals(BigInteger.ONE)) { // d is not an inverse of e, no g can reveal a factor
+            return null;
+        }
+        int t = k.getLowestSetBit();
+        BigInteger r = k.shiftRight(t); // k = 2^t * r, r odd
+        BigInteger nMinusOne = n.subtract(BigInteger.ONE);
+
+        BigInteger p = null;
+        BigInteger g = TWO;
+        for (int attempt = 0; p == null && attempt < MAX_FACTORING_ATTEMPTS; attempt++, g = g.add(BigInteger.ONE)) {
+            BigInteger y = g.modPow(r, n);
+            if (y.equals(BigInteger.ONE) || y.equals(nMinusOne)) {
+                continue; // this g doesn't help, try the next one
+            }
+            for (int i = 1; i <= t; i++) {
+                BigInteger x = y.modPow(TWO, n);
+                if (x.equals(BigInteger.ONE)) { // y is a nontrivial square root of 1 mod n
+                    p = y.subtract(BigInteger.ONE).gcd(n);
+                    break;
+                }
+                if (x.equals(nMinusOne)) {
+                    break;
+                }
+                y = x;
+            }
+        }
+        if (p == null || p.equals(BigInteger.ONE) || p.equals(n)) {
+            return null;
+        }
+        BigInteger q = n.divide(p);
+        if (p.compareTo(q) < 0) { // conventionally p > q
+            BigInteger tmp = p;
+            p = q;
+            q = tmp;
+        }
+
+        // verify before trusting the result:
+        if (p.equals(q) || !p.multiply(q).equals(n)) {
+            return null;
+        }
+        BigInteger pMinusOne = p.subtract(BigInteger.ONE);
+        BigInteger qMinusOne = q.subtract(BigInteger.ONE);
+        BigInteger lambda = pMinusOne.divide(pMinusOne.gcd(qMinusOne)).multiply(qMinusOne);
+        if (!d.multiply(e).mod(lambda).equals(BigInteger.ONE)) {
+            return null;
+        }
+
+        BigInteger dp = d.mod(pMinusOne);
+        BigInteger dq = d.mod(qMinusOne);
+        BigInteger qi = q.modInverse(p);
+        return new RSAPrivateCrtKeySpec(n, e, d, p, q, dp, dq, qi);
+    }
+
     protected RSAPrivateKey generateFromSpec(JwkContext<RSAPrivateKey> ctx, final KeySpec keySpec) {
         return generateKey(ctx, new CheckedFunction<KeyFactory, RSAPrivateKey>() {
             @Override
@@ -122,7 +122,7 @@ public class RsaSignatureAlgorithm extends AbstractSignatureAlgorithm {
                     sig.setParameter(algorithmParameterSpec);
                 }
                 sig.initSign(request.getKey());
-                sig.update(request.getPayload());
+                update(sig, request);
                 return sig.sign();
             }
         });
@@ -141,7 +141,7 @@ public class RsaSignatureAlgorithm extends AbstractSignatureAlgorithm {
                     sig.setParameter(algorithmParameterSpec);
                 }
                 sig.initVerify(request.getKey());
-                sig.update(request.getPayload());
+                update(sig, request);
                 return sig.verify(request.getDigest());
             }
         });
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import java.io.InputStream;
+
+/**
+ * A {@link io.jsonwebtoken.security.Request Request} whose {@link io.jsonwebtoken.security.Message#getPayload() payload}
+ * byte array is only the first part of the data to process, with the remainder read from an {@link InputStream} so
+ * that it never needs to be held in memory.  This allows, for example, JWS signatures over large
+ * <a href="https://www.rfc-editor.org/rfc/rfc7797.html">unencoded payloads</a> to be computed and verified with
+ * constant memory.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public interface StreamingRequest {
+
+    /**
+     * Returns the stream of bytes to process after the request payload byte array.  The stream is read fully but
+     * is not closed.
+     *
+     * @return the stream of bytes to process after the request payload byte array.
+     */
+    InputStream getPayloadStream();
+}
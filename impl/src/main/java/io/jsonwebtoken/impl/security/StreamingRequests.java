@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security;
+
+import io.jsonwebtoken.io.IOException;
+import io.jsonwebtoken.lang.Assert;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * Utility methods for {@link StreamingRequest}s.
+ *
+ * @since JJWT_RELEASE_VERSION
+ */
+public final class StreamingRequests {
+
+    private StreamingRequests() {
+    }
+
+    /**
+     * Returns {@code true} if the specified algorithm reads the {@link StreamingRequest#getPayloadStream() payload
+     * stream} of a {@link StreamingRequest}, {@code false} otherwise.  Only JJWT's own algorithms are aware of
+     * streaming requests: any other algorithm only sees the request's payload byte array, so it must be given the
+     * complete data to process instead (see {@link #readAll(byte[], InputStream)}).
+     *
+     * @param alg the algorithm to check
+     * @return {@code true} if the specified algorithm reads the payload stream of a {@link StreamingRequest}.
+     */
+    public static boolean isSupportedBy(SecureDigestAlgorithm<?, ?> alg) {
+        return alg instanceof AbstractSecureDigestAlgorithm;
+    }
+
+    /**
+     * Returns the specified {@code prefix} followed by all remaining bytes of the specified stream, which is not
+     * closed.
+     *
+     * @param prefix the bytes preceding the stream's bytes, may be empty
+     * @param in     the stream to read fully
+     * @return the specified {@code prefix} followed by all remaining bytes of the specified stream.
+     */
+    public static byte[] readAll(byte[] prefix, InputStream in) {
+        Assert.notNull(prefix, "Prefix byte array cannot be null.");
+        Assert.notNull(in, "InputStream cannot be null.");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(prefix.length + 4096, 8192));
+            out.write(prefix, 0, prefix.length);
+            byte[] buf = new byte[4096];
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        } catch (java.io.IOException e) {
+            String msg = "Unable to read JWS Signing Input stream: " + e.getMessage();
+            throw new IOException(msg, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.CandidateLocator
+import io.jsonwebtoken.Locators
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class AdaptiveCandidateLocatorTest {
+
+    @Test
+    void testInitialOrder() {
+        def locator = new AdaptiveCandidateLocator<String>(['a', 'b', 'a', 'c'])
+        assertEquals(['a', 'b', 'c'], locator.locateCandidates(null))
+        assertEquals 'a', locator.locate(null)
+    }
+
+    @Test(expected = UnsupportedOperationException)
+    void testCandidatesImmutable() {
+        new AdaptiveCandidateLocator<String>(['a']).locateCandidates(null).add('b')
+    }
+
+    @Test
+    void testEmptyCandidates() {
+        try {
+            new AdaptiveCandidateLocator<String>([])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Candidates collection cannot be null or empty.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testNullCandidate() {
+        try {
+            new AdaptiveCandidateLocator<String>(['a', null])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Candidates cannot contain null elements.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testSuccessMovesCandidateFirst() {
+        def locator = new AdaptiveCandidateLocator<String>(['a', 'b', 'c'])
+        locator.onSuccess(null, 'c')
+        assertEquals(['c', 'a', 'b'], locator.locateCandidates(null))
+        locator.onSuccess(null, 'b')
+        // 'b' most recent, but 'c' decayed to 0.9 vs. 'b' at 1.0:
+        assertEquals(['b', 'c', 'a'], locator.locateCandidates(null))
+    }
+
+    @Test
+    void testFrequentCandidateOutweighsSingleRecentSuccess() {
+        def locator = new AdaptiveCandidateLocator<String>(['a', 'b'])
+        5.times { locator.onSuccess(null, 'b') }
+        locator.onSuccess(null, 'a')
+        assertEquals(['b', 'a'], locator.locateCandidates(null))
+        // but enough recent successes eventually win:
+        10.times { locator.onSuccess(null, 'a') }
+        assertEquals(['a', 'b'], locator.locateCandidates(null))
+    }
+
+    @Test
+    void testFirstCandidateSuccessRetainsSnapshot() {
+        def locator = new AdaptiveCandidateLocator<String>(['a', 'b'])
+        def before = locator.locateCandidates(null)
+        locator.onSuccess(null, 'a')
+        assertSame before, locator.locateCandidates(null)
+    }
+
+    @Test
+    void testUnknownCandidateIgnored() {
+        def locator = new AdaptiveCandidateLocator<String>(['a', 'b'])
+        locator.onSuccess(null, 'z')
+        assertEquals(['a', 'b'], locator.locateCandidates(null))
+    }
+
+    @Test
+    void testLocatorsAdaptive() {
+        CandidateLocator<String> locator = Locators.adaptive(['a', 'b'])
+        assertTrue locator instanceof AdaptiveCandidateLocator
+        assertEquals(['a', 'b'], locator.locateCandidates(null))
+    }
+
+    @Test
+    void testLocatorsAdaptiveEmpty() {
+        try {
+            Locators.adaptive([])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Candidates collection cannot be null or empty.', expected.getMessage()
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Header
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.Locator
+import io.jsonwebtoken.LocatorAdapter
+import io.jsonwebtoken.Locators
+import io.jsonwebtoken.impl.security.TestKeys
+import org.junit.Test
+
+import java.security.Key
+import java.util.concurrent.TimeUnit
+
+import static org.junit.Assert.*
+
+class DefaultCachingLocatorBuilderTest {
+
+    static final Locator<Key> LOCATOR = new LocatorAdapter<Key>() {
+        @Override
+        protected Key locate(io.jsonwebtoken.JwsHeader header) {
+            return TestKeys.HS256
+        }
+    }
+
+    @Test
+    void testDefaults() {
+        def locator = Locators.caching(LOCATOR).build() as DefaultCachingLocator
+        assertSame LOCATOR, locator.delegate
+        assertEquals(['kid', 'alg'], locator.keyParams)
+        assertEquals DefaultCachingLocatorBuilder.DEFAULT_TIME_TO_LIVE_MILLIS, locator.timeToLiveMillis
+        assertEquals DefaultCachingLocatorBuilder.DEFAULT_NEGATIVE_TIME_TO_LIVE_MILLIS, locator.negativeTimeToLiveMillis
+        assertSame DefaultClock.INSTANCE, locator.clock
+    }
+
+    @Test
+    void testConfigured() {
+        def clock = new FixedClock()
+        def locator = Locators.caching(LOCATOR).keyedBy('kid', 'jku', 'x5t#S256')
+                .setTimeToLive(1, TimeUnit.HOURS).setNegativeTimeToLive(0, TimeUnit.SECONDS)
+                .setMaximumSize(10).setClock(clock).build() as DefaultCachingLocator
+        assertEquals(['kid', 'jku', 'x5t#S256'], locator.keyParams)
+        assertEquals TimeUnit.HOURS.toMillis(1), locator.timeToLiveMillis
+        assertEquals 0, locator.negativeTimeToLiveMillis
+        assertSame clock, locator.clock
+    }
+
+    @Test
+    void testParse() {
+        def locator = Locators.caching(LOCATOR).build()
+        def parser = Jwts.parserBuilder().setKeyLocator(locator).build()
+        String jws = Jwts.builder().setSubject('joe').setHeader([kid: 'a']).signWith(TestKeys.HS256).compact()
+        2.times { assertEquals 'joe', parser.parseClaimsJws(jws).getPayload().getSubject() }
+        assertEquals 1, locator.getMissCount()
+        assertEquals 1, locator.getHitCount()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testEmptyKeyedBy() {
+        Locators.caching(LOCATOR).keyedBy(new String[0])
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testBlankKeyedBy() {
+        Locators.caching(LOCATOR).keyedBy(' ')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaximumSize() {
+        Locators.caching(LOCATOR).setMaximumSize(0).build()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidTimeToLive() {
+        Locators.caching(LOCATOR).setTimeToLive(0, TimeUnit.SECONDS).build()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNullDelegate() {
+        Locators.caching(null)
+    }
+}
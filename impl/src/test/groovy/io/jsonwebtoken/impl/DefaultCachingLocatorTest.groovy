@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.Clock
+import io.jsonwebtoken.Header
+import io.jsonwebtoken.Locator
+import io.jsonwebtoken.impl.security.TestKeys
+import org.junit.Before
+import org.junit.Test
+
+import java.security.Key
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import static org.junit.Assert.*
+
+class DefaultCachingLocatorTest {
+
+    static final long TTL = 1000
+    static final long NEGATIVE_TTL = 100
+
+    long time
+    int calls
+    Map<String, Key> keys
+    DefaultCachingLocator<Key> locator
+
+    static Header jws(Map m) {
+        return new DefaultJwsHeader(m)
+    }
+
+    @Before
+    void setUp() {
+        time = 0
+        calls = 0
+        keys = [a: TestKeys.HS256, b: TestKeys.HS384] as Map<String, Key>
+        def delegate = new Locator<Key>() {
+            @Override
+            Key locate(Header<?> header) {
+                calls++
+                String kid = header.get('kid')
+                if (kid == 'boom') {
+                    throw new IllegalStateException('boom')
+                }
+                return keys.get(kid)
+            }
+        }
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(time)
+            }
+        }
+        locator = new DefaultCachingLocator<Key>(delegate, DefaultCachingLocatorBuilder.DEFAULT_KEY_PARAMS, TTL,
+                NEGATIVE_TTL, 2, clock)
+    }
+
+    @Test
+    void testHit() {
+        assertEquals TestKeys.HS256, locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals TestKeys.HS256, locator.locate(jws([alg: 'HS256', kid: 'a', typ: 'JWT'])) // typ not in key
+        assertEquals 1, calls
+        assertEquals 1, locator.getHitCount()
+        assertEquals 1, locator.getMissCount()
+        assertEquals 1, locator.size()
+    }
+
+    @Test
+    void testKeyProjection() {
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        locator.locate(jws([alg: 'HS384', kid: 'a'])) // different alg
+        locator.locate(new DefaultJweHeader([alg: 'HS256', kid: 'a'])) // different header type
+        assertEquals 3, calls
+        assertEquals 3, locator.getMissCount()
+    }
+
+    @Test
+    void testExpiration() {
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        time += TTL - 1
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals 1, calls
+        time += 1
+        keys.put('a', TestKeys.HS512)
+        assertEquals TestKeys.HS512, locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals 2, calls
+    }
+
+    @Test
+    void testNegativeCaching() {
+        assertNull locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertNull locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertEquals 1, calls
+        time += NEGATIVE_TTL
+        keys.put('c', TestKeys.HS512)
+        assertEquals TestKeys.HS512, locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertEquals 2, calls
+    }
+
+    @Test
+    void testNegativeCachingDisabled() {
+        locator = new DefaultCachingLocator<Key>(locator.delegate, ['kid'], TTL, 0, 10, locator.clock)
+        assertNull locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertNull locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertEquals 2, calls
+        assertEquals 0, locator.size()
+    }
+
+    @Test
+    void testMaximumSize() {
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        locator.locate(jws([alg: 'HS256', kid: 'b']))
+        locator.locate(jws([alg: 'HS256', kid: 'a'])) // a is now most recently used
+        locator.locate(jws([alg: 'HS256', kid: 'c'])) // evicts b
+        assertEquals 2, locator.size()
+        assertEquals 3, calls
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals 3, calls
+        locator.locate(jws([alg: 'HS256', kid: 'b']))
+        assertEquals 4, calls
+    }
+
+    @Test
+    void testExceptionNotCached() {
+        try {
+            locator.locate(jws([alg: 'HS256', kid: 'boom']))
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'boom', expected.getMessage()
+        }
+        assertEquals 0, locator.size()
+        try {
+            locator.locate(jws([alg: 'HS256', kid: 'boom']))
+            fail()
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals 2, calls
+    }
+
+    @Test
+    void testInvalidateAll() {
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        locator.invalidateAll()
+        assertEquals 0, locator.size()
+        locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals 2, calls
+    }
+
+    @Test
+    void testSingleFlight() {
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def count = new AtomicInteger()
+        def slow = new Locator<Key>() {
+            @Override
+            Key locate(Header<?> header) {
+                count.incrementAndGet()
+                started.countDown()
+                release.await()
+                return TestKeys.HS256
+            }
+        }
+        def cache = new DefaultCachingLocator<Key>(slow, ['kid'], TTL, NEGATIVE_TTL, 10, DefaultClock.INSTANCE)
+        def header = jws([alg: 'HS256', kid: 'a'])
+        def pool = Executors.newFixedThreadPool(4)
+        try {
+            def first = pool.submit({ cache.locate(header) } as java.util.concurrent.Callable<Key>)
+            assertTrue started.await(5, TimeUnit.SECONDS)
+            def others = (1..3).collect { pool.submit({ cache.locate(header) } as java.util.concurrent.Callable<Key>) }
+            long deadline = System.currentTimeMillis() + 5000
+            while (cache.getHitCount() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5) // wait for the others to block on the in-flight load
+            }
+            release.countDown()
+            assertEquals TestKeys.HS256, first.get(5, TimeUnit.SECONDS)
+            others.each { assertEquals TestKeys.HS256, it.get(5, TimeUnit.SECONDS) }
+        } finally {
+            pool.shutdownNow()
+        }
+        assertEquals 1, count.get()
+        assertEquals 1, cache.getMissCount()
+        assertEquals 3, cache.getHitCount()
+    }
+
+    @Test
+    void testSingleFlightFailurePropagated() {
+        def entry = new DefaultCachingLocator.Entry<Key>()
+        def ex = new IllegalStateException('failed')
+        entry.fail(ex)
+        assertTrue entry.isExpired(0)
+        try {
+            entry.get()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertSame ex, expected
+        }
+        entry = new DefaultCachingLocator.Entry<Key>()
+        def error = new AssertionError('error')
+        entry.fail(error)
+        try {
+            entry.get()
+            fail()
+        } catch (AssertionError expected) {
+            assertSame error, expected
+        }
+    }
+
+    @Test
+    void testLongTimeToLiveDoesNotOverflow() {
+        def delegate = new Locator<Key>() {
+            @Override
+            Key locate(Header<?> header) {
+                return TestKeys.HS256
+            }
+        }
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(1000)
+            }
+        }
+        def cache = new DefaultCachingLocator<Key>(delegate, ['kid'], Long.MAX_VALUE, 0, 10, clock)
+        def header = jws([alg: 'HS256', kid: 'a'])
+        cache.locate(header)
+        cache.locate(header)
+        assertEquals 1, cache.getMissCount()
+        assertEquals 1, cache.getHitCount()
+    }
+
+    @Test
+    void testInterruptedWhileWaiting() {
+        def entry = new DefaultCachingLocator.Entry<Key>() // never completed
+        Thread.currentThread().interrupt()
+        try {
+            entry.get()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertTrue expected.getCause() instanceof InterruptedException
+            assertTrue Thread.interrupted() // flag restored; also clears it for other tests
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl
+
+import io.jsonwebtoken.ClaimsSchemaBuilder
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.SchemaClaim
+import io.jsonwebtoken.SchemaClaims
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class DefaultClaimsSchemaTest {
+
+    ClaimsSchemaBuilder builder
+    SchemaClaim<String> tenant
+    SchemaClaim<Long> uid
+    SchemaClaim<Double> score
+    SchemaClaim<Boolean> admin
+    SchemaClaim<Date> authTime
+    SchemaClaim<Set<String>> roles
+
+    @Before
+    void setUp() {
+        builder = Jwts.claimsSchema()
+        tenant = builder.addString('tenant')
+        uid = builder.addLong('uid')
+        score = builder.addDouble('score')
+        admin = builder.addBoolean('admin')
+        authTime = builder.addDate('auth_time')
+        roles = builder.addStringSet('roles')
+    }
+
+    @Test
+    void testGetClaims() {
+        def schema = builder.build()
+        assertEquals([tenant, uid, score, admin, authTime, roles], new ArrayList(schema.getClaims()))
+        assertEquals 'uid', uid.getName()
+        assertEquals Long.class, uid.getType()
+        assertEquals Set.class, roles.getType()
+        assertEquals 'ClaimsSchema[tenant, uid, score, admin, auth_time, roles]', schema.toString()
+    }
+
+    @Test
+    void testAddInvalidNames() {
+        for (String name : [null, '', ' ']) {
+            try {
+                builder.addString(name)
+                fail()
+            } catch (IllegalArgumentException expected) {
+                assertEquals 'Claim name cannot be null or empty.', expected.getMessage()
+            }
+        }
+        try {
+            builder.addDate('exp')
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Claim 'exp' is a registered claim and may not be redefined by a schema.", expected.getMessage()
+        }
+        try {
+            builder.addLong(' uid ')
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Claim 'uid' has already been added to the schema.", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testAddAfterBuild() {
+        builder.build()
+        try {
+            builder.addString('foo')
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'ClaimsSchema has already been built.', expected.getMessage()
+        }
+        try {
+            builder.build()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'ClaimsSchema has already been built.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testFrom() {
+        def schema = builder.build()
+        SchemaClaims claims = schema.from([sub: 'joe', tenant: 'acme', uid: 42, score: 0.5, admin: true,
+                                           auth_time: 1690000000, roles: ['read', 'write'], custom: 'x'])
+        assertSame schema, claims.getSchema()
+        assertEquals 'joe', claims.getSubject()
+        assertEquals 'x', claims.get('custom')
+        assertEquals 'acme', claims.get(tenant)
+        assertEquals 42L, claims.getLong(uid)
+        assertEquals 42L, claims.get(uid)
+        assertEquals 42L, claims.get('uid') // canonical value
+        assertEquals 0.5d, claims.getDouble(score), 0d
+        assertTrue claims.getBoolean(admin)
+        assertEquals new Date(1690000000000L), claims.get(authTime)
+        assertEquals(['read', 'write'] as Set, claims.get(roles))
+        for (SchemaClaim<?> claim : schema.getClaims()) {
+            assertTrue claims.isPresent(claim)
+        }
+        assertSame claims, schema.from(claims) // already immutable claims of this schema
+    }
+
+    @Test
+    void testFromMutableClaims() {
+        def schema = builder.build() as DefaultClaimsSchema
+        def claims = schema.newClaims()
+        claims.put('uid', 7)
+        def from = schema.from(claims)
+        assertNotSame claims, from
+        assertEquals 7L, from.getLong(uid)
+    }
+
+    @Test
+    void testAbsentClaims() {
+        SchemaClaims claims = builder.build().from([sub: 'joe'])
+        assertFalse claims.isPresent(uid)
+        assertNull claims.get(uid)
+        assertNull claims.get(tenant)
+        assertNotPresent 'uid', { claims.getLong(uid) }
+        assertNotPresent 'score', { claims.getDouble(score) }
+        assertNotPresent 'admin', { claims.getBoolean(admin) }
+    }
+
+    static void assertNotPresent(String name, Closure c) {
+        try {
+            c.call()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals "Claim '$name' is not present." as String, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testImmutable() {
+        SchemaClaims claims = builder.build().from([uid: 42, roles: ['read']])
+        try {
+            claims.put('uid', 43)
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            claims.get(roles).add('write')
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertEquals 42L, claims.getLong(uid)
+    }
+
+    @Test
+    void testMutableSlotsFollowMapChanges() {
+        def claims = (builder.build() as DefaultClaimsSchema).newClaims()
+        claims.put('uid', 42)
+        claims.put('admin', true)
+        assertEquals 42L, claims.getLong(uid)
+        claims.remove('uid')
+        assertFalse claims.isPresent(uid)
+        assertNotPresent 'uid', { claims.getLong(uid) }
+        claims.put('score', 1.5)
+        assertEquals 1.5d, claims.getDouble(score), 0d
+        claims.clear()
+        assertFalse claims.isPresent(score)
+        assertNotPresent 'score', { claims.getDouble(score) }
+        assertNotPresent 'admin', { claims.getBoolean(admin) }
+    }
+
+    @Test
+    void testInvalidValues() {
+        def schema = builder.build()
+        def invalid = [uid    : ['42', "Invalid JWT Claim 'uid' (Long) value: 42. Value must be a JSON number, found: java.lang.String"],
+                       score  : [true, "Invalid JWT Claim 'score' (Double) value: true. Value must be a JSON number, found: java.lang.Boolean"],
+                       admin  : ['true', "Invalid JWT Claim 'admin' (Boolean) value: true. "]]
+        invalid.each { name, pair ->
+            try {
+                schema.from([(name): pair[0]])
+                fail()
+            } catch (IllegalArgumentException expected) {
+                assertTrue expected.getMessage(), expected.getMessage().startsWith(pair[1] as String)
+            }
+        }
+        try {
+            schema.from([uid: 1.5])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Invalid JWT Claim 'uid' (Long) value: 1.5. Value cannot be represented as a java.lang.Long.", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testForeignClaim() {
+        SchemaClaims claims = builder.build().from([uid: 42])
+        def other = Jwts.claimsSchema()
+        SchemaClaim<Long> otherUid = other.addLong('uid')
+        other.build()
+        try {
+            claims.getLong(otherUid)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Claim 'uid' does not belong to this instance's schema.", expected.getMessage()
+        }
+        try {
+            claims.isPresent(null)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'SchemaClaim cannot be null.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testWrongKind() {
+        SchemaClaims claims = builder.build().from([uid: 42])
+        SchemaClaim<Long> notLong = (SchemaClaim) score // only possible with raw types
+        try {
+            claims.getLong(notLong)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals "Claim 'score' is not a long claim.", expected.getMessage()
+        }
+    }
+}
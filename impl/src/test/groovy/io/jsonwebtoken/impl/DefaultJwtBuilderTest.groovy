@@ -17,18 +17,25 @@ package io.jsonwebtoken.impl
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import io.jsonwebtoken.CompressionCodecs
+import io.jsonwebtoken.JweHeader
+import io.jsonwebtoken.JwsHeader
 import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.Locator
+import io.jsonwebtoken.LocatorAdapter
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.impl.lang.Bytes
 import io.jsonwebtoken.impl.lang.Services
 import io.jsonwebtoken.impl.security.Randoms
 import io.jsonwebtoken.impl.security.TestKeys
 import io.jsonwebtoken.io.*
+import io.jsonwebtoken.lang.Strings
 import io.jsonwebtoken.security.*
 import org.junit.Before
 import org.junit.Test
 
 import javax.crypto.KeyGenerator
 import java.nio.charset.StandardCharsets
+import java.security.Key
 import java.security.Provider
 import java.security.SecureRandom
 
@@ -535,4 +542,407 @@ class DefaultJwtBuilderTest {
             assertEquals msg, expected.getMessage()
         }
     }
+
+    private static Locator<Key> kidLocator(Map<String, Key> keys) {
+        return new LocatorAdapter<Key>() {
+            @Override
+            protected Key locate(JweHeader header) {
+                return keys.get(header.getKeyId())
+            }
+        }
+    }
+
+    @Test
+    void testToJsonMultipleRecipients() {
+        def secret = TestKeys.A128KW
+        def rsa = TestKeys.RS256.pair
+        def ec = TestKeys.ES256.pair
+
+        String json = builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                .addRecipient(secret, Jwts.KEY.A128KW, [kid: 'secret'])
+                .addRecipient(rsa.public, Jwts.KEY.RSA_OAEP, [kid: 'rsa'])
+                .addRecipient(ec.public, Jwts.KEY.ECDH_ES_A128KW, [kid: 'ec'])
+                .toJson()
+
+        def m = objectMapper.readValue(json, Map.class)
+        assertEquals(['protected', 'recipients', 'iv', 'ciphertext', 'tag'], m.keySet() as List)
+        def recipients = m.recipients as List<Map>
+        assertEquals 3, recipients.size()
+        assertEquals(['A128KW', 'RSA-OAEP', 'ECDH-ES+A128KW'], recipients.collect { it.header.alg })
+        assertNotNull recipients[2].header.epk
+        recipients.each { assertTrue Strings.hasText(it.encrypted_key as String) }
+
+        // 'alg' is per-recipient and never in the protected header:
+        def protectedHeader = objectMapper.readValue(Decoders.BASE64URL.decode(m.protected as String), Map.class)
+        assertEquals([enc: 'A128GCM'], protectedHeader)
+
+        def keys = [secret: secret, rsa: rsa.private, ec: ec.private] as Map<String, Key>
+        for (String kid : keys.keySet()) {
+            def locator = kidLocator([(kid): keys.get(kid)])
+            def jwe = Jwts.parserBuilder().setKeyLocator(locator).build().parseClaimsJwe(json)
+            assertEquals 'joe', jwe.getPayload().getSubject()
+            assertEquals kid, jwe.getHeader().getKeyId()
+        }
+    }
+
+    @Test
+    void testToJsonSingleDirectRecipient() {
+        def key = TestKeys.A128GCM
+        String json = builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                .addRecipient(key, Jwts.KEY.DIRECT).toJson()
+        def m = objectMapper.readValue(json, Map.class)
+        assertFalse m.recipients[0].containsKey('encrypted_key')
+        def jwe = Jwts.parserBuilder().decryptWith(key).build().parseClaimsJwe(json)
+        assertEquals 'joe', jwe.getPayload().getSubject()
+    }
+
+    @Test
+    void testToJsonMultipleRecipientsWithDirect() {
+        try {
+            builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                    .addRecipient(TestKeys.A128KW, Jwts.KEY.A128KW)
+                    .addRecipient(TestKeys.A128GCM, Jwts.KEY.DIRECT)
+                    .toJson()
+            fail()
+        } catch (IllegalArgumentException expected) {
+            String msg = "The 'dir' key management algorithm does not encrypt or wrap a content encryption key " +
+                    "and may not be used for JWEs with more than one recipient."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testToJsonRecipientHeaderInProtectedHeader() {
+        try {
+            builder.setSubject('joe').setHeader([kid: 'foo']).encryptWith(Jwts.ENC.A128GCM)
+                    .addRecipient(TestKeys.A128KW, Jwts.KEY.A128KW, [kid: 'bar'])
+                    .toJson()
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertTrue expected.getMessage().startsWith("JWE recipient header parameter 'kid' may not also be present")
+        }
+    }
+
+    @Test
+    void testCompactDoesNotModifyBuilderHeader() {
+        def key = TestKeys.A128KW
+        builder.setSubject('joe').setHeader(Jwts.header().setAgreementPartyUInfo('foo'))
+                .encryptWith(Jwts.ENC.A128GCM).addRecipient(key, Jwts.KEY.A128KW, [kid: 'bar'])
+        def parser = Jwts.parserBuilder().decryptWith(key).build()
+        assertEquals 'bar', parser.parseClaimsJwe(builder.compact()).getHeader().getKeyId()
+        // the recipient header must not have been merged into the builder's header:
+        assertEquals 'bar', parser.parseClaimsJwe(builder.toJson()).getHeader().getKeyId()
+        assertEquals 'bar', parser.parseClaimsJwe(builder.compact()).getHeader().getKeyId()
+    }
+
+    @Test
+    void testToJsonUnprotected() {
+        try {
+            builder.setSubject('joe').toJson()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "JSON serialization is only supported for signed or encrypted JWTs. Call signWith, " +
+                    "addSignature, encryptWith and/or addRecipient before calling toJson()."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testToJsonMultipleSignatures() {
+        def rsa = TestKeys.RS256.pair
+        def ec = TestKeys.ES256.pair
+
+        String json = builder.setSubject('joe')
+                .signWith(rsa.private, Jwts.SIG.RS256)
+                .addSignature(ec.private, Jwts.SIG.ES256, [kid: 'ec'])
+                .toJson()
+
+        def m = objectMapper.readValue(json, Map.class)
+        assertEquals(['payload', 'signatures'], m.keySet() as List)
+        def signatures = m.signatures as List<Map>
+        assertEquals 2, signatures.size()
+        assertFalse signatures[0].containsKey('header')
+        assertEquals([kid: 'ec'], signatures[1].header)
+        def algs = signatures.collect {
+            objectMapper.readValue(Decoders.BASE64URL.decode(it.protected as String), Map.class).alg
+        }
+        assertEquals(['RS256', 'ES256'], algs)
+
+        def keys = [RS256: rsa.public, ES256: ec.public] as Map<String, Key>
+        for (String alg : keys.keySet()) {
+            def locator = new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    return header.getAlgorithm() == alg ? keys.get(alg) : null
+                }
+            }
+            def jws = Jwts.parserBuilder().setKeyLocator(locator).build().parseClaimsJws(json)
+            assertEquals 'joe', jws.getPayload().getSubject()
+            assertEquals alg, jws.getHeader().getAlgorithm()
+        }
+    }
+
+    @Test
+    void testToJsonSignatureHeaderInProtectedHeader() {
+        try {
+            builder.setSubject('joe').setHeader([kid: 'foo'])
+                    .addSignature(TestKeys.HS256, Jwts.SIG.HS256, [kid: 'bar'])
+                    .toJson()
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertTrue expected.getMessage().startsWith("JWS signature header parameter 'kid' may not also be present")
+        }
+    }
+
+    @Test
+    void testToJsonSignAndEncrypt() {
+        try {
+            builder.setSubject('joe').addSignature(TestKeys.HS256, Jwts.SIG.HS256)
+                    .encryptWith(TestKeys.A128GCM, Jwts.ENC.A128GCM)
+                    .toJson()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "Both 'signWith' and 'encryptWith' cannot be specified - choose either."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testCompactMultipleSignatures() {
+        try {
+            builder.setSubject('joe').signWith(TestKeys.HS256)
+                    .addSignature(TestKeys.HS384, Jwts.SIG.HS384)
+                    .compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "JWSs with more than one signature cannot be compacted; they may only be serialized " +
+                    "with toJson()."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testCompactSingleAddedSignature() {
+        def key = TestKeys.HS256
+        def jws = builder.setSubject('joe').addSignature(key, Jwts.SIG.HS256, [kid: 'foo']).compact()
+        def jwt = Jwts.parserBuilder().verifyWith(key).build().parseClaimsJws(jws)
+        assertEquals 'joe', jwt.getPayload().getSubject()
+        assertEquals 'foo', jwt.getHeader().getKeyId()
+        assertEquals 'HS256', jwt.getHeader().getAlgorithm()
+    }
+
+    @Test
+    void testToJsonWithoutRecipients() {
+        try {
+            builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM).toJson()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertTrue expected.getMessage().startsWith('At least one JWE recipient is required.')
+        }
+    }
+
+    @Test
+    void testCompactMultipleRecipients() {
+        try {
+            builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                    .addRecipient(TestKeys.A128KW, Jwts.KEY.A128KW)
+                    .addRecipient(TestKeys.A192KW, Jwts.KEY.A192KW)
+                    .compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "JWEs with more than one recipient cannot be compacted; they may only be serialized " +
+                    "with toJson()."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testCompactSingleAddedRecipient() {
+        def key = TestKeys.A128KW
+        def jwe = builder.setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                .addRecipient(key, Jwts.KEY.A128KW, [kid: 'foo']).compact()
+        def jwt = Jwts.parserBuilder().decryptWith(key).build().parseClaimsJwe(jwe)
+        assertEquals 'joe', jwt.getPayload().getSubject()
+        assertEquals 'foo', jwt.getHeader().getKeyId()
+        assertEquals 'A128KW', jwt.getHeader().getAlgorithm()
+    }
+
+    @Test
+    void testUnencodedPayload() {
+        def key = TestKeys.HS256
+        byte[] content = 'hello $.world'.getBytes(StandardCharsets.UTF_8)
+        String jws = builder.setContent(content).encodePayload(false).signWith(key).compact()
+
+        def parts = jws.split('\\.', -1)
+        assertEquals 3, parts.length
+        assertEquals '', parts[1] // detached
+        def header = objectMapper.readValue(Decoders.BASE64URL.decode(parts[0]), Map.class)
+        assertEquals false, header.b64
+        assertEquals(['b64'], header.crit)
+
+        def parser = Jwts.parserBuilder().verifyWith(key).build()
+        assertArrayEquals content, parser.parseContentJws(jws, content).getPayload()
+        assertEquals 0, parser.parseContentJws(jws, new ByteArrayInputStream(content)).getPayload().length
+    }
+
+    @Test
+    void testUnencodedPayloadStream() {
+        def pair = TestKeys.ES256.pair
+        byte[] content = Randoms.secureRandom().with { byte[] b = new byte[100 * 1024]; it.nextBytes(b); b }
+        String jws = builder.setContent(new ByteArrayInputStream(content)).encodePayload(false)
+                .setHeader([crit: ['foo'] as Set, foo: 'bar'])
+                .signWith(pair.private, Jwts.SIG.ES256).compact()
+
+        def parser = Jwts.parserBuilder().verifyWith(pair.public).addCriticalHeaderParams(['foo']).build()
+        def parsed = parser.parseContentJws(jws, new ByteArrayInputStream(content))
+        assertEquals(['foo', 'b64'] as Set, parsed.getHeader().getCritical())
+        assertFalse parsed.getHeader().isPayloadEncoded()
+        assertArrayEquals content, parser.parseContentJws(jws, content).getPayload()
+
+        content[42] = (byte) (content[42] + 1)
+        try {
+            parser.parseContentJws(jws, new ByteArrayInputStream(content))
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testUnencodedClaims() {
+        def key = TestKeys.HS256
+        String jws = builder.setSubject('joe').encodePayload(false).signWith(key).compact()
+        byte[] claims = '{"sub":"joe"}'.getBytes(StandardCharsets.UTF_8)
+        def parsed = Jwts.parserBuilder().verifyWith(key).build().parseClaimsJws(jws, claims)
+        assertEquals 'joe', parsed.getPayload().getSubject()
+    }
+
+    @Test
+    void testStreamRequiresUnencodedPayload() {
+        try {
+            builder.setContent(new ByteArrayInputStream(Bytes.EMPTY)).signWith(TestKeys.HS256).compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "InputStream content may only be used for unencoded JWS payloads. Call " +
+                    "encodePayload(false) to use an InputStream."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testStreamWithContent() {
+        try {
+            builder.setContent(new ByteArrayInputStream(Bytes.EMPTY)).setSubject('joe').encodePayload(false)
+                    .signWith(TestKeys.HS256).compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            String msg = "InputStream content cannot be specified with either 'content' or 'claims'. Choose one."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testUnencodedPayloadJwe() {
+        try {
+            builder.setSubject('joe').encodePayload(false).encryptWith(TestKeys.A128GCM, Jwts.ENC.A128GCM).compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertTrue expected.getMessage().startsWith('Unencoded payloads are only supported for signed JWTs')
+        }
+    }
+
+    @Test
+    void testUnencodedPayloadCompressed() {
+        try {
+            builder.setSubject('joe').encodePayload(false).compressWith(CompressionCodecs.DEFLATE)
+                    .signWith(TestKeys.HS256).compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'Unencoded JWS payloads cannot be compressed.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testUnencodedPayloadToJson() {
+        try {
+            builder.setSubject('joe').encodePayload(false).signWith(TestKeys.HS256).toJson()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertEquals 'Unencoded and InputStream payloads are only supported for compact JWSs.',
+                    expected.getMessage()
+        }
+    }
+
+    @Test
+    void testSignThenEncrypt() {
+        def pair = TestKeys.ES256.pair
+        def kek = TestKeys.A128KW
+        String jwe = builder.setSubject('joe').setHeader([kid: 'outer'])
+                .addSignature(pair.private, Jwts.SIG.ES256, [kid: 'inner'])
+                .encryptWith(Jwts.ENC.A128GCM).addRecipient(kek, Jwts.KEY.A128KW)
+                .signThenEncrypt().compact()
+
+        def locator = new LocatorAdapter<Key>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return header.getKeyId() == 'inner' ? pair.public : null
+            }
+
+            @Override
+            protected Key locate(JweHeader header) {
+                return header.getKeyId() == 'outer' ? kek : null
+            }
+        }
+        def parser = Jwts.parserBuilder().setKeyLocator(locator).build()
+
+        def outer = parser.parseContentJwe(jwe)
+        assertEquals 'JWT', outer.getHeader().getContentType()
+        String inner = new String(outer.getPayload(), StandardCharsets.US_ASCII)
+        assertEquals 'joe', parser.parseClaimsJws(inner).getPayload().getSubject()
+
+        def jws = parser.parseNestedClaimsJws(jwe)
+        assertEquals 'joe', jws.getPayload().getSubject()
+        assertEquals 'inner', jws.getHeader().getKeyId()
+        assertEquals 'ES256', jws.getHeader().getAlgorithm()
+    }
+
+    @Test
+    void testSignThenEncryptCompressedContent() {
+        def key = TestKeys.HS256
+        def cek = TestKeys.A128GCM
+        byte[] content = ('hello' * 100).getBytes(StandardCharsets.UTF_8)
+        String jwe = builder.setContent(content).compressWith(CompressionCodecs.DEFLATE)
+                .signWith(key).encryptWith(cek, Jwts.ENC.A128GCM).signThenEncrypt().compact()
+
+        def parser = Jwts.parserBuilder().verifyWith(key).decryptWith(cek).build()
+        def outer = parser.parseContentJwe(jwe)
+        assertEquals 'DEF', outer.getHeader().getCompressionAlgorithm()
+        assertArrayEquals content, parser.parseNestedContentJws(jwe).getPayload()
+    }
+
+    @Test
+    void testSignThenEncryptToJson() {
+        def key = TestKeys.HS256
+        def kek = TestKeys.A128KW
+        String json = builder.setSubject('joe').signWith(key).encryptWith(Jwts.ENC.A128GCM)
+                .addRecipient(kek, Jwts.KEY.A128KW).signThenEncrypt().toJson()
+        def jws = Jwts.parserBuilder().verifyWith(key).decryptWith(kek).build().parseNestedClaimsJws(json)
+        assertEquals 'joe', jws.getPayload().getSubject()
+    }
+
+    @Test
+    void testSignThenEncryptWithoutSignature() {
+        try {
+            builder.setSubject('joe').encryptWith(TestKeys.A128GCM, Jwts.ENC.A128GCM).signThenEncrypt().compact()
+            fail()
+        } catch (IllegalStateException expected) {
+            assertTrue expected.getMessage().startsWith('Nested JWTs require exactly one signature key.')
+        }
+    }
+
+    @Test
+    void testSignThenEncryptWithoutEncryption() {
+        def key = TestKeys.HS256
+        String jws = builder.setSubject('joe').signWith(key).signThenEncrypt().compact()
+        assertEquals 'joe', Jwts.parserBuilder().verifyWith(key).build().parseClaimsJws(jws).getPayload().getSubject()
+    }
 }
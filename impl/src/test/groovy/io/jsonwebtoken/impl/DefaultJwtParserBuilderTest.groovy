@@ -23,6 +23,7 @@ import io.jsonwebtoken.io.Decoder
 import io.jsonwebtoken.io.DecodingException
 import io.jsonwebtoken.io.DeserializationException
 import io.jsonwebtoken.io.Deserializer
+import io.jsonwebtoken.io.Encoders
 import org.hamcrest.CoreMatchers
 import org.junit.Before
 import org.junit.Test
@@ -77,6 +78,18 @@ class DefaultJwtParserBuilderTest {
         builder.base64UrlDecodeWith(null)
     }
 
+    @Test(expected = IllegalArgumentException)
+    void testBase64UrlEncodeWithNullArgument() {
+        builder.base64UrlEncodeWith(null)
+    }
+
+    @Test
+    void testBase64UrlEncodeWithCustomEncoder() {
+        def encoder = Encoders.BASE64
+        builder.base64UrlEncodeWith(encoder)
+        assertSame encoder, builder.base64UrlEncoder
+    }
+
     @Test
     void testBase64UrlEncodeWithCustomDecoder() {
         def decoder = new Decoder() {
@@ -232,6 +245,66 @@ class DefaultJwtParserBuilderTest {
         }
     }
 
+    @Test
+    void testRetainClaims() {
+        assertNull builder.build().jwtParser.retainedClaims // all claims by default
+        JwtParser parser = builder.requireIssuer('me').retainClaims([' sub ', 'scope']).retainClaims(['sub']).build()
+        assertEquals(['sub', 'scope', 'exp', 'nbf', 'iss'] as Set, parser.jwtParser.retainedClaims)
+    }
+
+    @Test
+    void testRetainClaimsEmpty() {
+        try {
+            builder.retainClaims([])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Retained claim names collection cannot be null or empty.', expected.getMessage()
+        }
+        try {
+            builder.retainClaims([' '])
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Retained claim names cannot be null or empty.', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testClaimsSchema() {
+        assertNull builder.build().jwtParser.claimsSchema
+        def schemaBuilder = Jwts.claimsSchema()
+        schemaBuilder.addLong('uid')
+        def schema = schemaBuilder.build()
+        JwtParser parser = builder.retainClaims(['sub']).claimsSchema(schema).build()
+        assertSame schema, parser.jwtParser.claimsSchema
+        assertEquals(['sub', 'exp', 'nbf', 'uid'] as Set, parser.jwtParser.retainedClaims)
+    }
+
+    @Test
+    void testClaimsSchemaInvalid() {
+        try {
+            builder.claimsSchema(null)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'ClaimsSchema cannot be null.', expected.getMessage()
+        }
+        try {
+            builder.claimsSchema(new ClaimsSchema() {
+                @Override
+                Collection<SchemaClaim<?>> getClaims() {
+                    return []
+                }
+
+                @Override
+                SchemaClaims from(Map<String, ?> claims) {
+                    return null
+                }
+            })
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertTrue expected.getMessage().startsWith('ClaimsSchema must be created by Jwts.claimsSchema().')
+        }
+    }
+
     static class TestCompressionCodec implements CompressionCodec {
 
         String id
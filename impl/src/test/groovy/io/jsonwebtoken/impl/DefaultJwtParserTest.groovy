@@ -16,18 +16,41 @@
 package io.jsonwebtoken.impl
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.jsonwebtoken.CandidateLocator
+import io.jsonwebtoken.Claims
+import io.jsonwebtoken.ClaimsSchema
+import io.jsonwebtoken.ExpiredJwtException
+import io.jsonwebtoken.Header
+import io.jsonwebtoken.JweHeader
+import io.jsonwebtoken.JwsHeader
+import io.jsonwebtoken.JwtException
 import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.LocatorAdapter
+import io.jsonwebtoken.Locators
 import io.jsonwebtoken.MalformedJwtException
+import io.jsonwebtoken.SchemaClaim
+import io.jsonwebtoken.SchemaClaims
 import io.jsonwebtoken.SignatureAlgorithm
+import io.jsonwebtoken.SigningKeyResolverAdapter
+import io.jsonwebtoken.UnsupportedJwtException
 import io.jsonwebtoken.impl.lang.Bytes
+import io.jsonwebtoken.impl.security.TestKeys
 import io.jsonwebtoken.io.*
+import io.jsonwebtoken.io.MapPopulatingDeserializer
 import io.jsonwebtoken.lang.Strings
 import io.jsonwebtoken.security.Keys
+import io.jsonwebtoken.security.SecureDigestAlgorithm
+import io.jsonwebtoken.security.SecureRequest
+import io.jsonwebtoken.security.SecurityException
+import io.jsonwebtoken.security.SignatureException
+import io.jsonwebtoken.security.VerifySecureDigestRequest
 import org.junit.Test
 
 import javax.crypto.Mac
 import javax.crypto.SecretKey
 import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.security.Key
 
 import static org.junit.Assert.*
 
@@ -209,4 +232,1034 @@ class DefaultJwtParserTest {
         String claimsJson = '{"sub":"joe"} x'
         assertFalse DefaultJwtParser.isLikelyJson(claimsJson.getBytes(StandardCharsets.UTF_8))
     }
+
+    private static String flattenedJwe(SecretKey key, Map<String, ?> extra) {
+        String json = Jwts.builder().setSubject('joe').encryptWith(Jwts.ENC.A128GCM)
+                .addRecipient(key, Jwts.KEY.A128KW, [kid: 'foo']).toJson()
+        Map m = OBJECT_MAPPER.readValue(json, Map.class)
+        Map recipient = m.remove('recipients')[0] as Map
+        Map flattened = new LinkedHashMap(m)
+        flattened.putAll(recipient)
+        flattened.putAll(extra)
+        return OBJECT_MAPPER.writeValueAsString(flattened)
+    }
+
+    @Test
+    void testParseFlattenedJweJson() {
+        def key = TestKeys.A128KW
+        String json = ' \n' + flattenedJwe(key, [:])
+        def jwe = Jwts.parserBuilder().decryptWith(key).build().parseClaimsJwe(json)
+        assertEquals 'joe', jwe.getPayload().getSubject()
+        assertEquals 'foo', jwe.getHeader().getKeyId()
+        assertEquals 'A128KW', jwe.getHeader().getAlgorithm()
+    }
+
+    @Test
+    void testParseJweJsonWithDuplicateHeaderParameter() {
+        def key = TestKeys.A128KW
+        String json = flattenedJwe(key, [unprotected: [kid: 'bar']])
+        try {
+            Jwts.parserBuilder().decryptWith(key).build().parse(json)
+            fail()
+        } catch (MalformedJwtException expected) {
+            String msg = "JSON serialized JWE header parameter 'kid' may only be present in one of the protected, " +
+                    "shared unprotected, or per-recipient headers."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseJweJsonWithUnprotectedZipOrCrit() {
+        def key = TestKeys.A128KW
+        def headers = [unprotected: 'shared unprotected', header: 'per-recipient']
+        headers.each { member, name ->
+            [zip: 'DEF', calg: 'DEF', crit: ['kid']].each { param, value ->
+                def extra = member == 'header' ? [header: [kid: 'foo', (param): value]] : [unprotected: [(param): value]]
+                String json = flattenedJwe(key, extra)
+                try {
+                    Jwts.parserBuilder().decryptWith(key).build().parse(json)
+                    fail()
+                } catch (MalformedJwtException expected) {
+                    String msg = "JSON serialized JWE header parameter '" + param + "' must be integrity " +
+                            "protected and may not be present in the " + name + " header."
+                    assertEquals msg, expected.getMessage()
+                }
+            }
+        }
+    }
+
+    @Test
+    void testParseJweJsonWithAad() {
+        def key = TestKeys.A128KW
+        // the aad member is authenticated, so adding it after encryption must fail decryption:
+        String json = flattenedJwe(key, [aad: Encoders.BASE64URL.encode('hello'.getBytes(StandardCharsets.UTF_8))])
+        try {
+            Jwts.parserBuilder().decryptWith(key).build().parse(json)
+            fail()
+        } catch (SecurityException expected) {
+        }
+    }
+
+    @Test
+    void testParseJsonWithoutPayloadOrCiphertext() {
+        try {
+            Jwts.parserBuilder().build().parse('{"signatures":[]}')
+            fail()
+        } catch (MalformedJwtException expected) {
+            String msg = "JSON Serialization documents must be either JWSs with a 'payload' member per " +
+                    "https://www.rfc-editor.org/rfc/rfc7515.html#section-7.2.1 or JWEs with a 'ciphertext' " +
+                    "member per https://www.rfc-editor.org/rfc/rfc7516.html#section-7.2.1"
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    private static Map<String, ?> jwsJson(Map<String, Key> keys) {
+        def builder = Jwts.builder().setSubject('joe')
+        keys.each { kid, key -> builder.addSignature(key, Jwts.SIG.HS256, [kid: kid]) }
+        return OBJECT_MAPPER.readValue(builder.toJson(), Map.class)
+    }
+
+    private static LocatorAdapter<Key> kidLocator(String kid, Key key) {
+        return new LocatorAdapter<Key>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                return header.getKeyId() == kid ? key : null
+            }
+        }
+    }
+
+    @Test
+    void testParseJwsJsonVerifiesOnlyLocatedSignature() {
+        def a = TestKeys.HS256
+        def b = Jwts.SIG.HS256.keyBuilder().build()
+        def m = jwsJson([a: a, b: b])
+        // corrupt the first signature; it must never be verified when the locator only resolves 'b':
+        m.signatures[0].signature = m.signatures[1].signature
+        String json = OBJECT_MAPPER.writeValueAsString(m)
+
+        def jws = Jwts.parserBuilder().setKeyLocator(kidLocator('b', b)).build().parseClaimsJws(json)
+        assertEquals 'joe', jws.getPayload().getSubject()
+        assertEquals 'b', jws.getHeader().getKeyId()
+
+        try {
+            Jwts.parserBuilder().setKeyLocator(kidLocator('a', a)).build().parseClaimsJws(json)
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testParseFlattenedJwsJson() {
+        def key = TestKeys.HS256
+        Map m = jwsJson([a: key])
+        Map flattened = [payload: m.payload]
+        flattened.putAll(m.signatures[0] as Map)
+        String json = OBJECT_MAPPER.writeValueAsString(flattened)
+        def jws = Jwts.parserBuilder().setKeyLocator(kidLocator('a', key)).build().parseClaimsJws(json)
+        assertEquals 'joe', jws.getPayload().getSubject()
+    }
+
+    @Test
+    void testParseJwsJsonUnprotectedAlg() {
+        String protectedHeader = Encoders.BASE64URL.encode('{"kid":"a"}'.getBytes(StandardCharsets.UTF_8))
+        String json = OBJECT_MAPPER.writeValueAsString([payload: 'e30', protected: protectedHeader,
+                                                        header: [alg: 'HS256'], signature: 'e30'])
+        try {
+            Jwts.parserBuilder().build().parse(json)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals DefaultJwtParser.MISSING_JWS_ALG_MSG, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseJwsJsonDuplicateHeaderParameter() {
+        Map m = jwsJson([a: TestKeys.HS256])
+        m.signatures[0].header = [kid: 'a', alg: 'HS256']
+        try {
+            Jwts.parserBuilder().build().parse(OBJECT_MAPPER.writeValueAsString(m))
+            fail()
+        } catch (MalformedJwtException expected) {
+            String msg = "JSON serialized JWS header parameter 'alg' may only be present in one of the protected " +
+                    "or unprotected headers."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseJwsJsonUnprotectedZipOrCrit() {
+        [zip: 'DEF', calg: 'DEF', crit: ['kid']].each { param, value ->
+            Map m = jwsJson([a: TestKeys.HS256])
+            m.signatures[0].header = [kid: 'a', (param): value]
+            try {
+                Jwts.parserBuilder().verifyWith(TestKeys.HS256).build().parse(OBJECT_MAPPER.writeValueAsString(m))
+                fail()
+            } catch (MalformedJwtException expected) {
+                String msg = "JSON serialized JWS header parameter '" + param + "' must be integrity protected " +
+                        "and may not be present in the unprotected header."
+                assertEquals msg, expected.getMessage()
+            }
+        }
+    }
+
+    @Test
+    void testParseJwsJsonWithSigningKeyResolver() {
+        def a = TestKeys.HS256
+        def b = Jwts.SIG.HS256.keyBuilder().build()
+        String json = OBJECT_MAPPER.writeValueAsString(jwsJson([a: a, b: b]))
+        def resolved = []
+        def resolver = new SigningKeyResolverAdapter() {
+            @Override
+            Key resolveSigningKey(JwsHeader header, Claims claims) {
+                resolved.add(header.getKeyId())
+                return header.getKeyId() == 'b' && claims.getSubject() == 'joe' ? b : null
+            }
+        }
+        def jws = Jwts.parserBuilder().setSigningKeyResolver(resolver).build().parseClaimsJws(json)
+        assertEquals 'joe', jws.getPayload().getSubject()
+        assertEquals 'b', jws.getHeader().getKeyId()
+        assertEquals(['a', 'b'], resolved)
+    }
+
+    @Test
+    void testParseJwsJsonNoLocatedKey() {
+        String json = OBJECT_MAPPER.writeValueAsString(jwsJson([a: TestKeys.HS256]))
+        try {
+            Jwts.parserBuilder().setKeyLocator(kidLocator('b', TestKeys.HS256)).build().parse(json)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            String msg = "Cannot verify JWS signature: unable to locate a signature verification key for any " +
+                    "JWS signature."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseJweJsonInvalidMemberType() {
+        try {
+            Jwts.parserBuilder().build().parse('{"ciphertext":"e30","iv":42}')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals "JSON Serialization 'iv' member must be a JSON string.", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseJweJsonRecipientsAndFlattenedMembers() {
+        def key = TestKeys.A128KW
+        String json = flattenedJwe(key, [recipients: [[header: [alg: 'A128KW']]]])
+        try {
+            Jwts.parserBuilder().decryptWith(key).build().parse(json)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("JSON serialized JWEs may not contain both a 'recipients'")
+        }
+    }
+
+    @Test
+    void testParseJweJsonNoLocatedRecipientKey() {
+        String json = flattenedJwe(TestKeys.A128KW, [:])
+        def locator = new LocatorAdapter<Key>() {
+            @Override
+            protected Key locate(JweHeader header) {
+                return null
+            }
+        }
+        try {
+            Jwts.parserBuilder().setKeyLocator(locator).build().parse(json)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            String msg = "Cannot decrypt JWE payload: unable to locate a key for any JWE recipient."
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    private static String jws(Map header, String payload, Key key) {
+        String h = Encoders.BASE64URL.encode(OBJECT_MAPPER.writeValueAsBytes(header))
+        Mac mac = Mac.getInstance('HmacSHA256')
+        mac.init(key)
+        byte[] sig = mac.doFinal((h + '.' + payload).getBytes(StandardCharsets.UTF_8))
+        return h + '.' + payload + '.' + Encoders.BASE64URL.encode(sig)
+    }
+
+    @Test
+    void testParseUnencodedEmbeddedPayload() {
+        def key = TestKeys.HS256
+        String token = jws([alg: 'HS256', b64: false, crit: ['b64']], 'hello', key)
+        def jws = Jwts.parserBuilder().verifyWith(key).build().parseContentJws(token)
+        assertArrayEquals 'hello'.getBytes(StandardCharsets.UTF_8), jws.getPayload()
+        assertFalse jws.getHeader().isPayloadEncoded()
+    }
+
+    @Test
+    void testParseEncodedDetachedPayload() {
+        def key = TestKeys.HS256
+        byte[] content = 'hello'.getBytes(StandardCharsets.UTF_8)
+        String token = jws([alg: 'HS256'], Encoders.BASE64URL.encode(content), key)
+        def parts = token.split('\\.')
+        String detached = parts[0] + '..' + parts[2]
+        def parser = Jwts.parserBuilder().verifyWith(key).build()
+        assertArrayEquals content, parser.parseContentJws(detached, content).getPayload()
+        try {
+            parser.parseContentJws(detached, new ByteArrayInputStream(content))
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertTrue expected.getMessage().startsWith('InputStream payloads are only supported for JWSs with an')
+        }
+        try {
+            parser.parseContentJws(token, content)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'A detached payload was provided, but the JWS already contains a payload.',
+                    expected.getMessage()
+        }
+    }
+
+    /**
+     * A non-JJWT HMAC-SHA256 algorithm that only sees the request payload byte array.
+     */
+    private static class PayloadHmacAlgorithm implements SecureDigestAlgorithm<SecretKey, SecretKey> {
+
+        @Override
+        String getId() {
+            return 'X-HS256'
+        }
+
+        @Override
+        byte[] digest(SecureRequest<byte[], SecretKey> request) {
+            Mac mac = Mac.getInstance('HmacSHA256')
+            mac.init(request.getKey())
+            return mac.doFinal(request.getPayload())
+        }
+
+        @Override
+        boolean verify(VerifySecureDigestRequest<SecretKey> request) {
+            Mac mac = Mac.getInstance('HmacSHA256')
+            mac.init(request.getKey())
+            return MessageDigest.isEqual(mac.doFinal(request.getPayload()), request.getDigest())
+        }
+    }
+
+    @Test
+    void testCustomAlgorithmUnencodedPayload() {
+        def key = TestKeys.HS256
+        def alg = new PayloadHmacAlgorithm()
+        byte[] content = 'hello'.getBytes(StandardCharsets.UTF_8)
+        def parser = Jwts.parserBuilder().addSignatureAlgorithms([alg]).verifyWith(key).build()
+
+        // the builder must give the algorithm the complete signing input, for byte array and stream payloads:
+        String detached = Jwts.builder().signWith(key, alg).encodePayload(false).setContent(content).compact()
+        String streamed = Jwts.builder().signWith(key, alg).encodePayload(false)
+                .setContent(new ByteArrayInputStream(content)).compact()
+        assertEquals detached, streamed
+        def parts = detached.split('\\.')
+        assertEquals jws([alg: 'X-HS256', b64: false, crit: ['b64']], 'hello', key).split('\\.')[2], parts[2]
+
+        // and the parser must do the same for embedded, detached and streamed payloads:
+        assertArrayEquals content, parser.parseContentJws(parts[0] + '.hello.' + parts[2]).getPayload()
+        assertArrayEquals content, parser.parseContentJws(detached, content).getPayload()
+        assertFalse parser.parseContentJws(detached, new ByteArrayInputStream(content)).getHeader().isPayloadEncoded()
+        try {
+            parser.parseContentJws(detached, 'hellO'.getBytes(StandardCharsets.UTF_8))
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testDetachedPayloadWithCustomEncoder() {
+        def key = TestKeys.HS256
+        byte[] content = 'hello'.getBytes(StandardCharsets.UTF_8)
+        def parts = jws([alg: 'HS256'], Encoders.BASE64URL.encode(content), key).split('\\.')
+        def encoded = []
+        def encoder = new Encoder<byte[], String>() {
+            @Override
+            String encode(byte[] bytes) throws EncodingException {
+                encoded.add(bytes)
+                return Encoders.BASE64URL.encode(bytes)
+            }
+        }
+        def parser = Jwts.parserBuilder().base64UrlEncodeWith(encoder).verifyWith(key).build()
+        assertArrayEquals content, parser.parseContentJws(parts[0] + '..' + parts[2], content).getPayload()
+        assertEquals 1, encoded.size()
+        assertArrayEquals content, encoded[0] as byte[]
+    }
+
+    @Test
+    void testParseB64WithoutCrit() {
+        def key = TestKeys.HS256
+        String token = jws([alg: 'HS256', b64: false], 'hello', key)
+        try {
+            Jwts.parserBuilder().verifyWith(key).build().parse(token)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("The 'b64' header parameter must be included in the 'crit'")
+        }
+    }
+
+    @Test
+    void testParseUnsupportedCrit() {
+        def key = TestKeys.HS256
+        String token = jws([alg: 'HS256', crit: ['foo'], foo: 'bar'], 'e30', key)
+        try {
+            Jwts.parserBuilder().verifyWith(key).build().parse(token)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("Unsupported protected header 'crit' (Critical) parameter 'foo'")
+        }
+        def jws = Jwts.parserBuilder().verifyWith(key).addCriticalHeaderParams(['foo']).build().parse(token)
+        assertEquals 'bar', jws.getHeader().get('foo')
+    }
+
+    @Test
+    void testParseCritParameterNotInHeader() {
+        def key = TestKeys.HS256
+        String token = jws([alg: 'HS256', crit: ['foo']], 'e30', key)
+        try {
+            Jwts.parserBuilder().verifyWith(key).addCriticalHeaderParams(['foo']).build().parse(token)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().contains("references header parameter 'foo', but that parameter is not")
+        }
+    }
+
+    @Test
+    void testParseJwsJsonUnencodedPayload() {
+        String protectedHeader = Encoders.BASE64URL.encode(
+                '{"alg":"HS256","b64":false,"crit":["b64"]}'.getBytes(StandardCharsets.UTF_8))
+        String json = OBJECT_MAPPER.writeValueAsString([payload: 'hello', protected: protectedHeader,
+                                                        signature: 'e30'])
+        try {
+            Jwts.parserBuilder().verifyWith(TestKeys.HS256).build().parse(json)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertEquals 'Unencoded payloads (b64 = false) are only supported for compact JWSs.',
+                    expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseNestedTamperedJws() {
+        def key = TestKeys.HS256
+        def cek = TestKeys.A128GCM
+        String token = jws([alg: 'HS256'], Encoders.BASE64URL.encode('{"sub":"joe"}'.getBytes(StandardCharsets.UTF_8)), key)
+        token = token.substring(0, token.length() - 2) + (token.endsWith('AA') ? 'BB' : 'AA')
+        String jwe = Jwts.builder().setContent(token.getBytes(StandardCharsets.US_ASCII), 'JWT')
+                .encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        try {
+            Jwts.parserBuilder().verifyWith(key).decryptWith(cek).build().parseNestedClaimsJws(jwe)
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testParseNestedCustomAlgorithmJws() {
+        def key = TestKeys.HS256
+        def cek = TestKeys.A128GCM
+        def alg = new PayloadHmacAlgorithm()
+        String token = Jwts.builder().setSubject('joe').signWith(key, alg).compact()
+        String jwe = Jwts.builder().setContent(token.getBytes(StandardCharsets.US_ASCII), 'JWT')
+                .encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        // the custom algorithm must see the inner JWS Signing Input, not an empty payload:
+        def parser = Jwts.parserBuilder().addSignatureAlgorithms([alg]).verifyWith(key).decryptWith(cek).build()
+        assertEquals 'joe', parser.parseNestedClaimsJws(jwe).getPayload().getSubject()
+
+        // including when the signing input is re-read for each candidate key:
+        def other = Jwts.SIG.HS256.keyBuilder().build()
+        def locator = new RecordingCandidateLocator([cek, other, key])
+        parser = Jwts.parserBuilder().addSignatureAlgorithms([alg]).setKeyLocator(locator).build()
+        assertEquals 'joe', parser.parseNestedClaimsJws(jwe).getPayload().getSubject()
+        assertTrue locator.successes.contains(key)
+        assertFalse locator.successes.contains(other)
+
+        String tampered = Jwts.builder().setContent(token.replace('.', '.e30').getBytes(StandardCharsets.US_ASCII),
+                'JWT').encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        try {
+            Jwts.parserBuilder().addSignatureAlgorithms([alg]).verifyWith(key).decryptWith(cek).build()
+                    .parseNestedClaimsJws(tampered)
+            fail()
+        } catch (JwtException expected) {
+        }
+    }
+
+    @Test
+    void testParseNestedWithoutJwtContentType() {
+        def cek = TestKeys.A128GCM
+        String jwe = Jwts.builder().setSubject('joe').encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        try {
+            Jwts.parserBuilder().decryptWith(cek).build().parseNestedClaimsJws(jwe)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertEquals 'Nested JWTs must be JWEs with a JWT payload.', expected.getMessage()
+        }
+        jwe = Jwts.builder().setContent('hello'.getBytes(StandardCharsets.UTF_8), 'text/plain')
+                .encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        try {
+            Jwts.parserBuilder().decryptWith(cek).build().parseNestedContentJws(jwe)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("Nested JWEs must have a 'cty' (Content Type) header value")
+        }
+    }
+
+    @Test
+    void testParseNestedUnsecuredJwt() {
+        def cek = TestKeys.A128GCM
+        String inner = Jwts.builder().setSubject('joe').compact()
+        String jwe = Jwts.builder().setContent(inner.getBytes(StandardCharsets.US_ASCII), 'jwt')
+                .encryptWith(cek, Jwts.ENC.A128GCM).compact()
+        try {
+            Jwts.parserBuilder().decryptWith(cek).build().parseNestedClaimsJws(jwe)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertTrue expected.getMessage().startsWith('Unsecured JWSs')
+        }
+    }
+
+    private static class RecordingCandidateLocator implements CandidateLocator<Key> {
+
+        List<Key> candidates
+        int lookups = 0
+        List<Key> successes = []
+
+        RecordingCandidateLocator(List<Key> candidates) {
+            this.candidates = candidates
+        }
+
+        @Override
+        Key locate(Header<?> header) {
+            return candidates.isEmpty() ? null : candidates.get(0)
+        }
+
+        @Override
+        List<? extends Key> locateCandidates(Header<?> header) {
+            lookups++
+            return candidates
+        }
+
+        @Override
+        void onSuccess(Header<?> header, Key candidate) {
+            successes.add(candidate)
+        }
+    }
+
+    @Test
+    void testCandidateLocatorJws() {
+        def a = Jwts.SIG.HS256.keyBuilder().build()
+        def b = Jwts.SIG.HS256.keyBuilder().build()
+        def c = Jwts.SIG.HS256.keyBuilder().build()
+        String token = Jwts.builder().setSubject('joe').signWith(c).compact()
+        def locator = new RecordingCandidateLocator([a, null, b, c])
+        def jws = Jwts.parserBuilder().setKeyLocator(locator).build().parseClaimsJws(token)
+        assertEquals 'joe', jws.getPayload().getSubject()
+        assertEquals 1, locator.lookups
+        assertEquals([c], locator.successes)
+    }
+
+    @Test
+    void testCandidateLocatorJwsAdaptiveOrder() {
+        def a = Jwts.SIG.HS256.keyBuilder().build()
+        def b = Jwts.SIG.HS256.keyBuilder().build()
+        CandidateLocator<Key> locator = Locators.<Key> adaptive([a, b])
+        def parser = Jwts.parserBuilder().setKeyLocator(locator).build()
+        assertSame a, locator.locateCandidates(null).get(0)
+        parser.parseClaimsJws(Jwts.builder().setSubject('joe').signWith(b).compact())
+        assertSame b, locator.locateCandidates(null).get(0)
+        assertSame b, locator.locate(null)
+    }
+
+    @Test
+    void testCandidateLocatorJwsNoMatch() {
+        def a = Jwts.SIG.HS256.keyBuilder().build()
+        def b = Jwts.SIG.HS256.keyBuilder().build()
+        def rsa = TestKeys.RS256.pair.public
+        String token = Jwts.builder().setSubject('joe').signWith(TestKeys.HS256).compact()
+        def locator = new RecordingCandidateLocator([rsa, a, b])
+        try {
+            Jwts.parserBuilder().setKeyLocator(locator).build().parseClaimsJws(token)
+            fail()
+        } catch (SignatureException expected) { // preferred over the UnsupportedJwtException for the RSA key
+            assertTrue expected.getMessage().startsWith('JWT signature does not match')
+        }
+        assertTrue locator.successes.isEmpty()
+    }
+
+    @Test
+    void testCandidateLocatorJwsUnexpectedFailurePropagated() {
+        def key = TestKeys.HS256
+        String token = Jwts.builder().setSubject('joe').signWith(key, new PayloadHmacAlgorithm()).compact()
+        def broken = new PayloadHmacAlgorithm() {
+            @Override
+            boolean verify(VerifySecureDigestRequest<SecretKey> request) {
+                throw new IllegalStateException('broken')
+            }
+        }
+        def locator = new RecordingCandidateLocator([Jwts.SIG.HS256.keyBuilder().build(), key])
+        try {
+            Jwts.parserBuilder().addSignatureAlgorithms([broken]).setKeyLocator(locator).build().parseClaimsJws(token)
+            fail()
+        } catch (IllegalStateException expected) { // not treated as a non-matching candidate
+            assertEquals 'broken', expected.getMessage()
+        }
+        assertTrue locator.successes.isEmpty()
+    }
+
+    @Test
+    void testCandidateLocatorJwsWithoutCandidates() {
+        String token = Jwts.builder().setSubject('joe').signWith(TestKeys.HS256).compact()
+        [[], [null]].each { List<Key> candidates ->
+            try {
+                Jwts.parserBuilder().setKeyLocator(new RecordingCandidateLocator(candidates)).build()
+                        .parseClaimsJws(token)
+                fail()
+            } catch (UnsupportedJwtException expected) {
+                assertTrue expected.getMessage().startsWith('Cannot verify JWS signature: unable to locate')
+            }
+        }
+    }
+
+    @Test
+    void testCandidateLocatorUnencodedStreamingPayload() {
+        def a = Jwts.SIG.HS256.keyBuilder().build()
+        def key = TestKeys.HS256
+        byte[] content = 'hello'.getBytes(StandardCharsets.UTF_8)
+        def parts = jws([alg: 'HS256', b64: false, crit: ['b64']], 'hello', key).split('\\.')
+        String detached = parts[0] + '..' + parts[2]
+        def locator = new RecordingCandidateLocator([a, key])
+        def parser = Jwts.parserBuilder().setKeyLocator(locator).build()
+        // the stream cannot be reset, so it is buffered once for all candidates:
+        def jws = parser.parseContentJws(detached, new ByteArrayInputStream(content))
+        assertFalse jws.getHeader().isPayloadEncoded()
+        // embedded payloads are re-read from the (resettable) in-memory signing input:
+        parser.parseContentJws(parts[0] + '.hello.' + parts[2])
+        assertEquals([key, key], locator.successes)
+    }
+
+    @Test
+    void testCandidateLocatorJwe() {
+        def a = TestKeys.A128GCM
+        def b = Jwts.ENC.A128GCM.keyBuilder().build()
+        def rsa = TestKeys.RS256.pair.private
+        String jwe = Jwts.builder().setSubject('joe').encryptWith(b, Jwts.ENC.A128GCM).compact()
+        def locator = new RecordingCandidateLocator([rsa, a, b])
+        def parser = Jwts.parserBuilder().setKeyLocator(locator).build()
+        assertEquals 'joe', parser.parseClaimsJwe(jwe).getPayload().getSubject()
+        assertEquals 1, locator.lookups
+        assertEquals([b], locator.successes)
+
+        locator.candidates = [rsa, a]
+        try {
+            parser.parseClaimsJwe(jwe)
+            fail()
+        } catch (SecurityException expected) {
+        }
+
+        locator.candidates = []
+        try {
+            parser.parseClaimsJwe(jwe)
+            fail()
+        } catch (UnsupportedJwtException expected) {
+            assertTrue expected.getMessage().startsWith('Cannot decrypt JWE payload: unable to locate key')
+        }
+    }
+
+    @Test
+    void testPopulatingDeserializer() {
+        List<Map> targets = []
+        def jackson = new io.jsonwebtoken.jackson.io.JacksonDeserializer<Map<String, ?>>()
+        def deserializer = new Deserializer<Map<String, ?>>() {
+            @Override
+            Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+                return jackson.deserialize(bytes)
+            }
+        }
+        def populating = new PopulatingDeserializer(jackson, targets)
+        String token = Jwts.builder().setSubject('joe').setAudience('you').setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(TestKeys.HS256).compact()
+
+        def jws = Jwts.parserBuilder().deserializeJsonWith(populating).verifyWith(TestKeys.HS256).build()
+                .parseClaimsJws(token)
+        assertEquals 2, targets.size() // header and claims populated directly
+        assertSame jws.getHeader(), targets[0]
+        assertSame jws.getPayload(), targets[1]
+        assertTrue jws.getPayload().getExpiration() instanceof Date
+
+        // non-populating deserializers produce the same result:
+        def jws2 = Jwts.parserBuilder().deserializeJsonWith(deserializer).verifyWith(TestKeys.HS256).build()
+                .parseClaimsJws(token)
+        assertEquals jws.getHeader(), jws2.getHeader()
+        assertEquals jws.getPayload(), jws2.getPayload()
+    }
+
+    @Test
+    void testPopulatingDeserializerInvalidValues() {
+        def populating = new PopulatingDeserializer(new io.jsonwebtoken.jackson.io.JacksonDeserializer<Map<String, ?>>(), [])
+        def parser = Jwts.parserBuilder().deserializeJsonWith(populating).enableUnsecuredJws().build()
+        String header = Encoders.BASE64URL.encode('{"alg":"HS256","crit":42}'.getBytes(StandardCharsets.UTF_8))
+        try {
+            parser.parse(header + '.e30.AAAA')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith('Invalid protected header: ')
+        }
+        header = Encoders.BASE64URL.encode('{"alg":"none"}'.getBytes(StandardCharsets.UTF_8))
+        String claims = Encoders.BASE64URL.encode('{"exp":"foo"}'.getBytes(StandardCharsets.UTF_8))
+        try {
+            parser.parse(header + '.' + claims + '.')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith('Invalid claims: ')
+        }
+        claims = Encoders.BASE64URL.encode('{"exp":}'.getBytes(StandardCharsets.UTF_8))
+        try {
+            parser.parse(header + '.' + claims + '.')
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals 'Unable to read claims JSON: {"exp":}', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testHeaderCache() {
+        def parser = Jwts.parserBuilder().verifyWith(TestKeys.HS256).build()
+        def jws1 = parser.parseClaimsJws(Jwts.builder().setSubject('a').signWith(TestKeys.HS256).compact())
+        def jws2 = parser.parseClaimsJws(Jwts.builder().setSubject('b').signWith(TestKeys.HS256).compact())
+        assertSame jws1.getHeader(), jws2.getHeader() // same encoded header, cached
+        assertEquals 'a', jws1.getPayload().getSubject()
+        assertEquals 'b', jws2.getPayload().getSubject()
+
+        // a different parser has its own cache:
+        def parser2 = Jwts.parserBuilder().verifyWith(TestKeys.HS256).build()
+        def jws3 = parser2.parseClaimsJws(Jwts.builder().setSubject('c').signWith(TestKeys.HS256).compact())
+        assertNotSame jws1.getHeader(), jws3.getHeader()
+        assertEquals jws1.getHeader(), jws3.getHeader()
+    }
+
+    @Test
+    void testParsedHeaderIsImmutable() {
+        String jws = Jwts.builder().setHeaderParam('kid', 'foo').setSubject('joe').signWith(TestKeys.HS256).compact()
+        JwsHeader header = Jwts.parserBuilder().verifyWith(TestKeys.HS256).build().parseClaimsJws(jws).getHeader()
+        try {
+            header.put('kid', 'bar')
+            fail()
+        } catch (UnsupportedOperationException expected) {
+            assertEquals 'JWS header instance is immutable and may not be modified.', expected.getMessage()
+        }
+        try {
+            header.setKeyId('bar')
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+        assertEquals 'foo', header.getKeyId()
+    }
+
+    @Test
+    void testHeaderCacheRespectsTokenFormat() {
+        def parser = Jwts.parserBuilder().verifyWith(TestKeys.HS256).build()
+        String jws = Jwts.builder().setSubject('joe').signWith(TestKeys.HS256).compact()
+        parser.parseClaimsJws(jws) // caches the JWS header
+
+        // same encoded header, but without a signature, must not be treated as a (cached) JWS header:
+        String unsigned = jws.substring(0, jws.lastIndexOf('.') + 1)
+        try {
+            parser.parse(unsigned)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().contains('missing the required signature')
+        }
+    }
+
+    @Test
+    void testHeaderCacheBypassedForPerTokenParams() {
+        def password = Keys.forPassword('correct horse battery staple'.toCharArray())
+        def parser = Jwts.parserBuilder().decryptWith(password).build()
+        def jwe1 = parser.parseClaimsJwe(Jwts.builder().setSubject('a')
+                .encryptWith(password, Jwts.KEY.PBES2_HS256_A128KW, Jwts.ENC.A128GCM).compact())
+        def jwe2 = parser.parseClaimsJwe(Jwts.builder().setSubject('b')
+                .encryptWith(password, Jwts.KEY.PBES2_HS256_A128KW, Jwts.ENC.A128GCM).compact())
+        assertNotNull jwe1.getHeader().getPbes2Salt()
+        assertNotSame jwe1.getHeader(), jwe2.getHeader()
+        assertEquals 'b', jwe2.getPayload().getSubject()
+
+        // JWEs without per-token parameters are cached:
+        SecretKey key = Jwts.KEY.A128KW.keyBuilder().build()
+        parser = Jwts.parserBuilder().decryptWith(key).build()
+        def jwe3 = parser.parseClaimsJwe(Jwts.builder().setSubject('c').encryptWith(key, Jwts.KEY.A128KW, Jwts.ENC.A128GCM).compact())
+        def jwe4 = parser.parseClaimsJwe(Jwts.builder().setSubject('d').encryptWith(key, Jwts.KEY.A128KW, Jwts.ENC.A128GCM).compact())
+        assertSame jwe3.getHeader(), jwe4.getHeader()
+        assertFalse(jwe3.getHeader() instanceof JwsHeader)
+    }
+
+    @Test
+    void testHeaderCacheBypassedForLongHeaders() {
+        String kid = 'k' * 4096
+        def parser = Jwts.parserBuilder().verifyWith(TestKeys.HS256).build()
+        String jws = Jwts.builder().setHeaderParam('kid', kid).setSubject('joe').signWith(TestKeys.HS256).compact()
+        assertNotSame parser.parseClaimsJws(jws).getHeader(), parser.parseClaimsJws(jws).getHeader()
+    }
+
+    @Test
+    void testHeaderCacheClearedWhenDeserializerChanges() {
+        //noinspection GrDeprecatedAPIUsage
+        def parser = new DefaultJwtParser().setSigningKey(TestKeys.HS256)
+        String jws = Jwts.builder().setSubject('joe').signWith(TestKeys.HS256).compact()
+        def header = parser.parseClaimsJws(jws).getHeader()
+        assertSame header, parser.parseClaimsJws(jws).getHeader()
+        parser.deserializeJsonWith(new io.jsonwebtoken.jackson.io.JacksonDeserializer<Map<String, ?>>())
+        assertNotSame header, parser.parseClaimsJws(jws).getHeader()
+    }
+
+    @Test
+    void testDeferredConversion() {
+        def chain = TestKeys.RS256.chain
+        String encoded = Encoders.BASE64.encode(chain[0].getEncoded())
+        String jws = Jwts.builder().setHeaderParam('x5c', [encoded]).setSubject('joe').signWith(TestKeys.HS256).compact()
+        def parser = Jwts.parserBuilder().enableDeferredConversion().verifyWith(TestKeys.HS256).build()
+        JwsHeader header = parser.parseClaimsJws(jws).getHeader()
+        assertTrue(((JwtMap) header).isDeferredConversion())
+        assertEquals([encoded], header.get('x5c'))
+        assertEquals chain, header.getX509CertificateChain()
+        assertSame header.getX509CertificateChain(), header.getX509CertificateChain() // only converted once
+    }
+
+    private static String hs256(String headerJson) {
+        String header = Encoders.BASE64URL.encode(headerJson.getBytes(Strings.UTF_8))
+        String body = Encoders.BASE64URL.encode('{"sub":"joe"}'.getBytes(Strings.UTF_8))
+        String compact = header + '.' + body
+        Mac mac = Mac.getInstance('HmacSHA256')
+        mac.init(TestKeys.HS256)
+        return compact + '.' + Encoders.BASE64URL.encode(mac.doFinal(compact.getBytes(Strings.UTF_8)))
+    }
+
+    @Test
+    void testDeferredConversionOfInvalidValue() {
+        String jws = hs256('{"alg":"HS256","x5c":["AAAA"]}')
+        try {
+            Jwts.parserBuilder().verifyWith(TestKeys.HS256).build().parseClaimsJws(jws)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("Invalid protected header: Invalid JWS header 'x5c'")
+        }
+
+        def parser = Jwts.parserBuilder().enableDeferredConversion().verifyWith(TestKeys.HS256).build()
+        def jws2 = parser.parseClaimsJws(jws)
+        assertEquals 'joe', jws2.getPayload().getSubject()
+        assertEquals(['AAAA'], jws2.getHeader().get('x5c'))
+        try {
+            jws2.getHeader().getX509CertificateChain()
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertTrue expected.getMessage().startsWith("Invalid JWS header 'x5c' (X.509 Certificate Chain) value")
+        }
+    }
+
+    @Test
+    void testDeferredConversionRequiresCanonicalType() {
+        // a value that isn't even the expected JSON type is still rejected during parsing:
+        String jws = hs256('{"alg":"HS256","x5c":"AAAA"}')
+        def parser = Jwts.parserBuilder().enableDeferredConversion().verifyWith(TestKeys.HS256).build()
+        try {
+            parser.parseClaimsJws(jws)
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertTrue expected.getMessage().startsWith("Invalid protected header: Invalid JWS header 'x5c'")
+        }
+    }
+
+    /**
+     * Fails with an IllegalStateException when reading a JSON object with the specified member, as a (custom) header
+     * or claims map implementation might, either while populating the target map or when the map is put all at once.
+     */
+    private static class FailingDeserializer implements Deserializer<Map<String, ?>>, MapPopulatingDeserializer {
+
+        final String member
+
+        FailingDeserializer(String member) {
+            this.member = member
+        }
+
+        @Override
+        Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+            Map m = OBJECT_MAPPER.readValue(bytes, Map)
+            if (!m.containsKey(member)) {
+                return m
+            }
+            String msg = "bad $member"
+            return new LinkedHashMap(m) {
+                @Override
+                Set<Map.Entry> entrySet() {
+                    throw new IllegalStateException(msg)
+                }
+            }
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+            Map m = OBJECT_MAPPER.readValue(bytes, Map)
+            if (m.containsKey(member)) {
+                throw new IllegalStateException("bad $member")
+            }
+            target.putAll(m)
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names) throws DeserializationException {
+            deserialize(bytes, target)
+        }
+    }
+
+    @Test
+    void testInvalidHeaderOrClaimsReportedConsistently() {
+        String jws = hs256Claims('{"sub":"joe"}')
+        [alg: 'Invalid protected header: bad alg', sub: 'Invalid claims: bad sub'].each { member, msg ->
+            def d = new FailingDeserializer(member)
+            def plain = new Deserializer<Map<String, ?>>() { // not a MapPopulatingDeserializer
+                @Override
+                Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+                    return d.deserialize(bytes)
+                }
+            }
+            for (Deserializer deserializer : [d, plain]) {
+                try {
+                    Jwts.parserBuilder().deserializeJsonWith(deserializer).verifyWith(TestKeys.HS256).build()
+                            .parseClaimsJws(jws)
+                    fail()
+                } catch (MalformedJwtException expected) {
+                    assertEquals msg, expected.getMessage()
+                    assertTrue expected.getCause() instanceof IllegalStateException
+                }
+            }
+        }
+    }
+
+    private static String hs256Claims(String claimsJson) {
+        String header = Encoders.BASE64URL.encode('{"alg":"HS256"}'.getBytes(Strings.UTF_8))
+        String body = Encoders.BASE64URL.encode(claimsJson.getBytes(Strings.UTF_8))
+        String compact = header + '.' + body
+        Mac mac = Mac.getInstance('HmacSHA256')
+        mac.init(TestKeys.HS256)
+        return compact + '.' + Encoders.BASE64URL.encode(mac.doFinal(compact.getBytes(Strings.UTF_8)))
+    }
+
+    @Test
+    void testRetainClaims() {
+        long exp = (long) (System.currentTimeMillis() / 1000) + 3600
+        String jws = hs256Claims('{"iss":"me","sub":"joe","perms":{"admin":["read","write"],"n":[1,2,3]},' +
+                '"scope":"read","iat":1690000000,"exp":' + exp + '}')
+        def deserializers = [new io.jsonwebtoken.jackson.io.JacksonDeserializer(),
+                             new io.jsonwebtoken.impl.io.SimpleJsonDeserializer(),
+                             new Deserializer<Map<String, ?>>() { // not a MapPopulatingDeserializer
+                                 @Override
+                                 Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+                                     return new ObjectMapper().readValue(bytes, Map)
+                                 }
+                             }]
+        for (Deserializer d : deserializers) {
+            def parser = Jwts.parserBuilder().deserializeJsonWith(d).verifyWith(TestKeys.HS256)
+                    .retainClaims(['sub', 'scope']).requireIssuer('me').build()
+            def claims = parser.parseClaimsJws(jws).getPayload()
+            assertEquals(['iss', 'sub', 'scope', 'exp'], new ArrayList(claims.keySet()))
+            assertEquals 'joe', claims.getSubject()
+            assertEquals 'read', claims.get('scope')
+            assertEquals new Date(exp * 1000), claims.getExpiration()
+        }
+    }
+
+    @Test
+    void testRetainClaimsStillVerifiesEntirePayload() {
+        String jws = hs256Claims('{"sub":"joe","perms":["read"]}')
+        String forged = hs256Claims('{"sub":"joe","perms":["read","write"]}')
+        String[] parts = jws.split('\\.')
+        forged = parts[0] + '.' + forged.split('\\.')[1] + '.' + parts[2] // original signature, altered payload
+        def parser = Jwts.parserBuilder().verifyWith(TestKeys.HS256).retainClaims(['sub']).build()
+        assertEquals([sub: 'joe'], parser.parseClaimsJws(jws).getPayload())
+        try {
+            parser.parseClaimsJws(forged)
+            fail()
+        } catch (SignatureException expected) {
+        }
+    }
+
+    @Test
+    void testRetainClaimsStillValidatesExpiration() {
+        String jws = hs256Claims('{"sub":"joe","exp":1690000000}')
+        try {
+            Jwts.parserBuilder().verifyWith(TestKeys.HS256).retainClaims(['sub']).build().parseClaimsJws(jws)
+            fail()
+        } catch (ExpiredJwtException expected) {
+        }
+    }
+
+    @Test
+    void testClaimsSchema() {
+        def schemaBuilder = Jwts.claimsSchema()
+        SchemaClaim<Long> uid = schemaBuilder.addLong('uid')
+        SchemaClaim<Boolean> admin = schemaBuilder.addBoolean('admin')
+        SchemaClaim<Set<String>> roles = schemaBuilder.addStringSet('roles')
+        ClaimsSchema schema = schemaBuilder.build()
+        String jws = hs256Claims('{"sub":"joe","uid":1234567890123,"admin":true,"roles":["read","write"],"x":1}')
+        def deserializers = [new io.jsonwebtoken.jackson.io.JacksonDeserializer(),
+                             new io.jsonwebtoken.impl.io.SimpleJsonDeserializer(),
+                             new Deserializer<Map<String, ?>>() { // not a MapPopulatingDeserializer
+                                 @Override
+                                 Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+                                     return new ObjectMapper().readValue(bytes, Map)
+                                 }
+                             }]
+        for (Deserializer d : deserializers) {
+            def parser = Jwts.parserBuilder().deserializeJsonWith(d).verifyWith(TestKeys.HS256)
+                    .claimsSchema(schema).build()
+            Claims payload = parser.parseClaimsJws(jws).getPayload()
+            SchemaClaims claims = schema.from(payload)
+            assertSame payload, claims // no copy needed
+            assertEquals 'joe', claims.getSubject()
+            assertEquals 1234567890123L, claims.getLong(uid)
+            assertTrue claims.getBoolean(admin)
+            assertEquals(['read', 'write'] as Set, claims.get(roles))
+            assertEquals 1, claims.get('x') as int
+        }
+    }
+
+    @Test
+    void testClaimsSchemaInvalidValue() {
+        def schemaBuilder = Jwts.claimsSchema()
+        schemaBuilder.addLong('uid')
+        def parser = Jwts.parserBuilder().verifyWith(TestKeys.HS256).claimsSchema(schemaBuilder.build()).build()
+        try {
+            parser.parseClaimsJws(hs256Claims('{"sub":"joe","uid":"1234"}'))
+            fail()
+        } catch (MalformedJwtException expected) {
+            assertEquals "Invalid claims: Invalid JWT Claim 'uid' (Long) value: 1234. " +
+                    "Value must be a JSON number, found: java.lang.String", expected.getMessage()
+        }
+    }
+
+    private static class PopulatingDeserializer implements Deserializer<Map<String, ?>>, MapPopulatingDeserializer {
+
+        private final io.jsonwebtoken.jackson.io.JacksonDeserializer<Map<String, ?>> delegate
+        private final List<Map> targets
+
+        PopulatingDeserializer(io.jsonwebtoken.jackson.io.JacksonDeserializer<Map<String, ?>> delegate, List<Map> targets) {
+            this.delegate = delegate
+            this.targets = targets
+        }
+
+        @Override
+        Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+            return delegate.deserialize(bytes)
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+            targets.add(target)
+            delegate.deserialize(bytes, target)
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names) throws DeserializationException {
+            targets.add(target)
+            delegate.deserialize(bytes, target, names)
+        }
+    }
 }
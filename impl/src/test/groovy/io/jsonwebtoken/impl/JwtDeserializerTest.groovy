@@ -19,6 +19,7 @@ import io.jsonwebtoken.MalformedJwtException
 import io.jsonwebtoken.io.DeserializationException
 import io.jsonwebtoken.io.Deserializer
 import io.jsonwebtoken.io.IOException
+import io.jsonwebtoken.io.MapPopulatingDeserializer
 import org.junit.Assert
 import org.junit.Test
 
@@ -27,7 +28,7 @@ import java.nio.charset.StandardCharsets
 import static org.easymock.EasyMock.expect
 import static org.easymock.EasyMock.mock
 import static org.easymock.EasyMock.replay
-import static org.junit.Assert.assertEquals
+import static org.junit.Assert.*
 
 class JwtDeserializerTest {
 
@@ -75,4 +76,108 @@ class JwtDeserializerTest {
             assertEquals JwtDeserializer.MALFORMED_ERROR + json, e.message
         }
     }
+
+    @Test
+    void testPopulating() {
+        byte[] jsonBytes = '{"sub":"joe"}'.getBytes(StandardCharsets.UTF_8)
+        def populating = new PopulatingDeserializer()
+        def deserializer = new JwtDeserializer<>(populating)
+        assertTrue deserializer.isPopulating()
+        Map<String, Object> target = [:]
+        deserializer.deserialize(jsonBytes, target)
+        assertEquals([sub: 'joe'], target)
+        assertSame jsonBytes, populating.bytes
+    }
+
+    @Test
+    void testPopulatingFallback() {
+        byte[] jsonBytes = '{"sub":"joe"}'.getBytes(StandardCharsets.UTF_8)
+        Deserializer<Map<String, ?>> delegate = mock(Deserializer)
+        expect(delegate.deserialize(jsonBytes)).andReturn([sub: 'joe'])
+        replay(delegate)
+        def deserializer = new JwtDeserializer<>(delegate)
+        assertFalse deserializer.isPopulating()
+        Map<String, Object> target = [:]
+        deserializer.deserialize(jsonBytes, target)
+        assertEquals([sub: 'joe'], target)
+    }
+
+    @Test
+    void testPopulatingRetained() {
+        byte[] jsonBytes = '{"sub":"joe"}'.getBytes(StandardCharsets.UTF_8)
+        def deserializer = new JwtDeserializer<>(new PopulatingDeserializer())
+        Map<String, Object> target = [:]
+        deserializer.deserialize(jsonBytes, target, ['iss'] as Set)
+        assertEquals([:], target)
+        deserializer.deserialize(jsonBytes, target, ['sub'] as Set)
+        assertEquals([sub: 'joe'], target)
+    }
+
+    @Test
+    void testPopulatingRetainedFallback() {
+        byte[] jsonBytes = '{"sub":"joe","iss":"me","big":[1,2,3]}'.getBytes(StandardCharsets.UTF_8)
+        Deserializer<Map<String, ?>> delegate = mock(Deserializer)
+        expect(delegate.deserialize(jsonBytes)).andReturn([sub: 'joe', iss: 'me', big: [1, 2, 3]])
+        replay(delegate)
+        Map<String, Object> target = [:]
+        new JwtDeserializer<>(delegate).deserialize(jsonBytes, target, ['sub', 'iss'] as Set)
+        assertEquals([sub: 'joe', iss: 'me'], target)
+    }
+
+    @Test
+    void testPopulatingFallbackWithNonObject() {
+        String json = '["joe"]'
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8)
+        Deserializer<Map<String, ?>> delegate = mock(Deserializer)
+        expect(delegate.deserialize(jsonBytes)).andReturn(['joe'])
+        replay(delegate)
+        try {
+            new JwtDeserializer<>(delegate).deserialize(jsonBytes, [:])
+            Assert.fail("Expected MalformedJwtException")
+        } catch (MalformedJwtException e) {
+            assertEquals JwtDeserializer.MALFORMED_ERROR + json, e.message
+        }
+    }
+
+    @Test
+    void testPopulatingStackOverflowError() {
+        String json = '{"test": "testPopulatingStackOverflowError"}'
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8)
+        def populating = new PopulatingDeserializer() {
+            @Override
+            void deserialize(byte[] bytes, Map<String, Object> target) {
+                throw new StackOverflowError('test')
+            }
+        }
+        try {
+            new JwtDeserializer<>(populating).deserialize(jsonBytes, [:])
+            Assert.fail("Expected IOException")
+        } catch (IOException e) {
+            assertEquals JwtDeserializer.MALFORMED_COMPLEX_ERROR + json, e.message
+        }
+    }
+
+    static class PopulatingDeserializer implements Deserializer<Map<String, ?>>, MapPopulatingDeserializer {
+
+        byte[] bytes
+
+        @Override
+        Map<String, ?> deserialize(byte[] bytes) throws DeserializationException {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target) throws DeserializationException {
+            this.bytes = bytes
+            target.put('sub', 'joe')
+        }
+
+        @Override
+        void deserialize(byte[] bytes, Map<String, Object> target, Set<String> names) throws DeserializationException {
+            this.bytes = bytes
+            if (names.contains('sub')) {
+                target.put('sub', 'joe')
+            }
+        }
+    }
 }
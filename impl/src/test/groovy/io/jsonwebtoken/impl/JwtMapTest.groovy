@@ -18,6 +18,8 @@ package io.jsonwebtoken.impl
 import io.jsonwebtoken.impl.lang.Field
 import io.jsonwebtoken.impl.lang.Fields
 import io.jsonwebtoken.impl.security.Randoms
+import io.jsonwebtoken.impl.security.TestKeys
+import io.jsonwebtoken.io.Encoders
 import io.jsonwebtoken.lang.Collections
 import org.junit.Before
 import org.junit.Test
@@ -138,4 +140,195 @@ class JwtMapTest {
             assertEquals msg, expected.getMessage()
         }
     }
+
+    @Test
+    void testMakeImmutable() {
+        jwtMap.put('foo', 'bar')
+        jwtMap.put('list', ['a'])
+        jwtMap.put('set', ['b'] as Set)
+        jwtMap.put('map', [c: 'd'])
+        jwtMap.put('bytes', [1, 2] as byte[])
+        assertTrue jwtMap.isMutable()
+
+        jwtMap.makeImmutable()
+        jwtMap.makeImmutable() // idempotent
+        assertFalse jwtMap.isMutable()
+        assertEquals 'bar', jwtMap.get('foo')
+
+        def mutations = [
+                { jwtMap.put('foo', 'baz') },
+                { jwtMap.put('foo', null) },
+                { jwtMap.putAll([a: 'b']) },
+                { jwtMap.remove('foo') },
+                { jwtMap.clear() },
+                { jwtMap.keySet().remove('foo') },
+                { jwtMap.values().clear() },
+                { jwtMap.entrySet().iterator().next().setValue('baz') },
+                { ((List) jwtMap.get('list')).add('x') },
+                { ((Set) jwtMap.get('set')).add('x') },
+                { ((Map) jwtMap.get('map')).put('x', 'y') }
+        ]
+        mutations.eachWithIndex { Closure c, int i ->
+            try {
+                c.call()
+                fail("mutation $i succeeded")
+            } catch (UnsupportedOperationException expected) {
+            }
+        }
+        try {
+            jwtMap.put('foo', 'baz')
+            fail()
+        } catch (UnsupportedOperationException expected) {
+            assertEquals 'Map instance is immutable and may not be modified.', expected.getMessage()
+        }
+
+        // byte arrays can't be immutable, so copies are returned:
+        byte[] bytes = jwtMap.get('bytes') as byte[]
+        bytes[0] = 9
+        assertArrayEquals([1, 2] as byte[], jwtMap.get('bytes') as byte[])
+        assertEquals 'bar', jwtMap.get('foo')
+    }
+
+    @Test
+    void testMakeImmutableNestedValues() {
+        def list = [[a: ['b']]]
+        def map = [c: [[d: 'e']] as Set]
+        jwtMap.put('list', list)
+        jwtMap.put('map', map)
+        jwtMap.makeImmutable()
+
+        def mutations = [
+                { ((Map) jwtMap.get('list')[0]).put('x', 'y') },
+                { ((List) jwtMap.get('list')[0].a).add('x') },
+                { ((Set) jwtMap.get('map').c).add('x') },
+                { ((Map) jwtMap.get('map').c.iterator().next()).put('x', 'y') }
+        ]
+        mutations.eachWithIndex { Closure c, int i ->
+            try {
+                c.call()
+                fail("mutation $i succeeded")
+            } catch (UnsupportedOperationException expected) {
+            }
+        }
+
+        // the original collections are copied, so changing them doesn't change the immutable map either:
+        list[0].a.add('x')
+        map.put('f', 'g')
+        assertEquals([[a: ['b']]], jwtMap.get('list'))
+        assertEquals([c: [[d: 'e']] as Set], jwtMap.get('map'))
+    }
+
+    @Test
+    void testInsertionOrderAcrossRegisteredAndCustomMembers() {
+        def claims = new DefaultClaims()
+        claims.put('custom1', 'a')
+        claims.put('sub', 'me')
+        claims.put('custom2', 'b')
+        claims.put('iss', 'you')
+        claims.put('sub', 'me2') // replacing a value retains its position, just like a LinkedHashMap
+        assertEquals(['custom1', 'sub', 'custom2', 'iss'], claims.keySet() as List)
+        assertEquals(['a', 'me2', 'b', 'you'], claims.values() as List)
+
+        claims.remove('sub')
+        claims.remove('custom1')
+        claims.put('custom1', 'c')
+        claims.put('sub', 'me3')
+        assertEquals(['custom2', 'iss', 'custom1', 'sub'], claims.keySet() as List)
+        assertEquals '{custom2=b, iss=you, custom1=c, sub=me3}', claims.toString()
+        assertEquals([custom2: 'b', iss: 'you', custom1: 'c', sub: 'me3'], claims)
+        assertEquals([custom2: 'b', iss: 'you', custom1: 'c', sub: 'me3'].hashCode(), claims.hashCode())
+    }
+
+    @Test
+    void testEntrySetIteratorRemove() {
+        def claims = new DefaultClaims([a: 'b', sub: 'me', c: 'd', iss: 'you', e: 'f'])
+        def i = claims.entrySet().iterator()
+        while (i.hasNext()) {
+            def entry = i.next()
+            if (entry.key in ['a', 'sub', 'e']) {
+                i.remove()
+            }
+        }
+        assertEquals([c: 'd', iss: 'you'], claims)
+        assertEquals(['c', 'iss'], claims.keySet() as List)
+        assertNull claims.getSubject()
+        assertEquals 'you', claims.getIssuer()
+
+        claims.keySet().remove('c')
+        claims.values().remove('you')
+        assertTrue claims.isEmpty()
+        assertNull claims.getIssuer()
+    }
+
+    @Test
+    void testEntrySetValue() {
+        def claims = new DefaultClaims([exp: 1700000000, foo: 'bar'])
+        def entries = claims.entrySet().iterator()
+        def exp = entries.next()
+        assertEquals 1700000000L, exp.setValue(1800000000) // canonical value is normalized
+        assertEquals 1800000000L, exp.getValue()
+        assertEquals new Date(1800000000000L), claims.getExpiration()
+        entries.next().setValue('baz')
+        assertEquals 'baz', claims.get('foo')
+    }
+
+    @Test
+    void testFieldsSharedAcrossInstances() {
+        // registered field layouts are computed once per field set, not per instance:
+        assertSame new DefaultClaims().FIELDS, new DefaultClaims().FIELDS
+        assertSame new JwtMap(FIELDS).FIELDS, jwtMap.FIELDS
+    }
+
+    @Test
+    void testCopyFrom() {
+        def src = new DefaultClaims([exp: 1700000000, custom: 'value'])
+        def copy = new JwtMap(FIELDS) // 'exp' is not registered in this map
+        copy.copyFrom(src)
+        assertEquals(src, copy)
+        assertEquals(['exp', 'custom'], copy.keySet() as List)
+        assertEquals 1700000000L, copy.get('exp')
+        // the source's idiomatic value is retained even though exp is a custom member here:
+        assertEquals new Date(1700000000000L), copy.get(DefaultClaims.EXPIRATION)
+
+        def claims = new DefaultClaims()
+        claims.copyFrom(copy)
+        assertEquals new Date(1700000000000L), claims.getExpiration()
+    }
+
+    @Test
+    void testDeferredConversion() {
+        def chain = TestKeys.RS256.chain
+        def encoded = [Encoders.BASE64.encode(chain[0].getEncoded())]
+        def header = new DefaultJwsHeader()
+        header.enableDeferredConversion()
+        header.put('x5c', encoded)
+        header.put('x5t', 'AQID')
+        header.put('kid', 'foo')
+        assertEquals([x5c: encoded, x5t: 'AQID', kid: 'foo'], header)
+        assertEquals chain, header.getX509CertificateChain()
+        assertArrayEquals([1, 2, 3] as byte[], header.getX509CertificateSha1Thumbprint())
+
+        // idiomatic values are converted eagerly if they aren't already canonical:
+        header.put('x5c', chain)
+        assertEquals encoded, header.get('x5c')
+        assertEquals chain, header.getX509CertificateChain()
+    }
+
+    @Test
+    void testDeferredConversionWhenImmutable() {
+        def header = new DefaultJwsHeader()
+        header.enableDeferredConversion()
+        header.put('x5c', [Encoders.BASE64.encode(TestKeys.RS256.cert.getEncoded())])
+        header.makeImmutable()
+        try {
+            header.getX509CertificateChain().add(TestKeys.RS256.cert)
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            header.enableDeferredConversion()
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
 }
@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.io
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.jsonwebtoken.io.DeserializationException
+import io.jsonwebtoken.jackson.io.JacksonDeserializer
+import io.jsonwebtoken.lang.Strings
+import org.junit.Assume
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class SimpleJsonDeserializerTest {
+
+    private static final SimpleJsonDeserializer DESERIALIZER = new SimpleJsonDeserializer()
+
+    private static Map<String, ?> read(String json) {
+        return DESERIALIZER.deserialize(json.getBytes(Strings.UTF_8))
+    }
+
+    private static void assertInvalid(String json, String expectedMessageFragment) {
+        try {
+            read(json)
+            fail("Expected invalid JSON: $json")
+        } catch (DeserializationException expected) {
+            String msg = expected.getMessage()
+            assertTrue msg, msg.startsWith('Unable to deserialize JSON: ')
+            assertTrue msg, msg.contains(expectedMessageFragment)
+        }
+    }
+
+    @Test
+    void testDefaults() {
+        assertEquals SimpleJsonDeserializer.DEFAULT_MAX_DEPTH, DESERIALIZER.getMaxDepth()
+        assertEquals SimpleJsonDeserializer.DEFAULT_MAX_LENGTH, DESERIALIZER.getMaxLength()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxDepth() {
+        new SimpleJsonDeserializer(0, 10)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxLength() {
+        new SimpleJsonDeserializer(10, 0)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNullBytes() {
+        DESERIALIZER.deserialize((byte[]) null)
+    }
+
+    @Test
+    void testEmptyObject() {
+        assertEquals([:], read('{}'))
+        assertEquals([:], read(' \t\r\n{ \n}\n '))
+    }
+
+    @Test
+    void testHeader() {
+        def m = read('{"alg":"HS256","typ":"JWT","kid":"a-b_c"}')
+        assertTrue m instanceof LinkedHashMap
+        assertEquals(['alg', 'typ', 'kid'], m.keySet() as List) // document order retained
+        assertEquals([alg: 'HS256', typ: 'JWT', kid: 'a-b_c'], m)
+    }
+
+    @Test
+    void testValues() {
+        def m = read('{"s":"x","t":true,"f":false,"n":null,"o":{"a":[]},"a":[1,"2",{},[null]]}')
+        assertEquals 'x', m.s
+        assertSame Boolean.TRUE, m.t
+        assertSame Boolean.FALSE, m.f
+        assertTrue m.containsKey('n')
+        assertNull m.n
+        assertEquals([a: []], m.o)
+        assertEquals([1, '2', [:], [null]], m.a)
+        assertTrue m.a instanceof ArrayList
+    }
+
+    @Test
+    void testNumbers() {
+        def m = read('{"a":0,"b":-0,"c":2147483647,"d":2147483648,"e":-2147483648,"f":-2147483649,' +
+                '"g":9223372036854775807,"h":-9223372036854775808,"i":9223372036854775808,' +
+                '"j":1.5,"k":-1e3,"l":2E-2,"m":1.0e+2,"n":123456789012345678}')
+        assertEquals Integer.valueOf(0), m.a
+        assertEquals Integer.valueOf(0), m.b
+        assertEquals Integer.valueOf(Integer.MAX_VALUE), m.c
+        assertEquals Long.valueOf(2147483648L), m.d
+        assertEquals Integer.valueOf(Integer.MIN_VALUE), m.e
+        assertEquals Long.valueOf(-2147483649L), m.f
+        assertEquals Long.valueOf(Long.MAX_VALUE), m.g
+        assertEquals Long.valueOf(Long.MIN_VALUE), m.h
+        assertEquals new BigInteger('9223372036854775808'), m.i
+        assertEquals Double.valueOf(1.5d), m.j as Object
+        assertEquals Double.valueOf(-1000d), m.k as Object
+        assertEquals Double.valueOf(0.02d), m.l as Object
+        assertEquals Double.valueOf(100d), m.m as Object
+        assertEquals Long.valueOf(123456789012345678L), m.n
+    }
+
+    @Test
+    void testStrings() {
+        def m = read('{"e":"\\"\\\\\\/\\b\\f\\n\\r\\t","u":"\\u00e9\\u20AC\\ud83d\\ude00","utf8":"é€😀","mixed":"a\\nb€"}')
+        assertEquals '"\\/\b\f\n\r\t', m.e
+        assertEquals 'é€😀', m.u
+        assertEquals 'é€😀', m.utf8
+        assertEquals 'a\nb€', m.mixed
+    }
+
+    @Test
+    void testStringsMatchJackson() {
+        String json = '{"k\\u00e9y":"v\\talue","ünïcödé":"ゼロ","emoji":"😀x","esc":"\\\\\\"/"}'
+        assertEquals new JacksonDeserializer().deserialize(json.getBytes(Strings.UTF_8)), read(json)
+    }
+
+    @Test
+    void testInvalidUtf8() {
+        def invalid = [
+                [0xC0, 0xAF] as byte[], // overlong '/'
+                [0xE0, 0x80, 0xAF] as byte[], // overlong '/'
+                [0xED, 0xA0, 0x80] as byte[], // UTF-16 surrogate
+                [0xF4, 0x90, 0x80, 0x80] as byte[], // > U+10FFFF
+                [0x80] as byte[], // unexpected continuation byte
+                [0xC3] as byte[], // truncated sequence
+                [0xFF] as byte[]
+        ]
+        for (byte[] seq : invalid) {
+            def out = new ByteArrayOutputStream()
+            out.write('{"a":"'.getBytes(Strings.UTF_8))
+            out.write(seq)
+            out.write('"}'.getBytes(Strings.UTF_8))
+            try {
+                DESERIALIZER.deserialize(out.toByteArray())
+                fail()
+            } catch (DeserializationException expected) {
+                String msg = expected.getMessage()
+                assertTrue msg, msg.contains('invalid UTF-8 byte sequence at byte offset 6.')
+            }
+        }
+    }
+
+    @Test
+    void testInvalidJson() {
+        assertInvalid '', 'unexpected end of input, expected \'{\''
+        assertInvalid '[]', 'unexpected \'[\', expected \'{\''
+        assertInvalid '"a"', 'expected \'{\''
+        assertInvalid '{', 'unexpected end of input, expected \'"\''
+        assertInvalid '{"a"}', 'expected \':\''
+        assertInvalid '{"a":}', 'unexpected \'}\', expected a JSON value'
+        assertInvalid '{"a":1,}', 'expected \'"\''
+        assertInvalid '{"a":1 "b":2}', 'expected \',\' or \'}\''
+        assertInvalid '{"a":[1 2]}', 'expected \',\' or \']\''
+        assertInvalid '{"a":[1,]}', 'expected a JSON value'
+        assertInvalid '{"a":[1', 'unexpected end of input, expected \',\' or \']\''
+        assertInvalid '{a:1}', 'expected \'"\''
+        assertInvalid "{'a':1}", 'expected \'"\''
+        assertInvalid '{"a":1}x', 'unexpected \'x\', expected end of input'
+        assertInvalid '{"a":1}{}', 'expected end of input'
+        assertInvalid '{"a":tru}', 'invalid literal, expected \'true\''
+        assertInvalid '{"a":nul', 'invalid literal, expected \'null\''
+        assertInvalid '{"a":False}', 'expected a JSON value'
+        assertInvalid '{"a":01}', 'expected \',\' or \'}\''
+        assertInvalid '{"a":+1}', 'expected a JSON value'
+        assertInvalid '{"a":-}', 'expected a JSON value'
+        assertInvalid '{"a":1.}', 'expected a digit'
+        assertInvalid '{"a":.5}', 'expected a JSON value'
+        assertInvalid '{"a":1e}', 'expected a digit'
+        assertInvalid '{"a":NaN}', 'expected a JSON value'
+        assertInvalid '{"a":"b', 'unterminated string'
+        assertInvalid '{"a":"b\\', 'unterminated string'
+        assertInvalid '{"a":"\\x"}', 'invalid escape sequence'
+        assertInvalid '{"a":"\\u12"}', 'invalid unicode escape'
+        assertInvalid '{"a":"\\u12', 'unterminated string'
+        assertInvalid '{"a":"\t"}', 'unescaped control character in string'
+        assertInvalid '{"a":"é\n"}', 'unescaped control character in string'
+        assertInvalid '{"a":1}\u0000', 'unexpected byte 0x00, expected end of input'
+    }
+
+    @Test
+    void testDuplicateMemberNames() {
+        assertInvalid '{"alg":"none","alg":"HS256"}', 'duplicate member name \'alg\' at byte offset 14.'
+        assertInvalid '{"a":null,"a":null}', 'duplicate member name \'a\''
+        assertInvalid '{"o":{"a":1,"a":2}}', 'duplicate member name \'a\''
+        assertEquals([a: 1, o: [a: 2]], read('{"a":1,"o":{"a":2}}')) // same name in different objects is fine
+    }
+
+    @Test
+    void testMaxLength() {
+        def d = new SimpleJsonDeserializer(10, 9)
+        assertEquals([a: 123], d.deserialize('{"a":123}'.getBytes(Strings.UTF_8)))
+        try {
+            d.deserialize('{"a":1234}'.getBytes(Strings.UTF_8))
+            fail()
+        } catch (DeserializationException expected) {
+            String msg = 'Unable to deserialize JSON: document length of 10 bytes exceeds the maximum allowed ' +
+                    'length of 9 bytes.'
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testMaxDepth() {
+        def d = new SimpleJsonDeserializer(3, 1000)
+        assertEquals([a: [[:]]], d.deserialize('{"a":[{}]}'.getBytes(Strings.UTF_8)))
+        try {
+            d.deserialize('{"a":[{"b":[]}]}'.getBytes(Strings.UTF_8))
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().contains('nesting depth exceeds the maximum allowed depth of 3')
+        }
+    }
+
+    @Test
+    void testDeeplyNestedDefaultLimit() {
+        int n = 100_000 // would overflow the stack without a depth limit
+        String json = '{"a":' + ('[' * n) + (']' * n) + '}'
+        assertInvalid json, 'nesting depth exceeds the maximum allowed depth of 64'
+    }
+
+    @Test
+    void testMaxNumberLength() {
+        assertEquals new BigInteger('9' * 1000), read('{"a":' + ('9' * 1000) + '}').a
+        assertInvalid '{"a":' + ('9' * 1001) + '}', 'number length exceeds the maximum allowed length of 1000'
+        assertInvalid '{"a":1.' + ('0' * 1000) + '}', 'number length exceeds the maximum allowed length of 1000'
+    }
+
+    @Test
+    void testCanonicalNames() {
+        def d = new SimpleJsonDeserializer()
+        def a = d.deserialize('{"alg":"HS256","custom":"value"}'.getBytes(Strings.UTF_8))
+        def b = d.deserialize('{"alg":"HS256","custom":"value"}'.getBytes(Strings.UTF_8))
+        assertSame 'alg', a.keySet().iterator().next() // registered names are always canonical
+        assertSame 'HS256', a.alg
+        assertNotSame a.keySet()[1], b.keySet()[1] // names from parsed documents are never learned
+        assertNotSame a.custom, b.custom
+    }
+
+    @Test
+    void testManyDistinctNames() {
+        def d = new SimpleJsonDeserializer()
+        5.times { round ->
+            StringBuilder sb = new StringBuilder('{"a":0')
+            2000.times { i -> sb.append(",\"n$i\":$i") }
+            def m = d.deserialize(sb.append('}').toString().getBytes(Strings.UTF_8))
+            assertEquals 2001, m.size()
+            assertEquals 1999, m.n1999
+        }
+    }
+
+    @Test
+    void testNameTableNeverGrows() {
+        def d = new SimpleJsonDeserializer()
+        int size = SimpleJsonDeserializer.KNOWN.length
+        assertEquals size, SimpleJsonDeserializer.NAMES.size
+        StringBuilder sb = new StringBuilder('{"a":0')
+        1000.times { i -> sb.append(",\"n$i\":$i") }
+        assertEquals 1001, d.deserialize(sb.append('}').toString().getBytes(Strings.UTF_8)).size()
+        assertEquals size, SimpleJsonDeserializer.NAMES.size
+    }
+
+    @Test
+    void testNameTableCollidingHashes() {
+        def d = new SimpleJsonDeserializer()
+        List<String> names = ['']
+        5.times { names = names.collectMany { [it + 'Aa', it + 'BB'] } } // 32 names, all with the same hashCode
+        assertEquals 1, names.collect { it.hashCode() }.unique().size()
+        String json = '{' + names.collect { "\"$it\":1" }.join(',') + '}'
+        2.times {
+            def m = d.deserialize(json.getBytes(Strings.UTF_8))
+            assertEquals names, new ArrayList(m.keySet())
+        }
+    }
+
+    @Test
+    void testPopulate() {
+        def target = new LinkedHashMap<String, Object>([existing: 'value'])
+        DESERIALIZER.deserialize('{"a":1,"b":{"c":"d"}}'.getBytes(Strings.UTF_8), target)
+        assertEquals([existing: 'value', a: 1, b: [c: 'd']], target)
+    }
+
+    @Test
+    void testPopulateDuplicateDetectedWhenTargetDiscardsValues() {
+        def target = new LinkedHashMap<String, Object>() {
+            @Override
+            Object put(String key, Object value) {
+                return value == null ? remove(key) : super.put(key, value)
+            }
+        }
+        try {
+            DESERIALIZER.deserialize('{"a":null,"a":"b"}'.getBytes(Strings.UTF_8), target)
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().contains('duplicate member name \'a\'')
+        }
+    }
+
+    @Test
+    void testPopulatePropagatesTargetExceptions() {
+        def target = new LinkedHashMap<String, Object>() {
+            @Override
+            Object put(String key, Object value) {
+                throw new IllegalArgumentException("Invalid $key")
+            }
+        }
+        try {
+            DESERIALIZER.deserialize('{"exp":"soon"}'.getBytes(Strings.UTF_8), target)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Invalid exp', expected.getMessage()
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testPopulateNullTarget() {
+        DESERIALIZER.deserialize('{}'.getBytes(Strings.UTF_8), null)
+    }
+
+    private static Map<String, Object> retain(String json, Set<String> names) {
+        def target = new LinkedHashMap<String, Object>()
+        DESERIALIZER.deserialize(json.getBytes(Strings.UTF_8), target, names)
+        return target
+    }
+
+    @Test
+    void testPopulateRetained() {
+        String json = '{"sub":"joe","perms":{"a":[1,2.5e3,-0,true,false,null],"b":{"c":"\\u00e9\\"\\n"}},' +
+                '"big":123456789012345678901234567890,"s":"café \ud83d\ude00","scope":"read",' +
+                '"list":[[],{},[{}]],"exp":1690003600}'
+        assertEquals([sub: 'joe', scope: 'read', exp: 1690003600], retain(json, ['sub', 'scope', 'exp'] as Set))
+        assertEquals([:], retain(json, [] as Set))
+        assertEquals(read(json), retain(json, ['sub', 'perms', 'big', 's', 'scope', 'list', 'exp'] as Set))
+    }
+
+    @Test
+    void testPopulateRetainedValidatesSkippedValues() {
+        ['{"a":1,"b":[1 2]}', '{"a":1,"b":{"c"}}', '{"a":1,"b":"\\x"}', '{"a":1,"b":01}', '{"a":1,"b":tru}',
+         '{"a":1,"b":"\u0001"}', '{"a":1,"b":[}', '{"a":1,"b":"unterminated}', '{"a":1,"b":}', '{"a":1,"b":1.}',
+         '{"a":1,"b":{"c":1,}}'].each { json ->
+            try {
+                retain(json, ['a'] as Set)
+                fail("Expected invalid JSON: $json")
+            } catch (DeserializationException expected) {
+                assertTrue expected.getMessage().startsWith('Unable to deserialize JSON: ')
+            }
+        }
+        try { // invalid UTF-8 in a skipped string:
+            DESERIALIZER.deserialize([0x7B, 0x22, 0x62, 0x22, 0x3A, 0x22, 0xC3, 0x22, 0x7D] as byte[], [:], ['a'] as Set)
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().contains('invalid UTF-8 byte sequence')
+        }
+    }
+
+    @Test
+    void testPopulateRetainedDetectsDuplicateSkippedNames() {
+        try {
+            retain('{"b":1,"a":2,"b":3}', ['a'] as Set)
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().contains('duplicate member name \'b\'')
+        }
+    }
+
+    @Test
+    void testPopulateRetainedEnforcesMaxDepth() {
+        def d = new SimpleJsonDeserializer(3, SimpleJsonDeserializer.DEFAULT_MAX_LENGTH)
+        d.deserialize('{"a":1,"b":[[]]}'.getBytes(Strings.UTF_8), [:], ['a'] as Set)
+        try {
+            d.deserialize('{"a":1,"b":[[[]]]}'.getBytes(Strings.UTF_8), [:], ['a'] as Set)
+            fail()
+        } catch (DeserializationException expected) {
+            assertTrue expected.getMessage().contains('nesting depth exceeds the maximum allowed depth of 3')
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testPopulateRetainedNullNames() {
+        DESERIALIZER.deserialize('{}'.getBytes(Strings.UTF_8), [:], null)
+    }
+
+    /**
+     * Compares the built-in deserializer with Jackson for typical JWT header and claims sizes.  Skipped unless the
+     * {@code jjwt.benchmark} system property is {@code true}, for example:
+     * {@code mvn test -pl impl -Dtest=SimpleJsonDeserializerTest -Djjwt.benchmark=true}
+     */
+    @Test
+    void benchmarkJwtSizedDocuments() {
+        Assume.assumeTrue(Boolean.getBoolean('jjwt.benchmark'))
+
+        def jackson = new JacksonDeserializer(new ObjectMapper())
+        [2, 10, 40].each { claimCount ->
+            StringBuilder sb = new StringBuilder('{"iss":"https://issuer.example.com","sub":"1234567890",' +
+                    '"aud":["api","web"],"iat":1690000000,"exp":1690003600')
+            claimCount.times { i -> sb.append(",\"claim$i\":\"value-$i\",\"n$i\":$i") }
+            byte[] json = sb.append('}').toString().getBytes(Strings.UTF_8)
+            assertEquals jackson.deserialize(json), DESERIALIZER.deserialize(json)
+
+            int iterations = 200_000
+            3.times { // warm up, then measure
+                long jacksonNanos = time(iterations) { jackson.deserialize(json) }
+                long simpleNanos = time(iterations) { DESERIALIZER.deserialize(json) }
+                println String.format('%,d byte document: jackson %,d ns/op, built-in %,d ns/op', json.length,
+                        (long) (jacksonNanos / iterations), (long) (simpleNanos / iterations))
+            }
+        }
+    }
+
+    private static long time(int iterations, Closure c) {
+        long start = System.nanoTime()
+        for (int i = 0; i < iterations; i++) {
+            c.call()
+        }
+        return System.nanoTime() - start
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.io
+
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.io.RawJson
+import io.jsonwebtoken.io.SerializationException
+import io.jsonwebtoken.jackson.io.JacksonSerializer
+import io.jsonwebtoken.lang.DateFormats
+import io.jsonwebtoken.lang.Strings
+import io.jsonwebtoken.lang.Supplier
+import io.jsonwebtoken.security.Keys
+import org.junit.Test
+
+import java.util.concurrent.atomic.AtomicLong
+
+import static org.junit.Assert.*
+
+class SimpleJsonSerializerTest {
+
+    private static final SimpleJsonSerializer<Object> SERIALIZER = new SimpleJsonSerializer<>()
+
+    private static String write(Object o) {
+        return new String(SERIALIZER.serialize(o), Strings.UTF_8)
+    }
+
+    @Test
+    void testDefaults() {
+        assertEquals SimpleJsonDeserializer.DEFAULT_MAX_DEPTH, SERIALIZER.getMaxDepth()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidMaxDepth() {
+        new SimpleJsonSerializer(0)
+    }
+
+    @Test
+    void testCompactObject() {
+        def m = new LinkedHashMap([alg: 'HS256', typ: 'JWT', n: null, crit: ['exp', 'b64'], b64: false,
+                                   o  : [:], a: []])
+        assertEquals '{"alg":"HS256","typ":"JWT","n":null,"crit":["exp","b64"],"b64":false,"o":{},"a":[]}', write(m)
+    }
+
+    @Test
+    void testScalars() {
+        assertEquals 'null', write(null)
+        assertEquals 'true', write(true)
+        assertEquals '"x"', write(new StringBuilder('x'))
+        assertEquals '"c"', write('c' as char)
+        assertEquals '"chars"', write('chars'.toCharArray())
+        assertEquals '"SECONDS"', write(java.util.concurrent.TimeUnit.SECONDS)
+    }
+
+    @Test
+    void testNumbers() {
+        assertEquals '[1,-2,3,4,18446744073709551616,1.5,0.25,1.0E20,42,12.50]',
+                write([1, -2L, 3 as short, 4 as byte, new BigInteger('18446744073709551616'), 1.5d, 0.25f,
+                       1e20d, new AtomicLong(42), new BigDecimal('12.50')])
+    }
+
+    @Test
+    void testNonFiniteNumbers() {
+        for (def n : [Double.NaN, Double.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY]) {
+            try {
+                write([a: n])
+                fail()
+            } catch (SerializationException expected) {
+                assertEquals "Unable to serialize non-finite number $n to JSON." as String, expected.getMessage()
+            }
+        }
+    }
+
+    @Test
+    void testStringEscaping() {
+        assertEquals '"q\\"b\\\\s/\\b\\f\\n\\r\\t\\u0000\\u001fé€😀"', write('q"b\\s/\b\f\n\r\t\u0000\u001fé€😀')
+        assertEquals '{"k\\"ey":"v"}', write(['k"ey': 'v'])
+    }
+
+    @Test
+    void testMatchesJackson() {
+        def m = new LinkedHashMap([iss: 'me', 'ünïcödé': 'ゼロ\n', aud: ['a', 'b'], n: 1, l: Long.MAX_VALUE,
+                                   d  : 1.25d, nested: [t: true, f: false, z: null], bytes: [1, 2, 3] as byte[]])
+        assertEquals new String(new JacksonSerializer().serialize(m), Strings.UTF_8), write(m)
+    }
+
+    @Test
+    void testArrays() {
+        assertEquals '[1,2,3]', write([1, 2, 3] as int[])
+        assertEquals '["a",null]', write(['a', null] as String[])
+        assertEquals '"AQID"', write([1, 2, 3] as byte[])
+        assertEquals '[["a"],[]]', write([['a'] as Set, []])
+    }
+
+    @Test
+    void testDates() {
+        def date = new Date(1690000000123L)
+        def cal = Calendar.getInstance()
+        cal.setTime(date)
+        String expected = '"' + DateFormats.formatIso8601(date) + '"'
+        assertEquals expected, write(date)
+        assertEquals expected, write(cal)
+    }
+
+    @Test
+    void testSupplier() {
+        def supplier = new Supplier<String>() {
+            @Override
+            String get() {
+                return 'secret'
+            }
+
+            @Override
+            String toString() {
+                return '<redacted>'
+            }
+        }
+        assertEquals '{"k":"secret"}', write([k: supplier])
+    }
+
+    @Test
+    void testUtf8() {
+        String s = 'a\u007f\u0080\u07ff\u0800\uffff😀\ud800x\udc00'
+        byte[] expected = ('"' + s + '"').getBytes(Strings.UTF_8) // unpaired surrogates become '?'
+        assertArrayEquals expected, SERIALIZER.serialize(s)
+    }
+
+    @Test
+    void testLongStringGrowsBuffer() {
+        String s = ('a' * 300) + 'é' + ('\n' * 300)
+        assertEquals '"' + ('a' * 300) + 'é' + ('\\n' * 300) + '"', write(s)
+    }
+
+    @Test
+    void testIntegralNumbers() {
+        assertEquals "[0,7,-7,10,${Long.MAX_VALUE},${Long.MIN_VALUE},${Integer.MIN_VALUE}]" as String,
+                write([0, 7, -7, 10, Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE])
+    }
+
+    @Test
+    void testSelfSupplyingSupplier() {
+        def supplier = new Supplier<Object>() {
+            @Override
+            Object get() {
+                return this
+            }
+        }
+        try {
+            write(supplier)
+            fail()
+        } catch (SerializationException expected) {
+            assertTrue expected.getMessage().contains('nesting depth exceeds the maximum allowed depth of 64')
+        }
+    }
+
+    @Test
+    void testUnsupportedType() {
+        try {
+            write([a: new Object()])
+            fail()
+        } catch (SerializationException expected) {
+            assertEquals 'Unable to serialize object of type java.lang.Object to JSON using known heuristics.',
+                    expected.getMessage()
+        }
+    }
+
+    @Test
+    void testWrapsUnexpectedExceptions() {
+        def map = new LinkedHashMap() {
+            @Override
+            Set entrySet() {
+                throw new IllegalStateException('broken')
+            }
+        }
+        try {
+            write(map)
+            fail()
+        } catch (SerializationException expected) {
+            assertTrue expected.getMessage().endsWith(' to JSON: broken')
+            assertTrue expected.getCause() instanceof IllegalStateException
+        }
+    }
+
+    @Test
+    void testMaxDepth() {
+        assertEquals '[[]]', new String(new SimpleJsonSerializer(2).serialize([[]]), Strings.UTF_8)
+        try {
+            new SimpleJsonSerializer(2).serialize([[[:]]])
+            fail()
+        } catch (SerializationException expected) {
+            String msg = 'Unable to serialize object to JSON: nesting depth exceeds the maximum allowed depth of 2.'
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testSelfReferencingCollection() {
+        def list = []
+        list.add(list)
+        try {
+            write(list)
+            fail()
+        } catch (SerializationException expected) {
+            assertTrue expected.getMessage().contains('nesting depth exceeds the maximum allowed depth of 64')
+        }
+    }
+
+    @Test
+    void testRoundTripJws() {
+        def key = Keys.hmacShaKeyFor(new byte[32])
+        String jws = Jwts.builder().serializeToJsonWith(new SimpleJsonSerializer<Map<String, ?>>())
+                .setSubject('joe').claim('roles', ['admin', 'user']).claim('n', 42)
+                .signWith(key).compact()
+        def claims = Jwts.parserBuilder().deserializeJsonWith(new SimpleJsonDeserializer()).verifyWith(key).build()
+                .parseClaimsJws(jws).getPayload()
+        assertEquals 'joe', claims.getSubject()
+        assertEquals(['admin', 'user'], claims.get('roles'))
+        assertEquals 42, claims.get('n')
+    }
+
+    @Test
+    void testRawJson() {
+        def perms = RawJson.of('[ "read", {"scope":"all"} ]')
+        assertEquals '[ "read", {"scope":"all"} ]', write(perms)
+        assertEquals '{"sub":"joe","perms":[ "read", {"scope":"all"} ]}', write([sub: 'joe', perms: perms])
+    }
+
+    @Test
+    void testRoundTripJwsWithRawJsonClaim() {
+        def key = Keys.hmacShaKeyFor(new byte[32])
+        def perms = RawJson.of('{"admin":["read","write"],"n":1}')
+        String jws = Jwts.builder().setSubject('joe').claim('perms', perms).signWith(key).compact()
+        def claims = Jwts.parserBuilder().verifyWith(key).build().parseClaimsJws(jws).getPayload()
+        assertEquals([admin: ['read', 'write'], n: 1], claims.get('perms'))
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class DoubleConverterTest {
+
+    static final DoubleConverter CONVERTER = DoubleConverter.INSTANCE
+
+    @Test
+    void testApplyTo() {
+        assertEquals 4.2d, CONVERTER.applyTo(4.2d), 0d
+    }
+
+    @Test
+    void testApplyFrom() {
+        assertEquals 4.2d, CONVERTER.applyFrom(4.2d), 0d
+        assertEquals 4d, CONVERTER.applyFrom(4), 0d
+        assertEquals 0.25d, CONVERTER.applyFrom(new BigDecimal('0.25')), 0d
+    }
+
+    @Test
+    void testApplyFromInvalid() {
+        try {
+            CONVERTER.applyFrom('4.2')
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Value must be a JSON number, found: java.lang.String', expected.getMessage()
+        }
+        try {
+            CONVERTER.applyFrom(Double.NaN)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'Value must be a finite number.', expected.getMessage()
+        }
+    }
+}
@@ -221,4 +221,18 @@ class FieldsTest {
         def field = Fields.builder(String.class).setId('foo').setName("FooName").build()
         assertFalse field.equals(new Object())
     }
+
+    @Test
+    void testIsDeferrable() {
+        assertFalse STRING.isDeferrable('bar') // no canonical type, never deferred
+        def bytes = Fields.bytes('foo', 'Foo').setCanonicalType(String.class).build()
+        assertTrue bytes.isDeferrable('AQID')
+        assertFalse bytes.isDeferrable([1, 2, 3] as byte[])
+        assertFalse bytes.isDeferrable(null)
+        def chain = Fields.x509Chain('x5c', 'X.509 Certificate Chain')
+        assertTrue chain.isDeferrable(['AQID'])
+        assertTrue chain.isDeferrable(['AQID'] as Set) // any JSON array
+        assertFalse chain.isDeferrable('AQID')
+        assertFalse chain.isDeferrable(['AQID', 42])
+    }
 }
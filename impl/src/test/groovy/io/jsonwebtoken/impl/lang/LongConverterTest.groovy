@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang
+
+import org.junit.Test
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import static org.junit.Assert.*
+
+class LongConverterTest {
+
+    static final LongConverter CONVERTER = LongConverter.INSTANCE
+
+    static void assertInvalid(Object value, String msg) {
+        try {
+            CONVERTER.applyFrom(value)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals msg, expected.getMessage()
+        }
+    }
+
+    @Test
+    void testApplyTo() {
+        assertEquals 42L, CONVERTER.applyTo(42L)
+    }
+
+    @Test
+    void testIntegralTypes() {
+        assertEquals 1L, CONVERTER.applyFrom((byte) 1)
+        assertEquals 2L, CONVERTER.applyFrom((short) 2)
+        assertEquals 3L, CONVERTER.applyFrom(3)
+        assertEquals Long.MAX_VALUE, CONVERTER.applyFrom(Long.MAX_VALUE)
+        assertEquals 4L, CONVERTER.applyFrom(new AtomicInteger(4))
+        assertEquals Long.MIN_VALUE, CONVERTER.applyFrom(BigInteger.valueOf(Long.MIN_VALUE))
+        assertEquals 5L, CONVERTER.applyFrom(new BigDecimal('5.000'))
+    }
+
+    @Test
+    void testIntegralDoubles() { // e.g. from Gson, which reads all numbers as doubles
+        assertEquals 1690000000L, CONVERTER.applyFrom(1690000000d)
+        assertEquals(-7L, CONVERTER.applyFrom(-7f))
+        assertEquals Long.MIN_VALUE, CONVERTER.applyFrom(-Math.pow(2, 63))
+    }
+
+    @Test
+    void testNonIntegralNumbers() {
+        String msg = 'Value cannot be represented as a java.lang.Long.'
+        assertInvalid 1.5d, msg
+        assertInvalid Math.pow(2, 63), msg
+        assertInvalid Double.NaN, msg
+        assertInvalid Double.POSITIVE_INFINITY, msg
+        assertInvalid new BigDecimal('1.5'), msg
+        assertInvalid BigInteger.ONE.shiftLeft(63), msg
+    }
+
+    @Test
+    void testNonNumbers() {
+        assertInvalid '42', 'Value must be a JSON number, found: java.lang.String'
+        assertInvalid true, 'Value must be a JSON number, found: java.lang.Boolean'
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.lang
+
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class LruCacheTest {
+
+    @Test(expected = IllegalArgumentException)
+    void testZeroCapacity() {
+        new LruCache(0)
+    }
+
+    @Test
+    void testPutAndGet() {
+        def cache = new LruCache<String, String>(2)
+        assertEquals 2, cache.getCapacity()
+        assertNull cache.put('a', 'A')
+        assertEquals 'A', cache.get('a')
+        assertEquals 'A', cache.put('a', 'AA')
+        assertEquals 'AA', cache.get('a')
+        assertEquals 1, cache.size()
+    }
+
+    @Test
+    void testGetNullKey() {
+        assertNull new LruCache<String, String>(1).get(null)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testPutNullValue() {
+        new LruCache<String, String>(1).put('a', null)
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        def cache = new LruCache<String, String>(2)
+        cache.put('a', 'A')
+        cache.put('b', 'B')
+        cache.get('a') // 'b' is now the least recently used entry
+        cache.put('c', 'C')
+        assertEquals 2, cache.size()
+        assertEquals 'A', cache.get('a')
+        assertNull cache.get('b')
+        assertEquals 'C', cache.get('c')
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        def cache = new LruCache<String, String>(2)
+        cache.put('a', 'A')
+        cache.put('b', 'B')
+        assertNull cache.remove(null)
+        assertEquals 'A', cache.remove('a')
+        assertEquals 1, cache.size()
+        cache.clear()
+        assertEquals 0, cache.size()
+    }
+}
@@ -17,6 +17,7 @@ package io.jsonwebtoken.impl.lang
 
 import io.jsonwebtoken.impl.DefaultStubService
 import io.jsonwebtoken.StubService
+import io.jsonwebtoken.lang.Supplier
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.powermock.api.easymock.PowerMock
@@ -27,6 +28,7 @@ import java.lang.reflect.Field
 
 import static org.junit.Assert.assertEquals
 import static org.junit.Assert.assertNotNull
+import static org.junit.Assert.assertSame
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest([Services])
@@ -53,6 +55,49 @@ class ServicesTest {
         }
     }
 
+    @Test
+    void testLoadFirstWithFallbackAvailable() {
+        def supplier = new Supplier<StubService>() {
+            @Override
+            StubService get() {
+                throw new AssertionError('fallback should not be created') // only created when needed
+            }
+        }
+        assertEquals(DefaultStubService, Services.loadFirst(StubService, supplier).class)
+    }
+
+    @Test
+    void testLoadFirstWithFallbackUnavailable() {
+        def fallback = new StubService() {}
+        def supplier = new Supplier<StubService>() {
+            @Override
+            StubService get() {
+                return fallback
+            }
+        }
+        NoServicesClassLoader.runWith {
+            assertSame fallback, Services.loadFirst(StubService.class, supplier)
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testLoadFirstWithNullFallback() {
+        Services.loadFirst(StubService.class, null)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testLoadFirstWithNullFallbackInstance() {
+        def supplier = new Supplier<StubService>() {
+            @Override
+            StubService get() {
+                return null
+            }
+        }
+        NoServicesClassLoader.runWith {
+            Services.loadFirst(StubService.class, supplier)
+        }
+    }
+
     @Test
     void testPrivateConstructor() {
         new Services(); // not allowed in Java, including here for test coverage
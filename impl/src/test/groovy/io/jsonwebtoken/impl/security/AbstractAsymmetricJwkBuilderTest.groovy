@@ -82,6 +82,21 @@ class AbstractAsymmetricJwkBuilderTest {
         assertEquals encoded, jwk.get(AbstractAsymmetricJwk.X5T.getId())
     }
 
+    @Test
+    void testX509CertificateThumbprintsCached() {
+        def cert = TestKeys.RS256.cert
+        def a = builder().setX509CertificateChain(CHAIN).withX509Sha1Thumbprint(true).withX509Sha256Thumbprint(true).build()
+        def cachedSha1 = DefaultX509Builder.SHA1_THUMBPRINTS.get(cert)
+        def cachedSha256 = DefaultX509Builder.SHA256_THUMBPRINTS.get(cert)
+        assertArrayEquals cachedSha1, a.getX509CertificateSha1Thumbprint()
+        assertArrayEquals cachedSha256, a.getX509CertificateSha256Thumbprint()
+
+        def b = builder().setX509CertificateChain(CHAIN).withX509Sha1Thumbprint(true).withX509Sha256Thumbprint(true).build()
+        assertSame cachedSha1, DefaultX509Builder.SHA1_THUMBPRINTS.get(cert) // not recomputed
+        assertSame cachedSha256, DefaultX509Builder.SHA256_THUMBPRINTS.get(cert)
+        assertArrayEquals a.getX509CertificateSha256Thumbprint(), b.getX509CertificateSha256Thumbprint()
+    }
+
     @Test
     void testX509CertificateSha256Thumbprint() {
         Request<byte[]> request = new DefaultRequest(TestKeys.RS256.cert.getEncoded(), null, null)
@@ -25,11 +25,14 @@ import java.security.interfaces.ECPrivateKey
 import java.security.interfaces.ECPublicKey
 import java.security.spec.*
 
-import static org.junit.Assert.assertEquals
-import static org.junit.Assert.fail
+import static org.junit.Assert.*
 
 class AbstractEcJwkFactoryTest {
 
+    private static def jacobian(ECPoint point) {
+        return AbstractEcJwkFactory.JacobianPoint.of(point)
+    }
+
     @Test
     void testInvalidJwaCurveId() {
         String id = 'foo'
@@ -64,7 +67,7 @@ class AbstractEcJwkFactoryTest {
     void testDoubleInfinity() {
         ECParameterSpec spec = AbstractEcJwkFactory.getCurveByJwaId('P-256')
         def curve = spec.getCurve()
-        def result = AbstractEcJwkFactory.doublePoint(ECPoint.POINT_INFINITY, curve)
+        def result = AbstractEcJwkFactory.JacobianPoint.INFINITY.twice(curve).toAffine(curve)
         assertEquals ECPoint.POINT_INFINITY, result
     }
 
@@ -73,11 +76,11 @@ class AbstractEcJwkFactoryTest {
         ECParameterSpec spec = AbstractEcJwkFactory.getCurveByJwaId('P-256')
         def curve = spec.getCurve()
         ECPoint point = new ECPoint(BigInteger.valueOf(1), BigInteger.valueOf(2)) // any point is fine for this test
-        def result = AbstractEcJwkFactory.add(ECPoint.POINT_INFINITY, point, curve)
+        def result = AbstractEcJwkFactory.JacobianPoint.INFINITY.add(jacobian(point), curve).toAffine(curve)
         //adding infinity to a point should return the point:
         assertEquals point, result
         //adding a point to infinity should return the point:
-        result = AbstractEcJwkFactory.add(point, ECPoint.POINT_INFINITY, curve)
+        result = jacobian(point).add(AbstractEcJwkFactory.JacobianPoint.INFINITY, curve).toAffine(curve)
         assertEquals point, result
     }
 
@@ -90,11 +93,54 @@ class AbstractEcJwkFactoryTest {
         def curve = spec.getCurve()
         def point = pub.getW()
 
-        def doubled = AbstractEcJwkFactory.doublePoint(point, curve)
-        def added = AbstractEcJwkFactory.add(point, point, curve)
+        def doubled = jacobian(point).twice(curve).toAffine(curve)
+        def added = jacobian(point).add(jacobian(point), curve).toAffine(curve)
         assertEquals doubled, added
     }
 
+    @Test
+    void testMultiplyMatchesJcaPublicKeys() {
+        for (def alg : [Jwts.SIG.ES256, Jwts.SIG.ES384, Jwts.SIG.ES512]) {
+            def pair = alg.keyPairBuilder().build()
+            def priv = pair.getPrivate() as ECPrivateKey
+            def pub = pair.getPublic() as ECPublicKey
+            def spec = priv.getParams()
+            assertEquals pub.getW(), AbstractEcJwkFactory.multiply(spec.getGenerator(), priv.getS(), spec)
+        }
+    }
+
+    @Test
+    void testMultiplyByOrderIsInfinity() {
+        ECParameterSpec spec = AbstractEcJwkFactory.getCurveByJwaId('P-256')
+        assertEquals ECPoint.POINT_INFINITY, AbstractEcJwkFactory.multiply(spec.getGenerator(), spec.getOrder(), spec)
+    }
+
+    @Test
+    void testAddInversePointIsInfinity() {
+        ECParameterSpec spec = AbstractEcJwkFactory.getCurveByJwaId('P-256')
+        def curve = spec.getCurve()
+        def g = spec.getGenerator()
+        def p = ((ECFieldFp) curve.getField()).getP()
+        def inverse = new ECPoint(g.getAffineX(), p.subtract(g.getAffineY()))
+        assertEquals ECPoint.POINT_INFINITY, jacobian(g).add(jacobian(inverse), curve).toAffine(curve)
+    }
+
+    @Test
+    void testContainsCachesValidPoints() {
+        def pub = Jwts.SIG.ES384.keyPairBuilder().build().getPublic() as ECPublicKey
+        def curve = pub.getParams().getCurve()
+        def key = new AbstractEcJwkFactory.CurvePoint(curve, pub.getW())
+        assertNull AbstractEcJwkFactory.VALIDATED_POINTS.get(key)
+        assertTrue AbstractEcJwkFactory.contains(curve, pub.getW())
+        assertNotNull AbstractEcJwkFactory.VALIDATED_POINTS.get(key)
+        assertTrue AbstractEcJwkFactory.contains(curve, pub.getW())
+
+        def invalid = new ECPoint(pub.getW().getAffineX(), pub.getW().getAffineY().add(BigInteger.ONE))
+        assertFalse AbstractEcJwkFactory.contains(curve, invalid)
+        assertNull AbstractEcJwkFactory.VALIDATED_POINTS.get(new AbstractEcJwkFactory.CurvePoint(curve, invalid))
+        assertFalse AbstractEcJwkFactory.contains(curve, invalid)
+    }
+
     @Test
     void testDerivePublicFails() {
 
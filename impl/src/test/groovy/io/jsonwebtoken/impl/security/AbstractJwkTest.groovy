@@ -164,4 +164,24 @@ class AbstractJwkTest {
         assertEquals rsaPrivJwk1.hashCode(), rsaPrivJwk1.@context.hashCode()
         assertEquals rsaPrivJwk2.hashCode(), rsaPrivJwk2.@context.hashCode()
     }
+
+    @Test
+    void testThumbprintMemoized() {
+        def thumbprint = jwk.thumbprint()
+        assertSame thumbprint, jwk.thumbprint()
+        assertSame thumbprint, jwk.thumbprint(Jwks.HASH.SHA256)
+        def sha384 = jwk.thumbprint(Jwks.HASH.SHA384)
+        assertNotEquals thumbprint, sha384
+        assertSame sha384, jwk.thumbprint(Jwks.HASH.SHA384)
+    }
+
+    @Test
+    void testIdFromThumbprintMemoized() {
+        def ctx = newCtx()
+        ctx.setIdThumbprintAlgorithm(Jwks.HASH.SHA256)
+        jwk = newJwk(ctx)
+        def thumbprint = jwk.thumbprint()
+        assertEquals thumbprint.toString(), jwk.getId()
+        assertSame thumbprint, jwk.thumbprint() // computed only once, in the constructor
+    }
 }
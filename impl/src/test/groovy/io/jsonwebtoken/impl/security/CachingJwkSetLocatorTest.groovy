@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security
+
+import io.jsonwebtoken.Clock
+import io.jsonwebtoken.Header
+import io.jsonwebtoken.Locator
+import io.jsonwebtoken.impl.DefaultJwsHeader
+import io.jsonwebtoken.impl.lang.Services
+import io.jsonwebtoken.io.Serializer
+import io.jsonwebtoken.lang.Supplier
+import io.jsonwebtoken.security.Jwk
+import io.jsonwebtoken.security.Jwks
+import org.junit.Before
+import org.junit.Test
+
+import javax.crypto.SecretKey
+import java.nio.charset.StandardCharsets
+import java.security.Key
+import java.util.concurrent.Executor
+
+import static org.junit.Assert.*
+
+class CachingJwkSetLocatorTest {
+
+    static final long TTL = 1000
+    static final long AHEAD = 100
+    static final long MIN_INTERVAL = 50
+
+    long time
+    List<Runnable> pending
+    List<Jwk<?>> published
+    int loads
+    boolean fail
+    CachingJwkSetLocator locator
+
+    static String json(List<Jwk<?>> jwks) {
+        def serializer = Services.loadFirst(Serializer)
+        return new String(serializer.serialize([keys: jwks]), StandardCharsets.UTF_8)
+    }
+
+    static Jwk<?> jwk(SecretKey key, String alg, String kid) {
+        return Jwks.builder().forKey(key).setAlgorithm(alg).setId(kid).build()
+    }
+
+    Key locate(String alg, String kid) {
+        return ((Locator<Key>) locator).locate((Header) new DefaultJwsHeader([alg: alg, kid: kid]))
+    }
+
+    @Before
+    void setUp() {
+        time = 10000
+        pending = []
+        loads = 0
+        fail = false
+        published = [jwk(TestKeys.HS256, 'HS256', 'a')]
+        def source = new Supplier<String>() {
+            @Override
+            String get() {
+                loads++
+                if (fail) {
+                    throw new IllegalStateException('unavailable')
+                }
+                return json(published)
+            }
+        }
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(time)
+            }
+        }
+        def executor = new Executor() {
+            @Override
+            void execute(Runnable command) {
+                pending.add(command) // run manually to simulate background loading
+            }
+        }
+        locator = new CachingJwkSetLocator(source, Jwks.parser().build(), TTL, AHEAD, MIN_INTERVAL, executor, clock)
+    }
+
+    void runPending() {
+        def tasks = new ArrayList<Runnable>(pending)
+        pending.clear()
+        tasks.each { it.run() }
+    }
+
+    @Test
+    void testNotLoadedReturnsNullAndLoadsInBackground() {
+        assertNull locate('HS256', 'a')
+        assertEquals 1, pending.size()
+        assertEquals 0, loads // nothing loaded on the calling thread
+        runPending()
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        assertEquals 1, loads
+    }
+
+    @Test
+    void testConcurrentMissesCoalesced() {
+        10.times { assertNull locate('HS256', 'a') }
+        assertEquals 1, pending.size()
+        runPending()
+        assertEquals 1, loads
+    }
+
+    @Test
+    void testRefreshAheadServesCachedKeys() {
+        assertTrue locator.refresh()
+        runPending()
+
+        time += TTL - AHEAD - 1
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        assertTrue pending.isEmpty()
+
+        time += 1 // within the refresh-ahead window
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        assertEquals 1, pending.size()
+        time += 2 * AHEAD // now expired, but the refresh has not completed, so stale keys are still served:
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        assertEquals 1, pending.size()
+
+        published = [jwk(TestKeys.HS384, 'HS384', 'a')]
+        runPending()
+        assertEquals TestKeys.HS384, locate('HS384', 'a')
+        assertEquals 2, loads
+    }
+
+    @Test
+    void testUnknownKidRefreshRateLimited() {
+        assertTrue locator.refresh()
+        runPending()
+
+        assertNull locate('HS256', 'b') // unknown kid, but the last attempt was too recent
+        assertTrue pending.isEmpty()
+
+        time += MIN_INTERVAL
+        published = published + [jwk(TestKeys.HS512, 'HS512', 'b')]
+        assertNull locate('HS512', 'b')
+        assertEquals 1, pending.size()
+        runPending()
+        assertEquals TestKeys.HS512, locate('HS512', 'b')
+        assertEquals 2, loads
+    }
+
+    @Test
+    void testFailedLoadRetainsKeys() {
+        assertTrue locator.refresh()
+        runPending()
+
+        assertNull locator.getLastFailure()
+        fail = true
+        time += TTL
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        runPending()
+        assertEquals 'unavailable', locator.getLastFailure().getMessage()
+        assertEquals TestKeys.HS256, locate('HS256', 'a') // stale, but retained
+        assertTrue pending.isEmpty() // retry is rate-limited
+
+        time += MIN_INTERVAL
+        fail = false
+        assertEquals TestKeys.HS256, locate('HS256', 'a')
+        assertEquals 1, pending.size()
+        runPending()
+        assertEquals 3, loads
+        assertNull locator.getLastFailure()
+    }
+
+    @Test
+    void testRejectedExecution() {
+        def rejecting = new Executor() {
+            @Override
+            void execute(Runnable command) {
+                throw new java.util.concurrent.RejectedExecutionException('shutdown')
+            }
+        }
+        def source = new Supplier<String>() {
+            @Override
+            String get() {
+                return json(published)
+            }
+        }
+        def clock = new Clock() {
+            @Override
+            Date now() {
+                return new Date(time)
+            }
+        }
+        locator = new CachingJwkSetLocator(source, Jwks.parser().build(), TTL, AHEAD, 0, rejecting, clock)
+        assertFalse locator.refresh()
+        assertNull locate('HS256', 'a')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testRefreshAheadNotLessThanTimeToLive() {
+        new CachingJwkSetLocator({ '' } as Supplier<String>, Jwks.parser().build(), TTL, TTL, 0,
+                { it.run() } as Executor, { new Date() } as Clock)
+    }
+}
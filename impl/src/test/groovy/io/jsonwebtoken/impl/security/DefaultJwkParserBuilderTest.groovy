@@ -20,6 +20,7 @@ import io.jsonwebtoken.security.Jwks
 import org.junit.Test
 
 import java.security.Provider
+import java.util.concurrent.ForkJoinPool
 
 import static org.easymock.EasyMock.createMock
 import static org.junit.Assert.*
@@ -50,4 +51,29 @@ class DefaultJwkParserBuilderTest {
         def parser = Jwks.parser().deserializeJsonWith(deserializer).build() as DefaultJwkParser
         assertSame deserializer, parser.deserializer
     }
+
+    @Test
+    void testInternPublicJwks() {
+        def parser = Jwks.parser().internPublicJwks(true).build() as DefaultJwkParser
+        assertSame JwkInterner.INSTANCE, parser.interner
+        assertNull((Jwks.parser().build() as DefaultJwkParser).interner) // disabled by default
+    }
+
+    @Test
+    void testInternPublicJwksWithProvider() {
+        def parser = Jwks.parser().setProvider(createMock(Provider)).internPublicJwks(true).build() as DefaultJwkParser
+        assertNull parser.interner
+    }
+
+    @Test
+    void testForkJoinPool() {
+        def pool = new ForkJoinPool(2)
+        try {
+            def parser = Jwks.parser().setForkJoinPool(pool).build() as DefaultJwkParser
+            assertSame pool, parser.pool
+            assertNull((Jwks.parser().build() as DefaultJwkParser).pool) // sequential by default
+        } finally {
+            pool.shutdown()
+        }
+    }
 }
@@ -21,11 +21,13 @@ import io.jsonwebtoken.io.DeserializationException
 import io.jsonwebtoken.io.Deserializer
 import io.jsonwebtoken.io.Serializer
 import io.jsonwebtoken.security.Jwks
+import io.jsonwebtoken.security.KeyException
 import io.jsonwebtoken.security.MalformedKeyException
 import org.junit.Test
 
 import java.nio.charset.StandardCharsets
 import java.security.Key
+import java.util.concurrent.ForkJoinPool
 
 import static org.junit.Assert.*
 
@@ -98,6 +100,172 @@ class DefaultJwkParserTest {
         } catch (MalformedKeyException expected) {
             String msg = "Unable to deserialize JSON string argument: test"
             assertEquals msg, expected.getMessage()
+            assertTrue expected.getCause() instanceof DeserializationException
+        }
+    }
+
+    @Test
+    void testParseSet() {
+        def serializer = Services.loadFirst(Serializer)
+        def rsa = Jwks.builder().forKey(TestKeys.RS256.pair.public).setId('rsa').build()
+        def oct = Jwks.builder().forKey(TestKeys.HS256).setId('oct').build()
+        def data = [keys: [rsa, [kty: 'foo', kid: 'unsupported'], oct]]
+        String json = new String(serializer.serialize(data), StandardCharsets.UTF_8)
+
+        def set = Jwks.parser().build().parseSet(json)
+        assertEquals([rsa, oct], set.getKeys()) // unsupported key types are ignored
+        assertEquals([oct], set.findByKeyId('oct'))
+        assertSame set.getKeys()[0], set.findByThumbprint(rsa.thumbprint().toString())
+    }
+
+    @Test
+    void testParseSetWithoutKeys() {
+        try {
+            Jwks.parser().build().parseSet('{"foo":[]}')
+            fail()
+        } catch (MalformedKeyException expected) {
+            assertTrue expected.getMessage().startsWith("JWK Set JSON must contain a 'keys' array member")
+        }
+    }
+
+    @Test
+    void testParseSetWithNonObjectKey() {
+        try {
+            Jwks.parser().build().parseSet('{"keys":[42]}')
+            fail()
+        } catch (MalformedKeyException expected) {
+            assertEquals "JWK Set 'keys' array elements must be JSON objects.", expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseSetInvalidKey() {
+        try {
+            Jwks.parser().build().parseSet('{"keys":[{"kty":"oct"}]}')
+            fail()
+        } catch (MalformedKeyException expected) {
+        }
+    }
+
+    private static InputStream jwkSetStream(List keys) {
+        def serializer = Services.loadFirst(Serializer)
+        return new ByteArrayInputStream(serializer.serialize([keys: keys]))
+    }
+
+    private static List secretJwks(int count) {
+        List jwks = []
+        count.times { i ->
+            jwks.add(Jwks.builder().forKey(TestKeys.HS256).setId("k$i" as String).build())
+        }
+        return jwks
+    }
+
+    @Test
+    void testParseSetInputStream() {
+        def rsa = Jwks.builder().forKey(TestKeys.RS256.pair.public).setId('rsa').build()
+        def oct = Jwks.builder().forKey(TestKeys.HS256).setId('oct').build()
+        def set = Jwks.parser().build().parseSet(jwkSetStream([rsa, [kty: 'foo'], oct]))
+        assertEquals([rsa, oct], set.getKeys())
+    }
+
+    @Test
+    void testParseSetInputStreamFailures() {
+        def parser = Jwks.parser().build()
+        try {
+            parser.parseSet((InputStream) null)
+            fail()
+        } catch (IllegalArgumentException expected) {
+            assertEquals 'JWK Set InputStream cannot be null.', expected.getMessage()
+        }
+        try {
+            parser.parseSet(new ByteArrayInputStream('{"keys":'.getBytes(StandardCharsets.UTF_8)))
+            fail()
+        } catch (MalformedKeyException expected) {
+            assertTrue expected.getMessage().startsWith('Unable to deserialize JWK Set InputStream: ')
+            assertNotNull expected.getCause()
+        }
+        def broken = new InputStream() {
+            @Override
+            int read() throws java.io.IOException {
+                throw new java.io.IOException('test')
+            }
+        }
+        try {
+            parser.parseSet(broken)
+            fail()
+        } catch (io.jsonwebtoken.io.IOException expected) {
+            assertEquals 'Unable to read JWK Set InputStream: test', expected.getMessage()
+        }
+    }
+
+    @Test
+    void testParseSetLenient() {
+        def oct = Jwks.builder().forKey(TestKeys.HS256).setId('oct').build()
+        def keys = [[kty: 'oct'], oct, 42, [kty: 'foo']]
+        def result = Jwks.parser().build().parseSetLenient(jwkSetStream(keys))
+        assertEquals([oct], result.getJwkSet().getKeys())
+        assertEquals([0, 2], result.getFailures().keySet() as List) // unsupported kty is not a failure
+        assertTrue result.getFailures().get(0) instanceof MalformedKeyException
+        assertEquals "JWK Set 'keys' array elements must be JSON objects.", result.getFailures().get(2).getMessage()
+    }
+
+    @Test
+    void testParseSetLenientWithInvalidParameterValues() {
+        def oct = Jwks.builder().forKey(TestKeys.HS256).setId('oct').build()
+        def keys = [[:], [kty: 'oct', k: 42], oct]
+        def result = Jwks.parser().build().parseSetLenient(jwkSetStream(keys))
+        assertEquals([oct], result.getJwkSet().getKeys())
+        assertEquals([0, 1], result.getFailures().keySet() as List)
+        result.getFailures().values().each { KeyException e ->
+            assertTrue e instanceof MalformedKeyException
+            assertTrue e.getMessage().startsWith('Invalid JWK: ')
+            assertTrue e.getCause() instanceof RuntimeException
+        }
+        try {
+            Jwks.parser().build().parseSet(jwkSetStream(keys))
+            fail()
+        } catch (MalformedKeyException expected) { // first failure in document order:
+            assertSame result.getFailures().get(0).getCause().getClass(), expected.getCause().getClass()
+        }
+    }
+
+    @Test
+    void testParseSetLenientWithoutKeys() {
+        try {
+            Jwks.parser().build().parseSetLenient(new ByteArrayInputStream('{}'.getBytes(StandardCharsets.UTF_8)))
+            fail()
+        } catch (MalformedKeyException expected) {
+            assertTrue expected.getMessage().startsWith("JWK Set JSON must contain a 'keys' array member")
+        }
+    }
+
+    @Test
+    void testParseSetParallel() {
+        int count = DefaultJwkParser.PARALLEL_THRESHOLD * 3 + 5
+        def jwks = secretJwks(count)
+        def keys = new ArrayList(jwks)
+        keys.set(7, [kty: 'oct', kid: 'bad'])
+        keys.set(100, 'bad')
+        def pool = new ForkJoinPool(4)
+        try {
+            def parser = Jwks.parser().setForkJoinPool(pool).build()
+            def result = parser.parseSetLenient(jwkSetStream(keys))
+            assertEquals([7, 100], result.getFailures().keySet() as List)
+            def expected = new ArrayList(jwks)
+            expected.remove(100)
+            expected.remove(7)
+            assertEquals expected, result.getJwkSet().getKeys() // document order retained
+
+            assertEquals jwks, parser.parseSet(jwkSetStream(jwks)).getKeys()
+
+            try {
+                parser.parseSet(jwkSetStream(keys))
+                fail()
+            } catch (MalformedKeyException expected1) { // first failure in document order:
+                assertNotEquals "JWK Set 'keys' array elements must be JSON objects.", expected1.getMessage()
+            }
+        } finally {
+            pool.shutdown()
         }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security
+
+import io.jsonwebtoken.Header
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.impl.DefaultJwsHeader
+import io.jsonwebtoken.impl.lang.Services
+import io.jsonwebtoken.io.Serializer
+import io.jsonwebtoken.lang.Supplier
+import io.jsonwebtoken.security.Jwks
+import org.junit.Test
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+import static org.junit.Assert.*
+
+class DefaultJwkSetLocatorBuilderTest {
+
+    static final Executor DIRECT = new Executor() {
+        @Override
+        void execute(Runnable command) {
+            command.run()
+        }
+    }
+
+    static String json() {
+        def jwk = Jwks.builder().forKey(TestKeys.HS256).setAlgorithm('HS256').setId('a').build()
+        return new String(Services.loadFirst(Serializer).serialize([keys: [jwk]]), StandardCharsets.UTF_8)
+    }
+
+    @Test
+    void testSupplierSource() {
+        def locator = Jwks.locator().setSource({ json() } as Supplier<String>).setExecutor(DIRECT).build()
+        String jws = Jwts.builder().setSubject('joe').setHeader([kid: 'a']).signWith(TestKeys.HS256).compact()
+        def parsed = Jwts.parserBuilder().setKeyLocator(locator).build().parseClaimsJws(jws)
+        assertEquals 'joe', parsed.getPayload().getSubject()
+    }
+
+    @Test
+    void testUrlSource() {
+        File file = File.createTempFile('jwks', '.json')
+        file.deleteOnExit()
+        Files.write(file.toPath(), json().getBytes(StandardCharsets.UTF_8))
+        def locator = Jwks.locator().setSource(file.toURI().toURL()).setExecutor(DIRECT)
+                .setTimeToLive(1, TimeUnit.MINUTES).setRefreshAhead(10, TimeUnit.SECONDS)
+                .setMinRefreshInterval(1, TimeUnit.SECONDS).build()
+        assertEquals TestKeys.HS256, locator.locate((Header) new DefaultJwsHeader([alg: 'HS256', kid: 'a']))
+    }
+
+    @Test
+    void testUnreadableUrlSource() {
+        def locator = Jwks.locator().setSource(new URL('file:/does/not/exist.json')).setExecutor(DIRECT).build()
+        def failure = (locator as CachingJwkSetLocator).getLastFailure()
+        assertTrue failure instanceof io.jsonwebtoken.io.IOException
+        assertTrue failure.getMessage().startsWith('Unable to read JWK Set from file:/does/not/exist.json')
+    }
+
+    @Test
+    void testUrlSourceReadTimeout() {
+        def server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()) // accepts, but never responds
+        try {
+            def url = new URL('http://127.0.0.1:' + server.getLocalPort() + '/jwks.json')
+            long start = System.currentTimeMillis()
+            def locator = Jwks.locator().setSource(url).setExecutor(DIRECT)
+                    .setConnectTimeout(1, TimeUnit.SECONDS).setReadTimeout(100, TimeUnit.MILLISECONDS).build()
+            assertTrue System.currentTimeMillis() - start < 5000
+            def failure = (locator as CachingJwkSetLocator).getLastFailure()
+            assertTrue failure.getCause() instanceof SocketTimeoutException
+        } finally {
+            server.close()
+        }
+    }
+
+    @Test
+    void testInvalidTimeouts() {
+        def builder = Jwks.locator()
+        [-1L, Integer.MAX_VALUE + 1L].each { long millis ->
+            try {
+                builder.setConnectTimeout(millis, TimeUnit.MILLISECONDS)
+                fail()
+            } catch (IllegalArgumentException expected) {
+                assertTrue expected.getMessage().startsWith('Connect timeout must be between zero and ')
+            }
+            try {
+                builder.setReadTimeout(millis, TimeUnit.MILLISECONDS)
+                fail()
+            } catch (IllegalArgumentException expected) {
+                assertTrue expected.getMessage().startsWith('Read timeout must be between zero and ')
+            }
+        }
+    }
+
+    @Test
+    void testDefaultExecutor() {
+        def locator = Jwks.locator().setSource({ json() } as Supplier<String>).build()
+        Header header = new DefaultJwsHeader([alg: 'HS256', kid: 'a'])
+        long deadline = System.currentTimeMillis() + 5000
+        while (locator.locate((Header) header) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        assertEquals TestKeys.HS256, locator.locate((Header) header)
+    }
+
+    @Test(expected = IllegalStateException)
+    void testMissingSource() {
+        Jwks.locator().build()
+    }
+}
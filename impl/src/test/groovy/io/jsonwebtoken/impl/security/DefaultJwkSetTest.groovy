@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security
+
+import io.jsonwebtoken.security.Jwk
+import io.jsonwebtoken.security.Jwks
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class DefaultJwkSetTest {
+
+    @Test
+    void testIndexes() {
+        def rsa = Jwks.builder().forKey(TestKeys.RS256.pair.public).setId('a').setPublicKeyUse('sig')
+                .setAlgorithm('RS256').build()
+        def ec = Jwks.builder().forKey(TestKeys.ES256.pair.public).setId('a').build()
+        def oct = Jwks.builder().forKey(TestKeys.HS256).setAlgorithm('HS256').build()
+        def set = new DefaultJwkSet([rsa, ec, oct])
+
+        assertEquals([rsa, ec, oct], set.getKeys())
+        assertEquals([rsa, ec, oct], set.iterator().collect())
+        assertEquals([rsa, ec], set.findByKeyId('a'))
+        assertTrue set.findByKeyId('b').isEmpty()
+        assertTrue set.findByKeyId(null).isEmpty()
+
+        assertSame ec, set.findByThumbprint(ec.thumbprint().toString())
+        assertNull set.findByThumbprint('foo')
+        assertNull set.findByThumbprint(null)
+
+        assertEquals([rsa], set.find('RSA', 'RS256', 'sig'))
+        assertTrue set.find('RSA', 'RS256', null).isEmpty()
+        assertEquals([ec], set.find('EC', null, null))
+        assertEquals([oct], set.find('oct', 'HS256', null))
+        assertEquals(['RSA', 'EC', 'oct'] as Set, set.getTypes())
+    }
+
+    @Test
+    void testImmutable() {
+        def set = new DefaultJwkSet([Jwks.builder().forKey(TestKeys.HS256).setId('a').build()])
+        try {
+            set.getKeys().clear()
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+        try {
+            set.findByKeyId('a').clear()
+            fail()
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        def set = new DefaultJwkSet(Collections.<Jwk<?>> emptyList())
+        assertTrue set.getKeys().isEmpty()
+        assertTrue set.find('oct', null, null).isEmpty()
+        assertNotNull set.toKeyLocator()
+        assertEquals 'JwkSet{keys=[]}', set.toString()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNullKeys() {
+        new DefaultJwkSet(null)
+    }
+}
@@ -18,8 +18,9 @@ package io.jsonwebtoken.impl.security
 import io.jsonwebtoken.security.*
 import org.junit.Test
 
-import static org.junit.Assert.assertEquals
-import static org.junit.Assert.fail
+import java.security.interfaces.ECPublicKey
+
+import static org.junit.Assert.*
 
 class JwkConverterTest {
 
@@ -108,4 +109,42 @@ class JwkConverterTest {
             assertEquals msg, expected.getMessage()
         }
     }
+
+    @Test
+    void testEphemeralPublicJwkCached() {
+        def key = TestKeys.ES256.pair.public as ECPublicKey
+        Map<String, ?> values = new LinkedHashMap<>(Jwks.builder().forKey(key).build())
+        def converter = new JwkConverter<>(PublicJwk.class, new io.jsonwebtoken.impl.lang.LruCache(2))
+        def jwk = converter.applyFrom(values)
+        assertSame jwk, converter.applyFrom(new LinkedHashMap<>(values)) // same JWK instance returned from cache
+        assertEquals key, jwk.toKey()
+    }
+
+    @Test
+    void testEphemeralPublicJwkNotCachedForNonStringValues() {
+        def key = TestKeys.ES256.pair.public as ECPublicKey
+        Map<String, ?> values = new LinkedHashMap<>(Jwks.builder().forKey(key).build())
+        values.put('key_ops', ['deriveKey'])
+        def converter = new JwkConverter<>(PublicJwk.class, new io.jsonwebtoken.impl.lang.LruCache(2))
+        def jwk = converter.applyFrom(values)
+        assertNotSame jwk, converter.applyFrom(values)
+        assertEquals jwk, converter.applyFrom(values)
+    }
+
+    @Test
+    void testEphemeralPublicJwkInvalidNotCached() {
+        def key = TestKeys.ES256.pair.public as ECPublicKey
+        Map<String, ?> values = new LinkedHashMap<>(Jwks.builder().forKey(key).build())
+        values.put('x', values.get('y')) // point no longer on the curve
+        def cache = new io.jsonwebtoken.impl.lang.LruCache(2)
+        def converter = new JwkConverter<>(PublicJwk.class, cache)
+        for (int i = 0; i < 2; i++) { // invalid values must fail every time, not just the first
+            try {
+                converter.applyFrom(values)
+                fail()
+            } catch (InvalidKeyException expected) {
+            }
+        }
+        assertEquals 0, cache.size()
+    }
 }
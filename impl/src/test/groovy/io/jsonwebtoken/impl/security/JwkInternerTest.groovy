@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security
+
+import io.jsonwebtoken.security.Jwks
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class JwkInternerTest {
+
+    JwkInterner interner
+
+    static Map<String, ?> data(def jwk) {
+        return new LinkedHashMap<String, Object>(jwk as Map<String, Object>)
+    }
+
+    @Before
+    void setUp() {
+        interner = new JwkInterner(2)
+    }
+
+    @Test
+    void testThumbprintMatchesJwkThumbprint() {
+        def all = [TestKeys.RS256, TestKeys.ES256, TestKeys.Ed25519, TestKeys.X25519]
+        for (def bundle : all) {
+            def jwk = Jwks.builder().forKey(bundle.pair.public).setId('test').build()
+            assertEquals jwk.thumbprint().toString(), JwkInterner.thumbprint(data(jwk))
+        }
+    }
+
+    @Test
+    void testThumbprintNotInternable() {
+        assertNull JwkInterner.thumbprint([kty: 'oct', k: 'foo'])
+        assertNull JwkInterner.thumbprint([kty: 'RSA', n: 'foo', e: 'AQAB', d: 'bar']) // private
+        assertNull JwkInterner.thumbprint([kty: 'RSA', n: 'foo', e: 'AQAB', custom: 'bar']) // unknown member
+        assertNull JwkInterner.thumbprint([kty: 'RSA', n: 'foo']) // missing required value
+        assertNull JwkInterner.thumbprint([kty: 'RSA', n: 'foo', e: 65537]) // wrong type
+        assertNull JwkInterner.thumbprint([kty: 42])
+        assertNull JwkInterner.thumbprint([n: 'foo', e: 'AQAB'])
+    }
+
+    @Test
+    void testIntern() {
+        def jwk = Jwks.builder().forKey(TestKeys.ES256.pair.public).setId('a').build()
+        def first = interner.intern(data(jwk))
+        assertEquals jwk, first
+        assertSame first, interner.intern(data(jwk))
+        assertEquals 1, interner.size()
+    }
+
+    @Test
+    void testInternDifferentMetadataReusesKey() {
+        def jwk = Jwks.builder().forKey(TestKeys.RS256.pair.public).setId('a').build()
+        def first = interner.intern(data(jwk))
+
+        def m = data(jwk)
+        m.put('kid', 'b')
+        def second = interner.intern(m)
+        assertNotSame first, second
+        assertEquals 'b', second.getId()
+        assertSame first.toKey(), second.toKey()
+        assertSame second, interner.intern(m) // latest wins
+        assertEquals 1, interner.size()
+    }
+
+    @Test
+    void testInternNotInternable() {
+        def jwk = Jwks.builder().forKey(TestKeys.ES256.pair.private).build()
+        def m = data(jwk)
+        def first = interner.intern(m)
+        assertEquals jwk, first
+        assertNotSame first, interner.intern(m)
+        assertEquals 0, interner.size()
+    }
+
+    @Test
+    void testBounded() {
+        [TestKeys.RS256, TestKeys.ES256, TestKeys.Ed25519].each {
+            interner.intern(data(Jwks.builder().forKey(it.pair.public).build()))
+        }
+        assertEquals 2, interner.size()
+        interner.clear()
+        assertEquals 0, interner.size()
+    }
+
+    @Test
+    void testParser() {
+        def json = '{"kty":"EC","crv":"P-256","x":"f83OJ3D2xF1Bg8vub9tLe1gHMzV76e8Tus9uPHvRVEU",' +
+                '"y":"x_FEzRu9m36HLN_tue659LNpXW6pCyStikYjKIWI5a0","kid":"a"}'
+        def parser = Jwks.parser().internPublicJwks(true).build()
+        assertSame parser.parse(json), parser.parse(json)
+        def plain = Jwks.parser().build()
+        assertNotSame plain.parse(json), plain.parse(json)
+    }
+}
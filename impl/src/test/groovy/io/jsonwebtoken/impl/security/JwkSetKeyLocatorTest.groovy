@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2023 jsonwebtoken.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.jsonwebtoken.impl.security
+
+import io.jsonwebtoken.Jwts
+import io.jsonwebtoken.impl.DefaultJweHeader
+import io.jsonwebtoken.impl.DefaultJwsHeader
+import io.jsonwebtoken.security.Jwks
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class JwkSetKeyLocatorTest {
+
+    static DefaultJwsHeader jws(Map m) {
+        return new DefaultJwsHeader(m)
+    }
+
+    static DefaultJweHeader jwe(Map m) {
+        return new DefaultJweHeader(m)
+    }
+
+    @Test
+    void testLocateByKeyId() {
+        def pair = TestKeys.RS256.pair
+        def ec = TestKeys.ES256.pair
+        def set = new DefaultJwkSet([
+                Jwks.builder().forKey(TestKeys.HS256).setId('a').build(),
+                Jwks.builder().forKey(pair.public).setId('b').setPublicKeyUse('sig').build(),
+                Jwks.builder().forKey(pair.private).setId('b').setPublicKeyUse('enc').build(),
+                Jwks.builder().forKey(ec.private).setId('e').build()
+        ])
+        def locator = set.toKeyLocator()
+        assertEquals TestKeys.HS256, locator.locate(jws([alg: 'HS256', kid: 'a']))
+        assertEquals pair.public, locator.locate(jws([alg: 'RS256', kid: 'b']))
+        assertEquals pair.private, locator.locate(jwe([alg: 'RSA-OAEP', enc: 'A128GCM', kid: 'b']))
+        // the public key of a private JWK is used for verification:
+        assertEquals ec.public, locator.locate(jws([alg: 'ES256', kid: 'e']))
+        assertEquals ec.private, locator.locate(jwe([alg: 'ECDH-ES', enc: 'A128GCM', kid: 'e']))
+        assertNull locator.locate(jws([alg: 'HS256', kid: 'c']))
+        assertNull locator.locate(jwe([alg: 'RSA-OAEP', enc: 'A128GCM', kid: 'x']))
+    }
+
+    @Test
+    void testLocateByThumbprint() {
+        def jwk = Jwks.builder().forKey(TestKeys.ES256.pair.public).build()
+        def locator = new DefaultJwkSet([jwk]).toKeyLocator()
+        assertEquals jwk.toKey(), locator.locate(jws([alg: 'ES256', kid: jwk.thumbprint().toString()]))
+        assertNull locator.locate(jwe([alg: 'ECDH-ES', enc: 'A128GCM', kid: jwk.thumbprint().toString()]))
+    }
+
+    @Test
+    void testLocateByAlgorithm() {
+        def hs256 = Jwks.builder().forKey(TestKeys.HS256).setAlgorithm('HS256').build()
+        def hs384 = Jwks.builder().forKey(TestKeys.HS384).setAlgorithm('HS384').build()
+        def a128kw = Jwks.builder().forKey(TestKeys.A128KW).setAlgorithm('A128KW').build()
+        def locator = new DefaultJwkSet([hs256, hs384, a128kw]).toKeyLocator()
+        assertEquals TestKeys.HS256, locator.locate(jws([alg: 'HS256']))
+        assertEquals TestKeys.HS384, locator.locate(jws([alg: 'HS384']))
+        assertEquals TestKeys.A128KW, locator.locate(jwe([alg: 'A128KW', enc: 'A128GCM']))
+        assertNull locator.locate(jws([alg: 'HS512']))
+    }
+
+    @Test
+    void testLocateByAlgorithmAmbiguous() {
+        def a = Jwks.builder().forKey(TestKeys.HS256).setAlgorithm('HS256').build()
+        def b = Jwks.builder().forKey(Jwts.SIG.HS256.keyBuilder().build()).setAlgorithm('HS256').build()
+        def locator = new DefaultJwkSet([a, b]).toKeyLocator()
+        assertNull locator.locate(jws([alg: 'HS256']))
+    }
+
+    @Test
+    void testLocateIncompatibleAlgorithm() {
+        def jwk = Jwks.builder().forKey(TestKeys.HS256).setId('a').setAlgorithm('HS256').build()
+        def locator = new DefaultJwkSet([jwk]).toKeyLocator()
+        assertNull locator.locate(jws([alg: 'HS384', kid: 'a']))
+    }
+
+    @Test
+    void testParserIntegration() {
+        def pair = TestKeys.ES256.pair
+        def set = new DefaultJwkSet([Jwks.builder().forKey(pair.public).setId('ec').build()])
+        String jws = Jwts.builder().setSubject('joe').setHeader([kid: 'ec']).signWith(pair.private).compact()
+        def parsed = Jwts.parserBuilder().setKeyLocator(set.toKeyLocator()).build().parseClaimsJws(jws)
+        assertEquals 'joe', parsed.getPayload().getSubject()
+    }
+}
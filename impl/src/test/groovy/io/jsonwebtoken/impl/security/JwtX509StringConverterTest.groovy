@@ -89,4 +89,28 @@ class JwtX509StringConverterTest {
             assertEquals expectedMsg, expected.getMessage()
         }
     }
+
+    @Test
+    void testApplyFromCachesCertificates() {
+        int count = 0
+        def converter = new JwtX509StringConverter() {
+            @Override
+            protected CertificateFactory newCertificateFactory() throws CertificateException {
+                count++
+                return super.newCertificateFactory()
+            }
+        }
+        def s1 = converter.applyTo(TestKeys.RS256.cert)
+        def s2 = converter.applyTo(TestKeys.ES256.cert)
+
+        def cert1 = converter.applyFrom(s1)
+        assertEquals TestKeys.RS256.cert, cert1
+        assertSame cert1, converter.applyFrom(s1)
+        assertSame cert1, converter.applyFrom(new String(s1)) // equal content, not identity
+        def cert2 = converter.applyFrom(s2)
+        assertEquals TestKeys.ES256.cert, cert2
+        assertSame cert2, converter.applyFrom(s2)
+
+        assertEquals 1, count // factory is reused
+    }
 }
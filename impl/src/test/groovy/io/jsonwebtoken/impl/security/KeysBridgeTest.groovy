@@ -15,12 +15,14 @@
  */
 package io.jsonwebtoken.impl.security
 
-
+import io.jsonwebtoken.security.InvalidKeyException
+import io.jsonwebtoken.security.KeySupplier
 import org.junit.Test
 
+import javax.crypto.SecretKey
 import java.security.Key
 
-import static org.junit.Assert.assertEquals
+import static org.junit.Assert.*
 
 class KeysBridgeTest {
 
@@ -57,4 +59,33 @@ class KeysBridgeTest {
     void testToStringPassword() {
         testFormattedOutput(new PasswordSpec("foo".toCharArray()))
     }
+
+    static KeySupplier<Key> supplier(Key key) {
+        return new KeySupplier<Key>() {
+            @Override
+            Key getKey() {
+                return key
+            }
+        }
+    }
+
+    @Test
+    void testAssertType() {
+        def key = TestKeys.HS256
+        assertSame key, KeysBridge.assertType(supplier(key), SecretKey.class, 'dir')
+        assertNull KeysBridge.assertType(supplier(null), SecretKey.class, 'dir')
+    }
+
+    @Test
+    void testAssertTypeMismatch() {
+        def key = TestKeys.RS256.pair.private
+        try {
+            KeysBridge.assertType(supplier(key), SecretKey.class, 'dir')
+            fail()
+        } catch (InvalidKeyException expected) {
+            String msg = "The 'dir' algorithm requires a javax.crypto.SecretKey key, but the provided key is a " +
+                    "${key.getClass().getName()} instance."
+            assertEquals msg, expected.getMessage()
+        }
+    }
 }
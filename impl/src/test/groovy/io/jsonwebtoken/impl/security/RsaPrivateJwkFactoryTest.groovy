@@ -15,6 +15,7 @@
  */
 package io.jsonwebtoken.impl.security
 
+import io.jsonwebtoken.Jwts
 import io.jsonwebtoken.impl.lang.Converters
 import io.jsonwebtoken.security.Jwks
 import io.jsonwebtoken.security.RsaPrivateJwk
@@ -206,6 +207,69 @@ class RsaPrivateJwkFactoryTest {
         assertEquals jwk, jwkFromValues
     }
 
+    @Test
+    void testCreateJwkFromMinimalValuesDerivesCrtKey() {
+        def pair = TestKeys.RS256.pair
+        RSAPrivateCrtKey expected = pair.private as RSAPrivateCrtKey
+        def priv = new TestRSAPrivateKey(expected)
+        def map = new LinkedHashMap(Jwks.builder().forKey(priv).setPublicKey(pair.public as RSAPublicKey).build())
+
+        RsaPrivateJwk jwk = Jwks.builder().putAll(map).build() as RsaPrivateJwk
+        assertEquals 4, jwk.size() // the JWK itself is not modified
+
+        def key = jwk.toKey()
+        assertTrue key instanceof RSAPrivateCrtKey
+        RSAPrivateCrtKey crt = key as RSAPrivateCrtKey
+        assertEquals expected.getPrimeP().max(expected.getPrimeQ()), crt.getPrimeP()
+        assertEquals expected.getPrimeP().min(expected.getPrimeQ()), crt.getPrimeQ()
+        assertEquals crt.getPrivateExponent().mod(crt.getPrimeP().subtract(BigInteger.ONE)), crt.getPrimeExponentP()
+        assertEquals crt.getPrivateExponent().mod(crt.getPrimeQ().subtract(BigInteger.ONE)), crt.getPrimeExponentQ()
+        assertEquals crt.getPrimeQ().modInverse(crt.getPrimeP()), crt.getCrtCoefficient()
+
+        // the completed JWK can be obtained from the derived key:
+        def completed = Jwks.builder().forKey(crt).build()
+        assertEquals 9, completed.size()
+        assertEquals jwk.get(DefaultRsaPrivateJwk.PRIVATE_EXPONENT.getId()), completed.get(DefaultRsaPrivateJwk.PRIVATE_EXPONENT.getId())
+
+        // and the derived key is functional:
+        String jws = Jwts.builder().setSubject('test').signWith(crt, Jwts.SIG.RS256).compact()
+        assertEquals 'test', Jwts.parserBuilder().verifyWith(pair.public).build().parseClaimsJws(jws).getPayload().getSubject()
+    }
+
+    @Test
+    void testDeriveCrtSpec() {
+        RSAPrivateCrtKey key = TestKeys.RS512.pair.private as RSAPrivateCrtKey
+        def spec = RsaPrivateJwkFactory.deriveCrtSpec(key.getModulus(), key.getPublicExponent(), key.getPrivateExponent())
+        assertEquals key.getModulus(), spec.getPrimeP().multiply(spec.getPrimeQ())
+        assertEquals key.getPublicExponent(), spec.getPublicExponent()
+        assertEquals key.getPrivateExponent(), spec.getPrivateExponent()
+    }
+
+    @Test
+    void testDeriveCrtSpecInvalidValues() {
+        RSAPrivateCrtKey key = TestKeys.RS256.pair.private as RSAPrivateCrtKey
+        def n = key.getModulus()
+        def e = key.getPublicExponent()
+        def d = key.getPrivateExponent()
+        assertNull RsaPrivateJwkFactory.deriveCrtSpec(n, e, d.add(BigInteger.ONE)) // d*e - 1 is odd
+        assertNull RsaPrivateJwkFactory.deriveCrtSpec(n, e, d.add(BigInteger.valueOf(2))) // wrong d
+        assertNull RsaPrivateJwkFactory.deriveCrtSpec(n.add(BigInteger.ONE), e, d) // even modulus
+        assertNull RsaPrivateJwkFactory.deriveCrtSpec(BigInteger.ZERO, e, d)
+        assertNull RsaPrivateJwkFactory.deriveCrtSpec(n, BigInteger.ONE, BigInteger.ONE) // k == 0
+    }
+
+    @Test
+    void testCreateJwkFromInconsistentMinimalValues() {
+        def pair = TestKeys.RS256.pair
+        def priv = new TestRSAPrivateKey(pair.private as RSAPrivateKey)
+        def map = new LinkedHashMap(Jwks.builder().forKey(priv).setPublicKey(pair.public as RSAPublicKey).build())
+        // a private exponent that doesn't match the modulus can't be factored, so it's retained as a non-CRT key:
+        def d = (pair.private as RSAPrivateKey).getPrivateExponent().add(BigInteger.valueOf(2))
+        map.put('d', Converters.BIGINT.applyTo(d))
+        def key = Jwks.builder().putAll(map).build().toKey()
+        assertFalse key instanceof RSAPrivateCrtKey
+    }
+
     @Test
     void testCreateJwkFromMultiPrimeValues() {
         def pair = TestKeys.RS256.pair